@@ -0,0 +1,247 @@
+package pl.pateman.entitygenerator.gradle;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import javax.inject.Inject;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Classpath;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.workers.IsolationMode;
+import org.gradle.workers.WorkerExecutor;
+
+/**
+ * Generates entity sources from schemas found in the generator classpath.
+ *
+ * The task declares all of its inputs (the generator classpath, schema files, templates, schema patterns, the
+ * generator version and options) and its output directory, so it's skipped when they haven't changed, and its outputs
+ * can be taken from the build cache. The output directory is owned by the task, and it's cleared before each run.
+ * The generator runs as a single worker, in a class loader with the generator classpath - it reads and resolves the
+ * model once, and renders entities on several threads. If owned schema patterns are given, only entities of the
+ * matching schemas (e.g. the schemas of the project's module) are generated, and other schemas are only used to
+ * resolve what these entities depend on. If a lint report is requested, the whole model is linted as well.
+ */
+@CacheableTask
+public class GenerateEntitiesTask extends DefaultTask {
+
+  private final WorkerExecutor workerExecutor;
+  private FileCollection generatorClasspath;
+  private FileCollection verifyClasspath;
+  private FileCollection schemaFiles;
+  private FileCollection templateFiles;
+  private List<String> schemasPatterns = new ArrayList<>();
+  private List<String> ownedSchemasPatterns = new ArrayList<>();
+  private String generatorVersion;
+  private boolean verifySources;
+  private int renderThreads = Runtime.getRuntime().availableProcessors();
+  private File outputDir;
+  private File parseCacheDir;
+  private File lintReport;
+  private String lintSeverities = "";
+  private int ioConcurrency;
+
+  @Inject
+  public GenerateEntitiesTask(final WorkerExecutor workerExecutor) {
+    this.workerExecutor = workerExecutor;
+  }
+
+  @TaskAction
+  public void generate() {
+    getProject().delete(this.outputDir);
+    if (!this.outputDir.mkdirs()) {
+      throw new IllegalStateException("Unable to create the output directory '" + this.outputDir + "'");
+    }
+
+    //  Workers would each resolve the whole model, so there's one, which renders entities on a pool of threads.
+    this.workerExecutor.submit(GenerateEntitiesWork.class, config -> {
+      config.setIsolationMode(IsolationMode.CLASSLOADER);
+      config.setDisplayName("Generating entities");
+      config.classpath(this.generatorClasspath);
+      config.params(this.outputDir, new ArrayList<>(this.schemasPatterns), new ArrayList<>(this.ownedSchemasPatterns),
+          this.verifySources, this.parseCacheDir == null ? "" : this.parseCacheDir.getAbsolutePath(),
+          Math.max(1, this.renderThreads), this.lintReport == null ? "" : this.lintReport.getAbsolutePath(),
+          this.lintSeverities, this.ioConcurrency,
+          this.verifyClasspath == null ? "" : this.verifyClasspath.getAsPath());
+    });
+    this.workerExecutor.await();
+  }
+
+  @Classpath
+  public FileCollection getGeneratorClasspath() {
+    return this.generatorClasspath;
+  }
+
+  public void setGeneratorClasspath(final FileCollection generatorClasspath) {
+    this.generatorClasspath = generatorClasspath;
+  }
+
+  /**
+   * Returns the class path which generated sources are verified against. It has to contain everything which generated
+   * sources depend on (like the persistence API) - the class path of the build isn't used.
+   *
+   * @return Verification class path, or {@code null} if sources should be verified against the class path of the
+   * worker's JVM.
+   */
+  @Classpath
+  @Optional
+  public FileCollection getVerifyClasspath() {
+    return this.verifyClasspath;
+  }
+
+  public void setVerifyClasspath(final FileCollection verifyClasspath) {
+    this.verifyClasspath = verifyClasspath;
+  }
+
+  @InputFiles
+  @PathSensitive(PathSensitivity.RELATIVE)
+  public FileCollection getSchemaFiles() {
+    return this.schemaFiles;
+  }
+
+  public void setSchemaFiles(final FileCollection schemaFiles) {
+    this.schemaFiles = schemaFiles;
+  }
+
+  @InputFiles
+  @PathSensitive(PathSensitivity.RELATIVE)
+  public FileCollection getTemplateFiles() {
+    return this.templateFiles;
+  }
+
+  public void setTemplateFiles(final FileCollection templateFiles) {
+    this.templateFiles = templateFiles;
+  }
+
+  @Input
+  public List<String> getSchemasPatterns() {
+    return this.schemasPatterns;
+  }
+
+  public void setSchemasPatterns(final List<String> schemasPatterns) {
+    this.schemasPatterns = schemasPatterns;
+  }
+
+  /**
+   * Returns patterns of schemas whose entities are generated. If there are none, entities of all schemas are.
+   *
+   * @return Owned schema patterns.
+   */
+  @Input
+  public List<String> getOwnedSchemasPatterns() {
+    return this.ownedSchemasPatterns;
+  }
+
+  public void setOwnedSchemasPatterns(final List<String> ownedSchemasPatterns) {
+    this.ownedSchemasPatterns = ownedSchemasPatterns;
+  }
+
+  @Input
+  public String getGeneratorVersion() {
+    return this.generatorVersion;
+  }
+
+  public void setGeneratorVersion(final String generatorVersion) {
+    this.generatorVersion = generatorVersion;
+  }
+
+  @Input
+  public boolean isVerifySources() {
+    return this.verifySources;
+  }
+
+  public void setVerifySources(final boolean verifySources) {
+    this.verifySources = verifySources;
+  }
+
+  /**
+   * Returns the number of threads which render entities, once the model has been resolved. It doesn't affect the
+   * outputs.
+   *
+   * @return Number of render threads.
+   */
+  @Internal
+  public int getRenderThreads() {
+    return this.renderThreads;
+  }
+
+  public void setRenderThreads(final int renderThreads) {
+    this.renderThreads = renderThreads;
+  }
+
+  @OutputDirectory
+  public File getOutputDir() {
+    return this.outputDir;
+  }
+
+  public void setOutputDir(final File outputDir) {
+    this.outputDir = outputDir;
+  }
+
+  /**
+   * Returns the directory of the parse cache shared by subsequent runs. It doesn't affect the outputs.
+   *
+   * @return Parse cache directory, or {@code null} if schemas shouldn't be cached.
+   */
+  @Internal
+  public File getParseCacheDir() {
+    return this.parseCacheDir;
+  }
+
+  public void setParseCacheDir(final File parseCacheDir) {
+    this.parseCacheDir = parseCacheDir;
+  }
+
+  /**
+   * Returns the file which the lint report is written into (as SARIF, if it ends with '.sarif', or as JSON otherwise).
+   *
+   * @return Lint report file, or {@code null} if the model shouldn't be linted.
+   */
+  @OutputFile
+  @Optional
+  public File getLintReport() {
+    return this.lintReport;
+  }
+
+  public void setLintReport(final File lintReport) {
+    this.lintReport = lintReport;
+  }
+
+  /**
+   * Returns severities of lint rules which override their defaults, e.g. 'wide-entity=off,bag-collection=error'.
+   *
+   * @return Severities of lint rules.
+   */
+  @Input
+  public String getLintSeverities() {
+    return this.lintSeverities;
+  }
+
+  public void setLintSeverities(final String lintSeverities) {
+    this.lintSeverities = lintSeverities;
+  }
+
+  /**
+   * Returns the maximum number of schemas read, and sources written, concurrently - on virtual threads, if the runtime
+   * of the build supports them. It doesn't affect the outputs.
+   *
+   * @return I/O concurrency, or 0 if files should be read and written one at a time.
+   */
+  @Internal
+  public int getIoConcurrency() {
+    return this.ioConcurrency;
+  }
+
+  public void setIoConcurrency(final int ioConcurrency) {
+    this.ioConcurrency = ioConcurrency;
+  }
+}
@@ -0,0 +1,97 @@
+package pl.pateman.entitygenerator.gradle;
+
+import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import javax.inject.Inject;
+
+/**
+ * A unit of work which generates sources of the entity model. It runs in a class loader with the generator classpath,
+ * and calls {@code GenerateEntitiesExecutor} through reflection, as the build script classpath doesn't contain the
+ * generator.
+ */
+public class GenerateEntitiesWork implements Runnable {
+
+  private static final String EXECUTOR_CLASS_NAME = "pl.pateman.entitygenerator.gradle.GenerateEntitiesExecutor";
+
+  private final File outputDir;
+  private final List<String> schemasPatterns;
+  private final List<String> ownedSchemasPatterns;
+  private final boolean verifySources;
+  private final String parseCacheDir;
+  private final int renderThreads;
+  private final String lintReport;
+  private final String lintSeverities;
+  private final int ioConcurrency;
+  private final String verifyClasspath;
+
+  /**
+   * Creates the work.
+   *
+   * @param outputDir Output directory.
+   * @param schemasPatterns Additional schema patterns.
+   * @param ownedSchemasPatterns Patterns of schemas whose entities are generated, or none, if all of them are.
+   * @param verifySources Whether generated sources should be compiled before they're written.
+   * @param parseCacheDir Path of the parse cache directory, or an empty string if schemas shouldn't be cached.
+   * @param renderThreads Number of threads which render entities.
+   * @param lintReport Path of the lint report, or an empty string if the model shouldn't be linted.
+   * @param lintSeverities Severities of lint rules.
+   * @param ioConcurrency Maximum number of concurrent schema reads and file writes, or 0 if they should be sequential.
+   * @param verifyClasspath Class path which sources are verified against, or an empty string if the class path of the
+   * JVM should be used.
+   */
+  @Inject
+  public GenerateEntitiesWork(final File outputDir, final ArrayList<String> schemasPatterns,
+      final ArrayList<String> ownedSchemasPatterns, final Boolean verifySources, final String parseCacheDir,
+      final Integer renderThreads, final String lintReport, final String lintSeverities,
+      final Integer ioConcurrency, final String verifyClasspath) {
+    this.outputDir = outputDir;
+    this.schemasPatterns = schemasPatterns;
+    this.ownedSchemasPatterns = ownedSchemasPatterns;
+    this.verifySources = verifySources;
+    this.parseCacheDir = parseCacheDir;
+    this.renderThreads = renderThreads;
+    this.lintReport = lintReport;
+    this.lintSeverities = lintSeverities;
+    this.ioConcurrency = ioConcurrency;
+    this.verifyClasspath = verifyClasspath;
+  }
+
+  @Override
+  public void run() {
+    final List<String> args = new ArrayList<>();
+    args.add(this.outputDir.getAbsolutePath());
+    args.addAll(this.schemasPatterns);
+    this.ownedSchemasPatterns.forEach(p -> args.add("--owned=" + p));
+    args.add("--render-threads=" + this.renderThreads);
+    if (this.verifySources) {
+      args.add("--verify-sources");
+      if (!this.verifyClasspath.isEmpty()) {
+        args.add("--verify-classpath=" + this.verifyClasspath);
+      }
+    }
+    if (!this.parseCacheDir.isEmpty()) {
+      args.add("--parse-cache-dir=" + this.parseCacheDir);
+    }
+    if (!this.lintReport.isEmpty()) {
+      args.add("--lint=" + this.lintReport);
+      args.add("--lint-severities=" + this.lintSeverities);
+    }
+    args.add("--io-concurrency=" + this.ioConcurrency);
+
+    try {
+      final Class<?> executorClass = Class.forName(EXECUTOR_CLASS_NAME, true, this.getClass().getClassLoader());
+      final Method main = executorClass.getMethod("main", String[].class);
+      main.invoke(null, (Object) args.toArray(new String[0]));
+    } catch (final InvocationTargetException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException("Entity generation has failed", e.getCause());
+    } catch (final ReflectiveOperationException e) {
+      throw new IllegalStateException("The generator classpath doesn't contain " + EXECUTOR_CLASS_NAME, e);
+    }
+  }
+}
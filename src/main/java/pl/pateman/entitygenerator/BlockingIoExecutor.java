@@ -0,0 +1,256 @@
+package pl.pateman.entitygenerator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs blocking I/O calls, like reads of classpath resources and writes of generated files, concurrently - but at most
+ * a given number of them at once.
+ *
+ * On runtimes which support virtual threads (Java 21 and newer), each call runs on its own virtual thread, so blocked
+ * calls don't hold platform threads. The library targets Java 8, so the runtime is detected reflectively - on older
+ * runtimes, calls run on a pool of platform threads instead. Only I/O should be passed to this executor: CPU-bound
+ * work, like parsing and rendering, belongs on a pool sized by the number of processors.
+ *
+ * This class is thread-safe.
+ */
+public final class BlockingIoExecutor implements Closeable {
+
+  /**
+   * Number of calls which run at once, unless specified otherwise.
+   */
+  public static final int DEFAULT_MAX_CONCURRENCY = 64;
+
+  /**
+   * Number of platform threads per processor used when virtual threads are not supported.
+   */
+  private static final int PLATFORM_THREADS_PER_PROCESSOR = 4;
+
+  private static final Method VIRTUAL_THREAD_EXECUTOR_FACTORY = findVirtualThreadExecutorFactory();
+
+  private final ExecutorService executorService;
+  private final Semaphore permits;
+  private final int maxConcurrency;
+  private final boolean virtualThreads;
+
+  public BlockingIoExecutor() {
+    this(DEFAULT_MAX_CONCURRENCY);
+  }
+
+  /**
+   * Creates an executor which uses virtual threads, if the runtime supports them.
+   *
+   * @param maxConcurrency Maximum number of calls which run at once.
+   */
+  public BlockingIoExecutor(final int maxConcurrency) {
+    this(maxConcurrency, true);
+  }
+
+  /**
+   * Creates an executor.
+   *
+   * @param maxConcurrency Maximum number of calls which run at once.
+   * @param allowVirtualThreads Whether virtual threads should be used if the runtime supports them.
+   */
+  BlockingIoExecutor(final int maxConcurrency, final boolean allowVirtualThreads) {
+    if (maxConcurrency < 1) {
+      throw new IllegalArgumentException("A valid maximum concurrency is required");
+    }
+    this.maxConcurrency = maxConcurrency;
+    this.permits = new Semaphore(maxConcurrency);
+
+    ExecutorService virtualThreadExecutor = null;
+    if (allowVirtualThreads && VIRTUAL_THREAD_EXECUTOR_FACTORY != null) {
+      try {
+        virtualThreadExecutor = (ExecutorService) VIRTUAL_THREAD_EXECUTOR_FACTORY.invoke(null);
+      } catch (final ReflectiveOperationException e) {
+        //  Virtual threads are disabled or unavailable, so platform threads are used.
+      }
+    }
+    this.virtualThreads = virtualThreadExecutor != null;
+    this.executorService = virtualThreadExecutor != null ? virtualThreadExecutor : Executors.newFixedThreadPool(
+        Math.min(maxConcurrency, PLATFORM_THREADS_PER_PROCESSOR * Runtime.getRuntime().availableProcessors()),
+        createPlatformThreadFactory());
+  }
+
+  private static Method findVirtualThreadExecutorFactory() {
+    try {
+      return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+    } catch (final NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+  private static ThreadFactory createPlatformThreadFactory() {
+    final AtomicInteger threadNumber = new AtomicInteger();
+    return runnable -> {
+      final Thread thread = new Thread(runnable, "entity-generator-io-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  /**
+   * Checks whether the runtime supports virtual threads.
+   *
+   * @return {@code true} if it does.
+   */
+  public static boolean isVirtualThreadsSupported() {
+    return VIRTUAL_THREAD_EXECUTOR_FACTORY != null;
+  }
+
+  /**
+   * Checks whether this executor runs calls on virtual threads.
+   *
+   * @return {@code true} if it does, {@code false} if it uses platform threads.
+   */
+  public boolean usesVirtualThreads() {
+    return this.virtualThreads;
+  }
+
+  public int getMaxConcurrency() {
+    return this.maxConcurrency;
+  }
+
+  /**
+   * Calls the given function for each of the given items, each call as a separate task, and waits for all of them.
+   * Tasks are submitted only when a permit is available, so there are never more than
+   * {@link BlockingIoExecutor#getMaxConcurrency()} tasks in flight. A task gives its permit back once it's done -
+   * also if it's been cancelled before it started, e.g. while it was queued for a platform thread.
+   *
+   * @param items Items to process.
+   * @param function Function which processes an item.
+   * @param <T> Type of items.
+   * @param <R> Type of results.
+   * @return A {@link List} of results, in the order of the items.
+   * @throws IOException If any of the calls has failed (the remaining ones are cancelled), or if the calling thread
+   * has been interrupted.
+   */
+  public <T, R> List<R> map(final Collection<? extends T> items, final IoFunction<? super T, ? extends R> function)
+      throws IOException {
+    if (items == null || function == null) {
+      throw new IllegalArgumentException("Valid items and a function are required");
+    }
+
+    final List<Future<? extends R>> futures = new ArrayList<>(items.size());
+    try {
+      for (final T item : items) {
+        this.permits.acquire();
+        final PermitTask<R> task = new PermitTask<>(() -> function.apply(item));
+        try {
+          this.executorService.execute(task);
+        } catch (final RejectedExecutionException e) {
+          this.permits.release();
+          throw e;
+        }
+        futures.add(task);
+      }
+
+      final List<R> results = new ArrayList<>(futures.size());
+      for (final Future<? extends R> future : futures) {
+        results.add(future.get());
+      }
+      return results;
+    } catch (final InterruptedException e) {
+      futures.forEach(f -> f.cancel(true));
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for I/O");
+    } catch (final ExecutionException e) {
+      futures.forEach(f -> f.cancel(true));
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    }
+  }
+
+  /**
+   * Calls the given consumer for each of the given items, just like
+   * {@link BlockingIoExecutor#map(Collection, IoFunction)} does.
+   *
+   * @param items Items to process.
+   * @param consumer Consumer which processes an item.
+   * @param <T> Type of items.
+   * @throws IOException If any of the calls has failed, or if the calling thread has been interrupted.
+   */
+  public <T> void forEach(final Collection<? extends T> items, final IoConsumer<? super T> consumer)
+      throws IOException {
+    if (consumer == null) {
+      throw new IllegalArgumentException("A valid consumer is required");
+    }
+    this.map(items, item -> {
+      consumer.accept(item);
+      return null;
+    });
+  }
+
+  /**
+   * Stops the executor. Calls which are still running are completed.
+   */
+  @Override
+  public void close() {
+    this.executorService.shutdown();
+  }
+
+  /**
+   * A task which gives its permit back when it completes, fails or is cancelled. {@link FutureTask#done()} is called
+   * once, whichever of these happens first, so the permit is released exactly once.
+   *
+   * @param <R> Type of the result.
+   */
+  private final class PermitTask<R> extends FutureTask<R> {
+
+    PermitTask(final Callable<R> callable) {
+      super(callable);
+    }
+
+    @Override
+    protected void done() {
+      BlockingIoExecutor.this.permits.release();
+    }
+  }
+
+  /**
+   * A function which may block on I/O.
+   *
+   * @param <T> Type of the argument.
+   * @param <R> Type of the result.
+   */
+  @FunctionalInterface
+  public interface IoFunction<T, R> {
+
+    R apply(T item) throws IOException;
+  }
+
+  /**
+   * A consumer which may block on I/O.
+   *
+   * @param <T> Type of the argument.
+   */
+  @FunctionalInterface
+  public interface IoConsumer<T> {
+
+    void accept(T item) throws IOException;
+  }
+}
@@ -1,13 +1,24 @@
 package pl.pateman.entitygenerator;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Pattern;
 import org.apache.commons.lang3.StringUtils;
 import org.reflections.Reflections;
 import org.reflections.scanners.ResourcesScanner;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
 import pl.pateman.entitygenerator.exception.EntityGeneratorException;
 
 /**
@@ -20,10 +31,30 @@ import pl.pateman.entitygenerator.exception.EntityGeneratorException;
 public final class ClasspathEntitiesSchemaScanner {
 
   private static final String DEFAULT_SCHEMAS_PATTERN = ".*-entities\\.json";
+  private static final int READ_BUFFER_SIZE = 8 * 1024;
   private final Reflections reflections;
+  private final ClassLoader classLoader;
 
   public ClasspathEntitiesSchemaScanner() {
     this.reflections = new Reflections(null, new ResourcesScanner());
+    this.classLoader = this.getClass().getClassLoader();
+  }
+
+  /**
+   * Creates a scanner which finds and opens resources of the given class loader only (e.g. of an annotation
+   * processor).
+   *
+   * @param classLoader Class loader to scan.
+   */
+  public ClasspathEntitiesSchemaScanner(final ClassLoader classLoader) {
+    if (classLoader == null) {
+      throw new IllegalArgumentException("A valid class loader is required");
+    }
+    this.reflections = new Reflections(new ConfigurationBuilder()
+        .setUrls(ClasspathHelper.forClassLoader(classLoader))
+        .addClassLoader(classLoader)
+        .setScanners(new ResourcesScanner()));
+    this.classLoader = classLoader;
   }
 
   /**
@@ -60,21 +91,132 @@ public final class ClasspathEntitiesSchemaScanner {
    * @return A {@code Collection<InputStream>} of input streams to the provided resource paths.
    */
   public Collection<InputStream> retrieveInputStreamsToResources(final Collection<String> resourcePaths) {
+    return new ArrayList<>(this.retrieveNamedInputStreamsToResources(resourcePaths).values());
+  }
+
+  /**
+   * Retrieves input streams to the provided resource paths, keyed by the resource path.
+   *
+   * @param resourcePaths A {@link Collection<String>} of resource paths that streams should be retrieved for.
+   * @throws IllegalArgumentException If the given resource paths' collection is {@code null}.
+   * @throws EntityGeneratorException If an input stream for any given path could not be found.
+   * @return A {@code Map<String, InputStream>} of resource paths and input streams to them, in the order of the
+   * provided paths.
+   */
+  public Map<String, InputStream> retrieveNamedInputStreamsToResources(final Collection<String> resourcePaths) {
     if (resourcePaths == null) {
       throw new IllegalArgumentException("A valid resourcePaths collection is required");
     }
 
-    final ClassLoader classLoader = this.getClass().getClassLoader();
-    final List<InputStream> inputStreams = new ArrayList<>(resourcePaths.size());
+    final Map<String, InputStream> inputStreams = new LinkedHashMap<>(resourcePaths.size());
 
     for (final String resourcePath : resourcePaths) {
-      final InputStream resource = classLoader.getResourceAsStream(resourcePath);
+      final InputStream resource = this.classLoader.getResourceAsStream(resourcePath);
       if (resource == null) {
         throw new EntityGeneratorException("Unable to open an InputStream for '" + resourcePath + "'");
       }
-      inputStreams.add(resource);
+      inputStreams.put(resourcePath, resource);
     }
 
     return inputStreams;
   }
+
+  /**
+   * Creates lazy sources of the provided resource paths. Unlike
+   * {@link ClasspathEntitiesSchemaScanner#retrieveInputStreamsToResources(Collection)}, nothing is opened until the
+   * sources are processed.
+   *
+   * @param resourcePaths A {@link Collection<String>} of resource paths that sources should be created for.
+   * @throws IllegalArgumentException If the given resource paths' collection is {@code null}.
+   * @return A {@code List<SchemaSource>} of sources, in the order of the provided paths.
+   */
+  public List<SchemaSource> retrieveSchemaSources(final Collection<String> resourcePaths) {
+    if (resourcePaths == null) {
+      throw new IllegalArgumentException("A valid resourcePaths collection is required");
+    }
+
+    final List<SchemaSource> schemaSources = new ArrayList<>(resourcePaths.size());
+    for (final String resourcePath : resourcePaths) {
+      schemaSources.add(SchemaSource.classpath(this.classLoader, resourcePath));
+    }
+    return schemaSources;
+  }
+
+  /**
+   * Reads the provided resources into in-memory sources. Unlike
+   * {@link ClasspathEntitiesSchemaScanner#retrieveSchemaSources(Collection)}, all resources are read up front, each
+   * as a separate call of the given executor, so that reads from many JARs don't wait for each other.
+   *
+   * @param resourcePaths A {@link Collection<String>} of resource paths that sources should be created for.
+   * @param ioExecutor Executor of the reads.
+   * @throws IllegalArgumentException If the given resource paths' collection or the executor is {@code null}.
+   * @throws EntityGeneratorException If any of the resources could not be read.
+   * @return A {@code List<SchemaSource>} of sources, in the order of the provided paths.
+   */
+  public List<SchemaSource> loadSchemaSources(final Collection<String> resourcePaths,
+      final BlockingIoExecutor ioExecutor) {
+    if (resourcePaths == null) {
+      throw new IllegalArgumentException("A valid resourcePaths collection is required");
+    }
+    if (ioExecutor == null) {
+      throw new IllegalArgumentException("A valid I/O executor is required");
+    }
+
+    try {
+      return ioExecutor.map(resourcePaths, this::loadSchemaSource);
+    } catch (final IOException e) {
+      throw new EntityGeneratorException("Unable to read schemas", e);
+    }
+  }
+
+  private SchemaSource loadSchemaSource(final String resourcePath) throws IOException {
+    try (final InputStream resource = this.classLoader.getResourceAsStream(resourcePath)) {
+      if (resource == null) {
+        throw new EntityGeneratorException("Unable to open an InputStream for '" + resourcePath + "'");
+      }
+
+      final ByteArrayOutputStream content = new ByteArrayOutputStream();
+      final byte[] buffer = new byte[READ_BUFFER_SIZE];
+      int read;
+      while ((read = resource.read(buffer)) >= 0) {
+        content.write(buffer, 0, read);
+      }
+      return SchemaSource.of(resourcePath, new String(content.toByteArray(), StandardCharsets.UTF_8));
+    } catch (final IOException e) {
+      throw new IOException("Unable to read '" + resourcePath + "'", e);
+    }
+  }
+
+  /**
+   * Resolves the provided resource paths to files, so that they can be read with
+   * {@link EntityGenerator#generateEntitiesFromFiles(Collection)}. Nothing is opened, so it's safe to resolve any
+   * number of resources at once.
+   *
+   * @param resourcePaths A {@link Collection<String>} of resource paths that files should be resolved for.
+   * @throws IllegalArgumentException If the given resource paths' collection is {@code null}.
+   * @throws EntityGeneratorException If any of the resources could not be found, or if it is not a file (for example
+   * because it's packed in a JAR).
+   * @return A {@code List<Path>} of files, in the order of the provided paths.
+   */
+  public List<Path> resolveSchemaFiles(final Collection<String> resourcePaths) {
+    if (resourcePaths == null) {
+      throw new IllegalArgumentException("A valid resourcePaths collection is required");
+    }
+
+    final List<Path> schemaFiles = new ArrayList<>(resourcePaths.size());
+
+    for (final String resourcePath : resourcePaths) {
+      final URL resource = this.classLoader.getResource(resourcePath);
+      if (resource == null || !"file".equals(resource.getProtocol())) {
+        throw new EntityGeneratorException("Unable to resolve a file for '" + resourcePath + "'");
+      }
+      try {
+        schemaFiles.add(Paths.get(resource.toURI()));
+      } catch (final URISyntaxException e) {
+        throw new EntityGeneratorException("Unable to resolve a file for '" + resourcePath + "'", e);
+      }
+    }
+
+    return schemaFiles;
+  }
 }
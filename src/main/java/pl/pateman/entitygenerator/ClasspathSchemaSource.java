@@ -0,0 +1,95 @@
+package pl.pateman.entitygenerator;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.OptionalLong;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * A {@link SchemaSource} of a classpath resource. The resource path serves as the identifier.
+ *
+ * This class is immutable.
+ */
+final class ClasspathSchemaSource implements SchemaSource {
+
+  private final ClassLoader classLoader;
+  private final String resourcePath;
+
+  ClasspathSchemaSource(final ClassLoader classLoader, final String resourcePath) {
+    if (classLoader == null) {
+      throw new IllegalArgumentException("A valid class loader is required");
+    }
+    if (StringUtils.isBlank(resourcePath)) {
+      throw new IllegalArgumentException("A valid resource path is required");
+    }
+    this.classLoader = classLoader;
+    this.resourcePath = resourcePath;
+  }
+
+  private URL getResource() throws FileNotFoundException {
+    final URL resource = this.classLoader.getResource(this.resourcePath);
+    if (resource == null) {
+      throw new FileNotFoundException("Unable to find resource '" + this.resourcePath + "'");
+    }
+    return resource;
+  }
+
+  private InputStream openStream() throws IOException {
+    return this.getResource().openStream();
+  }
+
+  @Override
+  public String getId() {
+    return resourcePath;
+  }
+
+  @Override
+  public String getFingerprint() throws IOException {
+    try (final InputStream inputStream = this.openStream()) {
+      return Fingerprints.of(inputStream);
+    }
+  }
+
+  @Override
+  public OptionalLong getLastModified() {
+    try {
+      final long lastModified = this.getResource().openConnection().getLastModified();
+      return lastModified > 0 ? OptionalLong.of(lastModified) : OptionalLong.empty();
+    } catch (final IOException e) {
+      return OptionalLong.empty();
+    }
+  }
+
+  @Override
+  public Reader open() throws IOException {
+    return new InputStreamReader(this.openStream(), StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ClasspathSchemaSource that = (ClasspathSchemaSource) o;
+    return Objects.equals(classLoader, that.classLoader) && Objects.equals(resourcePath, that.resourcePath);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(classLoader, resourcePath);
+  }
+
+  @Override
+  public String toString() {
+    return "classpath:" + resourcePath;
+  }
+}
@@ -0,0 +1,919 @@
+package pl.pateman.entitygenerator;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+import pl.pateman.entitygenerator.GeneratedEntity.Attribute;
+import pl.pateman.entitygenerator.GeneratedEntity.Identity;
+import pl.pateman.entitygenerator.GeneratedEntity.RelationInfo;
+import pl.pateman.entitygenerator.GeneratedEntity.RelationInfo.CollectionType;
+import pl.pateman.entitygenerator.GeneratedEntity.RelationInfo.FetchMode;
+import pl.pateman.entitygenerator.GeneratedEntity.RelationInfo.FetchType;
+import pl.pateman.entitygenerator.GeneratedEntity.RelationInfo.Side;
+import pl.pateman.entitygenerator.GeneratedEntity.RelationInfo.Type;
+
+/**
+ * A read-only, compact representation of resolved entity metadata, meant for very large models which are analyzed,
+ * rather than rendered.
+ *
+ * The whole model lives in a single direct {@link ByteBuffer}, outside of the heap. Entities, attributes and relations
+ * are fixed-size records which refer to each other by their indexes, and all strings are stored once, in a sorted
+ * dictionary of UTF-8 bytes. Values which {@link GeneratedEntity} derives on demand (field types, foreign key columns
+ * and join table names) are derived once, when the model is built. Entities are sorted by name, so they're looked up
+ * with a binary search.
+ *
+ * {@link CompactEntity}, {@link CompactAttribute} and {@link CompactRelationInfo} are flyweight views of records, which
+ * expose the same getters as their {@link GeneratedEntity} counterparts and decode values on each call. Indexes and
+ * fetch profiles are not kept.
+ *
+ * This class is immutable and thread-safe - the buffer is only read with absolute methods.
+ */
+public final class CompactEntityModel {
+
+  private static final int MAGIC = 0x4A43454D;
+  private static final int NONE = -1;
+
+  private static final int HEADER_SIZE = 40;
+  private static final int H_ENTITY_COUNT = 4;
+  private static final int H_ATTRIBUTE_COUNT = 8;
+  private static final int H_STRING_COUNT = 12;
+  private static final int H_ENTITIES = 16;
+  private static final int H_ATTRIBUTES = 20;
+  private static final int H_RELATIONS = 24;
+  private static final int H_INTS = 28;
+  private static final int H_STRING_OFFSETS = 32;
+  private static final int H_STRING_DATA = 36;
+
+  private static final int ENTITY_SIZE = 44;
+  private static final int E_NAME = 0;
+  private static final int E_DEPLOYMENT = 4;
+  private static final int E_CLASS_FILE = 8;
+  private static final int E_ROOT = 12;
+  private static final int E_SEQUENCE_NAME = 16;
+  private static final int E_ALLOCATION_SIZE = 20;
+  private static final int E_FIRST_ATTRIBUTE = 24;
+  private static final int E_ATTRIBUTE_COUNT = 28;
+  private static final int E_SCHEMA_FILES = 32;
+  private static final int E_SCHEMA_FILE_COUNT = 36;
+  private static final int E_IDENTITY = 40;
+  private static final int E_EXTERNAL = 41;
+
+  private static final int ATTRIBUTE_SIZE = 32;
+  private static final int A_ENTITY = 0;
+  private static final int A_NAME = 4;
+  private static final int A_TYPE = 8;
+  private static final int A_FIELD_TYPE = 12;
+  private static final int A_FLAGS = 16;
+  private static final int A_FLAG_COUNT = 20;
+  private static final int A_RELATION = 24;
+  private static final int A_BITS = 28;
+  private static final int A_REINTRODUCED = 1;
+  private static final int A_PRIMITIVE = 2;
+  private static final int A_NULLABLE = 4;
+
+  private static final int RELATION_SIZE = 40;
+  private static final int R_ATTRIBUTE = 0;
+  private static final int R_TARGET = 4;
+  private static final int R_TARGET_ATTRIBUTE = 8;
+  private static final int R_JOIN_TABLE = 12;
+  private static final int R_JOIN_COLUMN = 16;
+  private static final int R_FOREIGN_KEY_COLUMN = 20;
+  private static final int R_JOIN_TABLE_NAME = 24;
+  private static final int R_BATCH_SIZE = 28;
+  private static final int R_TYPE = 32;
+  private static final int R_COLLECTION_TYPE = 33;
+  private static final int R_SIDE = 34;
+  private static final int R_FETCH_TYPE = 35;
+  private static final int R_FETCH_MODE = 36;
+  private static final int R_BITS = 37;
+  private static final int R_SOURCE = 1;
+  private static final int R_INDEXED = 2;
+
+  private final ByteBuffer buffer;
+  private final int entityCount;
+  private final int entitiesOffset;
+  private final int attributesOffset;
+  private final int relationsOffset;
+  private final int stringOffsetsOffset;
+  private final int stringDataOffset;
+
+  private CompactEntityModel(final ByteBuffer buffer) {
+    this.buffer = buffer;
+    this.entityCount = buffer.getInt(H_ENTITY_COUNT);
+    this.entitiesOffset = buffer.getInt(H_ENTITIES);
+    this.attributesOffset = buffer.getInt(H_ATTRIBUTES);
+    this.relationsOffset = buffer.getInt(H_RELATIONS);
+    this.stringOffsetsOffset = buffer.getInt(H_STRING_OFFSETS);
+    this.stringDataOffset = buffer.getInt(H_STRING_DATA);
+  }
+
+  /**
+   * Builds a compact model of the given entities. The entities are only read, so they can be discarded afterwards.
+   *
+   * @param entities Entities to store. Relations and roots of these entities should not lead outside of this
+   * collection.
+   * @return Compact model.
+   * @throws IllegalArgumentException If the collection is invalid, or the model doesn't fit a buffer.
+   */
+  public static CompactEntityModel build(final Collection<GeneratedEntity> entities) {
+    if (entities == null) {
+      throw new IllegalArgumentException("A valid entities collection is required");
+    }
+    return new Builder(entities).build();
+  }
+
+  /**
+   * Collects entities, attributes and strings of a model, and writes them into a buffer.
+   */
+  private static final class Builder {
+
+    private final List<GeneratedEntity> entities;
+    private final Map<GeneratedEntity, Integer> entityIndexes = new IdentityHashMap<>();
+    private final Map<Attribute, Integer> relationAttributeIndexes = new IdentityHashMap<>();
+    private int attributeCount;
+    private int relationCount;
+    private final TreeSet<String> strings = new TreeSet<>();
+    private final List<String> sortedStrings;
+    private int intCount;
+
+    Builder(final Collection<GeneratedEntity> entities) {
+      //  The same entity may be registered under several names (extensions).
+      final Map<GeneratedEntity, Boolean> uniqueEntities = new IdentityHashMap<>();
+      entities.forEach(e -> uniqueEntities.put(e, Boolean.TRUE));
+      this.entities = new ArrayList<>(uniqueEntities.keySet());
+      this.entities.sort((first, second) -> first.getName().compareTo(second.getName()));
+
+      for (final GeneratedEntity entity : this.entities) {
+        this.entityIndexes.put(entity, this.entityIndexes.size());
+        this.addStrings(entity.getName(), entity.getDeployment(), entity.getClassFile(), entity.getSequenceName());
+        entity.getSchemaFiles().forEach(this.strings::add);
+        this.intCount += entity.getSchemaFiles().size();
+        //  Entities share attributes with their roots, but relation attributes belong to a single entity.
+        for (final Attribute attribute : entity.getAttributes()) {
+          this.addStrings(attribute.getName(), attribute.getType(), attribute.getFieldType());
+          attribute.getFlags().forEach(this.strings::add);
+          this.intCount += attribute.getFlags().size();
+
+          final RelationInfo relationInfo = attribute.getRelationInfo();
+          if (relationInfo != null) {
+            this.relationAttributeIndexes.put(attribute, this.attributeCount);
+            this.relationCount++;
+            this.addStrings(relationInfo.getJoinTable(), relationInfo.getJoinColumn(),
+                relationInfo.getForeignKeyColumn(), relationInfo.getJoinTableName());
+          }
+          this.attributeCount++;
+        }
+      }
+      this.sortedStrings = new ArrayList<>(this.strings);
+    }
+
+    private void addStrings(final String... values) {
+      for (final String value : values) {
+        if (value != null) {
+          this.strings.add(value);
+        }
+      }
+    }
+
+    private int stringIndex(final String value) {
+      return value == null ? NONE : Collections.binarySearch(this.sortedStrings, value);
+    }
+
+    private int entityIndex(final GeneratedEntity entity) {
+      if (entity == null) {
+        return NONE;
+      }
+      final Integer index = this.entityIndexes.get(entity);
+      if (index == null) {
+        throw new IllegalArgumentException("Entity '" + entity.getName() + "' is not a part of the model");
+      }
+      return index;
+    }
+
+    private static byte ordinal(final Enum<?> value) {
+      return (byte) (value == null ? NONE : value.ordinal());
+    }
+
+    CompactEntityModel build() {
+      final List<byte[]> encodedStrings = new ArrayList<>(this.sortedStrings.size());
+      long stringBytes = 0;
+      for (final String value : this.sortedStrings) {
+        final byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        encodedStrings.add(encoded);
+        stringBytes += encoded.length;
+      }
+
+      final long entitiesOffset = HEADER_SIZE;
+      final long attributesOffset = entitiesOffset + (long) this.entities.size() * ENTITY_SIZE;
+      final long relationsOffset = attributesOffset + (long) this.attributeCount * ATTRIBUTE_SIZE;
+      final long intsOffset = relationsOffset + (long) this.relationCount * RELATION_SIZE;
+      final long stringOffsetsOffset = intsOffset + (long) this.intCount * Integer.BYTES;
+      final long stringDataOffset = stringOffsetsOffset + (long) (encodedStrings.size() + 1) * Integer.BYTES;
+      final long size = stringDataOffset + stringBytes;
+      if (size > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("The model is too large (" + size + " bytes)");
+      }
+
+      final ByteBuffer buffer = ByteBuffer.allocateDirect((int) size);
+      buffer.putInt(0, MAGIC);
+      buffer.putInt(H_ENTITY_COUNT, this.entities.size());
+      buffer.putInt(H_ATTRIBUTE_COUNT, this.attributeCount);
+      buffer.putInt(H_STRING_COUNT, encodedStrings.size());
+      buffer.putInt(H_ENTITIES, (int) entitiesOffset);
+      buffer.putInt(H_ATTRIBUTES, (int) attributesOffset);
+      buffer.putInt(H_RELATIONS, (int) relationsOffset);
+      buffer.putInt(H_INTS, (int) intsOffset);
+      buffer.putInt(H_STRING_OFFSETS, (int) stringOffsetsOffset);
+      buffer.putInt(H_STRING_DATA, (int) stringDataOffset);
+
+      int intPosition = (int) intsOffset;
+      int attributeIndex = 0;
+      int relationIndex = 0;
+      for (int i = 0; i < this.entities.size(); i++) {
+        final GeneratedEntity entity = this.entities.get(i);
+        final int position = (int) entitiesOffset + i * ENTITY_SIZE;
+        buffer.putInt(position + E_NAME, this.stringIndex(entity.getName()));
+        buffer.putInt(position + E_DEPLOYMENT, this.stringIndex(entity.getDeployment()));
+        buffer.putInt(position + E_CLASS_FILE, this.stringIndex(entity.getClassFile()));
+        buffer.putInt(position + E_ROOT, this.entityIndex(entity.getRoot()));
+        buffer.putInt(position + E_SEQUENCE_NAME, this.stringIndex(entity.getSequenceName()));
+        buffer.putInt(position + E_ALLOCATION_SIZE, entity.getAllocationSize());
+        buffer.putInt(position + E_SCHEMA_FILES, intPosition);
+        buffer.putInt(position + E_SCHEMA_FILE_COUNT, entity.getSchemaFiles().size());
+        for (final String schemaFile : entity.getSchemaFiles()) {
+          buffer.putInt(intPosition, this.stringIndex(schemaFile));
+          intPosition += Integer.BYTES;
+        }
+        buffer.put(position + E_IDENTITY, ordinal(entity.getIdentity()));
+        buffer.put(position + E_EXTERNAL, (byte) (entity.isExternal() ? 1 : 0));
+        buffer.putInt(position + E_FIRST_ATTRIBUTE, attributeIndex);
+        buffer.putInt(position + E_ATTRIBUTE_COUNT, entity.getAttributes().size());
+
+        for (final Attribute attribute : entity.getAttributes()) {
+          final int attributePosition = (int) attributesOffset + attributeIndex * ATTRIBUTE_SIZE;
+          buffer.putInt(attributePosition + A_ENTITY, i);
+          buffer.putInt(attributePosition + A_NAME, this.stringIndex(attribute.getName()));
+          buffer.putInt(attributePosition + A_TYPE, this.stringIndex(attribute.getType()));
+          buffer.putInt(attributePosition + A_FIELD_TYPE, this.stringIndex(attribute.getFieldType()));
+          buffer.putInt(attributePosition + A_FLAGS, intPosition);
+          buffer.putInt(attributePosition + A_FLAG_COUNT, attribute.getFlags().size());
+          for (final String flag : attribute.getFlags()) {
+            buffer.putInt(intPosition, this.stringIndex(flag));
+            intPosition += Integer.BYTES;
+          }
+          buffer.put(attributePosition + A_BITS, (byte) ((attribute.isReintroduced() ? A_REINTRODUCED : 0)
+              | (attribute.isPrimitive() ? A_PRIMITIVE : 0) | (attribute.isNullable() ? A_NULLABLE : 0)));
+
+          final RelationInfo relationInfo = attribute.getRelationInfo();
+          if (relationInfo == null) {
+            buffer.putInt(attributePosition + A_RELATION, NONE);
+          } else {
+            final Integer targetAttribute = this.relationAttributeIndexes.get(relationInfo.getTargetAttribute());
+            if (targetAttribute == null) {
+              throw new IllegalArgumentException("Relation '" + entity.getName() + "." + attribute.getName()
+                  + "' leads outside of the model");
+            }
+
+            final int relationPosition = (int) relationsOffset + relationIndex * RELATION_SIZE;
+            buffer.putInt(attributePosition + A_RELATION, relationIndex);
+            buffer.putInt(relationPosition + R_ATTRIBUTE, attributeIndex);
+            buffer.putInt(relationPosition + R_TARGET, this.entityIndex(relationInfo.getTarget()));
+            buffer.putInt(relationPosition + R_TARGET_ATTRIBUTE, targetAttribute);
+            buffer.putInt(relationPosition + R_JOIN_TABLE, this.stringIndex(relationInfo.getJoinTable()));
+            buffer.putInt(relationPosition + R_JOIN_COLUMN, this.stringIndex(relationInfo.getJoinColumn()));
+            buffer.putInt(relationPosition + R_FOREIGN_KEY_COLUMN,
+                this.stringIndex(relationInfo.getForeignKeyColumn()));
+            buffer.putInt(relationPosition + R_JOIN_TABLE_NAME, this.stringIndex(relationInfo.getJoinTableName()));
+            buffer.putInt(relationPosition + R_BATCH_SIZE, relationInfo.getBatchSize());
+            buffer.put(relationPosition + R_TYPE, ordinal(relationInfo.getType()));
+            buffer.put(relationPosition + R_COLLECTION_TYPE, ordinal(relationInfo.getCollectionType()));
+            buffer.put(relationPosition + R_SIDE, ordinal(relationInfo.getSide()));
+            buffer.put(relationPosition + R_FETCH_TYPE, ordinal(relationInfo.getFetchType()));
+            buffer.put(relationPosition + R_FETCH_MODE, ordinal(relationInfo.getFetchMode()));
+            buffer.put(relationPosition + R_BITS, (byte) ((relationInfo.isSource() ? R_SOURCE : 0)
+                | (relationInfo.isIndexed() ? R_INDEXED : 0)));
+            relationIndex++;
+          }
+          attributeIndex++;
+        }
+      }
+
+      int stringPosition = (int) stringDataOffset;
+      for (int i = 0; i < encodedStrings.size(); i++) {
+        buffer.putInt((int) stringOffsetsOffset + i * Integer.BYTES, stringPosition);
+        for (final byte b : encodedStrings.get(i)) {
+          buffer.put(stringPosition++, b);
+        }
+      }
+      buffer.putInt((int) stringOffsetsOffset + encodedStrings.size() * Integer.BYTES, stringPosition);
+      return new CompactEntityModel(buffer);
+    }
+  }
+
+  private String string(final int index) {
+    if (index == NONE) {
+      return null;
+    }
+    final int start = this.buffer.getInt(this.stringOffsetsOffset + index * Integer.BYTES);
+    final byte[] bytes = new byte[this.buffer.getInt(this.stringOffsetsOffset + (index + 1) * Integer.BYTES) - start];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = this.buffer.get(start + i);
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static void checkIndex(final int index, final int size) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index out of range: " + index);
+    }
+  }
+
+  private int entityInt(final int entity, final int field) {
+    return this.buffer.getInt(this.entitiesOffset + entity * ENTITY_SIZE + field);
+  }
+
+  private int attributeInt(final int attribute, final int field) {
+    return this.buffer.getInt(this.attributesOffset + attribute * ATTRIBUTE_SIZE + field);
+  }
+
+  private int relationInt(final int relation, final int field) {
+    return this.buffer.getInt(this.relationsOffset + relation * RELATION_SIZE + field);
+  }
+
+  private <T extends Enum<T>> T relationEnum(final int relation, final int field, final T[] values) {
+    final byte ordinal = this.buffer.get(this.relationsOffset + relation * RELATION_SIZE + field);
+    return ordinal == NONE ? null : values[ordinal];
+  }
+
+  private boolean relationBit(final int relation, final int bit) {
+    return (this.buffer.get(this.relationsOffset + relation * RELATION_SIZE + R_BITS) & bit) != 0;
+  }
+
+  private boolean attributeBit(final int attribute, final int bit) {
+    return (this.buffer.get(this.attributesOffset + attribute * ATTRIBUTE_SIZE + A_BITS) & bit) != 0;
+  }
+
+  /**
+   * Returns a read-only list of strings whose dictionary indexes are stored at the given position.
+   *
+   * @param position Position of the first index.
+   * @param size Number of indexes.
+   * @return A {@link List<String>} of strings, decoded on each access.
+   */
+  private List<String> strings(final int position, final int size) {
+    return new AbstractList<String>() {
+      @Override
+      public String get(final int index) {
+        checkIndex(index, size);
+        return string(buffer.getInt(position + index * Integer.BYTES));
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  /**
+   * Returns the number of entities in the model.
+   *
+   * @return Number of entities.
+   */
+  public int size() {
+    return this.entityCount;
+  }
+
+  /**
+   * Returns the number of bytes the model takes.
+   *
+   * @return Model size in bytes.
+   */
+  public int getMemorySize() {
+    return this.buffer.capacity();
+  }
+
+  /**
+   * Returns a view of the entity with the given index. Entities are sorted by name.
+   *
+   * @param index Entity index.
+   * @return Entity view.
+   * @throws IndexOutOfBoundsException If there is no such entity.
+   */
+  public CompactEntity getEntity(final int index) {
+    if (index < 0 || index >= this.entityCount) {
+      throw new IndexOutOfBoundsException("Entity index out of range: " + index);
+    }
+    return new CompactEntity(index);
+  }
+
+  /**
+   * Returns a read-only list of all entities, sorted by name. Views are created on each access.
+   *
+   * @return A {@link List<CompactEntity>} of entities.
+   */
+  public List<CompactEntity> getEntities() {
+    return new AbstractList<CompactEntity>() {
+      @Override
+      public CompactEntity get(final int index) {
+        return getEntity(index);
+      }
+
+      @Override
+      public int size() {
+        return entityCount;
+      }
+    };
+  }
+
+  /**
+   * Finds an entity by its name.
+   *
+   * @param name Entity name.
+   * @return An {@link Optional<CompactEntity>} which holds the entity, if it's been found.
+   */
+  public Optional<CompactEntity> findEntity(final String name) {
+    int low = 0;
+    int high = this.entityCount - 1;
+    while (low <= high) {
+      final int middle = (low + high) >>> 1;
+      final int comparison = this.string(this.entityInt(middle, E_NAME)).compareTo(name);
+      if (comparison < 0) {
+        low = middle + 1;
+      } else if (comparison > 0) {
+        high = middle - 1;
+      } else {
+        return Optional.of(new CompactEntity(middle));
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * A view of an entity record. It mirrors the getters of {@link GeneratedEntity}.
+   */
+  public final class CompactEntity {
+
+    private final int index;
+
+    private CompactEntity(final int index) {
+      this.index = index;
+    }
+
+    /**
+     * Returns the index of the entity in the model.
+     *
+     * @return Entity index.
+     */
+    public int getIndex() {
+      return index;
+    }
+
+    /**
+     * Returns the name of the entity.
+     *
+     * @see GeneratedEntity#getName()
+     * @return Entity name.
+     */
+    public String getName() {
+      return string(entityInt(this.index, E_NAME));
+    }
+
+    /**
+     * Returns the deployment (table name) of the entity.
+     *
+     * @see GeneratedEntity#getDeployment()
+     * @return Entity deployment.
+     */
+    public String getDeployment() {
+      return string(entityInt(this.index, E_DEPLOYMENT));
+    }
+
+    /**
+     * Returns the fully-qualified class name of the entity.
+     *
+     * @see GeneratedEntity#getClassFile()
+     * @return Entity class name.
+     */
+    public String getClassFile() {
+      return string(entityInt(this.index, E_CLASS_FILE));
+    }
+
+    /**
+     * Returns the root of the entity, or {@code null} if it doesn't have one.
+     *
+     * @see GeneratedEntity#getRoot()
+     * @return Root entity.
+     */
+    public CompactEntity getRoot() {
+      final int root = entityInt(this.index, E_ROOT);
+      return root == NONE ? null : new CompactEntity(root);
+    }
+
+    /**
+     * Returns a read-only list of attributes of the entity, in the order of {@link GeneratedEntity#getAttributes()}.
+     *
+     * @return A {@link List<CompactAttribute>} of attributes.
+     */
+    public List<CompactAttribute> getAttributes() {
+      final int first = entityInt(this.index, E_FIRST_ATTRIBUTE);
+      final int count = entityInt(this.index, E_ATTRIBUTE_COUNT);
+      return new AbstractList<CompactAttribute>() {
+        @Override
+        public CompactAttribute get(final int index) {
+          checkIndex(index, count);
+          return new CompactAttribute(first + index);
+        }
+
+        @Override
+        public int size() {
+          return count;
+        }
+      };
+    }
+
+    /**
+     * Finds the first attribute which matches the given predicate.
+     *
+     * @see GeneratedEntity#findAttribute(Predicate)
+     * @param predicate Predicate to match.
+     * @return An {@link Optional<CompactAttribute>} which holds the attribute, if it's been found.
+     */
+    public Optional<CompactAttribute> findAttribute(final Predicate<CompactAttribute> predicate) {
+      return this.getAttributes().stream().filter(predicate).findFirst();
+    }
+
+    /**
+     * Finds an attribute by its name.
+     *
+     * @see GeneratedEntity#findAttribute(String)
+     * @param attributeName Attribute name.
+     * @return An {@link Optional<CompactAttribute>} which holds the attribute, if it's been found.
+     */
+    public Optional<CompactAttribute> findAttribute(final String attributeName) {
+      return this.findAttribute(a -> a.getName().equals(attributeName));
+    }
+
+    /**
+     * Returns a read-only list of schema files which define the entity.
+     *
+     * @see GeneratedEntity#getSchemaFiles()
+     * @return Schema files.
+     */
+    public List<String> getSchemaFiles() {
+      return strings(entityInt(this.index, E_SCHEMA_FILES), entityInt(this.index, E_SCHEMA_FILE_COUNT));
+    }
+
+    /**
+     * Returns the name of the sequence which generates primary keys of the entity.
+     *
+     * @see GeneratedEntity#getSequenceName()
+     * @return Sequence name.
+     */
+    public String getSequenceName() {
+      return string(entityInt(this.index, E_SEQUENCE_NAME));
+    }
+
+    /**
+     * Returns the number of primary keys allocated from the sequence at once.
+     *
+     * @see GeneratedEntity#getAllocationSize()
+     * @return Allocation size.
+     */
+    public int getAllocationSize() {
+      return entityInt(this.index, E_ALLOCATION_SIZE);
+    }
+
+    /**
+     * Returns the strategy of generated {@code equals}/{@code hashCode} methods.
+     *
+     * @see GeneratedEntity#getIdentity()
+     * @return Identity strategy.
+     */
+    public Identity getIdentity() {
+      return Identity.values()[buffer.get(entitiesOffset + this.index * ENTITY_SIZE + E_IDENTITY)];
+    }
+
+    /**
+     * Determines whether the entity is owned by another module.
+     *
+     * @see GeneratedEntity#isExternal()
+     * @return {@code true} if it is, {@code false} otherwise.
+     */
+    public boolean isExternal() {
+      return buffer.get(entitiesOffset + this.index * ENTITY_SIZE + E_EXTERNAL) != 0;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      return o instanceof CompactEntity && ((CompactEntity) o).index == this.index && ((CompactEntity) o)
+          .getModel() == CompactEntityModel.this;
+    }
+
+    @Override
+    public int hashCode() {
+      return this.index;
+    }
+
+    @Override
+    public String toString() {
+      return this.getName();
+    }
+
+    private CompactEntityModel getModel() {
+      return CompactEntityModel.this;
+    }
+  }
+
+  /**
+   * A view of an attribute record. It mirrors the getters of {@link Attribute}.
+   */
+  public final class CompactAttribute {
+
+    private final int index;
+
+    private CompactAttribute(final int index) {
+      this.index = index;
+    }
+
+    /**
+     * Returns the entity which owns the attribute.
+     *
+     * @return Owning entity.
+     */
+    public CompactEntity getEntity() {
+      return new CompactEntity(attributeInt(this.index, A_ENTITY));
+    }
+
+    /**
+     * Returns the name of the attribute.
+     *
+     * @see Attribute#getName()
+     * @return Attribute name.
+     */
+    public String getName() {
+      return string(attributeInt(this.index, A_NAME));
+    }
+
+    /**
+     * Returns the fully-qualified class name of the attribute.
+     *
+     * @see Attribute#getType()
+     * @return Attribute type.
+     */
+    public String getType() {
+      return string(attributeInt(this.index, A_TYPE));
+    }
+
+    /**
+     * Returns the type of the field which stores the attribute in the generated class.
+     *
+     * @see Attribute#getFieldType()
+     * @return Field type.
+     */
+    public String getFieldType() {
+      return string(attributeInt(this.index, A_FIELD_TYPE));
+    }
+
+    /**
+     * Determines whether the attribute is stored in a field of a primitive type.
+     *
+     * @see Attribute#isPrimitive()
+     * @return {@code true} if it is, {@code false} otherwise.
+     */
+    public boolean isPrimitive() {
+      return attributeBit(this.index, A_PRIMITIVE);
+    }
+
+    /**
+     * Determines whether the attribute's column is nullable.
+     *
+     * @see Attribute#isNullable()
+     * @return {@code true} if it is, {@code false} otherwise.
+     */
+    public boolean isNullable() {
+      return attributeBit(this.index, A_NULLABLE);
+    }
+
+    /**
+     * Determines whether the attribute has been reintroduced.
+     *
+     * @see Attribute#isReintroduced()
+     * @return {@code true} if it has, {@code false} otherwise.
+     */
+    public boolean isReintroduced() {
+      return attributeBit(this.index, A_REINTRODUCED);
+    }
+
+    /**
+     * Returns a read-only list of flags of the attribute.
+     *
+     * @see Attribute#getFlags()
+     * @return Attribute flags.
+     */
+    public List<String> getFlags() {
+      return strings(attributeInt(this.index, A_FLAGS), attributeInt(this.index, A_FLAG_COUNT));
+    }
+
+    /**
+     * Returns the relation of the attribute, or {@code null} if the attribute is not a relation.
+     *
+     * @see Attribute#getRelationInfo()
+     * @return Attribute relation.
+     */
+    public CompactRelationInfo getRelationInfo() {
+      final int relation = attributeInt(this.index, A_RELATION);
+      return relation == NONE ? null : new CompactRelationInfo(relation);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      return o instanceof CompactAttribute && ((CompactAttribute) o).index == this.index && ((CompactAttribute) o)
+          .getModel() == CompactEntityModel.this;
+    }
+
+    @Override
+    public int hashCode() {
+      return this.index;
+    }
+
+    @Override
+    public String toString() {
+      return this.getEntity().getName() + "." + this.getName();
+    }
+
+    private CompactEntityModel getModel() {
+      return CompactEntityModel.this;
+    }
+  }
+
+  /**
+   * A view of a relation record. It mirrors the getters of {@link RelationInfo}.
+   */
+  public final class CompactRelationInfo {
+
+    private final int index;
+
+    private CompactRelationInfo(final int index) {
+      this.index = index;
+    }
+
+    /**
+     * Returns the type of the relation.
+     *
+     * @see RelationInfo#getType()
+     * @return Relation type.
+     */
+    public Type getType() {
+      return relationEnum(this.index, R_TYPE, Type.values());
+    }
+
+    /**
+     * Returns the attribute which holds the relation.
+     *
+     * @return Owning attribute.
+     */
+    public CompactAttribute getAttribute() {
+      return new CompactAttribute(relationInt(this.index, R_ATTRIBUTE));
+    }
+
+    /**
+     * Returns the target side of the relation.
+     *
+     * @see RelationInfo#getTarget()
+     * @return Target entity.
+     */
+    public CompactEntity getTarget() {
+      return new CompactEntity(relationInt(this.index, R_TARGET));
+    }
+
+    /**
+     * Returns the attribute of the target side of the relation.
+     *
+     * @see RelationInfo#getTargetAttribute()
+     * @return Target attribute.
+     */
+    public CompactAttribute getTargetAttribute() {
+      return new CompactAttribute(relationInt(this.index, R_TARGET_ATTRIBUTE));
+    }
+
+    /**
+     * Returns the join table given by the schema.
+     *
+     * @see RelationInfo#getJoinTable()
+     * @return Relation join table.
+     */
+    public String getJoinTable() {
+      return string(relationInt(this.index, R_JOIN_TABLE));
+    }
+
+    /**
+     * Returns the join column given by the schema.
+     *
+     * @see RelationInfo#getJoinColumn()
+     * @return Relation join column.
+     */
+    public String getJoinColumn() {
+      return string(relationInt(this.index, R_JOIN_COLUMN));
+    }
+
+    /**
+     * Returns the collection type of this side of the relation.
+     *
+     * @see RelationInfo#getCollectionType()
+     * @return Relation collection type.
+     */
+    public CollectionType getCollectionType() {
+      return relationEnum(this.index, R_COLLECTION_TYPE, CollectionType.values());
+    }
+
+    /**
+     * Returns this side of the relation.
+     *
+     * @see RelationInfo#getSide()
+     * @return Relation side.
+     */
+    public Side getSide() {
+      return relationEnum(this.index, R_SIDE, Side.values());
+    }
+
+    /**
+     * Determines whether this side is the source of the relation.
+     *
+     * @see RelationInfo#isSource()
+     * @return {@code true} if it is, {@code false} otherwise.
+     */
+    public boolean isSource() {
+      return relationBit(this.index, R_SOURCE);
+    }
+
+    /**
+     * Returns the fetch type of this side of the relation.
+     *
+     * @see RelationInfo#getFetchType()
+     * @return Relation fetch type.
+     */
+    public FetchType getFetchType() {
+      return relationEnum(this.index, R_FETCH_TYPE, FetchType.values());
+    }
+
+    /**
+     * Returns the fetch mode of this side of the relation.
+     *
+     * @see RelationInfo#getFetchMode()
+     * @return Relation fetch mode.
+     */
+    public FetchMode getFetchMode() {
+      return relationEnum(this.index, R_FETCH_MODE, FetchMode.values());
+    }
+
+    /**
+     * Returns the batch size of this side of the relation.
+     *
+     * @see RelationInfo#getBatchSize()
+     * @return Relation batch size.
+     */
+    public int getBatchSize() {
+      return relationInt(this.index, R_BATCH_SIZE);
+    }
+
+    /**
+     * Determines whether the foreign key columns of the relation are indexed.
+     *
+     * @see RelationInfo#isIndexed()
+     * @return {@code true} if they are, {@code false} otherwise.
+     */
+    public boolean isIndexed() {
+      return relationBit(this.index, R_INDEXED);
+    }
+
+    /**
+     * Returns the foreign key column held by the table of this side of the relation.
+     *
+     * @see RelationInfo#getForeignKeyColumn()
+     * @return Foreign key column name.
+     */
+    public String getForeignKeyColumn() {
+      return string(relationInt(this.index, R_FOREIGN_KEY_COLUMN));
+    }
+
+    /**
+     * Returns the name of the join table of a many-to-many relation.
+     *
+     * @see RelationInfo#getJoinTableName()
+     * @return Join table name.
+     */
+    public String getJoinTableName() {
+      return string(relationInt(this.index, R_JOIN_TABLE_NAME));
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package pl.pateman.entitygenerator;
+
+/**
+ * Helper methods which derive names of database objects (constraints, indexes, sequences) from entity metadata. Both
+ * generated entity classes and generated DDL use them, so that names stay consistent between the two.
+ */
+public final class DatabaseNames {
+
+  /**
+   * The shortest identifier length limit among supported databases (PostgreSQL).
+   */
+  public static final int MAX_IDENTIFIER_LENGTH = 63;
+
+  private DatabaseNames() {
+
+  }
+
+  /**
+   * Shortens the given identifier, so that it fits {@link DatabaseNames#MAX_IDENTIFIER_LENGTH}. Long identifiers get
+   * a hash suffix, so that shortened identifiers remain unique.
+   *
+   * @param identifier Identifier to shorten.
+   * @return Shortened identifier.
+   */
+  public static String shorten(final String identifier) {
+    if (identifier.length() <= MAX_IDENTIFIER_LENGTH) {
+      return identifier;
+    }
+    return identifier.substring(0, MAX_IDENTIFIER_LENGTH - 9) + "_" + String.format("%08x", identifier.hashCode());
+  }
+
+  /**
+   * Creates a constraint (or index) name, e.g. 'fk_orders_custId'.
+   *
+   * @param prefix Constraint prefix, e.g. 'fk'.
+   * @param table Table name.
+   * @param column Column name.
+   * @return Constraint name.
+   */
+  public static String constraintName(final String prefix, final String table, final String column) {
+    return shorten(prefix + "_" + table + "_" + column);
+  }
+
+  /**
+   * Creates the default name of a sequence which generates primary keys of the given table, e.g. 'users_seq'.
+   *
+   * @param table Table name.
+   * @return Sequence name.
+   */
+  public static String sequenceName(final String table) {
+    return shorten(table + "_seq");
+  }
+}
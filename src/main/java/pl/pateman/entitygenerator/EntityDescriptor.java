@@ -2,6 +2,7 @@ package pl.pateman.entitygenerator;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.stream.Collectors;
 
 final class EntityDescriptor {
 
@@ -10,6 +11,12 @@ final class EntityDescriptor {
   private String classFile;
   private EntityRootDescriptor root;
   private Collection<EntityAttributeDescriptor> attributes;
+  private String sequenceName;
+  private Integer allocationSize;
+  private Collection<EntityIndexDescriptor> indexes;
+  private Identity identity;
+  private Collection<EntityFetchProfileDescriptor> fetchProfiles;
+  private transient String schemaName;
 
   private EntityDescriptor() {
 
@@ -34,4 +41,61 @@ final class EntityDescriptor {
   public Collection<EntityAttributeDescriptor> getAttributes() {
     return attributes == null ? Collections.emptyList() : Collections.unmodifiableCollection(attributes);
   }
+
+  public String getSequenceName() {
+    return sequenceName;
+  }
+
+  public Integer getAllocationSize() {
+    return allocationSize;
+  }
+
+  public Collection<EntityIndexDescriptor> getIndexes() {
+    return indexes == null ? Collections.emptyList() : Collections.unmodifiableCollection(indexes);
+  }
+
+  public Identity getIdentity() {
+    return identity;
+  }
+
+  public Collection<EntityFetchProfileDescriptor> getFetchProfiles() {
+    return fetchProfiles == null ? Collections.emptyList() : Collections.unmodifiableCollection(fetchProfiles);
+  }
+
+  public String getSchemaName() {
+    return schemaName;
+  }
+
+  void setSchemaName(String schemaName) {
+    this.schemaName = schemaName;
+  }
+
+  /**
+   * Creates a stub of this descriptor, i.e. a copy which keeps only what other entities need in order to refer to the
+   * entity - its names, root, primary key and sequence. Indexes, fetch profiles and the identity are left out.
+   *
+   * @return Stub descriptor.
+   */
+  EntityDescriptor createStub() {
+    final EntityDescriptor stub = new EntityDescriptor();
+    stub.name = this.name;
+    stub.deployment = this.deployment;
+    stub.classFile = this.classFile;
+    stub.root = this.root;
+    stub.attributes = this
+        .getAttributes()
+        .stream()
+        .filter(a -> a.getFlags().contains(GeneratedEntity.Attribute.PRIMARY_KEY_FLAG))
+        .collect(Collectors.toList());
+    stub.sequenceName = this.sequenceName;
+    stub.allocationSize = this.allocationSize;
+    stub.schemaName = this.schemaName;
+    return stub;
+  }
+
+  enum Identity {
+    NONE,
+    PRIMARY_KEY,
+    NATURAL_KEY
+  }
 }
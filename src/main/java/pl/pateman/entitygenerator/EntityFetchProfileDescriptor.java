@@ -0,0 +1,27 @@
+package pl.pateman.entitygenerator;
+
+import java.util.Collection;
+import java.util.Collections;
+
+final class EntityFetchProfileDescriptor {
+
+  private String name;
+  private Collection<String> attributes;
+  private Integer depth;
+
+  private EntityFetchProfileDescriptor() {
+
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public Collection<String> getAttributes() {
+    return this.attributes == null ? Collections.emptyList() : Collections.unmodifiableCollection(this.attributes);
+  }
+
+  public Integer getDepth() {
+    return depth;
+  }
+}
@@ -4,18 +4,30 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 import com.google.gson.stream.JsonReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.lang.reflect.Type;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSource;
 import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -34,10 +46,11 @@ import pl.pateman.entitygenerator.exception.EntityGeneratorException;
 /**
  * Main entity generator class.
  *
- * It exposes a single public method called {@link EntityGenerator#generateEntities(Collection)} which takes a
+ * It exposes a public method called {@link EntityGenerator#generateEntities(Collection)} which takes a
  * {@link Collection<InputStream>} with input streams to all resources which should be processed.
  * Use {@link ClasspathEntitiesSchemaScanner} in order to obtain such a collection, or provide your own means of
- * generating the collection.
+ * generating the collection. {@link EntityGenerator#generateEntitiesFromSources(Collection)} takes lazy
+ * {@link SchemaSource}s instead, which are opened one at a time.
  *
  * A resource should be a valid JSON file that matches the schema described by the following classes:
  * {@link EntitySchemaDescriptor}, {@link EntityAttributeDescriptor}, {@link EntityRootDescriptor},
@@ -54,11 +67,96 @@ public final class EntityGenerator {
   private static final Type SCHEMA_DESCRIPTOR_TYPE = new TypeToken<EntitySchemaDescriptor>() {
   }.getType();
 
+  /**
+   * Number of primary key values allocated from a sequence at once, unless an entity specifies otherwise.
+   */
+  public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+  /**
+   * Maximum number of relations in a path fetched by a fetch profile.
+   */
+  public static final int MAX_FETCH_DEPTH = 3;
+
+  /**
+   * Primary key types which are generated from a sequence.
+   */
+  private static final Set<String> SEQUENCE_KEY_TYPES = new HashSet<>(Arrays
+      .asList(Long.class.getName(), Integer.class.getName(), Short.class.getName(), long.class.getName(),
+          int.class.getName(), short.class.getName()));
+
+  /**
+   * Version reported when the generator is not loaded from its JAR, e.g. when it's run from an IDE.
+   */
+  private static final String DEVELOPMENT_VERSION = "development";
+
+  private static volatile String codeFingerprint;
+
   private final Gson gson;
+  private final SchemaParseCache parseCache;
 
   public EntityGenerator() {
+    this(null);
+  }
+
+  /**
+   * Creates a generator which looks schemas up in the given cache before parsing them. Only schemas read by
+   * {@link EntityGenerator#generateEntitiesFromSources(Collection)} are cached.
+   *
+   * @param parseCache Cache of parsed schemas, or {@code null} if schemas should always be parsed.
+   */
+  public EntityGenerator(final SchemaParseCache parseCache) {
     final GsonBuilder gsonBuilder = new GsonBuilder();
     this.gson = gsonBuilder.create();
+    this.parseCache = parseCache;
+  }
+
+  /**
+   * Returns the version of the generator, i.e. the implementation version from the manifest of its JAR.
+   *
+   * @return Generator version.
+   */
+  public static String getVersion() {
+    final String version = EntityGenerator.class.getPackage() == null ? null
+        : EntityGenerator.class.getPackage().getImplementationVersion();
+    return version == null ? DEVELOPMENT_VERSION : version;
+  }
+
+  /**
+   * Returns the fingerprint of the generator's own code - of files of its JAR, or of its classes directory, if it's
+   * not loaded from a JAR. Unlike the version, it changes whenever the code does (including rebuilds of the same
+   * version), so it can be a part of keys of caches of the generator's outputs. Timestamps of JAR entries don't
+   * matter, so a JAR rebuilt from the same classes has the same fingerprint. It's computed once.
+   *
+   * @return Code fingerprint.
+   * @throws EntityGeneratorException If the code could not be located or read.
+   */
+  public static String getCodeFingerprint() {
+    //  Threads which ask at the same time may compute it more than once, but they all get the same value.
+    String fingerprint = codeFingerprint;
+    if (fingerprint == null) {
+      final CodeSource codeSource = EntityGenerator.class.getProtectionDomain().getCodeSource();
+      if (codeSource == null || codeSource.getLocation() == null) {
+        throw new EntityGeneratorException("Unable to locate the code of the generator");
+      }
+      try {
+        fingerprint = Fingerprints.ofPath(Paths.get(codeSource.getLocation().toURI()));
+      } catch (final IOException | URISyntaxException | IllegalArgumentException e) {
+        throw new EntityGeneratorException("Unable to read the code of the generator from '" + codeSource
+            .getLocation() + "'", e);
+      }
+      codeFingerprint = fingerprint;
+    }
+    return fingerprint;
+  }
+
+  /**
+   * Opens a session, which keeps schema sources and the entities resolved from them, and resolves them again
+   * incrementally whenever sources change.
+   *
+   * @return A new, empty session.
+   */
+  public EntityGeneratorSession openSession() {
+    return new EntityGeneratorSession(this);
   }
 
   /**
@@ -86,6 +184,32 @@ public final class EntityGenerator {
       throw new EntityGeneratorException("An entity needs a valid class file");
     }
 
+    if (entityDescriptor.getAllocationSize() != null && entityDescriptor.getAllocationSize() < 1) {
+      throw new EntityGeneratorException(
+          "Entity '" + entityDescriptor.getName() + "' needs a positive allocation size");
+    }
+
+    //  Index columns are resolved once relations are known, so only their format can be checked here.
+    for (final EntityIndexDescriptor index : entityDescriptor.getIndexes()) {
+      if (index.getColumns().isEmpty()) {
+        throw new EntityGeneratorException("An index of entity '" + entityDescriptor.getName() + "' needs columns");
+      }
+      index.getColumns().forEach(this::parseIndexColumn);
+    }
+
+    //  Fetched relations are resolved once relations are known, so only the profiles themselves are checked here.
+    for (final EntityFetchProfileDescriptor fetchProfile : entityDescriptor.getFetchProfiles()) {
+      if (StringUtils.isBlank(fetchProfile.getName())) {
+        throw new EntityGeneratorException(
+            "A fetch profile of entity '" + entityDescriptor.getName() + "' needs a name");
+      }
+      if (fetchProfile.getDepth() != null && (fetchProfile.getDepth() < 1
+          || fetchProfile.getDepth() > MAX_FETCH_DEPTH)) {
+        throw new EntityGeneratorException("Fetch profile '" + fetchProfile.getName() + "' of entity '"
+            + entityDescriptor.getName() + "' needs a depth between 1 and " + MAX_FETCH_DEPTH);
+      }
+    }
+
     //  Check whether the attributes are all right. A valid attribute needs a name and a type.
     final Collection<EntityAttributeDescriptor> attributes = entityDescriptor.getAttributes();
     if (!attributes.isEmpty()) {
@@ -116,23 +240,37 @@ public final class EntityGenerator {
     schemaDescriptor.getEntities().forEach(this::validateEntityDescriptor);
   }
 
+  /**
+   * Parses the JSON schema provided by the given reader, and validates it using
+   * {@link EntityGenerator#validateSchemaDescriptor(EntitySchemaDescriptor)}.
+   *
+   * @param schemaName Name of the schema (e.g. a resource path), or {@code null} if it's not known.
+   * @param reader Reader of the JSON schema.
+   * @return An {@link EntitySchemaDescriptor} with parsed entity descriptors and relations.
+   * @throws EntityGeneratorException If validation fails.
+   */
+  private EntitySchemaDescriptor parseSchema(final String schemaName, final Reader reader) {
+    final EntitySchemaDescriptor schemaDescriptor = this.gson.fromJson(new JsonReader(reader), SCHEMA_DESCRIPTOR_TYPE);
+    this.validateSchemaDescriptor(schemaDescriptor);
+    schemaDescriptor.getEntities().forEach(ed -> ed.setSchemaName(schemaName));
+    return schemaDescriptor;
+  }
+
   /**
    * Takes an input stream with the JSON schema, parses it, and validates using
    * {@link EntityGenerator#validateSchemaDescriptor(EntitySchemaDescriptor)}.
    *
+   * @param schemaName Name of the schema (e.g. a resource path), or {@code null} if it's not known.
    * @param schemaStream Input stream with the JSON schema to parse.
    * @return An {@link EntitySchemaDescriptor} with parsed entity descriptors and relations.
    * @throws EntityGeneratorException If there's a problem with reading the stream, or if validation fails.
    */
-  private EntitySchemaDescriptor parseSchemaStream(final InputStream schemaStream) {
-    try (final JsonReader jsonReader = new JsonReader(new InputStreamReader(schemaStream))) {
-
-      final EntitySchemaDescriptor schemaDescriptor = this.gson.fromJson(jsonReader, SCHEMA_DESCRIPTOR_TYPE);
-      this.validateSchemaDescriptor(schemaDescriptor);
-
-      return schemaDescriptor;
+  private EntitySchemaDescriptor parseSchemaStream(final String schemaName, final InputStream schemaStream) {
+    try (final Reader reader = new InputStreamReader(schemaStream, StandardCharsets.UTF_8)) {
+      return this.parseSchema(schemaName, reader);
     } catch (final IOException e) {
-      throw new EntityGeneratorException("Unable to parse schema", e);
+      throw new EntityGeneratorException(
+          schemaName == null ? "Unable to parse schema" : "Unable to parse schema '" + schemaName + "'", e);
     } finally {
       try {
         schemaStream.close();
@@ -142,6 +280,26 @@ public final class EntityGenerator {
     }
   }
 
+  /**
+   * Reads the whole content of the given schema stream, and closes it.
+   *
+   * @param schemaStream Input stream with the JSON schema.
+   * @return Content of the schema.
+   * @throws EntityGeneratorException If the stream could not be read.
+   */
+  private static byte[] readSchemaStream(final InputStream schemaStream) {
+    try (final InputStream inputStream = schemaStream) {
+      final ByteArrayOutputStream content = new ByteArrayOutputStream();
+      final byte[] buffer = new byte[8192];
+      for (int read = inputStream.read(buffer); read != -1; read = inputStream.read(buffer)) {
+        content.write(buffer, 0, read);
+      }
+      return content.toByteArray();
+    } catch (final IOException e) {
+      throw new EntityGeneratorException("Unable to parse schema", e);
+    }
+  }
+
   /**
    * Validates whether entity descriptors point to a correct root entity in case they're extending or inheriting from
    * another entity.
@@ -224,6 +382,20 @@ public final class EntityGenerator {
     if (StringUtils.isBlank(generatedEntity.getClassFile())) {
       generatedEntity.setClassFile(entityDescriptor.getClassFile());
     }
+    if (StringUtils.isNotBlank(entityDescriptor.getSequenceName())) {
+      generatedEntity.setSequenceName(entityDescriptor.getSequenceName());
+    }
+    if (entityDescriptor.getAllocationSize() != null) {
+      generatedEntity.setAllocationSize(entityDescriptor.getAllocationSize());
+    }
+    if (entityDescriptor.getIdentity() != null) {
+      generatedEntity.setIdentity(GeneratedEntity.Identity.valueOf(entityDescriptor.getIdentity().name()));
+    }
+    if (entityDescriptor.getSchemaName() != null) {
+      final Set<String> schemaFiles = new LinkedHashSet<>(generatedEntity.getSchemaFiles());
+      schemaFiles.add(entityDescriptor.getSchemaName());
+      generatedEntity.setSchemaFiles(schemaFiles);
+    }
 
     //  Convert attribute definitions into actual metadata representation.
     final Set<Attribute> generatedAttributes = entityDescriptor.getAttributes()
@@ -244,7 +416,7 @@ public final class EntityGenerator {
           return attribute;
         })
         .sorted(Comparator.comparing(Attribute::getName))
-        .collect(LinkedHashSet::new, HashSet::add, AbstractCollection::addAll);
+        .collect(LinkedHashSet::new, LinkedHashSet::add, AbstractCollection::addAll);
 
     //  We need to replace existing attribute definitions with new ones just in case an attribute has been reintroduced.
     generatedAttributes.forEach(a -> {
@@ -274,6 +446,9 @@ public final class EntityGenerator {
     if (relationSideDescriptor.getSide() == null) {
       throw new EntityGeneratorException("Invalid relation side definition. A relation side is required");
     }
+    if (relationSideDescriptor.getBatchSize() != null && relationSideDescriptor.getBatchSize() < 1) {
+      throw new EntityGeneratorException("Invalid relation side definition. A batch size needs to be positive");
+    }
   }
 
   /**
@@ -377,6 +552,38 @@ public final class EntityGenerator {
     return attribute;
   }
 
+  /**
+   * Copies the fetch strategy of a relation side, and the indexing setting of the relation, onto the given relation
+   * attribute.
+   *
+   * @param attribute Relation attribute.
+   * @param relationSide Descriptor of the relation side which the attribute represents.
+   * @param relation Relation descriptor.
+   * @throws EntityGeneratorException If the fetch strategy cannot be applied to the attribute.
+   */
+  private void applyFetchStrategy(final Attribute attribute, final EntityRelationSideDescriptor relationSide,
+      final EntityRelationDescriptor relation) {
+    final RelationInfo relationInfo = attribute.getRelationInfo();
+    relationInfo.setIndexed(relation.isIndexed());
+    if (relationSide.getFetch() != null) {
+      relationInfo.setFetchType(EntityRelationSideDescriptor.FetchType.EAGER.equals(relationSide.getFetch())
+          ? RelationInfo.FetchType.EAGER : RelationInfo.FetchType.LAZY);
+    }
+    if (relationSide.getBatchSize() != null) {
+      relationInfo.setBatchSize(relationSide.getBatchSize());
+    }
+    if (relationSide.getFetchMode() != null) {
+      relationInfo.setFetchMode(RelationInfo.FetchMode.valueOf(relationSide.getFetchMode().name()));
+      //  A subselect loads collections of all entities retrieved by the previous query, so there has to be one.
+      if (RelationInfo.FetchMode.SUBSELECT.equals(relationInfo.getFetchMode())
+          && relationInfo.getCollectionType() == null) {
+        throw new EntityGeneratorException(
+            "Invalid relation definition. Attribute '" + attribute.getName() + "' is not a collection, so it "
+                + "cannot be fetched with a subselect");
+      }
+    }
+  }
+
   /**
    * Generates a one-to-many relation between the given source and target entity.
    *
@@ -406,6 +613,9 @@ public final class EntityGenerator {
         .setSide(Side.ONE.equals(relation.getTarget().getSide()) ? RelationInfo.Side.ONE : RelationInfo.Side.MANY);
     targetAttrib.getRelationInfo().setSource(false);
 
+    this.applyFetchStrategy(sourceAttrib, relation.getSource(), relation);
+    this.applyFetchStrategy(targetAttrib, relation.getTarget(), relation);
+
     sourceAttribs.add(sourceAttrib);
     targetAttribs.add(targetAttrib);
   }
@@ -436,6 +646,9 @@ public final class EntityGenerator {
     targetAttrib.getRelationInfo().setSide(RelationInfo.Side.ONE);
     targetAttrib.getRelationInfo().setSource(false);
 
+    this.applyFetchStrategy(sourceAttrib, relation.getSource(), relation);
+    this.applyFetchStrategy(targetAttrib, relation.getTarget(), relation);
+
     sourceAttribs.add(sourceAttrib);
     targetAttribs.add(targetAttrib);
   }
@@ -482,6 +695,9 @@ public final class EntityGenerator {
       targetAttrib.getRelationInfo().setJoinColumn(joinColumns.length > 1 ? joinColumns[1] : joinColumns[0]);
     }
 
+    this.applyFetchStrategy(sourceAttrib, relation.getSource(), relation);
+    this.applyFetchStrategy(targetAttrib, relation.getTarget(), relation);
+
     sourceAttribs.add(sourceAttrib);
     targetAttribs.add(targetAttrib);
   }
@@ -538,12 +754,318 @@ public final class EntityGenerator {
     }
   }
 
+  /**
+   * Parses a column of an index definition. A column is an attribute name, optionally followed by its sort order,
+   * e.g. 'createdAt DESC'.
+   *
+   * @param column Column definition.
+   * @return A two-element array with the attribute name and the sort order.
+   * @throws EntityGeneratorException If the definition is not valid.
+   */
+  private String[] parseIndexColumn(final String column) {
+    final String[] parts = StringUtils.split(StringUtils.defaultString(column));
+    if (parts.length == 1) {
+      return new String[]{parts[0], "ASC"};
+    }
+    if (parts.length == 2 && ("ASC".equalsIgnoreCase(parts[1]) || "DESC".equalsIgnoreCase(parts[1]))) {
+      return new String[]{parts[0], parts[1].toUpperCase()};
+    }
+    throw new EntityGeneratorException("Invalid index column '" + column + "'. Expected an attribute name, "
+        + "optionally followed by ASC or DESC");
+  }
+
+  /**
+   * Resolves an index definition against the attributes of the given entity. Relation attributes are resolved to
+   * their foreign key columns.
+   *
+   * @param entity Entity which owns the index.
+   * @param table Table of the entity.
+   * @param indexDescriptor Index definition.
+   * @return Index metadata.
+   * @throws EntityGeneratorException If the index refers to an attribute which doesn't exist or has no column.
+   */
+  private GeneratedEntity.Index createIndex(final GeneratedEntity entity, final String table,
+      final EntityIndexDescriptor indexDescriptor) {
+    final List<String> columns = new ArrayList<>(indexDescriptor.getColumns().size());
+    final Set<String> descendingColumns = new HashSet<>();
+    for (final String column : indexDescriptor.getColumns()) {
+      final String[] parsedColumn = this.parseIndexColumn(column);
+      final Attribute attribute = entity.findAttribute(parsedColumn[0]).orElseThrow(
+          () -> new EntityGeneratorException("An index of entity '" + entity.getName()
+              + "' refers to an unknown attribute '" + parsedColumn[0] + "'"));
+
+      final String columnName = attribute.getRelationInfo() == null ? attribute.getName()
+          : attribute.getRelationInfo().getForeignKeyColumn();
+      if (columnName == null) {
+        throw new EntityGeneratorException("An index of entity '" + entity.getName() + "' refers to attribute '"
+            + attribute.getName() + "', which is a relation without a foreign key column");
+      }
+      if (columns.contains(columnName)) {
+        throw new EntityGeneratorException("An index of entity '" + entity.getName() + "' refers to attribute '"
+            + attribute.getName() + "' more than once");
+      }
+
+      columns.add(columnName);
+      if ("DESC".equals(parsedColumn[1])) {
+        descendingColumns.add(columnName);
+      }
+    }
+
+    final GeneratedEntity.Index index = new GeneratedEntity.Index();
+    index.setName(StringUtils.isBlank(indexDescriptor.getName()) ? DatabaseNames
+        .constraintName("idx", table, String.join("_", columns)) : indexDescriptor.getName());
+    index.setColumns(columns);
+    index.setDescendingColumns(descendingColumns);
+    index.setUnique(indexDescriptor.isUnique());
+    index.setWhere(StringUtils.trimToNull(indexDescriptor.getWhere()));
+    return index;
+  }
+
+  /**
+   * Creates metadata of database objects which depend on the final shape of the given entity, i.e. its primary key
+   * sequence, its declared indexes and indexes of its foreign key columns.
+   *
+   * Entities with an integral primary key get a sequence, named after the deployment unless the schema names it,
+   * which allocates {@link EntityGenerator#DEFAULT_ALLOCATION_SIZE} values at once unless the schema says otherwise.
+   * Other primary keys are generated using the provider's default strategy.
+   *
+   * @param entity Entity to process.
+   * @param entityDescriptors Descriptors which define (or extend) the entity.
+   * @throws EntityGeneratorException If any of the declared indexes is not valid.
+   */
+  private void processDatabaseObjects(final GeneratedEntity entity,
+      final Collection<EntityDescriptor> entityDescriptors) {
+    final String table = StringUtils.defaultIfBlank(entity.getDeployment(), entity.getName());
+
+    final boolean sequenceKey = entity
+        .findAttribute(a -> a.getRelationInfo() == null && a.getFlags().contains(Attribute.PRIMARY_KEY_FLAG))
+        .filter(a -> SEQUENCE_KEY_TYPES.contains(a.getType()))
+        .isPresent();
+    if (!sequenceKey) {
+      entity.setSequenceName(null);
+    } else {
+      if (entity.getSequenceName() == null) {
+        entity.setSequenceName(DatabaseNames.sequenceName(table));
+      }
+      if (entity.getAllocationSize() == 0) {
+        entity.setAllocationSize(DEFAULT_ALLOCATION_SIZE);
+      }
+    }
+
+    final Map<String, GeneratedEntity.Index> indexes = new LinkedHashMap<>();
+    for (final EntityDescriptor entityDescriptor : entityDescriptors) {
+      for (final EntityIndexDescriptor indexDescriptor : entityDescriptor.getIndexes()) {
+        final GeneratedEntity.Index index = this.createIndex(entity, table, indexDescriptor);
+        if (indexes.putIfAbsent(index.getName(), index) != null) {
+          throw new EntityGeneratorException(
+              "Duplicate index '" + index.getName() + "' of entity '" + entity.getName() + "'");
+        }
+      }
+    }
+
+    //  Foreign key columns are used to navigate relations in both directions, so without an index each lookup of
+    //  the "many" side would scan the whole table. A declared index which starts with the column serves as well.
+    final Set<String> leadingColumns = indexes
+        .values()
+        .stream()
+        .filter(index -> index.getWhere() == null)
+        .map(index -> index.getColumns().get(0))
+        .collect(Collectors.toSet());
+    for (final Attribute attribute : entity.getAttributes()) {
+      final RelationInfo relationInfo = attribute.getRelationInfo();
+      if (relationInfo == null || !relationInfo.isIndexed() || relationInfo.getForeignKeyColumn() == null
+          || leadingColumns.contains(relationInfo.getForeignKeyColumn())) {
+        continue;
+      }
+
+      final GeneratedEntity.Index index = new GeneratedEntity.Index();
+      index.setName(DatabaseNames.constraintName("idx", table, relationInfo.getForeignKeyColumn()));
+      index.setColumns(Collections.singletonList(relationInfo.getForeignKeyColumn()));
+      indexes.putIfAbsent(index.getName(), index);
+    }
+    entity.setIndexes(new ArrayList<>(indexes.values()));
+  }
+
+  /**
+   * Resolves the identity strategy of the given entity. Attributes flagged as natural keys imply the natural key
+   * strategy, unless the entity declares its identity explicitly.
+   *
+   * @param entity Entity to process.
+   * @param entityDescriptors Descriptors which define (or extend) the entity.
+   * @throws EntityGeneratorException If the entity lacks attributes its identity should be based on.
+   */
+  private void processIdentity(final GeneratedEntity entity, final Collection<EntityDescriptor> entityDescriptors) {
+    final boolean declared = entityDescriptors.stream().anyMatch(d -> d.getIdentity() != null);
+    if (!declared && entity.findAttribute(a -> a.getFlags().contains(Attribute.NATURAL_KEY_FLAG)).isPresent()) {
+      entity.setIdentity(GeneratedEntity.Identity.NATURAL_KEY);
+    }
+
+    if (entity.getIdentity() != GeneratedEntity.Identity.NONE && entity.getIdentityAttributes().isEmpty()) {
+      throw new EntityGeneratorException("Entity '" + entity.getName() + "' has no " + (entity.getIdentity()
+          == GeneratedEntity.Identity.PRIMARY_KEY ? "primary key" : "natural key attributes")
+          + " to base its identity on");
+    }
+  }
+
+  /**
+   * Creates fetch nodes of all relations of the given entity, down to the given depth. Relations are not followed back
+   * to entities which are already on the path.
+   *
+   * @param entity Entity whose relations should be fetched.
+   * @param inverseAttribute Attribute of the entity which leads back to its parent, or {@code null} at the top.
+   * @param parentPath Path of the parent node, or an empty string at the top.
+   * @param depth Number of levels to create.
+   * @param entitiesOnPath Names of entities on the path to the entity.
+   * @return Fetch nodes.
+   */
+  private List<GeneratedEntity.FetchNode> createFetchNodes(final GeneratedEntity entity,
+      final Attribute inverseAttribute, final String parentPath, final int depth, final Set<String> entitiesOnPath) {
+    final List<GeneratedEntity.FetchNode> nodes = new ArrayList<>();
+    for (final Attribute attribute : entity.getAttributes()) {
+      final RelationInfo relationInfo = attribute.getRelationInfo();
+      if (relationInfo == null || attribute == inverseAttribute
+          || entitiesOnPath.contains(relationInfo.getTarget().getName())) {
+        continue;
+      }
+
+      final GeneratedEntity.FetchNode node = new GeneratedEntity.FetchNode();
+      node.setAttribute(attribute);
+      node.setPath(parentPath.isEmpty() ? attribute.getName() : parentPath + "." + attribute.getName());
+      if (depth > 1) {
+        final Set<String> targetPath = new HashSet<>(entitiesOnPath);
+        targetPath.add(relationInfo.getTarget().getName());
+        node.setChildren(this.createFetchNodes(relationInfo.getTarget(), relationInfo.getTargetAttribute(),
+            node.getPath(), depth - 1, targetPath));
+      }
+      nodes.add(node);
+    }
+    return nodes;
+  }
+
+  /**
+   * Creates a fetch profile of the given entity. A profile either lists paths of relations to fetch (e.g.
+   * 'orders.product'), which can't be longer than its depth ({@link EntityGenerator#MAX_FETCH_DEPTH} by default), or
+   * it fetches all relations down to its depth (1 by default).
+   *
+   * Fetching several collections at once loads a cartesian product of their rows, so the profile gets a warning. The
+   * warning is stronger for bags (lists), as Hibernate can't fetch more than one of them at once.
+   *
+   * @param entity Entity to create the profile for.
+   * @param fetchProfileDescriptor Profile definition.
+   * @return Fetch profile.
+   * @throws EntityGeneratorException If the profile refers to unknown relations, or if a path is too long.
+   */
+  private GeneratedEntity.FetchProfile createFetchProfile(final GeneratedEntity entity,
+      final EntityFetchProfileDescriptor fetchProfileDescriptor) {
+    final String graphName = entity.getName() + "." + fetchProfileDescriptor.getName();
+    final List<GeneratedEntity.FetchNode> nodes;
+    if (fetchProfileDescriptor.getAttributes().isEmpty()) {
+      final int depth = fetchProfileDescriptor.getDepth() == null ? 1 : fetchProfileDescriptor.getDepth();
+      nodes = this.createFetchNodes(entity, null, "", depth, Collections.singleton(entity.getName()));
+    } else {
+      final int depth = fetchProfileDescriptor.getDepth() == null ? MAX_FETCH_DEPTH : fetchProfileDescriptor.getDepth();
+      nodes = new ArrayList<>();
+      //  Paths which share a prefix share its nodes as well.
+      final Map<String, List<GeneratedEntity.FetchNode>> childrenByPath = new HashMap<>();
+      childrenByPath.put("", nodes);
+      for (final String path : fetchProfileDescriptor.getAttributes()) {
+        final String[] segments = StringUtils.defaultString(path).split("\\.", -1);
+        if (segments.length > depth) {
+          throw new EntityGeneratorException("Fetch profile '" + graphName + "' fetches '" + path
+              + "', which is deeper than " + depth + " relations");
+        }
+
+        GeneratedEntity current = entity;
+        String parentPath = "";
+        for (final String segment : segments) {
+          if (StringUtils.isBlank(segment)) {
+            throw new EntityGeneratorException("Fetch profile '" + graphName + "' fetches an invalid path '" + path
+                + "'");
+          }
+          final GeneratedEntity owner = current;
+          final Attribute attribute = owner
+              .findAttribute(segment)
+              .filter(a -> a.getRelationInfo() != null)
+              .orElseThrow(() -> new EntityGeneratorException("Fetch profile '" + graphName + "' fetches '" + path
+                  + "', but '" + segment + "' is not a relation of entity '" + owner.getName() + "'"));
+
+          final String nodePath = parentPath.isEmpty() ? attribute.getName() : parentPath + "." + attribute.getName();
+          if (!childrenByPath.containsKey(nodePath)) {
+            final GeneratedEntity.FetchNode node = new GeneratedEntity.FetchNode();
+            node.setAttribute(attribute);
+            node.setPath(nodePath);
+            final List<GeneratedEntity.FetchNode> children = new ArrayList<>();
+            node.setChildren(children);
+            childrenByPath.get(parentPath).add(node);
+            childrenByPath.put(nodePath, children);
+          }
+          current = attribute.getRelationInfo().getTarget();
+          parentPath = nodePath;
+        }
+      }
+    }
+
+    final GeneratedEntity.FetchProfile fetchProfile = new GeneratedEntity.FetchProfile();
+    fetchProfile.setName(fetchProfileDescriptor.getName());
+    fetchProfile.setGraphName(graphName);
+    fetchProfile.setNodes(nodes);
+
+    final List<String> collections = new ArrayList<>();
+    final List<String> bags = new ArrayList<>();
+    final Deque<GeneratedEntity.FetchNode> pending = new ArrayDeque<>(nodes);
+    while (!pending.isEmpty()) {
+      final GeneratedEntity.FetchNode node = pending.poll();
+      final CollectionType collectionType = node.getAttribute().getRelationInfo().getCollectionType();
+      if (collectionType != null) {
+        collections.add(node.getPath());
+      }
+      if (CollectionType.LIST.equals(collectionType)) {
+        bags.add(node.getPath());
+      }
+      pending.addAll(node.getChildren());
+    }
+    Collections.sort(collections);
+    Collections.sort(bags);
+    if (bags.size() > 1) {
+      fetchProfile.setWarnings(Collections.singletonList("Fetch profile '" + graphName + "' fetches several bags "
+          + bags + " at once, which loads a cartesian product of their rows, and which Hibernate rejects "
+          + "(MultipleBagFetchException). Use sets, or split the profile"));
+    } else if (collections.size() > 1) {
+      fetchProfile.setWarnings(Collections.singletonList("Fetch profile '" + graphName + "' fetches several "
+          + "collections " + collections + " at once, which loads a cartesian product of their rows"));
+    }
+    return fetchProfile;
+  }
+
+  /**
+   * Resolves fetch profiles of the given entity.
+   *
+   * @param entity Entity to process.
+   * @param entityDescriptors Descriptors which define (or extend) the entity.
+   * @throws EntityGeneratorException If any of the profiles is not valid.
+   */
+  private void processFetchProfiles(final GeneratedEntity entity,
+      final Collection<EntityDescriptor> entityDescriptors) {
+    final Map<String, GeneratedEntity.FetchProfile> fetchProfiles = new LinkedHashMap<>();
+    for (final EntityDescriptor entityDescriptor : entityDescriptors) {
+      for (final EntityFetchProfileDescriptor fetchProfileDescriptor : entityDescriptor.getFetchProfiles()) {
+        final GeneratedEntity.FetchProfile fetchProfile = this.createFetchProfile(entity, fetchProfileDescriptor);
+        if (fetchProfiles.putIfAbsent(fetchProfile.getName(), fetchProfile) != null) {
+          throw new EntityGeneratorException("Duplicate fetch profile '" + fetchProfile.getGraphName() + "'");
+        }
+      }
+    }
+    entity.setFetchProfiles(new ArrayList<>(fetchProfiles.values()));
+  }
+
   /**
    * Generates entity metadata from the given input streams of schema definitions.
    *
    * Each input stream is expected to be a JSON schema, which is then parsed, validated, and converted
-   * into a {@link GeneratedEntity}. Refer to {@link EntityGenerator#parseSchemaStream(InputStream)} and
-   * {@link EntityGenerator#processEntityDescriptor(EntityDescriptor, Map)} to learn more about the process.
+   * into a {@link GeneratedEntity}. Refer to {@link EntityGenerator#parseSchemaStream(String, InputStream)} and
+   * {@link EntityGenerator#processEntityDescriptor(EntityDescriptor, Map)} to learn more about the process. Schemas
+   * have no names, so they're processed in the order of fingerprints of their content, rather than in the order of
+   * the streams.
    *
    * @param schemaStreams A collection of JSON schema input streams which should be processed.
    * @return A {@link Collection<GeneratedEntity>} of converted entity definitions.
@@ -555,34 +1077,249 @@ public final class EntityGenerator {
       throw new IllegalArgumentException("A valid schemas collection is required");
     }
 
+    //  Parse schema streams first, and order them by content, so that the outcome doesn't depend on their order.
+    final List<Map.Entry<String, EntitySchemaDescriptor>> schemaDescriptors = new ArrayList<>(schemaStreams.size());
+    for (final InputStream schemaStream : schemaStreams) {
+      final byte[] content = readSchemaStream(schemaStream);
+      schemaDescriptors.add(new AbstractMap.SimpleImmutableEntry<>(Fingerprints.of(content),
+          this.parseSchemaStream(null, new ByteArrayInputStream(content))));
+    }
+    schemaDescriptors.sort(Map.Entry.comparingByKey());
+    return this.generateEntitiesFromDescriptors(schemaDescriptors
+        .stream()
+        .map(Map.Entry::getValue)
+        .collect(Collectors.toList()));
+  }
+
+  /**
+   * Generates entity metadata from the given named input streams of schema definitions.
+   *
+   * It works just like {@link EntityGenerator#generateEntities(Collection)}, except that the names of the schemas
+   * (for example resource paths) are known, so they can be used for error reporting and are available via
+   * {@link GeneratedEntity#getSchemaFiles()}.
+   *
+   * @param schemaStreams A map of schema names to JSON schema input streams which should be processed.
+   * @return A {@link Collection<GeneratedEntity>} of converted entity definitions.
+   * @throws IllegalArgumentException If the JSON schema streams map is either {@code null} or empty.
+   * @throws EntityGeneratorException If there is a problem during the operation (for instance, validation fails).
+   */
+  public Collection<GeneratedEntity> generateEntities(final Map<String, InputStream> schemaStreams) {
+    if (schemaStreams == null || schemaStreams.isEmpty()) {
+      throw new IllegalArgumentException("A valid schemas map is required");
+    }
+
     //  Parse schema streams first.
-    final List<EntitySchemaDescriptor> schemaDescriptors = schemaStreams
+    return this.generateEntitiesFromDescriptors(schemaStreams
+        .entrySet()
+        .stream()
+        .map(e -> this.parseSchemaStream(e.getKey(), e.getValue()))
+        .collect(Collectors.toList()));
+  }
+
+  /**
+   * Generates entity metadata from the given schema files.
+   *
+   * It works just like {@link EntityGenerator#generateEntitiesFromSources(Collection)} with sources created by
+   * {@link SchemaSource#file(Path)}. Paths of the files are used as schema names.
+   *
+   * @param schemaFiles A collection of paths to JSON schema files which should be processed.
+   * @return A {@link Collection<GeneratedEntity>} of converted entity definitions.
+   * @throws IllegalArgumentException If the schema files collection is either {@code null} or empty.
+   * @throws EntityGeneratorException If there is a problem during the operation (for instance, validation fails).
+   */
+  public Collection<GeneratedEntity> generateEntitiesFromFiles(final Collection<Path> schemaFiles) {
+    if (schemaFiles == null || schemaFiles.isEmpty()) {
+      throw new IllegalArgumentException("A valid schema files collection is required");
+    }
+    return this.generateEntitiesFromSources(schemaFiles
         .stream()
-        .map(this::parseSchemaStream)
-        .collect(Collectors.toList());
+        .map(SchemaSource::file)
+        .collect(Collectors.toList()));
+  }
+
+  /**
+   * Generates entity metadata from the given schema sources.
+   *
+   * It works just like {@link EntityGenerator#generateEntities(Map)}, except that sources are opened one at a time,
+   * just before they're parsed, so the number of open resources doesn't depend on the number of schemas. Files are
+   * read through a {@link java.nio.channels.FileChannel} (large files are memory-mapped) into buffers which are
+   * reused for all files. Source identifiers are used as schema names. If the generator has a
+   * {@link SchemaParseCache}, sources whose fingerprints are cached are not read at all.
+   *
+   * @param schemaSources A collection of schema sources which should be processed.
+   * @return A {@link Collection<GeneratedEntity>} of converted entity definitions.
+   * @throws IllegalArgumentException If the schema sources collection is either {@code null} or empty.
+   * @throws EntityGeneratorException If there is a problem during the operation (for instance, validation fails).
+   */
+  public Collection<GeneratedEntity> generateEntitiesFromSources(
+      final Collection<? extends SchemaSource> schemaSources) {
+    if (schemaSources == null || schemaSources.isEmpty()) {
+      throw new IllegalArgumentException("A valid schema sources collection is required");
+    }
+
+    return this.generateEntitiesFromDescriptors(this.parseSchemaSources(schemaSources));
+  }
+
+  /**
+   * Generates entity metadata of a single module, i.e. of entities defined by the module's own schemas.
+   *
+   * Dependency schemas are only parsed (or taken from the {@link SchemaParseCache}). Out of their entities and
+   * relations, only those which the module's entities depend on are resolved: roots, extensions, relations of the
+   * module's entities - and relations of their targets, as far as fetch profiles of the module's entities reach.
+   * Entities of other modules are marked as {@link GeneratedEntity#isExternal()}, and unless they're roots of the
+   * module's entities, they're resolved as stubs, which only hold their names, root, primary key and the selected
+   * relations. Thus, the cost of the generation depends on the size of the module, rather than the whole schema set.
+   *
+   * @param ownedSources Schema sources of the module.
+   * @param dependencySources Schema sources which the module may depend on. Sources which are owned by the module
+   * (sources with the same identifiers) are skipped.
+   * @return A {@link Collection<GeneratedEntity>} of the module's entities, and the external entities they refer to.
+   * @throws IllegalArgumentException If either of the schema sources collections is invalid.
+   * @throws EntityGeneratorException If there is a problem during the operation (for instance, validation fails).
+   */
+  public Collection<GeneratedEntity> generateModuleEntities(final Collection<? extends SchemaSource> ownedSources,
+      final Collection<? extends SchemaSource> dependencySources) {
+    if (ownedSources == null || ownedSources.isEmpty()) {
+      throw new IllegalArgumentException("A valid owned schema sources collection is required");
+    }
+    if (dependencySources == null) {
+      throw new IllegalArgumentException("A valid dependency schema sources collection is required");
+    }
+
+    final Set<String> ownedIds = ownedSources.stream().map(SchemaSource::getId).collect(Collectors.toSet());
+    final SchemaModuleSelector selector = new SchemaModuleSelector(this.parseSchemaSources(ownedSources),
+        this.parseSchemaSources(dependencySources
+            .stream()
+            .filter(s -> !ownedIds.contains(s.getId()))
+            .collect(Collectors.toList())));
+
+    final Collection<GeneratedEntity> generatedEntities = this.generateEntitiesFromDescriptors(selector.select());
+    generatedEntities.forEach(e -> e.setExternal(!selector.getOwnedEntities().contains(e.getName())));
+    return generatedEntities;
+  }
+
+  /**
+   * Parses the given schema sources, one at a time.
+   *
+   * @param schemaSources Schema sources to parse.
+   * @return A {@link List<EntitySchemaDescriptor>} of parsed and validated schema descriptors.
+   * @throws EntityGeneratorException If any of the sources could not be parsed, or is invalid.
+   */
+  private List<EntitySchemaDescriptor> parseSchemaSources(final Collection<? extends SchemaSource> schemaSources) {
+    final SchemaFileReader schemaFileReader = new SchemaFileReader();
+    final List<EntitySchemaDescriptor> schemaDescriptors = new ArrayList<>(schemaSources.size());
+    for (final SchemaSource schemaSource : schemaSources) {
+      schemaDescriptors.add(this.parseSchemaSource(schemaFileReader, schemaSource));
+    }
+    return schemaDescriptors;
+  }
+
+  /**
+   * Parses the given schema source, unless it's found in the {@link SchemaParseCache}.
+   *
+   * @param schemaFileReader Reader of schema files, which may be reused for other sources by the same thread.
+   * @param schemaSource Schema source to parse.
+   * @return Parsed and validated schema descriptor.
+   * @throws EntityGeneratorException If the source could not be parsed, or is invalid.
+   */
+  EntitySchemaDescriptor parseSchemaSource(final SchemaFileReader schemaFileReader, final SchemaSource schemaSource) {
+    try {
+      final String fingerprint = this.parseCache == null ? null : schemaSource.getFingerprint();
+      final EntitySchemaDescriptor cachedDescriptor = fingerprint == null ? null : this.parseCache.get(fingerprint);
+      if (cachedDescriptor != null) {
+        cachedDescriptor.getEntities().forEach(ed -> ed.setSchemaName(schemaSource.getId()));
+        return cachedDescriptor;
+      }
+
+      try (final Reader reader = schemaSource instanceof FileSchemaSource ? schemaFileReader
+          .read(((FileSchemaSource) schemaSource).getFile()) : schemaSource.open()) {
+        final EntitySchemaDescriptor schemaDescriptor = this.parseSchema(schemaSource.getId(), reader);
+        if (fingerprint != null) {
+          this.parseCache.put(fingerprint, schemaDescriptor);
+        }
+        return schemaDescriptor;
+      }
+    } catch (final IOException e) {
+      throw new EntityGeneratorException("Unable to parse schema '" + schemaSource.getId() + "'", e);
+    }
+  }
+
+  /**
+   * Returns the name of the given schema, i.e. the name of the schema of its entities.
+   *
+   * @param schemaDescriptor Schema descriptor.
+   * @return Schema name, or {@code null} if it's not known.
+   */
+  private static String schemaNameOf(final EntitySchemaDescriptor schemaDescriptor) {
+    return schemaDescriptor.getEntities().isEmpty() ? null
+        : schemaDescriptor.getEntities().iterator().next().getSchemaName();
+  }
+
+  /**
+   * Computes how many roots lie between the given entity and an entity which is defined without a root.
+   *
+   * @param name Entity name.
+   * @param entityDescriptorMap Map of entity descriptors, grouped by entity names.
+   * @return Number of roots, which is 0 for entities defined without a root.
+   */
+  private static int rootDepthOf(final String name, final Map<String, List<EntityDescriptor>> entityDescriptorMap) {
+    String current = name;
+    int depth = 0;
+    while (depth < entityDescriptorMap.size()) {
+      final List<EntityDescriptor> descriptors = entityDescriptorMap.get(current);
+      if (descriptors == null || descriptors.stream().anyMatch(d -> d.getRoot() == null)) {
+        break;
+      }
+      current = descriptors.get(0).getRoot().getName();
+      depth++;
+    }
+    return depth;
+  }
+
+  /**
+   * Generates entity metadata from parsed schema descriptors.
+   *
+   * The outcome doesn't depend on the order of the schemas: they're processed in the order of their names (schemas
+   * without a name keep their order, so callers have to order them by content), entities are processed after their
+   * roots, and by name otherwise, and the definition of an entity is processed before its extensions.
+   *
+   * @param unsortedSchemaDescriptors Parsed and validated schema descriptors.
+   * @return A {@link Collection<GeneratedEntity>} of converted entity definitions, sorted by their names.
+   * @throws EntityGeneratorException If there is a problem during the operation (for instance, validation fails).
+   */
+  Collection<GeneratedEntity> generateEntitiesFromDescriptors(
+      final List<EntitySchemaDescriptor> unsortedSchemaDescriptors) {
+    final List<EntitySchemaDescriptor> schemaDescriptors = new ArrayList<>(unsortedSchemaDescriptors);
+    schemaDescriptors.sort(Comparator.comparing(EntityGenerator::schemaNameOf,
+        Comparator.nullsLast(Comparator.naturalOrder())));
 
     final Map<String, List<EntityDescriptor>> unsortedDescriptors = schemaDescriptors
         .stream()
         .flatMap(s -> s.getEntities().stream())
         .collect(Collectors.groupingBy(EntityDescriptor::getName));
     this.validateDuplicateEntities(unsortedDescriptors);
+    if (unsortedDescriptors.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    this.validateRoots(unsortedDescriptors);
 
     //  This sorting ensures that entities with a root are processed AFTER their parents.
+    final Map<String, Integer> rootDepths = unsortedDescriptors
+        .keySet()
+        .stream()
+        .collect(Collectors.toMap(name -> name, name -> rootDepthOf(name, unsortedDescriptors)));
     final Map<String, List<EntityDescriptor>> entityDescriptors = unsortedDescriptors
         .entrySet()
         .stream()
-        .sorted((a, b) -> a.getValue()
-            .stream()
-            .filter(x -> x.getRoot() == null)
-            .findAny()
-            .map(x -> -1)
-            .orElse(1))
-        .collect(Collectors.toMap(Entry::getKey, Entry::getValue, (oldVal, newVal) -> oldVal, LinkedHashMap::new));
-    if (entityDescriptors.isEmpty()) {
-      return Collections.emptyList();
-    }
-
-    this.validateRoots(entityDescriptors);
+        .sorted(Comparator.comparing((Entry<String, List<EntityDescriptor>> e) -> rootDepths.get(e.getKey()))
+            .thenComparing(Entry::getKey))
+        .collect(Collectors.toMap(Entry::getKey, e -> e
+                .getValue()
+                .stream()
+                .sorted(Comparator.comparing(d -> d.getRoot() != null))
+                .collect(Collectors.toList()),
+            (oldVal, newVal) -> oldVal, LinkedHashMap::new));
 
     //  Now we need to process each entity descriptor and convert it to a generated entity.
     final Map<String, GeneratedEntity> generatedEntityMap = new HashMap<>(entityDescriptors.size());
@@ -591,7 +1328,19 @@ public final class EntityGenerator {
 
     //  Finally, process relations.
     schemaDescriptors.forEach(sd -> this.processRelationDescriptors(sd, generatedEntityMap));
+    //  An extension may be registered under its own name, so descriptors are grouped by the entity they resolved to.
+    final Map<GeneratedEntity, List<EntityDescriptor>> descriptorsByEntity = new IdentityHashMap<>();
+    entityDescriptors.forEach((name, descriptors) -> descriptorsByEntity
+        .computeIfAbsent(generatedEntityMap.get(name), e -> new ArrayList<>())
+        .addAll(descriptors));
+    descriptorsByEntity.forEach((entity, descriptors) -> {
+      this.processIdentity(entity, descriptors);
+      this.processDatabaseObjects(entity, descriptors);
+      this.processFetchProfiles(entity, descriptors);
+    });
 
-    return generatedEntityMap.values();
+    final List<GeneratedEntity> generatedEntities = new ArrayList<>(descriptorsByEntity.keySet());
+    generatedEntities.sort(Comparator.comparing(GeneratedEntity::getName));
+    return generatedEntities;
   }
 }
@@ -0,0 +1,316 @@
+package pl.pateman.entitygenerator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import pl.pateman.entitygenerator.exception.EntityGeneratorException;
+
+/**
+ * A long-lived set of schema sources, along with entities resolved from them.
+ *
+ * Sources can be added, replaced and removed over time. Every change creates a new {@link Snapshot}, which is
+ * published atomically, and never changes afterwards - readers take the current snapshot with
+ * {@link EntityGeneratorSession#getSnapshot()}, without any locking, and keep seeing a consistent model for as long as
+ * they hold it. Changes are applied one at a time.
+ *
+ * Resolution is incremental. Only added and replaced sources are parsed. Schemas are split into independent groups -
+ * schemas which define, extend, inherit from or relate to the same entities belong to the same group - and only groups
+ * affected by a change are resolved again. Entities of all other groups are shared with the previous snapshot.
+ *
+ * Create sessions with {@link EntityGenerator#openSession()}. This class is thread-safe.
+ */
+public final class EntityGeneratorSession {
+
+  private final EntityGenerator entityGenerator;
+  private final Object updateLock = new Object();
+  private volatile Snapshot snapshot = new Snapshot(0L, Collections.emptyMap(), Collections.emptyMap(),
+      Collections.emptyMap());
+
+  /**
+   * Creates an empty session.
+   *
+   * @param entityGenerator Generator which parses and resolves schemas.
+   */
+  EntityGeneratorSession(final EntityGenerator entityGenerator) {
+    if (entityGenerator == null) {
+      throw new IllegalArgumentException("A valid entity generator is required");
+    }
+    this.entityGenerator = entityGenerator;
+  }
+
+  /**
+   * Finds the representative of the group of the given schema.
+   *
+   * @param parents Map of schema identifiers to identifiers of their parents in the group.
+   * @param id Schema identifier.
+   * @return Identifier of the representative.
+   */
+  private static String findGroup(final Map<String, String> parents, final String id) {
+    String current = id;
+    while (!current.equals(parents.get(current))) {
+      final String parent = parents.get(current);
+      parents.put(current, parents.get(parent));
+      current = parent;
+    }
+    return current;
+  }
+
+  /**
+   * Returns names of all entities which the given schema refers to.
+   *
+   * @param schemaDescriptor Schema descriptor.
+   * @return Entity names.
+   */
+  private static Set<String> entityNamesOf(final EntitySchemaDescriptor schemaDescriptor) {
+    final Set<String> names = new HashSet<>();
+    for (final EntityDescriptor entityDescriptor : schemaDescriptor.getEntities()) {
+      names.add(entityDescriptor.getName());
+      if (entityDescriptor.getRoot() != null) {
+        names.add(entityDescriptor.getRoot().getName());
+      }
+    }
+    for (final EntityRelationDescriptor relationDescriptor : schemaDescriptor.getRelations()) {
+      if (relationDescriptor.getSource() != null) {
+        names.add(relationDescriptor.getSource().getEntity());
+      }
+      if (relationDescriptor.getTarget() != null) {
+        names.add(relationDescriptor.getTarget().getEntity());
+      }
+    }
+    names.remove(null);
+    return names;
+  }
+
+  /**
+   * Splits schemas into groups which can be resolved independently.
+   *
+   * @param descriptors Map of schema identifiers to parsed schemas, sorted by identifiers.
+   * @return Groups of schema identifiers, each sorted.
+   */
+  private static Collection<List<String>> groupSchemas(final Map<String, EntitySchemaDescriptor> descriptors) {
+    final Map<String, String> parents = new HashMap<>(descriptors.size());
+    final Map<String, String> schemaByEntity = new HashMap<>();
+    descriptors.forEach((id, descriptor) -> {
+      parents.put(id, id);
+      for (final String name : entityNamesOf(descriptor)) {
+        final String other = schemaByEntity.putIfAbsent(name, id);
+        if (other != null) {
+          parents.put(findGroup(parents, id), findGroup(parents, other));
+        }
+      }
+    });
+
+    final Map<String, List<String>> groups = new LinkedHashMap<>();
+    descriptors.keySet().forEach(id -> groups.computeIfAbsent(findGroup(parents, id), g -> new ArrayList<>()).add(id));
+    return groups.values();
+  }
+
+  /**
+   * Returns the current snapshot. It's never {@code null} - a new session starts with an empty snapshot.
+   *
+   * @return Current snapshot.
+   */
+  public Snapshot getSnapshot() {
+    return this.snapshot;
+  }
+
+  /**
+   * Adds the given schema sources.
+   *
+   * @param schemaSources Sources to add.
+   * @return The new snapshot.
+   * @throws IllegalArgumentException If the collection is invalid, or a source with the same identifier was added.
+   * @throws EntityGeneratorException If the sources could not be parsed or resolved. The snapshot stays unchanged.
+   */
+  public Snapshot addSources(final Collection<? extends SchemaSource> schemaSources) {
+    return this.update(schemaSources, Collections.emptyList(), false, true);
+  }
+
+  /**
+   * Replaces sources with the same identifiers as the given ones, e.g. when their content has changed.
+   *
+   * @param schemaSources New versions of the sources.
+   * @return The new snapshot.
+   * @throws IllegalArgumentException If the collection is invalid, or any of the sources wasn't added before.
+   * @throws EntityGeneratorException If the sources could not be parsed or resolved. The snapshot stays unchanged.
+   */
+  public Snapshot replaceSources(final Collection<? extends SchemaSource> schemaSources) {
+    return this.update(schemaSources, Collections.emptyList(), true, false);
+  }
+
+  /**
+   * Removes sources with the given identifiers.
+   *
+   * @param ids Identifiers of the sources to remove.
+   * @return The new snapshot.
+   * @throws IllegalArgumentException If the collection is invalid, or any of the sources wasn't added before.
+   * @throws EntityGeneratorException If the remaining schemas could not be resolved. The snapshot stays unchanged.
+   */
+  public Snapshot removeSources(final Collection<String> ids) {
+    return this.update(Collections.emptyList(), ids, true, true);
+  }
+
+  /**
+   * Adds or replaces the given sources, and removes sources with the given identifiers, as a single change.
+   *
+   * @param schemaSources Sources to add or replace.
+   * @param removedIds Identifiers of the sources to remove.
+   * @return The new snapshot.
+   * @throws IllegalArgumentException If either of the collections is invalid, or any of the removed sources wasn't
+   * added before.
+   * @throws EntityGeneratorException If the sources could not be parsed or resolved. The snapshot stays unchanged.
+   */
+  public Snapshot update(final Collection<? extends SchemaSource> schemaSources, final Collection<String> removedIds) {
+    return this.update(schemaSources, removedIds, true, true);
+  }
+
+  /**
+   * Applies a change and publishes the new snapshot.
+   *
+   * @param schemaSources Sources to add or replace.
+   * @param removedIds Identifiers of the sources to remove.
+   * @param replacing Whether sources may replace existing ones.
+   * @param adding Whether sources may be new.
+   * @return The new snapshot, or the current one if nothing has changed.
+   */
+  private Snapshot update(final Collection<? extends SchemaSource> schemaSources, final Collection<String> removedIds,
+      final boolean replacing, final boolean adding) {
+    if (schemaSources == null || schemaSources.contains(null)) {
+      throw new IllegalArgumentException("A valid schema sources collection is required");
+    }
+    if (removedIds == null || removedIds.contains(null)) {
+      throw new IllegalArgumentException("A valid schema identifiers collection is required");
+    }
+
+    synchronized (this.updateLock) {
+      final Snapshot current = this.snapshot;
+      final Map<String, SchemaSource> sources = new TreeMap<>(current.sources);
+      final Map<String, EntitySchemaDescriptor> descriptors = new TreeMap<>(current.descriptors);
+      final Set<String> changedIds = new HashSet<>();
+
+      for (final String id : removedIds) {
+        if (sources.remove(id) == null) {
+          throw new IllegalArgumentException("Unknown schema source '" + id + "'");
+        }
+        descriptors.remove(id);
+        changedIds.add(id);
+      }
+
+      final SchemaFileReader schemaFileReader = new SchemaFileReader();
+      for (final SchemaSource schemaSource : schemaSources) {
+        final boolean exists = sources.containsKey(schemaSource.getId());
+        if (exists && !replacing) {
+          throw new IllegalArgumentException("Schema source '" + schemaSource.getId() + "' is already added");
+        }
+        if (!exists && !adding) {
+          throw new IllegalArgumentException("Unknown schema source '" + schemaSource.getId() + "'");
+        }
+        sources.put(schemaSource.getId(), schemaSource);
+        descriptors.put(schemaSource.getId(), this.entityGenerator.parseSchemaSource(schemaFileReader, schemaSource));
+        changedIds.add(schemaSource.getId());
+      }
+
+      if (changedIds.isEmpty()) {
+        return current;
+      }
+
+      //  Groups which consist of the same, unchanged schemas as before resolve to the same entities.
+      final Map<List<String>, Collection<GeneratedEntity>> groups = new LinkedHashMap<>();
+      for (final List<String> group : groupSchemas(descriptors)) {
+        final Collection<GeneratedEntity> previousEntities = current.groups.get(group);
+        if (previousEntities != null && group.stream().noneMatch(changedIds::contains)) {
+          groups.put(group, previousEntities);
+        } else {
+          groups.put(group, this.entityGenerator.generateEntitiesFromDescriptors(group
+              .stream()
+              .map(descriptors::get)
+              .collect(Collectors.toList())));
+        }
+      }
+
+      final Snapshot next = new Snapshot(current.version + 1, sources, descriptors, groups);
+      this.snapshot = next;
+      return next;
+    }
+  }
+
+  /**
+   * An immutable view of the session's sources, and of entities resolved from them.
+   */
+  public static final class Snapshot {
+
+    private final long version;
+    private final Map<String, SchemaSource> sources;
+    private final Map<String, EntitySchemaDescriptor> descriptors;
+    private final Map<List<String>, Collection<GeneratedEntity>> groups;
+    private final Collection<GeneratedEntity> entities;
+    private final Map<String, GeneratedEntity> entitiesByName;
+
+    private Snapshot(final long version, final Map<String, SchemaSource> sources,
+        final Map<String, EntitySchemaDescriptor> descriptors,
+        final Map<List<String>, Collection<GeneratedEntity>> groups) {
+      this.version = version;
+      this.sources = Collections.unmodifiableMap(sources);
+      this.descriptors = descriptors;
+      this.groups = groups;
+
+      //  An extension may be registered under its own name, so the same entity may be resolved twice.
+      final Set<GeneratedEntity> entities = Collections.newSetFromMap(new IdentityHashMap<>());
+      final List<GeneratedEntity> orderedEntities = new ArrayList<>();
+      groups.values().forEach(g -> g.stream().filter(entities::add).forEach(orderedEntities::add));
+      orderedEntities.sort(Comparator.comparing(GeneratedEntity::getName));
+      this.entities = Collections.unmodifiableList(orderedEntities);
+      this.entitiesByName = Collections.unmodifiableMap(orderedEntities
+          .stream()
+          .collect(Collectors.toMap(GeneratedEntity::getName, e -> e, (a, b) -> a, HashMap::new)));
+    }
+
+    /**
+     * Returns the version of the snapshot, which grows with every change of the session.
+     *
+     * @return Snapshot version.
+     */
+    public long getVersion() {
+      return this.version;
+    }
+
+    /**
+     * Returns sources of the snapshot, sorted by their identifiers.
+     *
+     * @return A {@link Collection<SchemaSource>} of sources.
+     */
+    public Collection<SchemaSource> getSources() {
+      return this.sources.values();
+    }
+
+    /**
+     * Returns entities resolved from the sources, sorted by their names. Each entity is returned once.
+     *
+     * @return A {@link Collection<GeneratedEntity>} of entities.
+     */
+    public Collection<GeneratedEntity> getEntities() {
+      return this.entities;
+    }
+
+    /**
+     * Finds an entity by its name.
+     *
+     * @param name Entity name.
+     * @return An {@link Optional<GeneratedEntity>} with the entity, or an empty one if there's no such entity.
+     */
+    public Optional<GeneratedEntity> findEntity(final String name) {
+      return Optional.ofNullable(this.entitiesByName.get(name));
+    }
+  }
+}
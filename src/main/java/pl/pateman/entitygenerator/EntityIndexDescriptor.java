@@ -0,0 +1,32 @@
+package pl.pateman.entitygenerator;
+
+import java.util.Collection;
+import java.util.Collections;
+
+final class EntityIndexDescriptor {
+
+  private String name;
+  private Collection<String> columns;
+  private Boolean unique;
+  private String where;
+
+  private EntityIndexDescriptor() {
+
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public Collection<String> getColumns() {
+    return this.columns == null ? Collections.emptyList() : Collections.unmodifiableCollection(this.columns);
+  }
+
+  public boolean isUnique() {
+    return this.unique == null ? false : this.unique;
+  }
+
+  public String getWhere() {
+    return where;
+  }
+}
@@ -0,0 +1,397 @@
+package pl.pateman.entitygenerator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import pl.pateman.entitygenerator.GeneratedEntity.Attribute;
+import pl.pateman.entitygenerator.GeneratedEntity.FetchNode;
+import pl.pateman.entitygenerator.GeneratedEntity.FetchProfile;
+import pl.pateman.entitygenerator.GeneratedEntity.RelationInfo;
+import pl.pateman.entitygenerator.exception.EntityGeneratorException;
+
+/**
+ * Writes and reads resolved entity metadata to and from a compact binary snapshot.
+ *
+ * A snapshot starts with a dictionary of all strings used by the model, followed by entities which refer to the
+ * strings by their index. Relations refer to their targets by entity and attribute names, and so do relations fetched
+ * by fetch profiles. Both are resolved when the snapshot is read, so the read model is equivalent to the written one.
+ *
+ * This class is thread-safe.
+ */
+public final class EntityModelSnapshot {
+
+  private static final int MAGIC = 0x4A53454D;
+  private static final int VERSION = 6;
+  private static final int NULL_INDEX = -1;
+
+  /**
+   * Collects strings used by the model into a dictionary.
+   */
+  private static final class StringDictionary {
+
+    private final Map<String, Integer> indices = new LinkedHashMap<>();
+
+    void add(final String value) {
+      if (value != null) {
+        this.indices.putIfAbsent(value, this.indices.size());
+      }
+    }
+
+    int indexOf(final String value) {
+      return value == null ? NULL_INDEX : this.indices.get(value);
+    }
+
+    Collection<String> values() {
+      return this.indices.keySet();
+    }
+  }
+
+  private StringDictionary createDictionary(final Collection<GeneratedEntity> entities) {
+    final StringDictionary dictionary = new StringDictionary();
+    for (final GeneratedEntity entity : entities) {
+      dictionary.add(entity.getName());
+      dictionary.add(entity.getDeployment());
+      dictionary.add(entity.getClassFile());
+      dictionary.add(entity.getSequenceName());
+      entity.getSchemaFiles().forEach(dictionary::add);
+      for (final GeneratedEntity.Index index : entity.getIndexes()) {
+        dictionary.add(index.getName());
+        dictionary.add(index.getWhere());
+        index.getColumns().forEach(dictionary::add);
+      }
+      for (final Attribute attribute : entity.getAttributes()) {
+        dictionary.add(attribute.getName());
+        dictionary.add(attribute.getType());
+        attribute.getFlags().forEach(dictionary::add);
+        if (attribute.getRelationInfo() != null) {
+          dictionary.add(attribute.getRelationInfo().getJoinTable());
+          dictionary.add(attribute.getRelationInfo().getJoinColumn());
+        }
+      }
+      for (final FetchProfile fetchProfile : entity.getFetchProfiles()) {
+        dictionary.add(fetchProfile.getName());
+        dictionary.add(fetchProfile.getGraphName());
+        fetchProfile.getWarnings().forEach(dictionary::add);
+      }
+    }
+    return dictionary;
+  }
+
+  private void writeFetchNodes(final DataOutputStream out, final StringDictionary dictionary,
+      final List<FetchNode> nodes) throws IOException {
+    out.writeInt(nodes.size());
+    for (final FetchNode node : nodes) {
+      out.writeInt(dictionary.indexOf(node.getAttribute().getName()));
+      this.writeFetchNodes(out, dictionary, node.getChildren());
+    }
+  }
+
+  private List<FetchNode> readFetchNodes(final DataInputStream in, final String[] dictionary,
+      final Map<FetchNode, String> fetchAttributes) throws IOException {
+    final int nodeCount = in.readInt();
+    final List<FetchNode> nodes = new ArrayList<>(nodeCount);
+    for (int i = 0; i < nodeCount; i++) {
+      final FetchNode node = new FetchNode();
+      fetchAttributes.put(node, this.lookup(dictionary, in.readInt()));
+      node.setChildren(this.readFetchNodes(in, dictionary, fetchAttributes));
+      nodes.add(node);
+    }
+    return nodes;
+  }
+
+  /**
+   * Resolves attributes of the given fetch nodes, and of their children. Relation targets must be resolved already.
+   *
+   * @param owner Entity which the nodes' attributes belong to.
+   * @param nodes Fetch nodes.
+   * @param parentPath Path of the parent node, or an empty string at the top.
+   * @param fetchAttributes Map of fetch nodes to names of their attributes.
+   */
+  private void resolveFetchNodes(final GeneratedEntity owner, final List<FetchNode> nodes, final String parentPath,
+      final Map<FetchNode, String> fetchAttributes) {
+    for (final FetchNode node : nodes) {
+      final String attributeName = fetchAttributes.get(node);
+      final Attribute attribute = owner
+          .findAttribute(a -> attributeName.equals(a.getName()) && a.getRelationInfo() != null)
+          .orElseThrow(() -> new EntityGeneratorException(
+              "Model snapshot fetches an unknown relation '" + owner.getName() + "." + attributeName + "'"));
+      node.setAttribute(attribute);
+      node.setPath(parentPath.isEmpty() ? attributeName : parentPath + "." + attributeName);
+      this.resolveFetchNodes(attribute.getRelationInfo().getTarget(), node.getChildren(), node.getPath(),
+          fetchAttributes);
+    }
+  }
+
+  private void writeEnum(final DataOutputStream out, final Enum<?> value) throws IOException {
+    out.writeByte(value == null ? NULL_INDEX : value.ordinal());
+  }
+
+  private <T extends Enum<T>> T readEnum(final DataInputStream in, final T[] values) throws IOException {
+    final byte ordinal = in.readByte();
+    return ordinal == NULL_INDEX ? null : values[ordinal];
+  }
+
+  /**
+   * Writes a snapshot of the given entities to the given stream. The stream is not closed.
+   *
+   * @param entities Entities to write.
+   * @param outputStream Stream to write the snapshot to.
+   * @throws EntityGeneratorException If the snapshot could not be written.
+   */
+  public void write(final Collection<GeneratedEntity> entities, final OutputStream outputStream) {
+    if (entities == null) {
+      throw new IllegalArgumentException("A valid entities collection is required");
+    }
+    if (outputStream == null) {
+      throw new IllegalArgumentException("A valid output stream is required");
+    }
+
+    final StringDictionary dictionary = this.createDictionary(entities);
+    try {
+      final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+
+      out.writeInt(dictionary.values().size());
+      for (final String value : dictionary.values()) {
+        out.writeUTF(value);
+      }
+
+      out.writeInt(entities.size());
+      for (final GeneratedEntity entity : entities) {
+        out.writeInt(dictionary.indexOf(entity.getName()));
+        out.writeInt(dictionary.indexOf(entity.getDeployment()));
+        out.writeInt(dictionary.indexOf(entity.getClassFile()));
+        out.writeInt(entity.getRoot() == null ? NULL_INDEX : dictionary.indexOf(entity.getRoot().getName()));
+        out.writeInt(entity.getSchemaFiles().size());
+        for (final String schemaFile : entity.getSchemaFiles()) {
+          out.writeInt(dictionary.indexOf(schemaFile));
+        }
+        out.writeInt(dictionary.indexOf(entity.getSequenceName()));
+        out.writeInt(entity.getAllocationSize());
+        this.writeEnum(out, entity.getIdentity());
+        out.writeBoolean(entity.isExternal());
+        out.writeInt(entity.getIndexes().size());
+        for (final GeneratedEntity.Index index : entity.getIndexes()) {
+          out.writeInt(dictionary.indexOf(index.getName()));
+          out.writeBoolean(index.isUnique());
+          out.writeInt(dictionary.indexOf(index.getWhere()));
+          out.writeInt(index.getColumns().size());
+          for (final String column : index.getColumns()) {
+            out.writeInt(dictionary.indexOf(column));
+            out.writeBoolean(index.getDescendingColumns().contains(column));
+          }
+        }
+
+        out.writeInt(entity.getAttributes().size());
+        for (final Attribute attribute : entity.getAttributes()) {
+          out.writeInt(dictionary.indexOf(attribute.getName()));
+          out.writeInt(dictionary.indexOf(attribute.getType()));
+          out.writeBoolean(attribute.isReintroduced());
+          out.writeInt(attribute.getFlags().size());
+          for (final String flag : attribute.getFlags()) {
+            out.writeInt(dictionary.indexOf(flag));
+          }
+
+          final RelationInfo relationInfo = attribute.getRelationInfo();
+          out.writeBoolean(relationInfo != null);
+          if (relationInfo != null) {
+            out.writeInt(dictionary.indexOf(relationInfo.getTarget().getName()));
+            out.writeInt(dictionary.indexOf(relationInfo.getTargetAttribute().getName()));
+            out.writeInt(dictionary.indexOf(relationInfo.getJoinTable()));
+            out.writeInt(dictionary.indexOf(relationInfo.getJoinColumn()));
+            this.writeEnum(out, relationInfo.getCollectionType());
+            this.writeEnum(out, relationInfo.getSide());
+            out.writeBoolean(relationInfo.isSource());
+            this.writeEnum(out, relationInfo.getFetchType());
+            this.writeEnum(out, relationInfo.getFetchMode());
+            out.writeInt(relationInfo.getBatchSize());
+            out.writeBoolean(relationInfo.isIndexed());
+          }
+        }
+
+        out.writeInt(entity.getFetchProfiles().size());
+        for (final FetchProfile fetchProfile : entity.getFetchProfiles()) {
+          out.writeInt(dictionary.indexOf(fetchProfile.getName()));
+          out.writeInt(dictionary.indexOf(fetchProfile.getGraphName()));
+          out.writeInt(fetchProfile.getWarnings().size());
+          for (final String warning : fetchProfile.getWarnings()) {
+            out.writeInt(dictionary.indexOf(warning));
+          }
+          this.writeFetchNodes(out, dictionary, fetchProfile.getNodes());
+        }
+      }
+      out.flush();
+    } catch (final IOException e) {
+      throw new EntityGeneratorException("Unable to write the model snapshot", e);
+    }
+  }
+
+  /**
+   * Reads a snapshot of entities from the given stream. The stream is not closed.
+   *
+   * @param inputStream Stream to read the snapshot from.
+   * @return A {@link Collection<GeneratedEntity>} of entities stored in the snapshot.
+   * @throws EntityGeneratorException If the snapshot could not be read or is not valid.
+   */
+  public Collection<GeneratedEntity> read(final InputStream inputStream) {
+    if (inputStream == null) {
+      throw new IllegalArgumentException("A valid input stream is required");
+    }
+
+    try {
+      final DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+        throw new EntityGeneratorException("Not a valid model snapshot");
+      }
+
+      final String[] dictionary = new String[in.readInt()];
+      for (int i = 0; i < dictionary.length; i++) {
+        dictionary[i] = in.readUTF();
+      }
+
+      //  Roots, relation targets and fetched relations are resolved once all entities have been read, so their names
+      //  are kept aside.
+      final Map<String, GeneratedEntity> entities = new LinkedHashMap<>();
+      final Map<GeneratedEntity, String> roots = new HashMap<>();
+      final Map<RelationInfo, String[]> relationTargets = new HashMap<>();
+      final Map<FetchNode, String> fetchAttributes = new HashMap<>();
+
+      final int entityCount = in.readInt();
+      for (int i = 0; i < entityCount; i++) {
+        final GeneratedEntity entity = new GeneratedEntity();
+        entity.setName(this.lookup(dictionary, in.readInt()));
+        entity.setDeployment(this.lookup(dictionary, in.readInt()));
+        entity.setClassFile(this.lookup(dictionary, in.readInt()));
+        final String root = this.lookup(dictionary, in.readInt());
+        if (root != null) {
+          roots.put(entity, root);
+        }
+        final int schemaFileCount = in.readInt();
+        final Set<String> schemaFiles = new LinkedHashSet<>(schemaFileCount);
+        for (int j = 0; j < schemaFileCount; j++) {
+          schemaFiles.add(this.lookup(dictionary, in.readInt()));
+        }
+        entity.setSchemaFiles(schemaFiles);
+        entity.setSequenceName(this.lookup(dictionary, in.readInt()));
+        entity.setAllocationSize(in.readInt());
+        entity.setIdentity(this.readEnum(in, GeneratedEntity.Identity.values()));
+        entity.setExternal(in.readBoolean());
+        final int indexCount = in.readInt();
+        final List<GeneratedEntity.Index> indexes = new ArrayList<>(indexCount);
+        for (int j = 0; j < indexCount; j++) {
+          final GeneratedEntity.Index index = new GeneratedEntity.Index();
+          index.setName(this.lookup(dictionary, in.readInt()));
+          index.setUnique(in.readBoolean());
+          index.setWhere(this.lookup(dictionary, in.readInt()));
+          final int columnCount = in.readInt();
+          final List<String> columns = new ArrayList<>(columnCount);
+          final Set<String> descendingColumns = new HashSet<>();
+          for (int k = 0; k < columnCount; k++) {
+            final String column = this.lookup(dictionary, in.readInt());
+            columns.add(column);
+            if (in.readBoolean()) {
+              descendingColumns.add(column);
+            }
+          }
+          index.setColumns(columns);
+          index.setDescendingColumns(descendingColumns);
+          indexes.add(index);
+        }
+        entity.setIndexes(indexes);
+
+        final int attributeCount = in.readInt();
+        final Set<Attribute> attributes = new LinkedHashSet<>(attributeCount);
+        for (int j = 0; j < attributeCount; j++) {
+          final Attribute attribute = new Attribute();
+          attribute.setName(this.lookup(dictionary, in.readInt()));
+          attribute.setType(this.lookup(dictionary, in.readInt()));
+          attribute.setReintroduced(in.readBoolean());
+          final int flagCount = in.readInt();
+          final List<String> flags = new ArrayList<>(flagCount);
+          for (int k = 0; k < flagCount; k++) {
+            flags.add(this.lookup(dictionary, in.readInt()));
+          }
+          attribute.setFlags(flags);
+
+          if (in.readBoolean()) {
+            final RelationInfo relationInfo = new RelationInfo();
+            relationTargets.put(relationInfo,
+                new String[]{this.lookup(dictionary, in.readInt()), this.lookup(dictionary, in.readInt())});
+            relationInfo.setJoinTable(this.lookup(dictionary, in.readInt()));
+            relationInfo.setJoinColumn(this.lookup(dictionary, in.readInt()));
+            relationInfo.setCollectionType(this.readEnum(in, RelationInfo.CollectionType.values()));
+            relationInfo.setSide(this.readEnum(in, RelationInfo.Side.values()));
+            relationInfo.setSource(in.readBoolean());
+            relationInfo.setFetchType(this.readEnum(in, RelationInfo.FetchType.values()));
+            relationInfo.setFetchMode(this.readEnum(in, RelationInfo.FetchMode.values()));
+            relationInfo.setBatchSize(in.readInt());
+            relationInfo.setIndexed(in.readBoolean());
+            attribute.setRelationInfo(relationInfo);
+          }
+          attributes.add(attribute);
+        }
+        entity.setAttributes(attributes);
+
+        final int fetchProfileCount = in.readInt();
+        final List<FetchProfile> fetchProfiles = new ArrayList<>(fetchProfileCount);
+        for (int j = 0; j < fetchProfileCount; j++) {
+          final FetchProfile fetchProfile = new FetchProfile();
+          fetchProfile.setName(this.lookup(dictionary, in.readInt()));
+          fetchProfile.setGraphName(this.lookup(dictionary, in.readInt()));
+          final int warningCount = in.readInt();
+          final List<String> warnings = new ArrayList<>(warningCount);
+          for (int k = 0; k < warningCount; k++) {
+            warnings.add(this.lookup(dictionary, in.readInt()));
+          }
+          fetchProfile.setWarnings(warnings);
+          fetchProfile.setNodes(this.readFetchNodes(in, dictionary, fetchAttributes));
+          fetchProfiles.add(fetchProfile);
+        }
+        entity.setFetchProfiles(fetchProfiles);
+        entities.put(entity.getName(), entity);
+      }
+
+      roots.forEach((entity, root) -> entity.setRoot(this.resolveEntity(entities, root)));
+      relationTargets.forEach((relationInfo, target) -> {
+        final GeneratedEntity targetEntity = this.resolveEntity(entities, target[0]);
+        relationInfo.setTarget(targetEntity);
+        relationInfo.setTargetAttribute(targetEntity
+            .findAttribute(a -> target[1].equals(a.getName()))
+            .orElseThrow(() -> new EntityGeneratorException(
+                "Model snapshot references an unknown attribute '" + target[0] + "." + target[1] + "'")));
+      });
+      entities.values().forEach(entity -> entity.getFetchProfiles()
+          .forEach(p -> this.resolveFetchNodes(entity, p.getNodes(), "", fetchAttributes)));
+
+      return entities.values();
+    } catch (final IOException | ArrayIndexOutOfBoundsException e) {
+      throw new EntityGeneratorException("Unable to read the model snapshot", e);
+    }
+  }
+
+  private String lookup(final String[] dictionary, final int index) {
+    return index == NULL_INDEX ? null : dictionary[index];
+  }
+
+  private GeneratedEntity resolveEntity(final Map<String, GeneratedEntity> entities, final String name) {
+    final GeneratedEntity entity = entities.get(name);
+    if (entity == null) {
+      throw new EntityGeneratorException("Model snapshot references an unknown entity '" + name + "'");
+    }
+    return entity;
+  }
+}
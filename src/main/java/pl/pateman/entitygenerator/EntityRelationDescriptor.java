@@ -6,6 +6,7 @@ final class EntityRelationDescriptor {
   private EntityRelationSideDescriptor target;
   private String joinTable;
   private String joinColumn;
+  private Boolean indexed;
 
   private EntityRelationDescriptor() {
 
@@ -26,4 +27,8 @@ final class EntityRelationDescriptor {
   public String getJoinColumn() {
     return joinColumn;
   }
+
+  public boolean isIndexed() {
+    return this.indexed == null ? true : this.indexed;
+  }
 }
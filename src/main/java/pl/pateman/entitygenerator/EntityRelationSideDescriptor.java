@@ -6,6 +6,9 @@ final class EntityRelationSideDescriptor {
   private String attributeName;
   private Side side;
   private CollectionType collectionType;
+  private FetchType fetch;
+  private FetchMode fetchMode;
+  private Integer batchSize;
 
   private EntityRelationSideDescriptor() {
 
@@ -27,6 +30,18 @@ final class EntityRelationSideDescriptor {
     return collectionType;
   }
 
+  public FetchType getFetch() {
+    return fetch;
+  }
+
+  public FetchMode getFetchMode() {
+    return fetchMode;
+  }
+
+  public Integer getBatchSize() {
+    return batchSize;
+  }
+
   enum Side {
     ONE,
     MANY
@@ -36,4 +51,15 @@ final class EntityRelationSideDescriptor {
     LIST,
     SET
   }
+
+  enum FetchType {
+    LAZY,
+    EAGER
+  }
+
+  enum FetchMode {
+    SELECT,
+    SUBSELECT,
+    JOIN
+  }
 }
@@ -12,6 +12,12 @@ final class EntitySchemaDescriptor {
 
   }
 
+  EntitySchemaDescriptor(final Collection<EntityDescriptor> entities,
+      final Collection<EntityRelationDescriptor> relations) {
+    this.entities = entities;
+    this.relations = relations;
+  }
+
   public Collection<EntityDescriptor> getEntities() {
     return this.entities == null ? Collections.emptyList() : Collections.unmodifiableCollection(entities);
   }
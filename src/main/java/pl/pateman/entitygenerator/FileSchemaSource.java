@@ -0,0 +1,87 @@
+package pl.pateman.entitygenerator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.OptionalLong;
+
+/**
+ * A {@link SchemaSource} of a file. The path of the file serves as the identifier.
+ *
+ * This class is immutable.
+ */
+final class FileSchemaSource implements SchemaSource {
+
+  private final Path file;
+
+  FileSchemaSource(final Path file) {
+    if (file == null) {
+      throw new IllegalArgumentException("A valid file is required");
+    }
+    this.file = file;
+  }
+
+  /**
+   * Returns the path to the file.
+   *
+   * @return File path.
+   */
+  Path getFile() {
+    return file;
+  }
+
+  @Override
+  public String getId() {
+    return this.file.toString();
+  }
+
+  @Override
+  public String getFingerprint() throws IOException {
+    try (final InputStream inputStream = Files.newInputStream(this.file)) {
+      return Fingerprints.of(inputStream);
+    }
+  }
+
+  @Override
+  public OptionalLong getLastModified() {
+    try {
+      return OptionalLong.of(Files.getLastModifiedTime(this.file).toMillis());
+    } catch (final IOException e) {
+      return OptionalLong.empty();
+    }
+  }
+
+  /**
+   * Opens the file with a new {@link SchemaFileReader}. {@link EntityGenerator} reads files with a shared reader
+   * instead, so that buffers are reused.
+   */
+  @Override
+  public Reader open() throws IOException {
+    return new SchemaFileReader().read(this.file);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    FileSchemaSource that = (FileSchemaSource) o;
+    return Objects.equals(file, that.file);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(file);
+  }
+
+  @Override
+  public String toString() {
+    return this.file.toUri().toString();
+  }
+}
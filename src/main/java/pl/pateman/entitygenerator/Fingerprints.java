@@ -0,0 +1,136 @@
+package pl.pateman.entitygenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+/**
+ * Helper methods which compute content fingerprints, i.e. hex-encoded SHA-256 digests.
+ */
+final class Fingerprints {
+
+  private static final String ALGORITHM = "SHA-256";
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private Fingerprints() {
+
+  }
+
+  static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance(ALGORITHM);
+    } catch (final NoSuchAlgorithmException e) {
+      //  Every Java platform is required to support SHA-256.
+      throw new IllegalStateException(e);
+    }
+  }
+
+  static String toHex(final byte[] digest) {
+    final char[] hex = new char[digest.length * 2];
+    for (int i = 0; i < digest.length; i++) {
+      hex[i * 2] = HEX_DIGITS[(digest[i] >> 4) & 0xF];
+      hex[i * 2 + 1] = HEX_DIGITS[digest[i] & 0xF];
+    }
+    return new String(hex);
+  }
+
+  /**
+   * Computes the fingerprint of the given bytes.
+   *
+   * @param content Content to compute the fingerprint of.
+   * @return Content fingerprint.
+   */
+  static String of(final byte[] content) {
+    return toHex(newDigest().digest(content));
+  }
+
+  /**
+   * Computes the fingerprint of the remaining content of the given stream. The stream is not closed.
+   *
+   * @param inputStream Stream to compute the fingerprint of.
+   * @return Content fingerprint.
+   * @throws IOException If the stream could not be read.
+   */
+  static String of(final InputStream inputStream) throws IOException {
+    final MessageDigest digest = newDigest();
+    final byte[] buffer = new byte[8192];
+    for (int read = inputStream.read(buffer); read != -1; read = inputStream.read(buffer)) {
+      digest.update(buffer, 0, read);
+    }
+    return toHex(digest.digest());
+  }
+
+  /**
+   * Computes the fingerprint of the given file, of all files of the given archive (e.g. a JAR), or of all files of the
+   * given directory. Files are digested in the order of their paths, each along with its path, so renaming or moving a
+   * file changes the fingerprint. Timestamps and the order of entries in an archive don't, so an archive rebuilt from
+   * the same files has the same fingerprint - and so does a directory with these files.
+   *
+   * @param path File, archive or directory.
+   * @return Content fingerprint.
+   * @throws IOException If any of the files could not be read.
+   */
+  static String ofPath(final Path path) throws IOException {
+    if (!Files.isDirectory(path)) {
+      try (final ZipFile zipFile = new ZipFile(path.toFile())) {
+        return ofArchive(zipFile);
+      } catch (final ZipException e) {
+        //  Not an archive, so it's digested as a whole.
+        try (final InputStream inputStream = Files.newInputStream(path)) {
+          return of(inputStream);
+        }
+      }
+    }
+
+    final List<Path> files;
+    try (final Stream<Path> paths = Files.walk(path)) {
+      files = paths
+          .filter(Files::isRegularFile)
+          .sorted(Comparator.comparing(p -> relativePathOf(path, p)))
+          .collect(Collectors.toList());
+    }
+    final MessageDigest digest = newDigest();
+    for (final Path file : files) {
+      digest.update(relativePathOf(path, file).getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) 0);
+      try (final InputStream inputStream = Files.newInputStream(file)) {
+        digest.update(of(inputStream).getBytes(StandardCharsets.US_ASCII));
+      }
+    }
+    return toHex(digest.digest());
+  }
+
+  private static String ofArchive(final ZipFile zipFile) throws IOException {
+    final List<ZipEntry> entries = zipFile
+        .stream()
+        .filter(e -> !e.isDirectory())
+        .sorted(Comparator.comparing(ZipEntry::getName))
+        .collect(Collectors.toList());
+    final MessageDigest digest = newDigest();
+    for (final ZipEntry entry : entries) {
+      digest.update(entry.getName().getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) 0);
+      try (final InputStream inputStream = zipFile.getInputStream(entry)) {
+        digest.update(of(inputStream).getBytes(StandardCharsets.US_ASCII));
+      }
+    }
+    return toHex(digest.digest());
+  }
+
+  private static String relativePathOf(final Path directory, final Path file) {
+    //  Separators differ between platforms, so they're unified to get the same fingerprint everywhere.
+    return directory.relativize(file).toString().replace(File.separatorChar, '/');
+  }
+}
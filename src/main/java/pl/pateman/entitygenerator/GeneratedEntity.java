@@ -1,10 +1,17 @@
 package pl.pateman.entitygenerator;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 
 /**
@@ -17,6 +24,13 @@ public final class GeneratedEntity {
   private String classFile;
   private GeneratedEntity root;
   private Collection<Attribute> attributes;
+  private Collection<String> schemaFiles;
+  private String sequenceName;
+  private int allocationSize;
+  private Collection<Index> indexes;
+  private Identity identity;
+  private Collection<FetchProfile> fetchProfiles;
+  private boolean external;
 
   GeneratedEntity() {
 
@@ -120,6 +134,128 @@ public final class GeneratedEntity {
     this.attributes = attributes;
   }
 
+  /**
+   * Returns a read-only collection of names of schema files which define (or extend) this entity. Names are known only
+   * if the schemas have been provided along with their names.
+   *
+   * @return Entity schema files.
+   */
+  public Collection<String> getSchemaFiles() {
+    return schemaFiles == null ? Collections.emptyList() : Collections.unmodifiableCollection(schemaFiles);
+  }
+
+  void setSchemaFiles(Collection<String> schemaFiles) {
+    this.schemaFiles = schemaFiles;
+  }
+
+  /**
+   * Returns the name of the database sequence which generates primary key values of this entity, or {@code null} if
+   * the values are generated using the provider's default strategy.
+   *
+   * @return Sequence name.
+   */
+  public String getSequenceName() {
+    return sequenceName;
+  }
+
+  void setSequenceName(String sequenceName) {
+    this.sequenceName = sequenceName;
+  }
+
+  /**
+   * Returns the number of primary key values allocated from the sequence at once. It only makes sense if the entity
+   * has a sequence.
+   *
+   * @return Sequence allocation size.
+   */
+  public int getAllocationSize() {
+    return allocationSize;
+  }
+
+  void setAllocationSize(int allocationSize) {
+    this.allocationSize = allocationSize;
+  }
+
+  /**
+   * Returns a read-only collection of indexes of the entity's table.
+   *
+   * @return Entity indexes.
+   */
+  public Collection<Index> getIndexes() {
+    return indexes == null ? Collections.emptyList() : Collections.unmodifiableCollection(indexes);
+  }
+
+  void setIndexes(Collection<Index> indexes) {
+    this.indexes = indexes;
+  }
+
+  /**
+   * Returns a read-only collection of fetch profiles of the entity, which are rendered as named entity graphs.
+   *
+   * @return Entity fetch profiles.
+   */
+  public Collection<FetchProfile> getFetchProfiles() {
+    return fetchProfiles == null ? Collections.emptyList() : Collections.unmodifiableCollection(fetchProfiles);
+  }
+
+  void setFetchProfiles(Collection<FetchProfile> fetchProfiles) {
+    this.fetchProfiles = fetchProfiles;
+  }
+
+  /**
+   * Determines whether the entity is owned by another module. External entities are only resolved because entities
+   * of the module refer to them, so sources shouldn't be generated for them, and they may be stubs which lack
+   * attributes, relations and indexes unrelated to the module.
+   *
+   * @see EntityGenerator#generateModuleEntities(Collection, Collection)
+   * @return {@code true} if it is, {@code false} otherwise.
+   */
+  public boolean isExternal() {
+    return external;
+  }
+
+  void setExternal(boolean external) {
+    this.external = external;
+  }
+
+  /**
+   * Returns the strategy of generated {@code equals}/{@code hashCode} methods of the entity class.
+   *
+   * @return Identity strategy.
+   */
+  public Identity getIdentity() {
+    return identity == null ? Identity.NONE : identity;
+  }
+
+  void setIdentity(Identity identity) {
+    this.identity = identity;
+  }
+
+  /**
+   * Returns attributes which the identity of the entity is based on - the primary key, natural key attributes, or
+   * none at all, depending on {@link GeneratedEntity#getIdentity()}.
+   *
+   * @return Identity attributes.
+   */
+  public List<Attribute> getIdentityAttributes() {
+    final String flag;
+    switch (this.getIdentity()) {
+      case PRIMARY_KEY:
+        flag = Attribute.PRIMARY_KEY_FLAG;
+        break;
+      case NATURAL_KEY:
+        flag = Attribute.NATURAL_KEY_FLAG;
+        break;
+      default:
+        return Collections.emptyList();
+    }
+    return this
+        .getAttributes()
+        .stream()
+        .filter(a -> a.getRelationInfo() == null && a.getFlags().contains(flag))
+        .collect(Collectors.toList());
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -138,6 +274,24 @@ public final class GeneratedEntity {
     return Objects.hash(name);
   }
 
+  /**
+   * Strategy of generated {@code equals}/{@code hashCode} methods.
+   */
+  public enum Identity {
+    /**
+     * Entities rely on the object identity.
+     */
+    NONE,
+    /**
+     * Entities are equal if they have the same, assigned primary key.
+     */
+    PRIMARY_KEY,
+    /**
+     * Entities are equal if their attributes flagged as {@link Attribute#NATURAL_KEY_FLAG} are equal.
+     */
+    NATURAL_KEY
+  }
+
   /**
    * Entity relation metadata.
    */
@@ -171,6 +325,23 @@ public final class GeneratedEntity {
       MANY_TO_MANY
     }
 
+    /**
+     * Determines when the related entities are loaded.
+     */
+    public enum FetchType {
+      LAZY,
+      EAGER
+    }
+
+    /**
+     * Determines how a collection of related entities is loaded. These modes are specific to Hibernate.
+     */
+    public enum FetchMode {
+      SELECT,
+      SUBSELECT,
+      JOIN
+    }
+
     private GeneratedEntity target;
     private Attribute targetAttribute;
     private String joinTable;
@@ -178,6 +349,10 @@ public final class GeneratedEntity {
     private CollectionType collectionType;
     private Side side;
     private boolean source;
+    private FetchType fetchType = FetchType.LAZY;
+    private FetchMode fetchMode;
+    private int batchSize;
+    private boolean indexed = true;
 
     RelationInfo() {
 
@@ -293,6 +468,342 @@ public final class GeneratedEntity {
     void setSource(boolean source) {
       this.source = source;
     }
+
+    /**
+     * Returns the fetch type of this side of the relation. Relations are lazy unless stated otherwise.
+     *
+     * @return Relation fetch type.
+     */
+    public FetchType getFetchType() {
+      return fetchType;
+    }
+
+    void setFetchType(FetchType fetchType) {
+      this.fetchType = fetchType;
+    }
+
+    /**
+     * Returns the fetch mode of this side of the relation, or {@code null} if the provider's default should be used.
+     *
+     * @return Relation fetch mode.
+     */
+    public FetchMode getFetchMode() {
+      return fetchMode;
+    }
+
+    void setFetchMode(FetchMode fetchMode) {
+      this.fetchMode = fetchMode;
+    }
+
+    /**
+     * Returns the number of collections (or proxies) of this side of the relation which are initialized with a single
+     * query, or {@code 0} if batch fetching is not used.
+     *
+     * @return Relation batch size.
+     */
+    public int getBatchSize() {
+      return batchSize;
+    }
+
+    void setBatchSize(int batchSize) {
+      this.batchSize = batchSize;
+    }
+
+    /**
+     * Determines whether the foreign key columns of this relation are indexed.
+     *
+     * @return {@code true} if they are, {@code false} otherwise.
+     */
+    public boolean isIndexed() {
+      return indexed;
+    }
+
+    void setIndexed(boolean indexed) {
+      this.indexed = indexed;
+    }
+
+    /**
+     * Returns the foreign key column held by the table of this side of the relation. Only the many side of a
+     * one-to-many relation and the source side of a one-to-one relation hold such a column - for other sides,
+     * {@code null} is returned.
+     *
+     * If no join column has been given, the name is derived from the attribute name and the primary key of the target,
+     * e.g. 'customer_id'.
+     *
+     * @return Foreign key column name.
+     */
+    public String getForeignKeyColumn() {
+      final Type type = this.getType();
+      if (!(Type.ONE_TO_MANY.equals(type) && Side.MANY.equals(this.side)) && !(Type.ONE_TO_ONE.equals(type)
+          && this.source)) {
+        return null;
+      }
+      if (StringUtils.isNotBlank(this.joinColumn)) {
+        return this.joinColumn;
+      }
+
+      final String attributeName = this.targetAttribute.getRelationInfo().getTargetAttribute().getName();
+      return attributeName + "_" + this.target
+          .findAttribute(a -> a.getRelationInfo() == null && a.getFlags().contains(Attribute.PRIMARY_KEY_FLAG))
+          .map(Attribute::getName)
+          .orElse("id");
+    }
+
+    /**
+     * Returns the name of the join table of a many-to-many relation, or {@code null} for other relations. If no join
+     * table has been given, the name is derived from deployments of both entities, source first, e.g.
+     * 'orders_products'.
+     *
+     * @return Join table name.
+     */
+    public String getJoinTableName() {
+      if (!Type.MANY_TO_MANY.equals(this.getType())) {
+        return null;
+      }
+      if (StringUtils.isNotBlank(this.joinTable)) {
+        return this.joinTable;
+      }
+
+      final GeneratedEntity owner = this.targetAttribute.getRelationInfo().getTarget();
+      return this.source ? owner.getDeployment() + "_" + this.target.getDeployment()
+          : this.target.getDeployment() + "_" + owner.getDeployment();
+    }
+  }
+
+  /**
+   * A fetch profile, i.e. a tree of relations which should be loaded along with the entity (a named entity graph).
+   */
+  public static final class FetchProfile {
+
+    private String name;
+    private String graphName;
+    private List<FetchNode> nodes;
+    private List<String> warnings;
+
+    FetchProfile() {
+
+    }
+
+    /**
+     * Returns the name of the profile.
+     *
+     * @return Profile name.
+     */
+    public String getName() {
+      return name;
+    }
+
+    void setName(String name) {
+      this.name = name;
+    }
+
+    /**
+     * Returns the name of the entity graph, i.e. the entity name followed by the profile name, e.g.
+     * 'Order.withProducts'.
+     *
+     * @return Entity graph name.
+     */
+    public String getGraphName() {
+      return graphName;
+    }
+
+    void setGraphName(String graphName) {
+      this.graphName = graphName;
+    }
+
+    /**
+     * Returns a read-only list of relations of the entity which are fetched.
+     *
+     * @return Fetched relations.
+     */
+    public List<FetchNode> getNodes() {
+      return nodes == null ? Collections.emptyList() : Collections.unmodifiableList(nodes);
+    }
+
+    void setNodes(List<FetchNode> nodes) {
+      this.nodes = nodes;
+    }
+
+    /**
+     * Returns all fetched relations which fetch further relations (i.e. subgraphs), parents first.
+     *
+     * @return Fetched relations with children.
+     */
+    public List<FetchNode> getSubgraphs() {
+      final List<FetchNode> subgraphs = new ArrayList<>();
+      final Deque<FetchNode> pending = new ArrayDeque<>(this.getNodes());
+      while (!pending.isEmpty()) {
+        final FetchNode node = pending.poll();
+        if (!node.getChildren().isEmpty()) {
+          subgraphs.add(node);
+          pending.addAll(node.getChildren());
+        }
+      }
+      return subgraphs;
+    }
+
+    /**
+     * Returns a read-only list of warnings about the profile, e.g. about fetching several bags at once.
+     *
+     * @return Warnings.
+     */
+    public List<String> getWarnings() {
+      return warnings == null ? Collections.emptyList() : Collections.unmodifiableList(warnings);
+    }
+
+    void setWarnings(List<String> warnings) {
+      this.warnings = warnings;
+    }
+  }
+
+  /**
+   * A relation fetched by a {@link FetchProfile}.
+   */
+  public static final class FetchNode {
+
+    private Attribute attribute;
+    private String path;
+    private List<FetchNode> children;
+
+    FetchNode() {
+
+    }
+
+    /**
+     * Returns the fetched relation attribute.
+     *
+     * @return Relation attribute.
+     */
+    public Attribute getAttribute() {
+      return attribute;
+    }
+
+    void setAttribute(Attribute attribute) {
+      this.attribute = attribute;
+    }
+
+    /**
+     * Returns the path of the relation from the entity of the profile, e.g. 'orders.products'. It's unique within the
+     * profile, so it also names the subgraph of the relation.
+     *
+     * @return Relation path.
+     */
+    public String getPath() {
+      return path;
+    }
+
+    void setPath(String path) {
+      this.path = path;
+    }
+
+    /**
+     * Returns a read-only list of relations of the target entity which are fetched as well.
+     *
+     * @return Fetched relations of the target.
+     */
+    public List<FetchNode> getChildren() {
+      return children == null ? Collections.emptyList() : Collections.unmodifiableList(children);
+    }
+
+    void setChildren(List<FetchNode> children) {
+      this.children = children;
+    }
+  }
+
+  /**
+   * Index metadata.
+   */
+  public static final class Index {
+
+    private String name;
+    private List<String> columns;
+    private Collection<String> descendingColumns;
+    private boolean unique;
+    private String where;
+
+    Index() {
+
+    }
+
+    /**
+     * Returns the name of the index.
+     *
+     * @return Index name.
+     */
+    public String getName() {
+      return name;
+    }
+
+    void setName(String name) {
+      this.name = name;
+    }
+
+    /**
+     * Returns a read-only list of indexed columns, in index order.
+     *
+     * @return Index columns.
+     */
+    public List<String> getColumns() {
+      return columns == null ? Collections.emptyList() : Collections.unmodifiableList(columns);
+    }
+
+    void setColumns(List<String> columns) {
+      this.columns = columns;
+    }
+
+    /**
+     * Returns a read-only collection of columns which are sorted in descending order. Other columns are sorted in
+     * ascending order.
+     *
+     * @return Descending index columns.
+     */
+    public Collection<String> getDescendingColumns() {
+      return descendingColumns == null ? Collections.emptyList()
+          : Collections.unmodifiableCollection(descendingColumns);
+    }
+
+    void setDescendingColumns(Collection<String> descendingColumns) {
+      this.descendingColumns = descendingColumns;
+    }
+
+    /**
+     * Returns the list of columns in the format of {@code @Index(columnList)}, e.g. 'lastName, createdAt DESC'.
+     *
+     * @return Column list.
+     */
+    public String getColumnList() {
+      return this.getColumns()
+          .stream()
+          .map(c -> this.getDescendingColumns().contains(c) ? c + " DESC" : c)
+          .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Returns the filter of a partial index, i.e. an SQL condition which rows need to meet in order to be indexed, or
+     * {@code null} if all rows are indexed.
+     *
+     * @return Index filter.
+     */
+    public String getWhere() {
+      return where;
+    }
+
+    void setWhere(String where) {
+      this.where = where;
+    }
+
+    /**
+     * Determines whether the index is unique.
+     *
+     * @return {@code true} if it is, {@code false} otherwise.
+     */
+    public boolean isUnique() {
+      return unique;
+    }
+
+    void setUnique(boolean unique) {
+      this.unique = unique;
+    }
   }
 
   /**
@@ -300,6 +811,24 @@ public final class GeneratedEntity {
    */
   public static final class Attribute {
 
+    public static final String PRIMARY_KEY_FLAG = "PRIMARY_KEY";
+    public static final String UNIQUE_FLAG = "UNIQUE";
+    public static final String NOT_NULL_FLAG = "NOT_NULL";
+    public static final String NATURAL_KEY_FLAG = "NATURAL_KEY";
+
+    private static final Map<String, String> PRIMITIVE_TYPES = new HashMap<>();
+
+    static {
+      PRIMITIVE_TYPES.put(Boolean.class.getName(), boolean.class.getName());
+      PRIMITIVE_TYPES.put(Byte.class.getName(), byte.class.getName());
+      PRIMITIVE_TYPES.put(Character.class.getName(), char.class.getName());
+      PRIMITIVE_TYPES.put(Short.class.getName(), short.class.getName());
+      PRIMITIVE_TYPES.put(Integer.class.getName(), int.class.getName());
+      PRIMITIVE_TYPES.put(Long.class.getName(), long.class.getName());
+      PRIMITIVE_TYPES.put(Float.class.getName(), float.class.getName());
+      PRIMITIVE_TYPES.put(Double.class.getName(), double.class.getName());
+    }
+
     private String name;
     private String type;
     private boolean reintroduced;
@@ -336,6 +865,39 @@ public final class GeneratedEntity {
       this.type = type;
     }
 
+    /**
+     * Returns the type of the field which stores the attribute in the generated class. Attributes of a wrapper type
+     * (such as {@code java.lang.Long}) which are flagged as {@code NOT_NULL} are stored in primitive fields, which
+     * avoids boxing. Primary keys are never primitive, as a {@code null} key denotes a new entity.
+     *
+     * @return Field type.
+     */
+    public String getFieldType() {
+      if (this.relationInfo != null || this.flags == null || !this.flags.contains(NOT_NULL_FLAG) || this.flags
+          .contains(PRIMARY_KEY_FLAG)) {
+        return type;
+      }
+      return PRIMITIVE_TYPES.getOrDefault(type, type);
+    }
+
+    /**
+     * Determines whether the attribute is stored in a field of a primitive type.
+     *
+     * @return {@code true} if it is, {@code false} otherwise.
+     */
+    public boolean isPrimitive() {
+      return PRIMITIVE_TYPES.containsValue(this.getFieldType());
+    }
+
+    /**
+     * Determines whether the attribute's column is nullable.
+     *
+     * @return {@code true} if it is, {@code false} otherwise.
+     */
+    public boolean isNullable() {
+      return this.flags == null || !(this.flags.contains(NOT_NULL_FLAG) || this.flags.contains(PRIMARY_KEY_FLAG));
+    }
+
     /**
      * Determines whether the attribute has been reintroduced.
      *
@@ -362,6 +924,11 @@ public final class GeneratedEntity {
       this.flags = flags;
     }
 
+    /**
+     * Returns the relation metadata of the attribute, or {@code null} if the attribute is not a relation.
+     *
+     * @return Attribute relation info.
+     */
     public RelationInfo getRelationInfo() {
       return relationInfo;
     }
@@ -0,0 +1,77 @@
+package pl.pateman.entitygenerator;
+
+/**
+ * Source code of a single artifact generated for an entity by a {@link SourceFileTemplate}.
+ *
+ * This class is immutable.
+ */
+public final class GeneratedSourceFile {
+
+  private final GeneratedEntity entity;
+  private final String templateName;
+  private final String className;
+  private final String source;
+
+  GeneratedSourceFile(final GeneratedEntity entity, final String templateName, final String className,
+      final String source) {
+    this.entity = entity;
+    this.templateName = templateName;
+    this.className = className;
+    this.source = source;
+  }
+
+  /**
+   * Returns the entity this source file has been generated for.
+   *
+   * @return Source entity.
+   */
+  public GeneratedEntity getEntity() {
+    return entity;
+  }
+
+  /**
+   * Returns the name of the template which generated this source file.
+   *
+   * @return Template name.
+   */
+  public String getTemplateName() {
+    return templateName;
+  }
+
+  /**
+   * Returns the fully-qualified name of the generated class.
+   *
+   * @return Class name.
+   */
+  public String getClassName() {
+    return className;
+  }
+
+  /**
+   * Returns the package of the generated class, or an empty string if it's in the default package.
+   *
+   * @return Package name.
+   */
+  public String getPackageName() {
+    final int lastDot = this.className.lastIndexOf('.');
+    return lastDot == -1 ? "" : this.className.substring(0, lastDot);
+  }
+
+  /**
+   * Returns the simple name of the generated class.
+   *
+   * @return Simple class name.
+   */
+  public String getSimpleClassName() {
+    return this.className.substring(this.className.lastIndexOf('.') + 1);
+  }
+
+  /**
+   * Returns the generated source code.
+   *
+   * @return Source code.
+   */
+  public String getSource() {
+    return source;
+  }
+}
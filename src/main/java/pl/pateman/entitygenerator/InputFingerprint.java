@@ -0,0 +1,215 @@
+package pl.pateman.entitygenerator;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import pl.pateman.entitygenerator.exception.EntityGeneratorException;
+import pl.pateman.entitygenerator.generate.impl.FreemarkerGenerator;
+
+/**
+ * Computes a single fingerprint (a hex-encoded SHA-256 digest) of everything which determines generated sources:
+ * schemas, templates, the template engine's configuration, the generator version and code, and options. If two
+ * fingerprints are equal, so are the outputs, so the fingerprint can be used as a key of a cache of generated sources.
+ *
+ * Inputs are streamed into the digest as they're added - content of schemas and templates is digested on its own
+ * first, so nothing is held in memory. Each input is recorded along with its kind and name, so moving content from
+ * one input to another changes the fingerprint. Schemas are sorted by their identifiers, and options by their names,
+ * so the order in which they're given doesn't matter; other inputs are recorded in the order they're added.
+ *
+ * Schema identifiers are part of the fingerprint, so schemas need identifiers which are the same on every machine
+ * (e.g. classpath resource paths or relative file paths) for the fingerprint to be shared between machines.
+ *
+ * This class is not thread-safe.
+ */
+public final class InputFingerprint {
+
+  /**
+   * Version of the layout of the digested data. It changes whenever fingerprints computed for the same inputs would
+   * be different.
+   */
+  private static final int FORMAT_VERSION = 2;
+
+  private static final byte SCHEMA = 1;
+  private static final byte CONTENT = 2;
+  private static final byte PROPERTY = 3;
+  private static final byte OPTION = 4;
+
+  private final MessageDigest digest = Fingerprints.newDigest();
+  private final DataOutputStream outputStream = new DataOutputStream(new DigestOutputStream(new OutputStream() {
+    @Override
+    public void write(final int b) {
+
+    }
+  }, this.digest));
+  private String fingerprint;
+
+  /**
+   * Creates an empty fingerprint.
+   */
+  public InputFingerprint() {
+    try {
+      this.outputStream.writeInt(FORMAT_VERSION);
+    } catch (final IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private void writeString(final String value) throws IOException {
+    if (value == null) {
+      this.outputStream.writeInt(-1);
+      return;
+    }
+    final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    this.outputStream.writeInt(bytes.length);
+    this.outputStream.write(bytes);
+  }
+
+  private void writeEntry(final byte kind, final String name, final String value) throws IOException {
+    if (this.fingerprint != null) {
+      throw new IllegalStateException("The fingerprint has been computed already");
+    }
+    this.outputStream.writeByte(kind);
+    this.writeString(name);
+    this.writeString(value);
+  }
+
+  /**
+   * Adds the given schemas, sorted by their identifiers. Each schema is read once, to compute its own fingerprint.
+   *
+   * @param schemaSources Schema sources.
+   * @return This fingerprint.
+   * @throws IOException If any of the schemas could not be read.
+   */
+  public InputFingerprint addSchemas(final Collection<? extends SchemaSource> schemaSources) throws IOException {
+    if (schemaSources == null || schemaSources.contains(null)) {
+      throw new IllegalArgumentException("A valid schema sources collection is required");
+    }
+
+    final List<SchemaSource> sortedSources = new ArrayList<>(schemaSources);
+    sortedSources.sort(Comparator.comparing(SchemaSource::getId));
+    for (final SchemaSource schemaSource : sortedSources) {
+      this.writeEntry(SCHEMA, schemaSource.getId(), schemaSource.getFingerprint());
+    }
+    return this;
+  }
+
+  /**
+   * Adds content of the given stream, e.g. of a template. The stream is read until its end, but it's not closed.
+   *
+   * @param name Name of the content.
+   * @param inputStream Stream of the content.
+   * @return This fingerprint.
+   * @throws IOException If the stream could not be read.
+   */
+  public InputFingerprint addContent(final String name, final InputStream inputStream) throws IOException {
+    if (name == null) {
+      throw new IllegalArgumentException("A valid name is required");
+    }
+    if (inputStream == null) {
+      throw new IllegalArgumentException("A valid input stream is required");
+    }
+    this.writeEntry(CONTENT, name, Fingerprints.of(inputStream));
+    return this;
+  }
+
+  /**
+   * Adds a property, e.g. a setting of the template engine.
+   *
+   * @param name Name of the property.
+   * @param value Value of the property, or {@code null}.
+   * @return This fingerprint.
+   */
+  public InputFingerprint addProperty(final String name, final String value) {
+    if (name == null) {
+      throw new IllegalArgumentException("A valid name is required");
+    }
+    try {
+      this.writeEntry(PROPERTY, name, value);
+    } catch (final IOException e) {
+      throw new IllegalStateException(e);
+    }
+    return this;
+  }
+
+  /**
+   * Adds the version of the generator, as returned by {@link EntityGenerator#getVersion()}, and the fingerprint of
+   * its code, as returned by {@link EntityGenerator#getCodeFingerprint()} - the version alone doesn't change between
+   * builds of snapshots, or when the generator runs from classes.
+   *
+   * @return This fingerprint.
+   * @throws EntityGeneratorException If the code of the generator could not be read.
+   */
+  public InputFingerprint addGeneratorVersion() {
+    return this
+        .addProperty("generatorVersion", EntityGenerator.getVersion())
+        .addProperty("generatorCode", EntityGenerator.getCodeFingerprint());
+  }
+
+  /**
+   * Adds settings of the given generator, and content of the given templates.
+   *
+   * @param generator Generator.
+   * @param templateNames Names of the templates which the generator renders.
+   * @return This fingerprint.
+   * @throws IOException If any of the templates could not be read.
+   */
+  public InputFingerprint addGenerator(final FreemarkerGenerator generator, final Collection<String> templateNames)
+      throws IOException {
+    if (generator == null) {
+      throw new IllegalArgumentException("A valid generator is required");
+    }
+    if (templateNames == null || templateNames.contains(null)) {
+      throw new IllegalArgumentException("A valid template names collection is required");
+    }
+
+    generator.getSettings().forEach((name, value) -> this.addProperty("freemarker." + name, value));
+    for (final String templateName : templateNames) {
+      try (final InputStream inputStream = generator.openTemplate(templateName)) {
+        this.addContent("template:" + templateName, inputStream);
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Adds the given options, sorted by their names.
+   *
+   * @param options Options, e.g. of an executor.
+   * @return This fingerprint.
+   */
+  public InputFingerprint addOptions(final Map<String, String> options) {
+    if (options == null) {
+      throw new IllegalArgumentException("A valid options map is required");
+    }
+    try {
+      for (final Map.Entry<String, String> option : new TreeMap<>(options).entrySet()) {
+        this.writeEntry(OPTION, option.getKey(), option.getValue());
+      }
+    } catch (final IOException e) {
+      throw new IllegalStateException(e);
+    }
+    return this;
+  }
+
+  /**
+   * Computes the fingerprint. No inputs can be added afterwards.
+   *
+   * @return Hex-encoded SHA-256 digest of the inputs.
+   */
+  public String compute() {
+    if (this.fingerprint == null) {
+      this.fingerprint = Fingerprints.toHex(this.digest.digest());
+    }
+    return this.fingerprint;
+  }
+}
@@ -0,0 +1,323 @@
+package pl.pateman.entitygenerator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import pl.pateman.entitygenerator.GeneratedEntity.Attribute;
+
+/**
+ * An index of relations between generated entities, built once from the whole model, so that relations can be
+ * navigated without scanning attributes of every entity.
+ *
+ * Entities are numbered (in the order of their names), and each relation attribute is an edge from the entity which
+ * owns it to its target. Both outbound and inbound edges are kept in compressed, int-indexed adjacency arrays, so
+ * that graph searches don't allocate per visited entity.
+ *
+ * This class is immutable, and thus thread-safe.
+ */
+public final class RelationGraph {
+
+  private final GeneratedEntity[] entities;
+  private final Map<String, Integer> entityIndexes;
+  private final Attribute[] edgeAttributes;
+  private final int[] edgeTargets;
+  private final int[] edgeSources;
+  private final int[] outboundOffsets;
+  private final int[] outboundEdges;
+  private final int[] inboundOffsets;
+  private final int[] inboundEdges;
+  private final Map<String, List<Attribute>> attributesByJoinTable;
+
+  private RelationGraph(final Collection<GeneratedEntity> generatedEntities) {
+    this.entities = generatedEntities.toArray(new GeneratedEntity[0]);
+    Arrays.sort(this.entities, (first, second) -> first.getName().compareTo(second.getName()));
+    this.entityIndexes = new HashMap<>(this.entities.length * 2);
+    for (int i = 0; i < this.entities.length; i++) {
+      this.entityIndexes.put(this.entities[i].getName(), i);
+    }
+
+    final List<Attribute> attributes = new ArrayList<>();
+    final List<Integer> sources = new ArrayList<>();
+    for (int i = 0; i < this.entities.length; i++) {
+      for (final Attribute attribute : this.entities[i].getAttributes()) {
+        if (attribute.getRelationInfo() != null) {
+          attributes.add(attribute);
+          sources.add(i);
+        }
+      }
+    }
+
+    final int edgeCount = attributes.size();
+    this.edgeAttributes = attributes.toArray(new Attribute[0]);
+    this.edgeSources = new int[edgeCount];
+    this.edgeTargets = new int[edgeCount];
+    this.attributesByJoinTable = new HashMap<>();
+    for (int edge = 0; edge < edgeCount; edge++) {
+      final GeneratedEntity target = this.edgeAttributes[edge].getRelationInfo().getTarget();
+      final Integer targetIndex = this.entityIndexes.get(target.getName());
+      if (targetIndex == null) {
+        throw new IllegalArgumentException("A valid entities collection is required, '" + target.getName()
+            + "' is missing");
+      }
+      this.edgeSources[edge] = sources.get(edge);
+      this.edgeTargets[edge] = targetIndex;
+
+      final String joinTable = this.edgeAttributes[edge].getRelationInfo().getJoinTableName();
+      if (joinTable != null) {
+        this.attributesByJoinTable.computeIfAbsent(joinTable, t -> new ArrayList<>(2))
+            .add(this.edgeAttributes[edge]);
+      }
+    }
+
+    this.outboundOffsets = new int[this.entities.length + 1];
+    this.outboundEdges = new int[edgeCount];
+    groupEdges(this.edgeSources, this.outboundOffsets, this.outboundEdges);
+    this.inboundOffsets = new int[this.entities.length + 1];
+    this.inboundEdges = new int[edgeCount];
+    groupEdges(this.edgeTargets, this.inboundOffsets, this.inboundEdges);
+  }
+
+  /**
+   * Groups edges by the given entity indexes (a counting sort), so that edges of the entity {@code i} are
+   * {@code edges[offsets[i]]} to {@code edges[offsets[i + 1] - 1]}.
+   *
+   * @param entityIndexes Entity index of each edge.
+   * @param offsets Offsets to fill.
+   * @param edges Edges to fill.
+   */
+  private static void groupEdges(final int[] entityIndexes, final int[] offsets, final int[] edges) {
+    for (final int entityIndex : entityIndexes) {
+      offsets[entityIndex + 1]++;
+    }
+    for (int i = 1; i < offsets.length; i++) {
+      offsets[i] += offsets[i - 1];
+    }
+    final int[] positions = Arrays.copyOf(offsets, offsets.length - 1);
+    for (int edge = 0; edge < entityIndexes.length; edge++) {
+      edges[positions[entityIndexes[edge]]++] = edge;
+    }
+  }
+
+  /**
+   * Builds a relation graph of the given entities.
+   *
+   * @param generatedEntities All generated entities, including targets of all their relations.
+   * @return Relation graph.
+   * @throws IllegalArgumentException If the collection is {@code null}, or if a relation target is missing.
+   */
+  public static RelationGraph build(final Collection<GeneratedEntity> generatedEntities) {
+    if (generatedEntities == null) {
+      throw new IllegalArgumentException("A valid entities collection is required");
+    }
+    return new RelationGraph(generatedEntities);
+  }
+
+  private int requireIndex(final GeneratedEntity entity) {
+    final int index = this.indexOf(entity);
+    if (index < 0) {
+      throw new IllegalArgumentException("A valid entity is required");
+    }
+    return index;
+  }
+
+  private List<Attribute> attributesOf(final int[] offsets, final int[] edges, final int entityIndex) {
+    final List<Attribute> attributes = new ArrayList<>(offsets[entityIndex + 1] - offsets[entityIndex]);
+    for (int i = offsets[entityIndex]; i < offsets[entityIndex + 1]; i++) {
+      attributes.add(this.edgeAttributes[edges[i]]);
+    }
+    return attributes;
+  }
+
+  /**
+   * Returns the number of entities in the graph.
+   *
+   * @return Number of entities.
+   */
+  public int size() {
+    return this.entities.length;
+  }
+
+  /**
+   * Returns the index of the given entity.
+   *
+   * @param entity Entity.
+   * @return Index of the entity, or {@code -1} if it's not in the graph.
+   */
+  public int indexOf(final GeneratedEntity entity) {
+    final Integer index = entity == null ? null : this.entityIndexes.get(entity.getName());
+    return index == null ? -1 : index;
+  }
+
+  /**
+   * Returns the entity with the given index.
+   *
+   * @param index Index of the entity.
+   * @return Entity.
+   */
+  public GeneratedEntity getEntity(final int index) {
+    return this.entities[index];
+  }
+
+  /**
+   * Returns indexes of entities which the given entity has relations to (once per relation).
+   *
+   * @param index Index of the entity.
+   * @return Indexes of target entities.
+   */
+  public int[] getOutboundIndexes(final int index) {
+    final int[] targets = new int[this.outboundOffsets[index + 1] - this.outboundOffsets[index]];
+    for (int i = 0; i < targets.length; i++) {
+      targets[i] = this.edgeTargets[this.outboundEdges[this.outboundOffsets[index] + i]];
+    }
+    return targets;
+  }
+
+  /**
+   * Returns indexes of entities which have relations to the given entity (once per relation).
+   *
+   * @param index Index of the entity.
+   * @return Indexes of source entities.
+   */
+  public int[] getInboundIndexes(final int index) {
+    final int[] sources = new int[this.inboundOffsets[index + 1] - this.inboundOffsets[index]];
+    for (int i = 0; i < sources.length; i++) {
+      sources[i] = this.edgeSources[this.inboundEdges[this.inboundOffsets[index] + i]];
+    }
+    return sources;
+  }
+
+  /**
+   * Returns relation attributes owned by the given entity.
+   *
+   * @param entity Entity.
+   * @return Relation attributes of the entity.
+   * @throws IllegalArgumentException If the entity is not in the graph.
+   */
+  public List<Attribute> getOutboundRelations(final GeneratedEntity entity) {
+    return this.attributesOf(this.outboundOffsets, this.outboundEdges, this.requireIndex(entity));
+  }
+
+  /**
+   * Returns relation attributes (of any entity) whose target is the given entity.
+   *
+   * @param entity Entity.
+   * @return Relation attributes which point at the entity.
+   * @throws IllegalArgumentException If the entity is not in the graph.
+   */
+  public List<Attribute> getInboundRelations(final GeneratedEntity entity) {
+    return this.attributesOf(this.inboundOffsets, this.inboundEdges, this.requireIndex(entity));
+  }
+
+  /**
+   * Returns the owner of the given relation attribute.
+   *
+   * @param relationAttribute Relation attribute.
+   * @return Entity which owns the attribute.
+   */
+  public GeneratedEntity getOwner(final Attribute relationAttribute) {
+    //  The target attribute points back at the owner.
+    return relationAttribute.getRelationInfo().getTargetAttribute().getRelationInfo().getTarget();
+  }
+
+  /**
+   * Returns both relation attributes of a many-to-many relation, which uses the given join table.
+   *
+   * @param joinTable Name of the join table.
+   * @return Relation attributes which use the join table, or an empty list if there are none.
+   */
+  public List<Attribute> findByJoinTable(final String joinTable) {
+    return Collections.unmodifiableList(this.attributesByJoinTable.getOrDefault(joinTable, Collections.emptyList()));
+  }
+
+  /**
+   * Visits entities reachable from the given one, in the breadth-first order.
+   *
+   * @param fromIndex Index of the first entity.
+   * @param toIndex Index of the entity to stop at, or {@code -1} to visit all reachable entities.
+   * @param maxDepth Maximum number of relations to follow.
+   * @param parentEdges Edges through which entities have been reached (filled with {@code -1} for unreached ones).
+   * @return Indexes of visited entities, in the order of visiting (including the first one).
+   */
+  private int[] breadthFirst(final int fromIndex, final int toIndex, final int maxDepth, final int[] parentEdges) {
+    Arrays.fill(parentEdges, -1);
+    final int[] depths = new int[this.entities.length];
+    final int[] queue = new int[this.entities.length];
+    final boolean[] visited = new boolean[this.entities.length];
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = fromIndex;
+    visited[fromIndex] = true;
+
+    while (head < tail) {
+      final int current = queue[head++];
+      if (current == toIndex) {
+        break;
+      }
+      if (depths[current] == maxDepth) {
+        continue;
+      }
+      for (int i = this.outboundOffsets[current]; i < this.outboundOffsets[current + 1]; i++) {
+        final int edge = this.outboundEdges[i];
+        final int target = this.edgeTargets[edge];
+        if (!visited[target]) {
+          visited[target] = true;
+          parentEdges[target] = edge;
+          depths[target] = depths[current] + 1;
+          queue[tail++] = target;
+        }
+      }
+    }
+    return Arrays.copyOf(queue, tail);
+  }
+
+  /**
+   * Finds entities reachable from the given one through at most {@code maxDepth} relations.
+   *
+   * @param entity First entity.
+   * @param maxDepth Maximum number of relations to follow.
+   * @return Reachable entities (including the first one), the nearest ones first.
+   * @throws IllegalArgumentException If the entity is not in the graph, or if the depth is negative.
+   */
+  public List<GeneratedEntity> findReachable(final GeneratedEntity entity, final int maxDepth) {
+    if (maxDepth < 0) {
+      throw new IllegalArgumentException("A valid depth is required");
+    }
+    final int[] visited = this.breadthFirst(this.requireIndex(entity), -1, maxDepth, new int[this.entities.length]);
+    final List<GeneratedEntity> reachable = new ArrayList<>(visited.length);
+    for (final int index : visited) {
+      reachable.add(this.entities[index]);
+    }
+    return reachable;
+  }
+
+  /**
+   * Finds the shortest path of relations from one entity to another.
+   *
+   * @param from First entity.
+   * @param to Last entity.
+   * @return Relation attributes to follow (empty if both entities are the same), or an empty {@link Optional} if
+   * the last entity can't be reached.
+   * @throws IllegalArgumentException If either of the entities is not in the graph.
+   */
+  public Optional<List<Attribute>> findShortestPath(final GeneratedEntity from, final GeneratedEntity to) {
+    final int fromIndex = this.requireIndex(from);
+    final int toIndex = this.requireIndex(to);
+    final int[] parentEdges = new int[this.entities.length];
+    this.breadthFirst(fromIndex, toIndex, Integer.MAX_VALUE, parentEdges);
+    if (fromIndex != toIndex && parentEdges[toIndex] < 0) {
+      return Optional.empty();
+    }
+
+    final List<Attribute> path = new ArrayList<>();
+    for (int current = toIndex; current != fromIndex; current = this.edgeSources[parentEdges[current]]) {
+      path.add(this.edgeAttributes[parentEdges[current]]);
+    }
+    Collections.reverse(path);
+    return Optional.of(path);
+  }
+}
@@ -0,0 +1,213 @@
+package pl.pateman.entitygenerator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Encodes parsed (and validated) schema descriptors into a compact binary form, and decodes them back.
+ *
+ * Descriptors are walked reflectively: each non-transient field is written in the order of field names, which means
+ * that the codec follows the descriptor classes as they evolve. A layout fingerprint, computed from the names and types
+ * of the fields, is written along with the data, so data written by an older layout is rejected instead of being
+ * misread. So is an identifier of the generator which has validated the descriptor - another generator may validate
+ * schemas differently, even if the layout of descriptors is the same.
+ *
+ * This class is thread-safe.
+ */
+final class SchemaDescriptorCodec {
+
+  private static final int MAGIC = 0x4A534344;
+  private static final int NULL_LENGTH = -1;
+
+  private static final Map<Class<?>, List<Field>> FIELDS = new ConcurrentHashMap<>();
+  private static final int LAYOUT = computeLayout(EntitySchemaDescriptor.class, new StringBuilder()).toString()
+      .hashCode();
+
+  private final String generator;
+
+  /**
+   * Creates a codec.
+   *
+   * @param generator Identifier of the generator which validates descriptors, e.g. its version and code fingerprint.
+   */
+  SchemaDescriptorCodec(final String generator) {
+    if (generator == null) {
+      throw new IllegalArgumentException("A valid generator identifier is required");
+    }
+    this.generator = generator;
+  }
+
+  private static List<Field> fieldsOf(final Class<?> type) {
+    return FIELDS.computeIfAbsent(type, t -> {
+      final List<Field> fields = new ArrayList<>();
+      for (final Field field : t.getDeclaredFields()) {
+        if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers())
+            && !field.isSynthetic()) {
+          field.setAccessible(true);
+          fields.add(field);
+        }
+      }
+      fields.sort(Comparator.comparing(Field::getName));
+      return fields;
+    });
+  }
+
+  private static boolean isDescriptor(final Class<?> type) {
+    return type.getPackage() == SchemaDescriptorCodec.class.getPackage() && !type.isEnum();
+  }
+
+  private static Class<?> elementTypeOf(final Field field) {
+    final Type type = ((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0];
+    return (Class<?>) type;
+  }
+
+  private static StringBuilder computeLayout(final Class<?> type, final StringBuilder layout) {
+    layout.append(type.getSimpleName()).append('{');
+    for (final Field field : fieldsOf(type)) {
+      final Class<?> valueType = Collection.class.isAssignableFrom(field.getType()) ? elementTypeOf(field)
+          : field.getType();
+      layout.append(field.getName()).append(':').append(valueType.getSimpleName());
+      if (valueType.isEnum()) {
+        layout.append(Arrays.toString(valueType.getEnumConstants()));
+      } else if (isDescriptor(valueType) && valueType != type) {
+        computeLayout(valueType, layout);
+      }
+      layout.append(';');
+    }
+    return layout.append('}');
+  }
+
+  private void writeValue(final DataOutputStream out, final Class<?> type, final Object value)
+      throws IOException, IllegalAccessException {
+    out.writeBoolean(value != null);
+    if (value == null) {
+      return;
+    }
+    if (type == String.class) {
+      out.writeUTF((String) value);
+    } else if (type == Boolean.class) {
+      out.writeBoolean((Boolean) value);
+    } else if (type == Integer.class) {
+      out.writeInt((Integer) value);
+    } else if (type.isEnum()) {
+      out.writeByte(((Enum<?>) value).ordinal());
+    } else if (isDescriptor(type)) {
+      this.writeObject(out, value);
+    } else {
+      throw new IOException("Unsupported descriptor value of type " + type.getName());
+    }
+  }
+
+  private Object readValue(final DataInputStream in, final Class<?> type) throws IOException,
+      ReflectiveOperationException {
+    if (!in.readBoolean()) {
+      return null;
+    }
+    if (type == String.class) {
+      return in.readUTF();
+    } else if (type == Boolean.class) {
+      return in.readBoolean();
+    } else if (type == Integer.class) {
+      return in.readInt();
+    } else if (type.isEnum()) {
+      return type.getEnumConstants()[in.readByte()];
+    } else if (isDescriptor(type)) {
+      return this.readObject(in, type);
+    }
+    throw new IOException("Unsupported descriptor value of type " + type.getName());
+  }
+
+  private void writeObject(final DataOutputStream out, final Object descriptor)
+      throws IOException, IllegalAccessException {
+    for (final Field field : fieldsOf(descriptor.getClass())) {
+      final Object value = field.get(descriptor);
+      if (Collection.class.isAssignableFrom(field.getType())) {
+        final Collection<?> values = (Collection<?>) value;
+        out.writeInt(values == null ? NULL_LENGTH : values.size());
+        if (values != null) {
+          final Class<?> elementType = elementTypeOf(field);
+          for (final Object element : values) {
+            this.writeValue(out, elementType, element);
+          }
+        }
+      } else {
+        this.writeValue(out, field.getType(), value);
+      }
+    }
+  }
+
+  private Object readObject(final DataInputStream in, final Class<?> type) throws IOException,
+      ReflectiveOperationException {
+    final Constructor<?> constructor = type.getDeclaredConstructor();
+    constructor.setAccessible(true);
+    final Object descriptor = constructor.newInstance();
+    for (final Field field : fieldsOf(type)) {
+      if (Collection.class.isAssignableFrom(field.getType())) {
+        final int size = in.readInt();
+        if (size != NULL_LENGTH) {
+          final Class<?> elementType = elementTypeOf(field);
+          final List<Object> values = new ArrayList<>(size);
+          for (int i = 0; i < size; i++) {
+            values.add(this.readValue(in, elementType));
+          }
+          field.set(descriptor, values);
+        }
+      } else {
+        field.set(descriptor, this.readValue(in, field.getType()));
+      }
+    }
+    return descriptor;
+  }
+
+  /**
+   * Encodes the given schema descriptor.
+   *
+   * @param schemaDescriptor Schema descriptor to encode.
+   * @return Encoded descriptor.
+   */
+  byte[] encode(final EntitySchemaDescriptor schemaDescriptor) {
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(1024);
+    try (final DataOutputStream out = new DataOutputStream(outputStream)) {
+      out.writeInt(MAGIC);
+      out.writeInt(LAYOUT);
+      out.writeUTF(this.generator);
+      this.writeObject(out, schemaDescriptor);
+    } catch (final IOException | IllegalAccessException e) {
+      throw new IllegalStateException("Unable to encode a schema descriptor", e);
+    }
+    return outputStream.toByteArray();
+  }
+
+  /**
+   * Decodes a schema descriptor.
+   *
+   * @param data Encoded descriptor.
+   * @return Decoded descriptor.
+   * @throws IOException If the data is not a descriptor encoded with the current layout, by the same generator.
+   */
+  EntitySchemaDescriptor decode(final byte[] data) throws IOException {
+    try (final DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+      if (in.readInt() != MAGIC || in.readInt() != LAYOUT || !this.generator.equals(in.readUTF())) {
+        throw new IOException("Not a schema descriptor, or it has been encoded with another layout or generator");
+      }
+      return (EntitySchemaDescriptor) this.readObject(in, EntitySchemaDescriptor.class);
+    } catch (final ReflectiveOperationException e) {
+      throw new IOException("Unable to decode a schema descriptor", e);
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package pl.pateman.entitygenerator;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads schema files through a {@link FileChannel} and decodes them as UTF-8. Small files are read into a reusable
+ * buffer, while files of at least {@link SchemaFileReader#DEFAULT_MAPPING_THRESHOLD} bytes are memory-mapped. Decoded
+ * characters end up in a reusable buffer as well, so reading a large set of schema files allocates buffers only when
+ * a file is larger than all the previous ones.
+ *
+ * Each file is opened just before it is read, and closed right after.
+ *
+ * This class is NOT thread-safe.
+ */
+final class SchemaFileReader {
+
+  static final int DEFAULT_MAPPING_THRESHOLD = 256 * 1024;
+  private static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+
+  private final int mappingThreshold;
+  private final CharsetDecoder decoder = StandardCharsets.UTF_8
+      .newDecoder()
+      .onMalformedInput(CodingErrorAction.REPORT)
+      .onUnmappableCharacter(CodingErrorAction.REPORT);
+  private ByteBuffer byteBuffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+  private CharBuffer charBuffer = CharBuffer.allocate(INITIAL_BUFFER_SIZE);
+
+  SchemaFileReader() {
+    this(DEFAULT_MAPPING_THRESHOLD);
+  }
+
+  SchemaFileReader(final int mappingThreshold) {
+    this.mappingThreshold = mappingThreshold;
+  }
+
+  private ByteBuffer readBytes(final FileChannel channel, final int size) throws IOException {
+    if (size >= this.mappingThreshold) {
+      return channel.map(MapMode.READ_ONLY, 0, size);
+    }
+
+    if (this.byteBuffer.capacity() < size) {
+      this.byteBuffer = ByteBuffer.allocate(size);
+    }
+    this.byteBuffer.clear().limit(size);
+    while (this.byteBuffer.hasRemaining() && channel.read(this.byteBuffer) != -1) {
+      //  Keep reading until the buffer is full or the file ends.
+    }
+    this.byteBuffer.flip();
+    return this.byteBuffer;
+  }
+
+  private CharBuffer decode(final ByteBuffer bytes) throws CharacterCodingException {
+    //  UTF-8 never decodes into more characters than there are bytes.
+    if (this.charBuffer.capacity() < bytes.remaining()) {
+      this.charBuffer = CharBuffer.allocate(bytes.remaining());
+    }
+    this.charBuffer.clear();
+    this.decoder.reset();
+
+    CoderResult result = this.decoder.decode(bytes, this.charBuffer, true);
+    if (!result.isError()) {
+      result = this.decoder.flush(this.charBuffer);
+    }
+    if (result.isError()) {
+      result.throwException();
+    }
+    this.charBuffer.flip();
+    return this.charBuffer;
+  }
+
+  /**
+   * Reads and decodes the given schema file. The returned reader is backed by the internal buffer, so it's only valid
+   * until the next file is read.
+   *
+   * @param schemaFile Path to the schema file.
+   * @return Reader of the decoded schema.
+   * @throws IOException If the file could not be read, or if it's not a valid UTF-8 file.
+   */
+  Reader read(final Path schemaFile) throws IOException {
+    try (final FileChannel channel = FileChannel.open(schemaFile, StandardOpenOption.READ)) {
+      final long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("Schema file '" + schemaFile + "' is too large");
+      }
+
+      final CharBuffer chars = this.decode(this.readBytes(channel, (int) size));
+      return new CharArrayReader(chars.array(), chars.arrayOffset(), chars.limit());
+    }
+  }
+}
@@ -0,0 +1,204 @@
+package pl.pateman.entitygenerator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Selects the part of a schema set which is needed to generate the entities of a single module.
+ *
+ * Entities defined by the module's own schemas are owned by the module. They're resolved along with everything their
+ * sources depend on: their roots (and their roots' roots), extensions defined in any schema, and relations which lead
+ * from the owned entities - as far as their fetch profiles reach - along with entities on the other side of them.
+ * Owned entities and their roots are kept whole. Other entities are replaced with stubs, and all other entities and
+ * relations are left out, so resolving the module costs as much as the module itself, not the whole schema set.
+ */
+final class SchemaModuleSelector {
+
+  private final List<EntitySchemaDescriptor> schemaDescriptors;
+  private final Map<String, List<EntityDescriptor>> descriptorsByName;
+  private final Map<String, List<EntityDescriptor>> descriptorsByEntity;
+  private final Set<String> ownedEntities = new HashSet<>();
+  private final Set<String> wholeEntities = new HashSet<>();
+  private final Set<String> stubEntities = new HashSet<>();
+  private final Set<EntityRelationDescriptor> relations = Collections.newSetFromMap(new IdentityHashMap<>());
+
+  /**
+   * Creates the selector and selects entities and relations.
+   *
+   * @param ownedSchemas Schemas of the module.
+   * @param dependencySchemas All other schemas which the module may depend on.
+   */
+  SchemaModuleSelector(final List<EntitySchemaDescriptor> ownedSchemas,
+      final List<EntitySchemaDescriptor> dependencySchemas) {
+    this.schemaDescriptors = Stream
+        .concat(ownedSchemas.stream(), dependencySchemas.stream())
+        .collect(Collectors.toList());
+    this.descriptorsByName = this.schemaDescriptors
+        .stream()
+        .flatMap(s -> s.getEntities().stream())
+        .collect(Collectors.groupingBy(EntityDescriptor::getName));
+    this.descriptorsByEntity = this.schemaDescriptors
+        .stream()
+        .flatMap(s -> s.getEntities().stream())
+        .collect(Collectors.groupingBy(d -> this.resolve(d.getName())));
+
+    //  Extensions are owned by the module of the entity they extend.
+    ownedSchemas
+        .stream()
+        .flatMap(s -> s.getEntities().stream())
+        .filter(d -> !isExtension(d))
+        .forEach(d -> this.ownedEntities.add(this.resolve(d.getName())));
+
+    this.wholeEntities.addAll(this.addRoots(new HashSet<>(this.ownedEntities)));
+    this.selectRelations();
+    this.stubEntities.removeAll(this.wholeEntities);
+    this.stubEntities.addAll(this.addRoots(this.stubEntities));
+    this.stubEntities.removeAll(this.wholeEntities);
+  }
+
+  private static boolean isExtension(final EntityDescriptor descriptor) {
+    return descriptor.getRoot() != null && descriptor.getRoot().extendsRoot();
+  }
+
+  /**
+   * Resolves the name of the entity which the given name stands for - extensions stand for the entities they extend.
+   *
+   * @param name Entity name.
+   * @return Name of the resolved entity. Unknown names are returned as they are.
+   */
+  private String resolve(final String name) {
+    String resolved = name;
+    for (int i = 0; i <= this.descriptorsByName.size(); i++) {
+      final List<EntityDescriptor> descriptors = this.descriptorsByName.get(resolved);
+      if (descriptors == null || descriptors.stream().anyMatch(d -> !isExtension(d))) {
+        return resolved;
+      }
+      resolved = descriptors.get(0).getRoot().getName();
+    }
+    return resolved;
+  }
+
+  /**
+   * Adds roots of the given entities (transitively) to them.
+   *
+   * @param entities Names of resolved entities.
+   * @return The given set.
+   */
+  private Set<String> addRoots(final Set<String> entities) {
+    final List<String> pending = new ArrayList<>(entities);
+    while (!pending.isEmpty()) {
+      final String entity = pending.remove(pending.size() - 1);
+      this.descriptorsOf(entity)
+          .filter(d -> d.getRoot() != null && !d.getRoot().extendsRoot())
+          .map(d -> this.resolve(d.getRoot().getName()))
+          .filter(entities::add)
+          .forEach(pending::add);
+    }
+    return entities;
+  }
+
+  /**
+   * Returns all descriptors of the given entity, i.e. its own descriptors and its extensions.
+   *
+   * @param entity Name of a resolved entity.
+   * @return A {@link Stream<EntityDescriptor>} of descriptors.
+   */
+  private Stream<EntityDescriptor> descriptorsOf(final String entity) {
+    return this.descriptorsByEntity.getOrDefault(entity, Collections.emptyList()).stream();
+  }
+
+  /**
+   * Determines how many relations away from owned entities their fetch profiles reach.
+   *
+   * @return Fetch depth, at least 1.
+   */
+  private int getFetchDepth() {
+    int fetchDepth = 1;
+    for (final String entity : this.ownedEntities) {
+      for (final EntityFetchProfileDescriptor profile : this.descriptorsOf(entity)
+          .flatMap(d -> d.getFetchProfiles().stream())
+          .collect(Collectors.toList())) {
+        final int depth = profile.getAttributes().isEmpty() ? (profile.getDepth() == null ? 1 : profile.getDepth())
+            : profile.getAttributes().stream().mapToInt(p -> p.split("\\.").length).max().orElse(1);
+        fetchDepth = Math.max(fetchDepth, Math.min(depth, EntityGenerator.MAX_FETCH_DEPTH));
+      }
+    }
+    return fetchDepth;
+  }
+
+  /**
+   * Selects relations which lead from owned entities, up to the fetch depth. Entities on the other side of them are
+   * resolved as stubs.
+   */
+  private void selectRelations() {
+    final Set<String> reached = new HashSet<>(this.ownedEntities);
+    final int fetchDepth = this.getFetchDepth();
+    for (int depth = 0; depth < fetchDepth; depth++) {
+      final Set<String> newlyReached = new HashSet<>();
+      for (final EntitySchemaDescriptor schemaDescriptor : this.schemaDescriptors) {
+        for (final EntityRelationDescriptor relation : schemaDescriptor.getRelations()) {
+          if (relation.getSource() == null || relation.getTarget() == null || this.relations.contains(relation)) {
+            continue;
+          }
+
+          final String source = this.resolve(relation.getSource().getEntity());
+          final String target = this.resolve(relation.getTarget().getEntity());
+          if (reached.contains(source) || reached.contains(target)) {
+            this.relations.add(relation);
+            newlyReached.add(source);
+            newlyReached.add(target);
+          }
+        }
+      }
+      reached.addAll(newlyReached);
+    }
+    this.stubEntities.addAll(reached);
+  }
+
+  /**
+   * Returns names of entities owned by the module.
+   *
+   * @return Owned entities.
+   */
+  Set<String> getOwnedEntities() {
+    return Collections.unmodifiableSet(this.ownedEntities);
+  }
+
+  /**
+   * Returns schema descriptors which hold only the selected entities and relations. Other than owned entities and
+   * their roots, entities are replaced with stubs.
+   *
+   * @return A {@link List<EntitySchemaDescriptor>} of selected schema descriptors.
+   */
+  List<EntitySchemaDescriptor> select() {
+    final List<EntitySchemaDescriptor> selected = new ArrayList<>(this.schemaDescriptors.size());
+    for (final EntitySchemaDescriptor schemaDescriptor : this.schemaDescriptors) {
+      final List<EntityDescriptor> entities = new ArrayList<>();
+      for (final EntityDescriptor descriptor : schemaDescriptor.getEntities()) {
+        final String entity = this.resolve(descriptor.getName());
+        if (this.wholeEntities.contains(entity)) {
+          entities.add(descriptor);
+        } else if (this.stubEntities.contains(entity)) {
+          entities.add(descriptor.createStub());
+        }
+      }
+
+      final List<EntityRelationDescriptor> schemaRelations = schemaDescriptor
+          .getRelations()
+          .stream()
+          .filter(this.relations::contains)
+          .collect(Collectors.toList());
+      if (!entities.isEmpty() || !schemaRelations.isEmpty()) {
+        selected.add(new EntitySchemaDescriptor(entities, schemaRelations));
+      }
+    }
+    return selected;
+  }
+}
@@ -0,0 +1,210 @@
+package pl.pateman.entitygenerator;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import pl.pateman.entitygenerator.exception.EntityGeneratorException;
+
+/**
+ * A cache of parsed and validated schemas, keyed by fingerprints of schema contents (see
+ * {@link SchemaSource#getFingerprint()}). A schema whose contents haven't changed is then neither decoded from JSON nor
+ * validated again. Pass the cache to {@link EntityGenerator#EntityGenerator(SchemaParseCache)}.
+ *
+ * Schemas are kept in a compact binary form, in a least-recently used in-memory cache (which serves long-lived
+ * processes, e.g. a daemon or a watch mode) and, optionally, in a directory (which survives between builds). Entries
+ * written by an incompatible version are treated as missing. Files are also tied to the generator which has written
+ * them - its version and the fingerprint of its code (see {@link EntityGenerator#getCodeFingerprint()}) - so schemas
+ * cached by one build of the generator are validated again by another one.
+ *
+ * This class is thread-safe.
+ */
+public final class SchemaParseCache {
+
+  /**
+   * Extension of files with cached schemas.
+   */
+  public static final String FILE_EXTENSION = ".bin";
+
+  private final SchemaDescriptorCodec codec;
+  private final Map<String, byte[]> entries;
+  private final Path directory;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  private SchemaParseCache(final int maxEntries, final Path directory) {
+    if (maxEntries < 0) {
+      throw new IllegalArgumentException("A valid maximum number of entries is required");
+    }
+    this.entries = new LinkedHashMap<String, byte[]>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<String, byte[]> eldest) {
+        return this.size() > maxEntries;
+      }
+    };
+    this.directory = directory;
+    //  Schemas kept in memory only are validated by this very generator.
+    this.codec = new SchemaDescriptorCodec(directory == null ? EntityGenerator.getVersion()
+        : EntityGenerator.getVersion() + ":" + EntityGenerator.getCodeFingerprint());
+  }
+
+  /**
+   * Creates a cache which keeps schemas in memory only.
+   *
+   * @param maxEntries Maximum number of schemas to keep.
+   * @return A new cache.
+   */
+  public static SchemaParseCache inMemory(final int maxEntries) {
+    return new SchemaParseCache(maxEntries, null);
+  }
+
+  /**
+   * Creates a cache which stores schemas in the given directory, and keeps recently used ones in memory as well.
+   *
+   * @param directory Directory with cached schemas. It's created if it doesn't exist.
+   * @param maxEntries Maximum number of schemas to keep in memory.
+   * @return A new cache.
+   * @throws EntityGeneratorException If the directory can't be created, or the code of the generator can't be read.
+   */
+  public static SchemaParseCache onDisk(final Path directory, final int maxEntries) {
+    if (directory == null) {
+      throw new IllegalArgumentException("A valid directory is required");
+    }
+    try {
+      Files.createDirectories(directory);
+    } catch (final IOException e) {
+      throw new EntityGeneratorException("Unable to create the schema cache directory '" + directory + "'", e);
+    }
+    return new SchemaParseCache(maxEntries, directory);
+  }
+
+  private static void checkFingerprint(final String fingerprint) {
+    if (fingerprint == null || !fingerprint.matches("[0-9a-f]+")) {
+      throw new IllegalArgumentException("A valid fingerprint is required");
+    }
+  }
+
+  private synchronized byte[] getEntry(final String fingerprint) {
+    return this.entries.get(fingerprint);
+  }
+
+  private synchronized void putEntry(final String fingerprint, final byte[] data) {
+    this.entries.put(fingerprint, data);
+  }
+
+  private Path fileOf(final String fingerprint) {
+    return this.directory.resolve(fingerprint + FILE_EXTENSION);
+  }
+
+  private byte[] readFile(final String fingerprint) {
+    if (this.directory == null) {
+      return null;
+    }
+    try {
+      return Files.readAllBytes(this.fileOf(fingerprint));
+    } catch (final NoSuchFileException e) {
+      return null;
+    } catch (final IOException e) {
+      throw new EntityGeneratorException("Unable to read the cached schema '" + fingerprint + "'", e);
+    }
+  }
+
+  private void writeFile(final String fingerprint, final byte[] data) {
+    if (this.directory == null) {
+      return;
+    }
+    //  Write to a temporary file first, so that concurrent builds never see a partially written entry.
+    final Path file = this.fileOf(fingerprint);
+    try {
+      final Path temporaryFile = Files.createTempFile(this.directory, fingerprint, ".tmp");
+      try {
+        Files.write(temporaryFile, data);
+        try {
+          Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final AtomicMoveNotSupportedException e) {
+          Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+      } finally {
+        Files.deleteIfExists(temporaryFile);
+      }
+    } catch (final IOException e) {
+      throw new EntityGeneratorException("Unable to write the cached schema '" + fingerprint + "'", e);
+    }
+  }
+
+  /**
+   * Returns the cached schema with the given fingerprint. Each call returns a new copy of the schema.
+   *
+   * @param fingerprint Fingerprint of the schema contents.
+   * @return The cached schema, or {@code null} if there's none.
+   */
+  EntitySchemaDescriptor get(final String fingerprint) {
+    checkFingerprint(fingerprint);
+    byte[] data = this.getEntry(fingerprint);
+    final boolean inMemory = data != null;
+    if (!inMemory) {
+      data = this.readFile(fingerprint);
+    }
+    if (data == null) {
+      this.misses.incrementAndGet();
+      return null;
+    }
+
+    final EntitySchemaDescriptor schemaDescriptor;
+    try {
+      schemaDescriptor = this.codec.decode(data);
+    } catch (final IOException e) {
+      //  Written by another version, so it's going to be replaced.
+      this.misses.incrementAndGet();
+      return null;
+    }
+    if (!inMemory) {
+      this.putEntry(fingerprint, data);
+    }
+    this.hits.incrementAndGet();
+    return schemaDescriptor;
+  }
+
+  /**
+   * Caches the given schema.
+   *
+   * @param fingerprint Fingerprint of the schema contents.
+   * @param schemaDescriptor Parsed and validated schema.
+   */
+  void put(final String fingerprint, final EntitySchemaDescriptor schemaDescriptor) {
+    checkFingerprint(fingerprint);
+    final byte[] data = this.codec.encode(schemaDescriptor);
+    this.putEntry(fingerprint, data);
+    this.writeFile(fingerprint, data);
+  }
+
+  /**
+   * Discards schemas kept in memory. Files with cached schemas are left intact.
+   */
+  public synchronized void clearMemory() {
+    this.entries.clear();
+  }
+
+  /**
+   * Returns the number of schemas found in the cache.
+   *
+   * @return Number of hits.
+   */
+  public long getHits() {
+    return this.hits.get();
+  }
+
+  /**
+   * Returns the number of schemas which had to be parsed, because they weren't found in the cache.
+   *
+   * @return Number of misses.
+   */
+  public long getMisses() {
+    return this.misses.get();
+  }
+}
@@ -0,0 +1,93 @@
+package pl.pateman.entitygenerator;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.util.OptionalLong;
+
+/**
+ * A JSON schema which can be processed by {@link EntityGenerator#generateEntitiesFromSources(java.util.Collection)}.
+ *
+ * A source is only a handle - nothing is read until the schema is opened, so any number of sources can be created
+ * up front, and each of them can be opened by whoever processes it. Use the factory methods to create sources of
+ * classpath resources, files and in-memory schemas.
+ *
+ * Implementations are expected to be immutable and thread-safe.
+ */
+public interface SchemaSource {
+
+  /**
+   * Creates a source of a classpath resource, loaded with the class loader of this library.
+   *
+   * @param resourcePath Path of the resource, e.g. 'core-entities.json'.
+   * @return Schema source.
+   */
+  static SchemaSource classpath(final String resourcePath) {
+    return new ClasspathSchemaSource(SchemaSource.class.getClassLoader(), resourcePath);
+  }
+
+  /**
+   * Creates a source of a classpath resource.
+   *
+   * @param classLoader Class loader of the resource.
+   * @param resourcePath Path of the resource, e.g. 'core-entities.json'.
+   * @return Schema source.
+   */
+  static SchemaSource classpath(final ClassLoader classLoader, final String resourcePath) {
+    return new ClasspathSchemaSource(classLoader, resourcePath);
+  }
+
+  /**
+   * Creates a source of a file. Files are read through a {@link java.nio.channels.FileChannel}, and large ones are
+   * memory-mapped.
+   *
+   * @param file Path to the file.
+   * @return Schema source.
+   */
+  static SchemaSource file(final Path file) {
+    return new FileSchemaSource(file);
+  }
+
+  /**
+   * Creates a source of an in-memory schema.
+   *
+   * @param id Identifier of the schema.
+   * @param content JSON schema.
+   * @return Schema source.
+   */
+  static SchemaSource of(final String id, final String content) {
+    return new StringSchemaSource(id, content);
+  }
+
+  /**
+   * Returns the identifier of the schema, which stays the same as long as the schema is located in the same place,
+   * e.g. a resource path. It's used as the schema name for error reporting, and as a key for caching.
+   *
+   * @return Schema identifier.
+   */
+  String getId();
+
+  /**
+   * Computes a fingerprint of the current content of the schema, i.e. a hex-encoded SHA-256 digest of its bytes. Unlike
+   * the identifier, the fingerprint changes whenever the content does. Computing it reads the whole schema.
+   *
+   * @return Content fingerprint.
+   * @throws IOException If the schema could not be read.
+   */
+  String getFingerprint() throws IOException;
+
+  /**
+   * Returns the time the schema was last modified, in milliseconds since the epoch, if it's known.
+   *
+   * @return Last modification time.
+   */
+  OptionalLong getLastModified();
+
+  /**
+   * Opens the schema for reading. The caller is responsible for closing the reader.
+   *
+   * @return Reader of the schema, decoded as UTF-8.
+   * @throws IOException If the schema could not be opened.
+   */
+  Reader open() throws IOException;
+}
@@ -1,12 +1,20 @@
 package pl.pateman.entitygenerator;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import pl.pateman.entitygenerator.GeneratedEntity.Attribute;
 import pl.pateman.entitygenerator.exception.SourceFileGeneratorException;
@@ -15,16 +23,46 @@ import pl.pateman.entitygenerator.generate.Generator;
 /**
  * A class responsible for taking a {@link GeneratedEntity} and passing it to the provided {@link Generator} to convert
  * it to source code.
+ *
+ * Several artifacts can be generated for each entity in a single pass by providing a collection of
+ * {@link SourceFileTemplate}s. Parameters shared by all templates (such as imports) are then computed only once per
+ * entity, and the templates are rendered concurrently using the given {@link Executor}.
  */
 public final class SourceFileGenerator {
 
-  private final Generator generator;
+  public static final String DEFAULT_TEMPLATE_NAME = "entity";
+
+  private final List<SourceFileTemplate> templates;
+  private final Executor executor;
 
   public SourceFileGenerator(final Generator generator) {
-    this.generator = generator;
-    if (this.generator == null) {
-      throw new IllegalArgumentException("A valid generator is required");
+    this(Collections.singletonList(new SourceFileTemplate(DEFAULT_TEMPLATE_NAME, generator)));
+  }
+
+  public SourceFileGenerator(final Collection<SourceFileTemplate> templates) {
+    this(templates, ForkJoinPool.commonPool());
+  }
+
+  public SourceFileGenerator(final Collection<SourceFileTemplate> templates, final Executor executor) {
+    if (templates == null || templates.isEmpty()) {
+      throw new IllegalArgumentException("At least one valid template is required");
+    }
+    if (executor == null) {
+      throw new IllegalArgumentException("A valid executor is required");
     }
+
+    final Set<String> templateNames = new HashSet<>();
+    for (final SourceFileTemplate template : templates) {
+      if (template == null) {
+        throw new IllegalArgumentException("A valid template is required");
+      }
+      if (!templateNames.add(template.getName())) {
+        throw new IllegalArgumentException("Duplicate template '" + template.getName() + "'");
+      }
+    }
+
+    this.templates = Collections.unmodifiableList(new ArrayList<>(templates));
+    this.executor = executor;
   }
 
   /**
@@ -89,7 +127,54 @@ public final class SourceFileGenerator {
   }
 
   /**
-   * Generates source code for the provided entity.
+   * Prepares parameters shared by all templates which are rendered for the given entity.
+   *
+   * @param generatedEntity Entity to prepare the parameters for.
+   * @return A read-only {@link Map} of parameters.
+   */
+  private Map<String, Object> prepareParameters(final GeneratedEntity generatedEntity) {
+    final Map<String, Object> params = new HashMap<>();
+    params.put("entity", generatedEntity);
+    params.put("packageName",
+        generatedEntity.getClassFile().substring(0, generatedEntity.getClassFile().lastIndexOf('.')));
+    params.put("imports", Collections.unmodifiableMap(this.prepareImports(generatedEntity)));
+    return Collections.unmodifiableMap(params);
+  }
+
+  /**
+   * Renders a single template for the given entity.
+   *
+   * Apart from the shared parameters, each template receives the name of the template ('templateName'), and the
+   * package ('outputPackageName') and simple name ('outputClassName') of the class it generates.
+   *
+   * @param template Template to render.
+   * @param generatedEntity Entity to generate source code for.
+   * @param sharedParams Parameters shared by all templates.
+   * @return Generated source file.
+   * @throws SourceFileGeneratorException If the generator fails.
+   */
+  private GeneratedSourceFile renderTemplate(final SourceFileTemplate template, final GeneratedEntity generatedEntity,
+      final Map<String, Object> sharedParams) {
+    final String className = template.resolveClassName(generatedEntity);
+    final int lastDot = className.lastIndexOf('.');
+
+    final Map<String, Object> params = new HashMap<>(sharedParams);
+    params.put("templateName", template.getName());
+    params.put("outputPackageName", lastDot == -1 ? "" : className.substring(0, lastDot));
+    params.put("outputClassName", className.substring(lastDot + 1));
+
+    //  Pass the entity and computed parameters to the template's generator.
+    try {
+      final String source = template.getGenerator().generateSource(generatedEntity, params);
+      return new GeneratedSourceFile(generatedEntity, template.getName(), className, source);
+    } catch (final Exception e) {
+      throw new SourceFileGeneratorException(
+          "Unable to generate source code for this entity using template '" + template.getName() + "'", e);
+    }
+  }
+
+  /**
+   * Generates source code for the provided entity using the first of the configured templates.
    *
    * @param generatedEntity Entity to generate source code for.
    * @return Source code.
@@ -99,18 +184,53 @@ public final class SourceFileGenerator {
       throw new IllegalArgumentException("A valid entity is required");
     }
 
-    //  Prepare parameters.
-    final Map<String, Object> params = new HashMap<>();
-    params.put("entity", generatedEntity);
-    params.put("packageName",
-        generatedEntity.getClassFile().substring(0, generatedEntity.getClassFile().lastIndexOf('.')));
-    params.put("imports", this.prepareImports(generatedEntity));
+    return this.renderTemplate(this.templates.get(0), generatedEntity, this.prepareParameters(generatedEntity))
+        .getSource();
+  }
+
+  /**
+   * Generates source files for the provided entity using all configured templates.
+   *
+   * Shared parameters are computed once, after which all templates are rendered concurrently.
+   *
+   * @param generatedEntity Entity to generate source files for.
+   * @return A {@link List<GeneratedSourceFile>} of generated files, in the order of the configured templates.
+   * @throws SourceFileGeneratorException If any of the templates could not be rendered.
+   */
+  public List<GeneratedSourceFile> generateSourceFiles(final GeneratedEntity generatedEntity) {
+    if (generatedEntity == null) {
+      throw new IllegalArgumentException("A valid entity is required");
+    }
 
-    //  Pass the entity and computed parameters to the provided generator.
+    final Map<String, Object> sharedParams = this.prepareParameters(generatedEntity);
+    if (this.templates.size() == 1) {
+      return Collections.singletonList(this.renderTemplate(this.templates.get(0), generatedEntity, sharedParams));
+    }
+
+    final List<CompletableFuture<GeneratedSourceFile>> futures = this.templates
+        .stream()
+        .map(template -> CompletableFuture
+            .supplyAsync(() -> this.renderTemplate(template, generatedEntity, sharedParams), this.executor))
+        .collect(Collectors.toList());
     try {
-      return this.generator.generateSource(generatedEntity, params);
-    } catch (final Exception e) {
-      throw new SourceFileGeneratorException("Unable to generate source code for this entity", e);
+      return futures
+          .stream()
+          .map(CompletableFuture::join)
+          .collect(Collectors.toList());
+    } catch (final CompletionException e) {
+      if (e.getCause() instanceof SourceFileGeneratorException) {
+        throw (SourceFileGeneratorException) e.getCause();
+      }
+      throw new SourceFileGeneratorException("Unable to generate source code for this entity", e.getCause());
     }
   }
+
+  /**
+   * Returns a read-only list of templates used by this generator.
+   *
+   * @return Configured templates.
+   */
+  public List<SourceFileTemplate> getTemplates() {
+    return templates;
+  }
 }
@@ -0,0 +1,96 @@
+package pl.pateman.entitygenerator;
+
+import org.apache.commons.lang3.StringUtils;
+import pl.pateman.entitygenerator.generate.Generator;
+
+/**
+ * Describes a single artifact which should be generated for each entity, for example the entity class itself, a DTO or
+ * a repository interface.
+ *
+ * A template consists of a unique name, a {@link Generator} which renders the source code, and a class name pattern
+ * which determines the fully-qualified name of the generated class (and thus its output path). The pattern can use
+ * the following placeholders:
+ *  {package} - package of the entity's class file, e.g. 'pl.pateman.entities'
+ *  {className} - simple name of the entity's class file, e.g. 'UserEntity'
+ *  {name} - name of the entity, e.g. 'User'
+ *
+ * Example: '{package}.dto.{name}Dto' turns into 'pl.pateman.entities.dto.UserDto'.
+ *
+ * This class is immutable.
+ */
+public final class SourceFileTemplate {
+
+  public static final String PACKAGE_PLACEHOLDER = "{package}";
+  public static final String CLASS_NAME_PLACEHOLDER = "{className}";
+  public static final String ENTITY_NAME_PLACEHOLDER = "{name}";
+  public static final String DEFAULT_CLASS_NAME_PATTERN = PACKAGE_PLACEHOLDER + "." + CLASS_NAME_PLACEHOLDER;
+
+  private final String name;
+  private final Generator generator;
+  private final String classNamePattern;
+
+  public SourceFileTemplate(final String name, final Generator generator) {
+    this(name, generator, DEFAULT_CLASS_NAME_PATTERN);
+  }
+
+  public SourceFileTemplate(final String name, final Generator generator, final String classNamePattern) {
+    if (StringUtils.isBlank(name)) {
+      throw new IllegalArgumentException("A valid template name is required");
+    }
+    if (generator == null) {
+      throw new IllegalArgumentException("A valid generator is required");
+    }
+    if (StringUtils.isBlank(classNamePattern)) {
+      throw new IllegalArgumentException("A valid class name pattern is required");
+    }
+    this.name = name;
+    this.generator = generator;
+    this.classNamePattern = classNamePattern;
+  }
+
+  /**
+   * Returns the name of the template.
+   *
+   * @return Template name.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the generator which renders the source code.
+   *
+   * @return Template generator.
+   */
+  public Generator getGenerator() {
+    return generator;
+  }
+
+  /**
+   * Returns the pattern of the fully-qualified class name of generated artifacts.
+   *
+   * @return Class name pattern.
+   */
+  public String getClassNamePattern() {
+    return classNamePattern;
+  }
+
+  /**
+   * Resolves the fully-qualified class name of the artifact generated for the given entity.
+   *
+   * @param generatedEntity Entity to resolve the class name for.
+   * @return Fully-qualified class name.
+   */
+  public String resolveClassName(final GeneratedEntity generatedEntity) {
+    final String classFile = generatedEntity.getClassFile();
+    final int lastDot = classFile.lastIndexOf('.');
+
+    final String resolved = StringUtils.replaceEach(this.classNamePattern,
+        new String[]{PACKAGE_PLACEHOLDER, CLASS_NAME_PLACEHOLDER, ENTITY_NAME_PLACEHOLDER},
+        new String[]{lastDot == -1 ? StringUtils.EMPTY : classFile.substring(0, lastDot),
+            classFile.substring(lastDot + 1), generatedEntity.getName()});
+
+    //  An entity which lives in the default package would otherwise end up with a leading dot.
+    return StringUtils.removeStart(resolved, ".");
+  }
+}
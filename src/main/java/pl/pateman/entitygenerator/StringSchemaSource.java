@@ -0,0 +1,56 @@
+package pl.pateman.entitygenerator;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.OptionalLong;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * A {@link SchemaSource} of an in-memory schema.
+ *
+ * This class is immutable.
+ */
+final class StringSchemaSource implements SchemaSource {
+
+  private final String id;
+  private final String content;
+  private final String fingerprint;
+
+  StringSchemaSource(final String id, final String content) {
+    if (StringUtils.isBlank(id)) {
+      throw new IllegalArgumentException("A valid schema id is required");
+    }
+    if (content == null) {
+      throw new IllegalArgumentException("A valid schema content is required");
+    }
+    this.id = id;
+    this.content = content;
+    this.fingerprint = Fingerprints.of(content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  @Override
+  public String getFingerprint() {
+    return fingerprint;
+  }
+
+  @Override
+  public OptionalLong getLastModified() {
+    return OptionalLong.empty();
+  }
+
+  @Override
+  public Reader open() {
+    return new StringReader(this.content);
+  }
+
+  @Override
+  public String toString() {
+    return "memory:" + id;
+  }
+}
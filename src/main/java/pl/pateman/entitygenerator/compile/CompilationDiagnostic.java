@@ -0,0 +1,128 @@
+package pl.pateman.entitygenerator.compile;
+
+import java.util.Collection;
+import java.util.Collections;
+import javax.tools.Diagnostic;
+
+/**
+ * A compiler diagnostic reported for a generated source file, mapped back to the entity and schema files the source
+ * file has been generated from.
+ *
+ * This class is immutable.
+ */
+public final class CompilationDiagnostic {
+
+  private final Diagnostic.Kind kind;
+  private final String entityName;
+  private final Collection<String> schemaFiles;
+  private final String templateName;
+  private final String className;
+  private final long lineNumber;
+  private final long columnNumber;
+  private final String message;
+
+  CompilationDiagnostic(final Diagnostic.Kind kind, final String entityName, final Collection<String> schemaFiles,
+      final String templateName, final String className, final long lineNumber, final long columnNumber,
+      final String message) {
+    this.kind = kind;
+    this.entityName = entityName;
+    this.schemaFiles = schemaFiles == null ? Collections.emptyList() : schemaFiles;
+    this.templateName = templateName;
+    this.className = className;
+    this.lineNumber = lineNumber;
+    this.columnNumber = columnNumber;
+    this.message = message;
+  }
+
+  /**
+   * Returns the kind of the diagnostic.
+   *
+   * @return Diagnostic kind.
+   */
+  public Diagnostic.Kind getKind() {
+    return kind;
+  }
+
+  /**
+   * Returns the name of the entity whose source file caused the diagnostic, or {@code null} if the diagnostic is not
+   * related to any generated source file.
+   *
+   * @return Entity name.
+   */
+  public String getEntityName() {
+    return entityName;
+  }
+
+  /**
+   * Returns a read-only collection of schema files which define the entity.
+   *
+   * @return Schema files.
+   */
+  public Collection<String> getSchemaFiles() {
+    return Collections.unmodifiableCollection(schemaFiles);
+  }
+
+  /**
+   * Returns the name of the template which generated the source file.
+   *
+   * @return Template name.
+   */
+  public String getTemplateName() {
+    return templateName;
+  }
+
+  /**
+   * Returns the fully-qualified name of the generated class.
+   *
+   * @return Class name.
+   */
+  public String getClassName() {
+    return className;
+  }
+
+  /**
+   * Returns the line number in the generated source file, or {@link Diagnostic#NOPOS} if it's unknown.
+   *
+   * @return Line number.
+   */
+  public long getLineNumber() {
+    return lineNumber;
+  }
+
+  /**
+   * Returns the column number in the generated source file, or {@link Diagnostic#NOPOS} if it's unknown.
+   *
+   * @return Column number.
+   */
+  public long getColumnNumber() {
+    return columnNumber;
+  }
+
+  /**
+   * Returns the message reported by the compiler.
+   *
+   * @return Diagnostic message.
+   */
+  public String getMessage() {
+    return message;
+  }
+
+  /**
+   * Determines whether this diagnostic is an error.
+   *
+   * @return {@code true} if it is, {@code false} otherwise.
+   */
+  public boolean isError() {
+    return Diagnostic.Kind.ERROR.equals(this.kind);
+  }
+
+  @Override
+  public String toString() {
+    if (this.entityName == null) {
+      return this.kind + ": " + this.message;
+    }
+    return this.kind + ": " + this.className + ":" + this.lineNumber + ":" + this.columnNumber + " (entity '"
+        + this.entityName + "', template '" + this.templateName + "', schemas " + this.schemaFiles + "): "
+        + this.message;
+  }
+}
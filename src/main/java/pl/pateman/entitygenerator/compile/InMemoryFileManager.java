@@ -0,0 +1,106 @@
+package pl.pateman.entitygenerator.compile;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+
+/**
+ * A file manager which exposes all generated sources as the source path of the compiler, so that a batch of sources
+ * can reference classes generated in other batches, and which discards whatever the compiler outputs.
+ *
+ * Nothing is read from or written to disk, apart from the regular class path.
+ */
+final class InMemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+  private final Map<String, List<InMemorySourceFile>> sourcesByPackage;
+
+  InMemoryFileManager(final StandardJavaFileManager fileManager,
+      final Map<String, List<InMemorySourceFile>> sourcesByPackage) {
+    super(fileManager);
+    this.sourcesByPackage = sourcesByPackage;
+  }
+
+  @Override
+  public boolean hasLocation(final Location location) {
+    return StandardLocation.SOURCE_PATH.equals(location) || super.hasLocation(location);
+  }
+
+  @Override
+  public Iterable<JavaFileObject> list(final Location location, final String packageName, final Set<Kind> kinds,
+      final boolean recurse) throws IOException {
+    if (!StandardLocation.SOURCE_PATH.equals(location)) {
+      return super.list(location, packageName, kinds, recurse);
+    }
+    if (!kinds.contains(Kind.SOURCE)) {
+      return Collections.emptyList();
+    }
+
+    final List<JavaFileObject> sources = new ArrayList<>(
+        this.sourcesByPackage.getOrDefault(packageName, Collections.emptyList()));
+    if (recurse) {
+      this.sourcesByPackage.forEach((pkg, files) -> {
+        if (pkg.startsWith(packageName + ".")) {
+          sources.addAll(files);
+        }
+      });
+    }
+    return sources;
+  }
+
+  @Override
+  public String inferBinaryName(final Location location, final JavaFileObject file) {
+    if (file instanceof InMemorySourceFile) {
+      return ((InMemorySourceFile) file).getSourceFile().getClassName();
+    }
+    return super.inferBinaryName(location, file);
+  }
+
+  @Override
+  public boolean isSameFile(final FileObject a, final FileObject b) {
+    if (a instanceof InMemorySourceFile || b instanceof InMemorySourceFile) {
+      return a == b;
+    }
+    return super.isSameFile(a, b);
+  }
+
+  @Override
+  public JavaFileObject getJavaFileForOutput(final Location location, final String className, final Kind kind,
+      final FileObject sibling) {
+    return new DiscardedOutputFile(className, kind);
+  }
+
+  /**
+   * An output file which silently discards everything that's written to it.
+   */
+  private static final class DiscardedOutputFile extends SimpleJavaFileObject {
+
+    DiscardedOutputFile(final String className, final Kind kind) {
+      super(URI.create("discarded:///" + className.replace('.', '/') + kind.extension), kind);
+    }
+
+    @Override
+    public OutputStream openOutputStream() {
+      return new OutputStream() {
+        @Override
+        public void write(final int b) {
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+        }
+      };
+    }
+  }
+}
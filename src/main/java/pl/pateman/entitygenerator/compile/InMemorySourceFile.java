@@ -0,0 +1,29 @@
+package pl.pateman.entitygenerator.compile;
+
+import java.net.URI;
+import javax.tools.SimpleJavaFileObject;
+import pl.pateman.entitygenerator.GeneratedSourceFile;
+
+/**
+ * A {@link javax.tools.JavaFileObject} which serves the source code of a {@link GeneratedSourceFile} straight from
+ * memory.
+ */
+final class InMemorySourceFile extends SimpleJavaFileObject {
+
+  private final GeneratedSourceFile sourceFile;
+
+  InMemorySourceFile(final GeneratedSourceFile sourceFile) {
+    super(URI.create("string:///" + sourceFile.getClassName().replace('.', '/') + Kind.SOURCE.extension),
+        Kind.SOURCE);
+    this.sourceFile = sourceFile;
+  }
+
+  GeneratedSourceFile getSourceFile() {
+    return sourceFile;
+  }
+
+  @Override
+  public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+    return this.sourceFile.getSource();
+  }
+}
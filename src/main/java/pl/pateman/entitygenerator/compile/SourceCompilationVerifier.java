@@ -0,0 +1,159 @@
+package pl.pateman.entitygenerator.compile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.ToolProvider;
+import pl.pateman.entitygenerator.GeneratedSourceFile;
+import pl.pateman.entitygenerator.exception.SourceFileGeneratorException;
+
+/**
+ * Verifies that generated source files compile, without writing anything to disk.
+ *
+ * Sources are passed to the system {@link JavaCompiler} as in-memory file objects. They are split into batches which
+ * are compiled in parallel - each batch can see every other generated source through the compiler's source path, so
+ * references between entities are resolved properly. Diagnostics are mapped back to the entity, template and schema
+ * files each source has been generated from.
+ *
+ * This class is thread-safe.
+ */
+public final class SourceCompilationVerifier {
+
+  public static final int DEFAULT_BATCH_SIZE = 200;
+
+  private final JavaCompiler compiler;
+  private final List<String> options;
+  private final int batchSize;
+  private final Executor executor;
+
+  /**
+   * Creates a verifier which uses the class path of the current JVM.
+   */
+  public SourceCompilationVerifier() {
+    this(System.getProperty("java.class.path"), DEFAULT_BATCH_SIZE, ForkJoinPool.commonPool());
+  }
+
+  public SourceCompilationVerifier(final String classPath, final int batchSize, final Executor executor) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive");
+    }
+    if (executor == null) {
+      throw new IllegalArgumentException("A valid executor is required");
+    }
+
+    this.compiler = ToolProvider.getSystemJavaCompiler();
+    if (this.compiler == null) {
+      throw new SourceFileGeneratorException("No Java compiler is available. Make sure to run on a JDK, not a JRE");
+    }
+
+    final List<String> compilerOptions = new ArrayList<>(Arrays.asList("-proc:none", "-implicit:none"));
+    if (classPath != null && !classPath.isEmpty()) {
+      compilerOptions.add("-classpath");
+      compilerOptions.add(classPath);
+    }
+    this.options = Collections.unmodifiableList(compilerOptions);
+    this.batchSize = batchSize;
+    this.executor = executor;
+  }
+
+  /**
+   * Compiles the given batch of sources and returns diagnostics reported for them.
+   *
+   * @param batch Sources to compile.
+   * @param sourcesByPackage All sources, grouped by package.
+   * @return A {@link List<CompilationDiagnostic>} of diagnostics.
+   */
+  private List<CompilationDiagnostic> compileBatch(final List<InMemorySourceFile> batch,
+      final Map<String, List<InMemorySourceFile>> sourcesByPackage) {
+    final DiagnosticCollector<JavaFileObject> diagnosticCollector = new DiagnosticCollector<>();
+
+    //  Standard file managers are not thread-safe, hence each batch needs its own.
+    try (final InMemoryFileManager fileManager = new InMemoryFileManager(
+        this.compiler.getStandardFileManager(null, Locale.ROOT, null), sourcesByPackage)) {
+      this.compiler.getTask(null, fileManager, diagnosticCollector, this.options, null, batch).call();
+    } catch (final Exception e) {
+      throw new SourceFileGeneratorException("Unable to compile generated sources", e);
+    }
+
+    //  Sources from other batches are compiled as well (in order to resolve references), so their diagnostics are
+    //  skipped - they're reported by the batches they belong to.
+    final Set<InMemorySourceFile> batchSources = new HashSet<>(batch);
+    final List<CompilationDiagnostic> diagnostics = new ArrayList<>();
+    for (final Diagnostic<? extends JavaFileObject> diagnostic : diagnosticCollector.getDiagnostics()) {
+      final JavaFileObject source = diagnostic.getSource();
+      if (source == null) {
+        diagnostics.add(new CompilationDiagnostic(diagnostic.getKind(), null, null, null, null, Diagnostic.NOPOS,
+            Diagnostic.NOPOS, diagnostic.getMessage(Locale.ROOT)));
+      } else if (batchSources.contains(source)) {
+        final GeneratedSourceFile sourceFile = ((InMemorySourceFile) source).getSourceFile();
+        diagnostics.add(new CompilationDiagnostic(diagnostic.getKind(), sourceFile.getEntity().getName(),
+            sourceFile.getEntity().getSchemaFiles(), sourceFile.getTemplateName(), sourceFile.getClassName(),
+            diagnostic.getLineNumber(), diagnostic.getColumnNumber(), diagnostic.getMessage(Locale.ROOT)));
+      }
+    }
+    return diagnostics;
+  }
+
+  /**
+   * Compiles the given source files and returns all diagnostics reported by the compiler.
+   *
+   * @param sourceFiles Source files to verify.
+   * @return A {@link List<CompilationDiagnostic>} of diagnostics. If none of them is an error, the sources compile.
+   * @throws SourceFileGeneratorException If the compiler could not be run.
+   */
+  public List<CompilationDiagnostic> verify(final Collection<GeneratedSourceFile> sourceFiles) {
+    if (sourceFiles == null) {
+      throw new IllegalArgumentException("A valid source files collection is required");
+    }
+    if (sourceFiles.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    final List<InMemorySourceFile> sources = sourceFiles
+        .stream()
+        .map(InMemorySourceFile::new)
+        .collect(Collectors.toList());
+    final Map<String, List<InMemorySourceFile>> sourcesByPackage = sources
+        .stream()
+        .collect(Collectors.groupingBy(s -> s.getSourceFile().getPackageName()));
+
+    final List<CompletableFuture<List<CompilationDiagnostic>>> batches = new ArrayList<>();
+    for (int i = 0; i < sources.size(); i += this.batchSize) {
+      final List<InMemorySourceFile> batch = sources.subList(i, Math.min(i + this.batchSize, sources.size()));
+      batches.add(CompletableFuture.supplyAsync(() -> this.compileBatch(batch, sourcesByPackage), this.executor));
+    }
+
+    //  Diagnostics which are not related to any source (e.g. about the class path) are reported by every batch, so
+    //  duplicates need to be removed.
+    try {
+      return new ArrayList<>(batches
+          .stream()
+          .flatMap(batch -> batch.join().stream())
+          .collect(Collectors.toMap(CompilationDiagnostic::toString, Function.identity(), (a, b) -> a,
+              LinkedHashMap::new))
+          .values());
+    } catch (final CompletionException e) {
+      if (e.getCause() instanceof SourceFileGeneratorException) {
+        throw (SourceFileGeneratorException) e.getCause();
+      }
+      throw new SourceFileGeneratorException("Unable to compile generated sources", e.getCause());
+    }
+  }
+}
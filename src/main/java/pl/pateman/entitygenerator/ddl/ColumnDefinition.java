@@ -0,0 +1,65 @@
+package pl.pateman.entitygenerator.ddl;
+
+import java.util.Objects;
+
+/**
+ * Metadata of a table column.
+ *
+ * This class is immutable.
+ */
+public final class ColumnDefinition {
+
+  private final String name;
+  private final String javaType;
+  private final boolean nullable;
+
+  ColumnDefinition(final String name, final String javaType, final boolean nullable) {
+    this.name = name;
+    this.javaType = javaType;
+    this.nullable = nullable;
+  }
+
+  /**
+   * Returns the name of the column.
+   *
+   * @return Column name.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the Java type of values stored in the column. The actual SQL type depends on the {@link SqlDialect}.
+   *
+   * @return Java type.
+   */
+  public String getJavaType() {
+    return javaType;
+  }
+
+  /**
+   * Determines whether the column accepts {@code NULL}s.
+   *
+   * @return Whether the column is nullable.
+   */
+  public boolean isNullable() {
+    return nullable;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ColumnDefinition that = (ColumnDefinition) o;
+    return nullable == that.nullable && Objects.equals(name, that.name) && Objects.equals(javaType, that.javaType);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(name, javaType, nullable);
+  }
+}
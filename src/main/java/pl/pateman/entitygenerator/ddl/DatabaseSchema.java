@@ -0,0 +1,89 @@
+package pl.pateman.entitygenerator.ddl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Database schema derived from entity metadata, i.e. sequences, tables and foreign keys between them.
+ *
+ * Tables are kept in the order in which they should be created, and can be looked up by name in constant time.
+ */
+public final class DatabaseSchema {
+
+  private final Map<String, TableDefinition> tables = new LinkedHashMap<>();
+  private final List<ForeignKeyDefinition> foreignKeys = new ArrayList<>();
+  private final Map<String, SequenceDefinition> sequences = new LinkedHashMap<>();
+
+  DatabaseSchema() {
+
+  }
+
+  /**
+   * Returns a read-only collection of tables, in the order in which they should be created.
+   *
+   * @return Schema tables.
+   */
+  public Collection<TableDefinition> getTables() {
+    return Collections.unmodifiableCollection(tables.values());
+  }
+
+  /**
+   * Finds a table by its name.
+   *
+   * @param tableName Name of the table.
+   * @return The table, or {@code null} if there's no such table.
+   */
+  public TableDefinition getTable(final String tableName) {
+    return this.tables.get(tableName);
+  }
+
+  /**
+   * Returns a read-only list of foreign keys. They should be created after all tables.
+   *
+   * @return Schema foreign keys.
+   */
+  public List<ForeignKeyDefinition> getForeignKeys() {
+    return Collections.unmodifiableList(foreignKeys);
+  }
+
+  /**
+   * Returns a read-only collection of sequences. They should be created before all tables.
+   *
+   * @return Schema sequences.
+   */
+  public Collection<SequenceDefinition> getSequences() {
+    return Collections.unmodifiableCollection(sequences.values());
+  }
+
+  /**
+   * Finds a sequence by its name.
+   *
+   * @param sequenceName Name of the sequence.
+   * @return The sequence, or {@code null} if there's no such sequence.
+   */
+  public SequenceDefinition getSequence(final String sequenceName) {
+    return this.sequences.get(sequenceName);
+  }
+
+  /**
+   * Adds a table. Returns {@code false} if a table with the same name already exists.
+   */
+  boolean addTable(final TableDefinition table) {
+    return this.tables.putIfAbsent(table.getName(), table) == null;
+  }
+
+  void addForeignKey(final ForeignKeyDefinition foreignKey) {
+    this.foreignKeys.add(foreignKey);
+  }
+
+  /**
+   * Adds a sequence. Returns {@code false} if a sequence with the same name already exists.
+   */
+  boolean addSequence(final SequenceDefinition sequence) {
+    return this.sequences.putIfAbsent(sequence.getName(), sequence) == null;
+  }
+}
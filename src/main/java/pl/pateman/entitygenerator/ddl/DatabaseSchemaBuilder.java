@@ -0,0 +1,238 @@
+package pl.pateman.entitygenerator.ddl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import org.apache.commons.lang3.StringUtils;
+import pl.pateman.entitygenerator.DatabaseNames;
+import pl.pateman.entitygenerator.GeneratedEntity;
+import pl.pateman.entitygenerator.GeneratedEntity.Attribute;
+import pl.pateman.entitygenerator.GeneratedEntity.RelationInfo;
+import pl.pateman.entitygenerator.GeneratedEntity.RelationInfo.CollectionType;
+import pl.pateman.entitygenerator.exception.DdlGeneratorException;
+
+/**
+ * Turns entity metadata into a {@link DatabaseSchema}.
+ *
+ * The schema mirrors the mapping produced by the default entity template: each entity is stored in the table denoted
+ * by its deployment (including entities which inherit from a root without extending it - they get their own table
+ * with inherited columns), the many side of a one-to-many relation and the source side of a one-to-one relation hold
+ * a foreign key column, and the source side of a many-to-many relation owns the join table. Sequences and indexes
+ * are taken from the entity metadata.
+ */
+final class DatabaseSchemaBuilder {
+
+  /**
+   * Returns the primary key attribute of the given entity.
+   *
+   * @param entity Entity.
+   * @return Primary key attribute.
+   * @throws DdlGeneratorException If the entity has no primary key.
+   */
+  private Attribute findPrimaryKey(final GeneratedEntity entity) {
+    return entity
+        .findAttribute(a -> a.getRelationInfo() == null && a.getFlags().contains(Attribute.PRIMARY_KEY_FLAG))
+        .orElseThrow(() -> new DdlGeneratorException("Entity '" + entity.getName() + "' has no primary key"));
+  }
+
+  /**
+   * Returns the attribute referenced by a join column of a many-to-many relation. If the join column is not given,
+   * the primary key is referenced.
+   *
+   * @param entity Referenced entity.
+   * @param joinColumn Join column.
+   * @return Referenced attribute.
+   * @throws DdlGeneratorException If there's no such attribute.
+   */
+  private Attribute findReferencedAttribute(final GeneratedEntity entity, final String joinColumn) {
+    if (StringUtils.isBlank(joinColumn)) {
+      return this.findPrimaryKey(entity);
+    }
+    return entity
+        .findAttribute(a -> a.getRelationInfo() == null && joinColumn.equalsIgnoreCase(a.getName()))
+        .orElseThrow(() -> new DdlGeneratorException(
+            "Join column '" + joinColumn + "' does not exist on entity '" + entity.getName() + "'"));
+  }
+
+  /**
+   * Returns the table of the given entity.
+   *
+   * @param entity Entity.
+   * @return Table name.
+   * @throws DdlGeneratorException If the entity has no deployment.
+   */
+  private String getTableName(final GeneratedEntity entity) {
+    if (StringUtils.isBlank(entity.getDeployment())) {
+      throw new DdlGeneratorException("Entity '" + entity.getName() + "' has no deployment");
+    }
+    return entity.getDeployment();
+  }
+
+  private void addColumn(final TableDefinition table, final ColumnDefinition column) {
+    if (!table.addColumn(column)) {
+      throw new DdlGeneratorException(
+          "Duplicate column '" + column.getName() + "' in table '" + table.getName() + "'");
+    }
+  }
+
+  /**
+   * Adds a foreign key column which references the primary key of the target entity.
+   */
+  private void addForeignKeyColumn(final DatabaseSchema schema, final TableDefinition table, final String column,
+      final GeneratedEntity target) {
+    final Attribute targetPrimaryKey = this.findPrimaryKey(target);
+    this.addColumn(table, new ColumnDefinition(column, targetPrimaryKey.getType(), true));
+    schema.addForeignKey(new ForeignKeyDefinition(DatabaseNames.constraintName("fk", table.getName(), column),
+        table.getName(), column, this.getTableName(target), targetPrimaryKey.getName()));
+  }
+
+  /**
+   * Creates the join table of a many-to-many relation, owned by the given (source) entity.
+   */
+  private TableDefinition createJoinTable(final DatabaseSchema schema, final GeneratedEntity entity,
+      final RelationInfo relationInfo) {
+    final GeneratedEntity target = relationInfo.getTarget();
+    final String sourceTable = this.getTableName(entity);
+    final String targetTable = this.getTableName(target);
+    final String tableName = relationInfo.getJoinTableName();
+    final TableDefinition joinTable = new TableDefinition(tableName, null);
+
+    final Attribute sourceColumn = this.findReferencedAttribute(entity, relationInfo.getJoinColumn());
+    final Attribute targetColumn = this
+        .findReferencedAttribute(target, relationInfo.getTargetAttribute().getRelationInfo().getJoinColumn());
+
+    //  Column names follow the ones used by the @JoinTable annotation in the default template.
+    final String sourceColumnName = sourceTable + "_id";
+    final String targetColumnName = targetTable + "_id";
+    this.addColumn(joinTable, new ColumnDefinition(sourceColumnName, sourceColumn.getType(), false));
+    this.addColumn(joinTable, new ColumnDefinition(targetColumnName, targetColumn.getType(), false));
+
+    //  Lists have bag semantics, so duplicate rows are allowed.
+    final boolean primaryKey = CollectionType.SET.equals(relationInfo.getCollectionType());
+    if (primaryKey) {
+      joinTable.addPrimaryKeyColumn(sourceColumnName);
+      joinTable.addPrimaryKeyColumn(targetColumnName);
+    }
+
+    //  Both columns are used to navigate the relation, but a primary key only covers lookups by its leading column.
+    if (relationInfo.isIndexed()) {
+      for (final String column : primaryKey ? Arrays.asList(targetColumnName)
+          : Arrays.asList(sourceColumnName, targetColumnName)) {
+        joinTable.addIndex(new IndexDefinition(DatabaseNames.constraintName("idx", tableName, column), tableName,
+            Arrays.asList(column), Collections.emptySet(), false, null));
+      }
+    }
+
+    schema.addForeignKey(new ForeignKeyDefinition(DatabaseNames.constraintName("fk", tableName, sourceColumnName),
+        tableName, sourceColumnName, sourceTable, sourceColumn.getName()));
+    schema.addForeignKey(new ForeignKeyDefinition(DatabaseNames.constraintName("fk", tableName, targetColumnName),
+        tableName, targetColumnName, targetTable, targetColumn.getName()));
+    return joinTable;
+  }
+
+  /**
+   * Creates the table of the given entity. Join tables owned by the entity are added to the given list.
+   */
+  private TableDefinition createEntityTable(final DatabaseSchema schema, final GeneratedEntity entity,
+      final List<TableDefinition> joinTables) {
+    final TableDefinition table = new TableDefinition(this.getTableName(entity), entity.getName());
+
+    for (final Attribute attribute : entity.getAttributes()) {
+      final RelationInfo relationInfo = attribute.getRelationInfo();
+      if (relationInfo == null) {
+        this.addColumn(table, new ColumnDefinition(attribute.getName(), attribute.getType(), attribute.isNullable()));
+        if (attribute.getFlags().contains(Attribute.PRIMARY_KEY_FLAG)) {
+          table.addPrimaryKeyColumn(attribute.getName());
+        }
+        if (attribute.getFlags().contains(Attribute.UNIQUE_FLAG)) {
+          table.addUniqueColumn(attribute.getName());
+        }
+        continue;
+      }
+
+      final GeneratedEntity target = relationInfo.getTarget();
+      switch (relationInfo.getType()) {
+        case ONE_TO_MANY:
+        case ONE_TO_ONE:
+          //  Only the side which holds the foreign key has a column.
+          if (relationInfo.getForeignKeyColumn() != null) {
+            this.addForeignKeyColumn(schema, table, relationInfo.getForeignKeyColumn(), target);
+          }
+          break;
+        case MANY_TO_MANY:
+          if (relationInfo.isSource()) {
+            joinTables.add(this.createJoinTable(schema, entity, relationInfo));
+          }
+          break;
+        default:
+          throw new DdlGeneratorException("Unknown relation type");
+      }
+    }
+
+    for (final GeneratedEntity.Index index : entity.getIndexes()) {
+      for (final String column : index.getColumns()) {
+        if (table.getColumn(column) == null) {
+          throw new DdlGeneratorException(
+              "Index '" + index.getName() + "' refers to an unknown column '" + table.getName() + "." + column + "'");
+        }
+      }
+      if (!table.addIndex(new IndexDefinition(index.getName(), table.getName(), index.getColumns(),
+          index.getDescendingColumns(), index.isUnique(), index.getWhere()))) {
+        throw new DdlGeneratorException("Duplicate index '" + index.getName() + "' in table '" + table.getName() + "'");
+      }
+    }
+    return table;
+  }
+
+  /**
+   * Adds the primary key sequence of the given entity, if it has one. Entities may share a sequence, as long as they
+   * agree on its allocation size.
+   */
+  private void addSequence(final DatabaseSchema schema, final GeneratedEntity entity) {
+    if (entity.getSequenceName() == null) {
+      return;
+    }
+    final SequenceDefinition sequence = new SequenceDefinition(entity.getSequenceName(), entity.getAllocationSize());
+    if (!schema.addSequence(sequence) && !sequence.equals(schema.getSequence(sequence.getName()))) {
+      throw new DdlGeneratorException(
+          "Sequence '" + sequence.getName() + "' is used with different allocation sizes");
+    }
+  }
+
+  /**
+   * Builds a database schema from the given entities.
+   *
+   * Entity tables come first (ordered by name), followed by join tables. Foreign keys are kept separately, so that
+   * they can be created once all tables exist, regardless of any cycles between tables.
+   *
+   * @param entities Entities to build the schema from.
+   * @return Database schema.
+   * @throws DdlGeneratorException If the entities cannot be mapped onto tables.
+   */
+  DatabaseSchema build(final Collection<GeneratedEntity> entities) {
+    final DatabaseSchema schema = new DatabaseSchema();
+    final List<TableDefinition> joinTables = new ArrayList<>();
+
+    final List<GeneratedEntity> sortedEntities = new ArrayList<>(entities);
+    sortedEntities.sort(Comparator.comparing(this::getTableName));
+    for (final GeneratedEntity entity : sortedEntities) {
+      this.addSequence(schema, entity);
+      final TableDefinition table = this.createEntityTable(schema, entity, joinTables);
+      if (!schema.addTable(table)) {
+        throw new DdlGeneratorException("Table '" + table.getName() + "' is used by more than one entity");
+      }
+    }
+
+    joinTables.sort(Comparator.comparing(TableDefinition::getName));
+    for (final TableDefinition joinTable : joinTables) {
+      if (!schema.addTable(joinTable)) {
+        throw new DdlGeneratorException("Join table '" + joinTable.getName() + "' clashes with another table");
+      }
+    }
+
+    return schema;
+  }
+}
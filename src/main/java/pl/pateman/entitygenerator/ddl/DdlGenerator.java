@@ -0,0 +1,270 @@
+package pl.pateman.entitygenerator.ddl;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import pl.pateman.entitygenerator.DatabaseNames;
+import pl.pateman.entitygenerator.GeneratedEntity;
+import pl.pateman.entitygenerator.exception.DdlGeneratorException;
+
+/**
+ * Generates DDL statements (sequences, tables, join tables, indexes and foreign keys) from entity metadata.
+ *
+ * Statements are emitted one by one to a consumer, so a whole script never needs to be kept in memory. Sequences and
+ * tables are created first, then indexes and foreign keys, which means that the statements can always be executed in
+ * the order in which they're emitted. Database-specific aspects, such as column types, are handled by the given
+ * {@link SqlDialect}.
+ *
+ * This class is thread-safe, provided the dialect is.
+ */
+public final class DdlGenerator {
+
+  public static final int DEFAULT_BATCH_SIZE = 100;
+  public static final String STATEMENT_SEPARATOR = ";\n\n";
+
+  private final SqlDialect dialect;
+
+  public DdlGenerator(final SqlDialect dialect) {
+    if (dialect == null) {
+      throw new IllegalArgumentException("A valid dialect is required");
+    }
+    this.dialect = dialect;
+  }
+
+  /**
+   * Returns the SQL type of the given column.
+   *
+   * @param table Table which owns the column.
+   * @param column Column.
+   * @return SQL column type.
+   * @throws DdlGeneratorException If the dialect does not support the column's Java type.
+   */
+  String getColumnType(final String table, final ColumnDefinition column) {
+    final String columnType = this.dialect.getColumnType(column.getJavaType());
+    if (columnType == null) {
+      throw new DdlGeneratorException(
+          "Column '" + table + "." + column.getName() + "' has a type '" + column.getJavaType()
+              + "' which is not supported by the " + this.dialect.getName() + " dialect");
+    }
+    return columnType;
+  }
+
+  /**
+   * Renders the definition of a column, as used by CREATE TABLE and ALTER TABLE statements.
+   *
+   * @param table Table which owns the column.
+   * @param column Column.
+   * @return Column definition.
+   */
+  String columnDefinition(final String table, final ColumnDefinition column) {
+    return this.dialect.quoteIdentifier(column.getName()) + " " + this.getColumnType(table, column) + (column
+        .isNullable() ? "" : " NOT NULL");
+  }
+
+  /**
+   * Renders a comma-separated list of quoted identifiers.
+   *
+   * @param identifiers Identifiers to render.
+   * @return List of identifiers.
+   */
+  String identifierList(final Collection<String> identifiers) {
+    return identifiers.stream().map(this.dialect::quoteIdentifier).collect(Collectors.joining(", "));
+  }
+
+  /**
+   * Renders a CREATE TABLE statement.
+   *
+   * @param table Table to create.
+   * @return The statement.
+   */
+  String createTableStatement(final TableDefinition table) {
+    final List<String> lines = new ArrayList<>();
+    table.getColumns().forEach(column -> lines.add(this.columnDefinition(table.getName(), column)));
+    if (!table.getPrimaryKey().isEmpty()) {
+      lines.add("PRIMARY KEY (" + this.identifierList(table.getPrimaryKey()) + ")");
+    }
+    for (final String uniqueColumn : table.getUniqueColumns()) {
+      lines.add("CONSTRAINT " + this.dialect
+          .quoteIdentifier(DatabaseNames.constraintName("uk", table.getName(), uniqueColumn)) + " UNIQUE ("
+          + this.dialect.quoteIdentifier(uniqueColumn) + ")");
+    }
+
+    return "CREATE TABLE " + this.dialect.quoteIdentifier(table.getName()) + " (\n  " + String
+        .join(",\n  ", lines) + "\n)";
+  }
+
+  /**
+   * Renders a CREATE SEQUENCE statement. The sequence is incremented by the allocation size, as expected by the
+   * pooled identifier generators of JPA providers.
+   *
+   * @param sequence Sequence to create.
+   * @return The statement.
+   */
+  String createSequenceStatement(final SequenceDefinition sequence) {
+    return "CREATE SEQUENCE " + this.dialect.quoteIdentifier(sequence.getName()) + " START WITH 1 INCREMENT BY "
+        + sequence.getAllocationSize();
+  }
+
+  /**
+   * Renders a CREATE INDEX statement.
+   *
+   * @param index Index to create.
+   * @return The statement.
+   */
+  String createIndexStatement(final IndexDefinition index) {
+    return this.createIndexStatement(index, false);
+  }
+
+  /**
+   * Renders a CREATE INDEX statement, which optionally builds the index without blocking writes to the table. If the
+   * dialect does not support partial indexes, the filter is left out and all rows are indexed - the index is larger
+   * than needed, but serves the same queries. That's not the case for unique indexes, which would reject rows that
+   * the filter lets through, so unique partial indexes can't be created on such dialects.
+   *
+   * @param index Index to create.
+   * @param concurrently Whether the index should be built concurrently. The dialect has to support that.
+   * @return The statement.
+   * @throws DdlGeneratorException If the index is unique and partial, and the dialect does not support partial
+   * indexes.
+   */
+  String createIndexStatement(final IndexDefinition index, final boolean concurrently) {
+    final String columns = index
+        .getColumns()
+        .stream()
+        .map(c -> this.dialect.quoteIdentifier(c) + (index.isDescending(c) ? " DESC" : ""))
+        .collect(Collectors.joining(", "));
+    final boolean partial = index.getWhere() != null && this.dialect.supportsPartialIndexes();
+    if (index.getWhere() != null && !partial && index.isUnique()) {
+      throw new DdlGeneratorException("Index '" + index.getName() + "' is unique only for rows which match '" + index
+          .getWhere() + "', but the " + this.dialect.getName() + " dialect does not support partial indexes");
+    }
+
+    return "CREATE " + (index.isUnique() ? "UNIQUE " : "") + "INDEX " + (concurrently ? "CONCURRENTLY " : "")
+        + this.dialect.quoteIdentifier(index.getName()) + " ON " + this.dialect.quoteIdentifier(index.getTable())
+        + " (" + columns + ")" + (partial ? " WHERE " + index.getWhere() : "");
+  }
+
+  /**
+   * Renders an ALTER TABLE statement which adds a foreign key.
+   *
+   * @param foreignKey Foreign key to add.
+   * @return The statement.
+   */
+  String addForeignKeyStatement(final ForeignKeyDefinition foreignKey) {
+    return "ALTER TABLE " + this.dialect.quoteIdentifier(foreignKey.getTable()) + " ADD CONSTRAINT " + this.dialect
+        .quoteIdentifier(foreignKey.getName()) + " FOREIGN KEY (" + this.dialect
+        .quoteIdentifier(foreignKey.getColumn()) + ") REFERENCES " + this.dialect
+        .quoteIdentifier(foreignKey.getReferencedTable()) + " (" + this.dialect
+        .quoteIdentifier(foreignKey.getReferencedColumn()) + ")";
+  }
+
+  /**
+   * Returns the dialect used by this generator.
+   *
+   * @return SQL dialect.
+   */
+  public SqlDialect getDialect() {
+    return dialect;
+  }
+
+  /**
+   * Derives a database schema from the given entities.
+   *
+   * @param entities Entities to derive the schema from.
+   * @return Database schema.
+   * @throws DdlGeneratorException If the entities cannot be mapped onto tables.
+   */
+  public DatabaseSchema createSchema(final Collection<GeneratedEntity> entities) {
+    if (entities == null) {
+      throw new IllegalArgumentException("A valid entities collection is required");
+    }
+    return new DatabaseSchemaBuilder().build(entities);
+  }
+
+  /**
+   * Generates DDL statements which create the given schema, and passes them to the given consumer one by one.
+   * Statements are not terminated with a semicolon.
+   *
+   * @param schema Schema to create.
+   * @param statementConsumer Consumer of the statements.
+   * @throws DdlGeneratorException If the schema cannot be expressed in the dialect.
+   */
+  public void generate(final DatabaseSchema schema, final Consumer<String> statementConsumer) {
+    if (schema == null) {
+      throw new IllegalArgumentException("A valid schema is required");
+    }
+    if (statementConsumer == null) {
+      throw new IllegalArgumentException("A valid statement consumer is required");
+    }
+
+    schema.getSequences().forEach(sequence -> statementConsumer.accept(this.createSequenceStatement(sequence)));
+    schema.getTables().forEach(table -> statementConsumer.accept(this.createTableStatement(table)));
+    schema.getTables().forEach(table -> table.getIndexes()
+        .forEach(index -> statementConsumer.accept(this.createIndexStatement(index))));
+    schema.getForeignKeys().forEach(fk -> statementConsumer.accept(this.addForeignKeyStatement(fk)));
+  }
+
+  /**
+   * Generates DDL statements which create tables of the given entities, and passes them to the given consumer one by
+   * one.
+   *
+   * @param entities Entities to generate the statements for.
+   * @param statementConsumer Consumer of the statements.
+   * @throws DdlGeneratorException If the entities cannot be mapped onto tables.
+   */
+  public void generate(final Collection<GeneratedEntity> entities, final Consumer<String> statementConsumer) {
+    this.generate(this.createSchema(entities), statementConsumer);
+  }
+
+  /**
+   * Generates a DDL script which creates tables of the given entities.
+   *
+   * @param entities Entities to generate the script for.
+   * @return DDL script.
+   * @throws DdlGeneratorException If the entities cannot be mapped onto tables.
+   */
+  public String generateScript(final Collection<GeneratedEntity> entities) {
+    final StringBuilder script = new StringBuilder();
+    this.generate(entities, statement -> script.append(statement).append(STATEMENT_SEPARATOR));
+    return script.toString();
+  }
+
+  /**
+   * Creates tables of the given entities using the given connection. Statements are executed in JDBC batches of
+   * {@link DdlGenerator#DEFAULT_BATCH_SIZE}.
+   *
+   * @param entities Entities to create tables for.
+   * @param connection Database connection.
+   * @return Number of executed statements.
+   * @throws DdlGeneratorException If the entities cannot be mapped onto tables, or if the statements fail.
+   */
+  public int execute(final Collection<GeneratedEntity> entities, final Connection connection) {
+    if (connection == null) {
+      throw new IllegalArgumentException("A valid connection is required");
+    }
+
+    final DatabaseSchema schema = this.createSchema(entities);
+    final int[] count = {0};
+    try (final Statement statement = connection.createStatement()) {
+      this.generate(schema, sql -> {
+        try {
+          statement.addBatch(sql);
+          if (++count[0] % DEFAULT_BATCH_SIZE == 0) {
+            statement.executeBatch();
+          }
+        } catch (final SQLException e) {
+          throw new DdlGeneratorException("Unable to execute DDL statements", e);
+        }
+      });
+      statement.executeBatch();
+    } catch (final SQLException e) {
+      throw new DdlGeneratorException("Unable to execute DDL statements", e);
+    }
+    return count[0];
+  }
+}
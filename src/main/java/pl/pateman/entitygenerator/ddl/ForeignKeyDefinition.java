@@ -0,0 +1,90 @@
+package pl.pateman.entitygenerator.ddl;
+
+import java.util.Objects;
+
+/**
+ * Metadata of a foreign key constraint.
+ *
+ * This class is immutable.
+ */
+public final class ForeignKeyDefinition {
+
+  private final String name;
+  private final String table;
+  private final String column;
+  private final String referencedTable;
+  private final String referencedColumn;
+
+  ForeignKeyDefinition(final String name, final String table, final String column, final String referencedTable,
+      final String referencedColumn) {
+    this.name = name;
+    this.table = table;
+    this.column = column;
+    this.referencedTable = referencedTable;
+    this.referencedColumn = referencedColumn;
+  }
+
+  /**
+   * Returns the name of the constraint.
+   *
+   * @return Constraint name.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the name of the table which owns the foreign key.
+   *
+   * @return Table name.
+   */
+  public String getTable() {
+    return table;
+  }
+
+  /**
+   * Returns the name of the column which holds the foreign key.
+   *
+   * @return Column name.
+   */
+  public String getColumn() {
+    return column;
+  }
+
+  /**
+   * Returns the name of the referenced table.
+   *
+   * @return Referenced table name.
+   */
+  public String getReferencedTable() {
+    return referencedTable;
+  }
+
+  /**
+   * Returns the name of the referenced column.
+   *
+   * @return Referenced column name.
+   */
+  public String getReferencedColumn() {
+    return referencedColumn;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ForeignKeyDefinition that = (ForeignKeyDefinition) o;
+    return Objects.equals(name, that.name) && Objects.equals(table, that.table) && Objects
+        .equals(column, that.column) && Objects.equals(referencedTable, that.referencedTable) && Objects
+        .equals(referencedColumn, that.referencedColumn);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(name, table, column, referencedTable, referencedColumn);
+  }
+}
@@ -0,0 +1,108 @@
+package pl.pateman.entitygenerator.ddl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Metadata of a table index.
+ *
+ * This class is immutable.
+ */
+public final class IndexDefinition {
+
+  private final String name;
+  private final String table;
+  private final List<String> columns;
+  private final Set<String> descendingColumns;
+  private final boolean unique;
+  private final String where;
+
+  IndexDefinition(final String name, final String table, final List<String> columns,
+      final Collection<String> descendingColumns, final boolean unique, final String where) {
+    this.name = name;
+    this.table = table;
+    this.columns = Collections.unmodifiableList(new ArrayList<>(columns));
+    this.descendingColumns = Collections.unmodifiableSet(new HashSet<>(descendingColumns));
+    this.unique = unique;
+    this.where = where;
+  }
+
+  /**
+   * Returns the name of the index.
+   *
+   * @return Index name.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the name of the indexed table.
+   *
+   * @return Table name.
+   */
+  public String getTable() {
+    return table;
+  }
+
+  /**
+   * Returns a read-only list of indexed columns, in index order.
+   *
+   * @return Index columns.
+   */
+  public List<String> getColumns() {
+    return columns;
+  }
+
+  /**
+   * Determines whether the given column is sorted in descending order.
+   *
+   * @param column Column name.
+   * @return {@code true} if it is, {@code false} otherwise.
+   */
+  public boolean isDescending(final String column) {
+    return this.descendingColumns.contains(column);
+  }
+
+  /**
+   * Determines whether the index is unique.
+   *
+   * @return {@code true} if it is, {@code false} otherwise.
+   */
+  public boolean isUnique() {
+    return unique;
+  }
+
+  /**
+   * Returns the filter of a partial index, or {@code null} if all rows are indexed.
+   *
+   * @return Index filter.
+   */
+  public String getWhere() {
+    return where;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    IndexDefinition that = (IndexDefinition) o;
+    return unique == that.unique && Objects.equals(name, that.name) && Objects.equals(table, that.table) && Objects
+        .equals(columns, that.columns) && Objects.equals(descendingColumns, that.descendingColumns) && Objects
+        .equals(where, that.where);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(name, table, columns, descendingColumns, unique, where);
+  }
+}
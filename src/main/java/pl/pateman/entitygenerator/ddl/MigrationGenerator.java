@@ -0,0 +1,315 @@
+package pl.pateman.entitygenerator.ddl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import pl.pateman.entitygenerator.DatabaseNames;
+import pl.pateman.entitygenerator.GeneratedEntity;
+import pl.pateman.entitygenerator.exception.DdlGeneratorException;
+
+/**
+ * Generates an incremental migration between two entity models, for example one read from a snapshot of the previous
+ * generation and the current one.
+ *
+ * The migration never recreates existing tables. Statements are ordered so that they can be applied to a live
+ * database:
+ *  1. foreign keys and indexes which no longer exist (or have changed) are dropped,
+ *  2. new sequences are created and changed ones are altered,
+ *  3. new tables are created,
+ *  4. existing tables are altered, with all changes of a table batched together - new columns are always added as
+ *     nullable, as adding a NOT NULL column without a default fails on a non-empty table,
+ *  5. new indexes and foreign keys are added - foreign keys without validating existing rows first, if the dialect
+ *     allows that,
+ *  6. columns, tables and sequences which no longer exist are dropped, but only if destructive changes are allowed.
+ *
+ * Changes of existing tables avoid long locks, if the dialect allows that. Indexes of existing tables are created and
+ * dropped concurrently, and so are indexes of new unique constraints, which are then attached to the constraints.
+ * Columns are made NOT NULL by adding a CHECK constraint without validating existing rows, validating it separately,
+ * and only then setting NOT NULL - which PostgreSQL 12 and newer do without scanning the table again. Concurrent
+ * index builds can't run in a transaction, see {@link SchemaMigration#isTransactional()}.
+ *
+ * Tables, columns, indexes and constraints are looked up through hash indices, so generating a migration takes time
+ * proportional to the size of the models.
+ *
+ * This class is thread-safe, provided the dialect is.
+ */
+public final class MigrationGenerator {
+
+  private final DdlGenerator ddlGenerator;
+  private final SqlDialect dialect;
+  private final boolean destructiveChangesAllowed;
+
+  public MigrationGenerator(final SqlDialect dialect) {
+    this(dialect, false);
+  }
+
+  public MigrationGenerator(final SqlDialect dialect, final boolean destructiveChangesAllowed) {
+    this.ddlGenerator = new DdlGenerator(dialect);
+    this.dialect = dialect;
+    this.destructiveChangesAllowed = destructiveChangesAllowed;
+  }
+
+  private Map<String, ForeignKeyDefinition> indexForeignKeys(final DatabaseSchema schema) {
+    final Map<String, ForeignKeyDefinition> index = new HashMap<>(schema.getForeignKeys().size() * 2);
+    schema.getForeignKeys().forEach(fk -> index.put(fk.getName(), fk));
+    return index;
+  }
+
+  private String quote(final String identifier) {
+    return this.dialect.quoteIdentifier(identifier);
+  }
+
+  private String dropConstraintStatement(final String table, final String constraint) {
+    return "ALTER TABLE " + this.quote(table) + " DROP CONSTRAINT " + this.quote(constraint);
+  }
+
+  /**
+   * Emits ALTER TABLE actions of a single table, either as one statement or as a statement per action, depending on
+   * the dialect.
+   */
+  private void emitAlterTable(final String table, final List<String> actions, final List<String> statements) {
+    if (actions.isEmpty()) {
+      return;
+    }
+    if (this.dialect.supportsMultipleAlterActions()) {
+      statements.add("ALTER TABLE " + this.quote(table) + "\n  " + String.join(",\n  ", actions));
+    } else {
+      actions.forEach(action -> statements.add("ALTER TABLE " + this.quote(table) + " " + action));
+    }
+  }
+
+  /**
+   * Collects actions which turn the previous definition of a table into the current one.
+   *
+   * @param previous Previous definition of the table.
+   * @param current Current definition of the table.
+   * @param indexStatements Statements which build indexes concurrently, executed after the actions.
+   * @param followUpStatements Statements which complete the actions, executed after the indexes are built.
+   * @param warnings Migration warnings.
+   * @return ALTER TABLE actions.
+   */
+  private List<String> alterTableActions(final TableDefinition previous, final TableDefinition current,
+      final List<String> indexStatements, final List<String> followUpStatements, final List<String> warnings) {
+    final String table = current.getName();
+    final List<String> actions = new ArrayList<>();
+    final List<String> followUpActions = new ArrayList<>();
+
+    for (final ColumnDefinition column : current.getColumns()) {
+      final ColumnDefinition previousColumn = previous.getColumn(column.getName());
+      if (previousColumn == null) {
+        if (!column.isNullable()) {
+          warnings.add("Column '" + table + "." + column.getName() + "' has been added as nullable. Backfill it "
+              + "and make it NOT NULL manually");
+        }
+        actions.add("ADD COLUMN " + this.ddlGenerator
+            .columnDefinition(table, new ColumnDefinition(column.getName(), column.getJavaType(), true)));
+        continue;
+      }
+
+      final String columnType = this.ddlGenerator.getColumnType(table, column);
+      if (!columnType.equals(this.ddlGenerator.getColumnType(table, previousColumn))) {
+        warnings.add("Changing the type of column '" + table + "." + column.getName() + "' may rewrite the table");
+        actions.add(this.dialect
+            .getAlterColumnTypeClause(this.quote(column.getName()), columnType, previousColumn.isNullable()));
+      }
+      if (previousColumn.isNullable() && !column.isNullable()) {
+        if (this.dialect.supportsDeferredForeignKeyValidation()) {
+          //  Validating a CHECK constraint doesn't block writes, and SET NOT NULL doesn't scan the table again then.
+          final String check = this.quote(DatabaseNames.constraintName("nn", table, column.getName()));
+          actions.add("ADD CONSTRAINT " + check + " CHECK (" + this.quote(column.getName()) + " IS NOT NULL) "
+              + "NOT VALID");
+          followUpStatements.add("ALTER TABLE " + this.quote(table) + " VALIDATE CONSTRAINT " + check);
+          followUpActions.add("ALTER COLUMN " + this.quote(column.getName()) + " SET NOT NULL");
+          followUpActions.add("DROP CONSTRAINT " + check);
+        } else {
+          warnings.add("Making column '" + table + "." + column.getName() + "' NOT NULL scans the whole table, "
+              + "blocking writes");
+          actions.add("ALTER COLUMN " + this.quote(column.getName()) + " SET NOT NULL");
+        }
+      } else if (!previousColumn.isNullable() && column.isNullable()) {
+        actions.add("ALTER COLUMN " + this.quote(column.getName()) + " DROP NOT NULL");
+      }
+    }
+
+    if (!Objects.equals(previous.getPrimaryKey(), current.getPrimaryKey())) {
+      warnings.add("Primary key of table '" + table + "' has changed from " + previous.getPrimaryKey() + " to "
+          + current.getPrimaryKey() + ". It has to be migrated manually");
+    }
+
+    for (final String uniqueColumn : previous.getUniqueColumns()) {
+      if (!current.getUniqueColumns().contains(uniqueColumn)) {
+        actions.add("DROP CONSTRAINT " + this.quote(DatabaseNames.constraintName("uk", table, uniqueColumn)));
+      }
+    }
+    for (final String uniqueColumn : current.getUniqueColumns()) {
+      if (previous.getUniqueColumns().contains(uniqueColumn)) {
+        continue;
+      }
+      final String constraint = this.quote(DatabaseNames.constraintName("uk", table, uniqueColumn));
+      if (this.dialect.supportsConcurrentIndexes()) {
+        //  The column may be added by the actions, so the index is built after them.
+        indexStatements.add("CREATE UNIQUE INDEX CONCURRENTLY " + constraint + " ON " + this.quote(table) + " ("
+            + this.quote(uniqueColumn) + ")");
+        followUpActions.add("ADD CONSTRAINT " + constraint + " UNIQUE USING INDEX " + constraint);
+      } else {
+        actions.add("ADD CONSTRAINT " + constraint + " UNIQUE (" + this.quote(uniqueColumn) + ")");
+      }
+    }
+
+    for (final ColumnDefinition previousColumn : previous.getColumns()) {
+      if (current.getColumn(previousColumn.getName()) == null) {
+        if (this.destructiveChangesAllowed) {
+          actions.add("DROP COLUMN " + this.quote(previousColumn.getName()));
+        } else {
+          warnings.add("Column '" + table + "." + previousColumn.getName() + "' is no longer used, but has been "
+              + "kept, because destructive changes are not allowed");
+        }
+      }
+    }
+
+    this.emitAlterTable(table, followUpActions, followUpStatements);
+    return actions;
+  }
+
+  /**
+   * Generates a migration between the given database schemas.
+   *
+   * @param previous Previous schema.
+   * @param current Current schema.
+   * @return Schema migration.
+   * @throws DdlGeneratorException If the current schema cannot be expressed in the dialect.
+   */
+  public SchemaMigration generate(final DatabaseSchema previous, final DatabaseSchema current) {
+    if (previous == null || current == null) {
+      throw new IllegalArgumentException("Valid schemas are required");
+    }
+
+    final List<String> statements = new ArrayList<>();
+    final List<String> warnings = new ArrayList<>();
+    boolean transactional = true;
+    final Map<String, ForeignKeyDefinition> previousForeignKeys = this.indexForeignKeys(previous);
+    final Map<String, ForeignKeyDefinition> currentForeignKeys = this.indexForeignKeys(current);
+
+    //  Foreign keys go first, so that they don't stand in the way of changing or dropping columns and tables.
+    for (final ForeignKeyDefinition foreignKey : previous.getForeignKeys()) {
+      if (!foreignKey.equals(currentForeignKeys.get(foreignKey.getName()))
+          && current.getTable(foreignKey.getTable()) != null) {
+        statements.add(this.dropConstraintStatement(foreignKey.getTable(), foreignKey.getName()));
+      }
+    }
+
+    for (final TableDefinition previousTable : previous.getTables()) {
+      final TableDefinition table = current.getTable(previousTable.getName());
+      if (table == null) {
+        continue;
+      }
+      for (final IndexDefinition index : previousTable.getIndexes()) {
+        if (!index.equals(table.getIndex(index.getName()))) {
+          statements.add("DROP INDEX " + (this.dialect.supportsConcurrentIndexes() ? "CONCURRENTLY " : "") + this
+              .quote(index.getName()));
+          transactional &= !this.dialect.supportsConcurrentIndexes();
+        }
+      }
+    }
+
+    for (final SequenceDefinition sequence : current.getSequences()) {
+      final SequenceDefinition previousSequence = previous.getSequence(sequence.getName());
+      if (previousSequence == null) {
+        statements.add(this.ddlGenerator.createSequenceStatement(sequence));
+      } else if (previousSequence.getAllocationSize() != sequence.getAllocationSize()) {
+        statements.add("ALTER SEQUENCE " + this.quote(sequence.getName()) + " INCREMENT BY " + sequence
+            .getAllocationSize());
+      }
+    }
+
+    for (final TableDefinition table : current.getTables()) {
+      if (previous.getTable(table.getName()) == null) {
+        statements.add(this.ddlGenerator.createTableStatement(table));
+      }
+    }
+
+    for (final TableDefinition table : current.getTables()) {
+      final TableDefinition previousTable = previous.getTable(table.getName());
+      if (previousTable != null) {
+        final List<String> indexStatements = new ArrayList<>();
+        final List<String> followUpStatements = new ArrayList<>();
+        this.emitAlterTable(table.getName(), this
+            .alterTableActions(previousTable, table, indexStatements, followUpStatements, warnings), statements);
+        statements.addAll(indexStatements);
+        statements.addAll(followUpStatements);
+        transactional &= indexStatements.isEmpty();
+      }
+    }
+
+    for (final TableDefinition table : current.getTables()) {
+      final TableDefinition previousTable = previous.getTable(table.getName());
+      for (final IndexDefinition index : table.getIndexes()) {
+        if (previousTable == null) {
+          statements.add(this.ddlGenerator.createIndexStatement(index));
+        } else if (!index.equals(previousTable.getIndex(index.getName()))) {
+          //  Building an index of an existing table blocks writes to it, unless it's built concurrently.
+          statements.add(this.ddlGenerator.createIndexStatement(index, this.dialect.supportsConcurrentIndexes()));
+          transactional &= !this.dialect.supportsConcurrentIndexes();
+        }
+      }
+    }
+
+    for (final ForeignKeyDefinition foreignKey : current.getForeignKeys()) {
+      if (foreignKey.equals(previousForeignKeys.get(foreignKey.getName()))) {
+        continue;
+      }
+      final String statement = this.ddlGenerator.addForeignKeyStatement(foreignKey);
+      if (this.dialect.supportsDeferredForeignKeyValidation()) {
+        statements.add(statement + " NOT VALID");
+        statements.add("ALTER TABLE " + this.quote(foreignKey.getTable()) + " VALIDATE CONSTRAINT " + this
+            .quote(foreignKey.getName()));
+      } else {
+        statements.add(statement);
+      }
+    }
+
+    for (final TableDefinition previousTable : previous.getTables()) {
+      if (current.getTable(previousTable.getName()) == null) {
+        if (this.destructiveChangesAllowed) {
+          statements.add("DROP TABLE " + this.quote(previousTable.getName()) + " CASCADE");
+        } else {
+          warnings.add("Table '" + previousTable.getName() + "' is no longer used, but has been kept, because "
+              + "destructive changes are not allowed");
+        }
+      }
+    }
+
+    for (final SequenceDefinition previousSequence : previous.getSequences()) {
+      if (current.getSequence(previousSequence.getName()) == null) {
+        if (this.destructiveChangesAllowed) {
+          statements.add("DROP SEQUENCE " + this.quote(previousSequence.getName()));
+        } else {
+          warnings.add("Sequence '" + previousSequence.getName() + "' is no longer used, but has been kept, because "
+              + "destructive changes are not allowed");
+        }
+      }
+    }
+
+    if (!transactional) {
+      warnings.add("Indexes are built concurrently, so the migration can't run in a transaction or a JDBC batch. "
+          + "Execute its statements one by one, in auto-commit mode");
+    }
+    return new SchemaMigration(statements, warnings, transactional);
+  }
+
+  /**
+   * Generates a migration between the given entity models.
+   *
+   * @param previous Previous entity model.
+   * @param current Current entity model.
+   * @return Schema migration.
+   * @throws DdlGeneratorException If any of the models cannot be mapped onto tables.
+   */
+  public SchemaMigration generate(final Collection<GeneratedEntity> previous,
+      final Collection<GeneratedEntity> current) {
+    return this.generate(this.ddlGenerator.createSchema(previous), this.ddlGenerator.createSchema(current));
+  }
+}
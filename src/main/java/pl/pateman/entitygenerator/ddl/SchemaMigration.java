@@ -0,0 +1,76 @@
+package pl.pateman.entitygenerator.ddl;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An incremental migration between two database schemas: ordered DDL statements and warnings about changes which
+ * could not be applied safely.
+ *
+ * This class is immutable.
+ */
+public final class SchemaMigration {
+
+  private final List<String> statements;
+  private final List<String> warnings;
+  private final boolean transactional;
+
+  SchemaMigration(final List<String> statements, final List<String> warnings, final boolean transactional) {
+    this.statements = Collections.unmodifiableList(statements);
+    this.warnings = Collections.unmodifiableList(warnings);
+    this.transactional = transactional;
+  }
+
+  /**
+   * Returns a read-only list of statements, in the order in which they should be executed. Statements are not
+   * terminated with a semicolon.
+   *
+   * @return Migration statements.
+   */
+  public List<String> getStatements() {
+    return statements;
+  }
+
+  /**
+   * Returns a read-only list of warnings, i.e. changes which have been skipped or need manual attention.
+   *
+   * @return Migration warnings.
+   */
+  public List<String> getWarnings() {
+    return warnings;
+  }
+
+  /**
+   * Determines whether the statements can be executed in a single transaction. Statements which build or drop
+   * indexes concurrently can't, so such migrations have to be executed in auto-commit mode, one statement at a time.
+   *
+   * @return {@code true} if they can, {@code false} otherwise.
+   */
+  public boolean isTransactional() {
+    return transactional;
+  }
+
+  /**
+   * Determines whether the migration has any statements.
+   *
+   * @return {@code true} if there's nothing to execute, {@code false} otherwise.
+   */
+  public boolean isEmpty() {
+    return this.statements.isEmpty();
+  }
+
+  /**
+   * Returns the migration as a script. Warnings are included as comments at the top.
+   *
+   * @return Migration script.
+   */
+  public String toScript() {
+    final StringBuilder script = new StringBuilder();
+    this.warnings.forEach(warning -> script.append("-- WARNING: ").append(warning).append('\n'));
+    if (!this.warnings.isEmpty()) {
+      script.append('\n');
+    }
+    this.statements.forEach(statement -> script.append(statement).append(DdlGenerator.STATEMENT_SEPARATOR));
+    return script.toString();
+  }
+}
@@ -0,0 +1,55 @@
+package pl.pateman.entitygenerator.ddl;
+
+import java.util.Objects;
+
+/**
+ * Metadata of a sequence which generates primary keys of an entity.
+ *
+ * This class is immutable.
+ */
+public final class SequenceDefinition {
+
+  private final String name;
+  private final int allocationSize;
+
+  SequenceDefinition(final String name, final int allocationSize) {
+    this.name = name;
+    this.allocationSize = allocationSize;
+  }
+
+  /**
+   * Returns the name of the sequence.
+   *
+   * @return Sequence name.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the increment of the sequence. It matches the allocation size of the entity, as JPA providers reserve
+   * that many values per call to the sequence.
+   *
+   * @return Sequence increment.
+   */
+  public int getAllocationSize() {
+    return allocationSize;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    SequenceDefinition that = (SequenceDefinition) o;
+    return allocationSize == that.allocationSize && Objects.equals(name, that.name);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(name, allocationSize);
+  }
+}
@@ -0,0 +1,81 @@
+package pl.pateman.entitygenerator.ddl;
+
+/**
+ * An interface which defines database-specific aspects of DDL generation.
+ */
+public interface SqlDialect {
+
+  /**
+   * Returns the name of the dialect.
+   *
+   * @return Dialect name.
+   */
+  String getName();
+
+  /**
+   * Returns the SQL column type which should be used for storing values of the given Java type.
+   *
+   * @param javaType Fully-qualified name of the Java type (or a primitive type name).
+   * @return SQL column type, or {@code null} if the type is not supported.
+   */
+  String getColumnType(String javaType);
+
+  /**
+   * Quotes the given identifier, if needed (for instance, if it is a reserved word).
+   *
+   * @param identifier Identifier to quote.
+   * @return An identifier which is safe to be used in a statement.
+   */
+  String quoteIdentifier(String identifier);
+
+  /**
+   * Renders a clause of an ALTER TABLE statement, which changes the type of a column.
+   *
+   * @param quotedColumn Quoted column name.
+   * @param columnType New SQL column type.
+   * @param nullable Whether the column is nullable.
+   * @return ALTER TABLE clause.
+   */
+  String getAlterColumnTypeClause(String quotedColumn, String columnType, boolean nullable);
+
+  /**
+   * Determines whether a single ALTER TABLE statement can perform several comma-separated actions. Batching actions
+   * per table means that a table is locked (and possibly rewritten) once, instead of once per action.
+   *
+   * @return Whether multiple actions per ALTER TABLE statement are supported.
+   */
+  boolean supportsMultipleAlterActions();
+
+  /**
+   * Determines whether foreign keys (and CHECK constraints) can be added without validating existing rows, and
+   * validated in a separate statement. This lets a constraint be added to a large table without blocking writes for
+   * the duration of the validation.
+   *
+   * @return Whether deferred validation of constraints is supported.
+   */
+  boolean supportsDeferredForeignKeyValidation();
+
+  /**
+   * Determines whether an index can be limited to rows which meet a condition (a partial index). Such indexes are
+   * smaller and cheaper to maintain than indexes of all rows.
+   *
+   * @return Whether partial indexes are supported.
+   */
+  boolean supportsPartialIndexes();
+
+  /**
+   * Determines whether indexes can be created and dropped without blocking writes to their tables (e.g. with CREATE
+   * INDEX CONCURRENTLY). Such statements take longer, and can't run in a transaction.
+   *
+   * @return Whether concurrent index builds are supported.
+   */
+  boolean supportsConcurrentIndexes();
+
+  /**
+   * Returns the maximum number of bind parameters of a single statement. Multi-row INSERT statements of JDBC batch
+   * writers never have more.
+   *
+   * @return Maximum number of bind parameters.
+   */
+  int getMaxBindParameters();
+}
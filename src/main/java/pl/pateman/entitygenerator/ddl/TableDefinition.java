@@ -0,0 +1,133 @@
+package pl.pateman.entitygenerator.ddl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Metadata of a database table, either one which stores an entity, or a join table of a many-to-many relation.
+ */
+public final class TableDefinition {
+
+  private final String name;
+  private final String entityName;
+  private final Map<String, ColumnDefinition> columns = new LinkedHashMap<>();
+  private final List<String> primaryKey = new ArrayList<>();
+  private final Set<String> uniqueColumns = new LinkedHashSet<>();
+  private final Map<String, IndexDefinition> indexes = new LinkedHashMap<>();
+
+  TableDefinition(final String name, final String entityName) {
+    this.name = name;
+    this.entityName = entityName;
+  }
+
+  /**
+   * Returns the name of the table.
+   *
+   * @return Table name.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the name of the entity stored in this table, or {@code null} if this is a join table.
+   *
+   * @return Entity name.
+   */
+  public String getEntityName() {
+    return entityName;
+  }
+
+  /**
+   * Determines whether this is a join table of a many-to-many relation.
+   *
+   * @return {@code true} if it is, {@code false} otherwise.
+   */
+  public boolean isJoinTable() {
+    return this.entityName == null;
+  }
+
+  /**
+   * Returns a read-only collection of columns of the table, in the order of declaration.
+   *
+   * @return Table columns.
+   */
+  public Collection<ColumnDefinition> getColumns() {
+    return Collections.unmodifiableCollection(columns.values());
+  }
+
+  /**
+   * Finds a column by its name.
+   *
+   * @param columnName Name of the column.
+   * @return The column, or {@code null} if there's no such column.
+   */
+  public ColumnDefinition getColumn(final String columnName) {
+    return this.columns.get(columnName);
+  }
+
+  /**
+   * Returns a read-only list of columns which make up the primary key.
+   *
+   * @return Primary key columns.
+   */
+  public List<String> getPrimaryKey() {
+    return Collections.unmodifiableList(primaryKey);
+  }
+
+  /**
+   * Returns a read-only collection of columns which have a unique constraint.
+   *
+   * @return Unique columns.
+   */
+  public Collection<String> getUniqueColumns() {
+    return Collections.unmodifiableCollection(uniqueColumns);
+  }
+
+  /**
+   * Returns a read-only collection of indexes of the table, in the order of declaration.
+   *
+   * @return Table indexes.
+   */
+  public Collection<IndexDefinition> getIndexes() {
+    return Collections.unmodifiableCollection(indexes.values());
+  }
+
+  /**
+   * Finds an index by its name.
+   *
+   * @param indexName Name of the index.
+   * @return The index, or {@code null} if there's no such index.
+   */
+  public IndexDefinition getIndex(final String indexName) {
+    return this.indexes.get(indexName);
+  }
+
+  /**
+   * Adds a column. Returns {@code false} if a column with the same name already exists.
+   */
+  boolean addColumn(final ColumnDefinition column) {
+    return this.columns.putIfAbsent(column.getName(), column) == null;
+  }
+
+  void addPrimaryKeyColumn(final String columnName) {
+    this.primaryKey.add(columnName);
+  }
+
+  void addUniqueColumn(final String columnName) {
+    this.uniqueColumns.add(columnName);
+  }
+
+  /**
+   * Adds an index. Returns {@code false} if an index with the same name already exists.
+   */
+  boolean addIndex(final IndexDefinition index) {
+    return this.indexes.putIfAbsent(index.getName(), index) == null;
+  }
+}
@@ -0,0 +1,79 @@
+package pl.pateman.entitygenerator.ddl.impl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import pl.pateman.entitygenerator.ddl.SqlDialect;
+
+/**
+ * Base class of the built-in dialects, which holds type mappings and identifiers that are common to them.
+ */
+abstract class AbstractSqlDialect implements SqlDialect {
+
+  private static final Pattern SIMPLE_IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+  private final Map<String, String> columnTypes = new HashMap<>();
+  private final Set<String> reservedWords = new HashSet<>(Arrays
+      .asList("ALL", "AND", "AS", "BETWEEN", "BY", "CHECK", "COLUMN", "CONSTRAINT", "CREATE", "CROSS", "DEFAULT",
+          "DISTINCT", "EXCEPT", "EXISTS", "FALSE", "FOR", "FOREIGN", "FROM", "FULL", "GROUP", "HAVING", "IN",
+          "INNER", "INTERSECT", "IS", "JOIN", "KEY", "LIKE", "LIMIT", "NOT", "NULL", "ON", "OR", "ORDER",
+          "PRIMARY", "REFERENCES", "SELECT", "TABLE", "TRUE", "UNION", "UNIQUE", "USER", "VALUE", "VALUES",
+          "WHERE", "WITH"));
+
+  AbstractSqlDialect() {
+    this.registerColumnType("VARCHAR(255)", String.class);
+    this.registerColumnType("CHAR(1)", Character.class, char.class);
+    this.registerColumnType("BOOLEAN", Boolean.class, boolean.class);
+    this.registerColumnType("SMALLINT", Short.class, short.class, Byte.class, byte.class);
+    this.registerColumnType("INTEGER", Integer.class, int.class);
+    this.registerColumnType("BIGINT", Long.class, long.class);
+    this.registerColumnType("REAL", Float.class, float.class);
+    this.registerColumnType("DOUBLE PRECISION", Double.class, double.class);
+    this.registerColumnType("NUMERIC(19, 2)", java.math.BigDecimal.class);
+    this.registerColumnType("NUMERIC(38, 0)", java.math.BigInteger.class);
+    this.registerColumnType("DATE", java.sql.Date.class, java.time.LocalDate.class);
+    this.registerColumnType("TIME", java.sql.Time.class, java.time.LocalTime.class);
+    this.registerColumnType("TIMESTAMP", java.util.Date.class, java.util.Calendar.class, java.sql.Timestamp.class,
+        java.time.LocalDateTime.class, java.time.Instant.class);
+    this.registerColumnType("UUID", java.util.UUID.class);
+  }
+
+  /**
+   * Registers (or replaces) the column type of the given Java types.
+   *
+   * @param columnType SQL column type.
+   * @param javaTypes Java types which should be stored using the column type.
+   */
+  final void registerColumnType(final String columnType, final Class<?>... javaTypes) {
+    for (final Class<?> javaType : javaTypes) {
+      this.columnTypes.put(javaType.getCanonicalName(), columnType);
+    }
+  }
+
+  /**
+   * Registers additional reserved words of the dialect.
+   *
+   * @param words Reserved words.
+   */
+  final void registerReservedWords(final String... words) {
+    this.reservedWords.addAll(Arrays.asList(words));
+  }
+
+  @Override
+  public String getColumnType(final String javaType) {
+    return this.columnTypes.get(javaType);
+  }
+
+  @Override
+  public String quoteIdentifier(final String identifier) {
+    if (SIMPLE_IDENTIFIER.matcher(identifier).matches() && !this.reservedWords
+        .contains(identifier.toUpperCase(Locale.ROOT))) {
+      return identifier;
+    }
+    return '"' + identifier.replace("\"", "\"\"") + '"';
+  }
+}
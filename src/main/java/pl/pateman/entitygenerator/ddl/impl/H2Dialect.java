@@ -0,0 +1,51 @@
+package pl.pateman.entitygenerator.ddl.impl;
+
+/**
+ * A dialect for the H2 database.
+ */
+public final class H2Dialect extends AbstractSqlDialect {
+
+  public H2Dialect() {
+    this.registerColumnType("TINYINT", Byte.class, byte.class);
+    this.registerColumnType("VARBINARY", byte[].class);
+    this.registerReservedWords("CURRENT_DATE", "CURRENT_TIME", "CURRENT_TIMESTAMP", "MINUS", "OFFSET", "ROWNUM",
+        "SYSDATE", "TODAY");
+  }
+
+  @Override
+  public String getName() {
+    return "H2";
+  }
+
+  @Override
+  public String getAlterColumnTypeClause(final String quotedColumn, final String columnType,
+      final boolean nullable) {
+    //  H2 redefines the whole column, so nullability has to be repeated.
+    return "ALTER COLUMN " + quotedColumn + " " + columnType + (nullable ? "" : " NOT NULL");
+  }
+
+  @Override
+  public boolean supportsMultipleAlterActions() {
+    return false;
+  }
+
+  @Override
+  public boolean supportsDeferredForeignKeyValidation() {
+    return false;
+  }
+
+  @Override
+  public boolean supportsPartialIndexes() {
+    return false;
+  }
+
+  @Override
+  public boolean supportsConcurrentIndexes() {
+    return false;
+  }
+
+  @Override
+  public int getMaxBindParameters() {
+    return 32767;
+  }
+}
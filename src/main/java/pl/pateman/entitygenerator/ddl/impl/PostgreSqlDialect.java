@@ -0,0 +1,52 @@
+package pl.pateman.entitygenerator.ddl.impl;
+
+/**
+ * A dialect for the PostgreSQL database.
+ */
+public final class PostgreSqlDialect extends AbstractSqlDialect {
+
+  public PostgreSqlDialect() {
+    this.registerColumnType("BYTEA", byte[].class);
+    this.registerColumnType("TIMESTAMP WITH TIME ZONE", java.time.Instant.class, java.time.OffsetDateTime.class);
+    this.registerReservedWords("ANALYSE", "ANALYZE", "ARRAY", "ASYMMETRIC", "BOTH", "CASE", "CAST", "COLLATE",
+        "CURRENT_USER", "DO", "ELSE", "END", "GRANT", "LEADING", "OFFSET", "PLACING", "RETURNING", "SESSION_USER",
+        "SOME", "SYMMETRIC", "THEN", "TO", "TRAILING", "USING", "VARIADIC", "WHEN", "WINDOW");
+  }
+
+  @Override
+  public String getName() {
+    return "PostgreSQL";
+  }
+
+  @Override
+  public String getAlterColumnTypeClause(final String quotedColumn, final String columnType,
+      final boolean nullable) {
+    return "ALTER COLUMN " + quotedColumn + " TYPE " + columnType;
+  }
+
+  @Override
+  public boolean supportsMultipleAlterActions() {
+    return true;
+  }
+
+  @Override
+  public boolean supportsDeferredForeignKeyValidation() {
+    return true;
+  }
+
+  @Override
+  public boolean supportsPartialIndexes() {
+    return true;
+  }
+
+  @Override
+  public boolean supportsConcurrentIndexes() {
+    return true;
+  }
+
+  @Override
+  public int getMaxBindParameters() {
+    //  The protocol allows 65535, but JDBC drivers older than 42.4 reject more than 32767.
+    return 32767;
+  }
+}
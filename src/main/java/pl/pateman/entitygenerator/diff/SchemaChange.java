@@ -0,0 +1,92 @@
+package pl.pateman.entitygenerator.diff;
+
+/**
+ * A single difference between two entity models.
+ *
+ * This class is immutable.
+ */
+public final class SchemaChange {
+
+  /**
+   * Type of the change.
+   */
+  public enum Type {
+    ENTITY_ADDED,
+    ENTITY_REMOVED,
+    DEPLOYMENT_CHANGED,
+    CLASS_FILE_CHANGED,
+    ATTRIBUTE_ADDED,
+    ATTRIBUTE_REMOVED,
+    ATTRIBUTE_TYPE_CHANGED,
+    ATTRIBUTE_FLAGS_CHANGED,
+    RELATION_ADDED,
+    RELATION_REMOVED,
+    RELATION_CHANGED
+  }
+
+  private final Type type;
+  private final String entityName;
+  private final String attributeName;
+  private final String previousValue;
+  private final String currentValue;
+
+  SchemaChange(final Type type, final String entityName, final String attributeName, final String previousValue,
+      final String currentValue) {
+    this.type = type;
+    this.entityName = entityName;
+    this.attributeName = attributeName;
+    this.previousValue = previousValue;
+    this.currentValue = currentValue;
+  }
+
+  /**
+   * Returns the type of the change.
+   *
+   * @return Change type.
+   */
+  public Type getType() {
+    return type;
+  }
+
+  /**
+   * Returns the name of the changed entity.
+   *
+   * @return Entity name.
+   */
+  public String getEntityName() {
+    return entityName;
+  }
+
+  /**
+   * Returns the name of the changed attribute, or {@code null} if the change concerns the whole entity.
+   *
+   * @return Attribute name.
+   */
+  public String getAttributeName() {
+    return attributeName;
+  }
+
+  /**
+   * Returns a description of the previous value, or {@code null} if something has been added.
+   *
+   * @return Previous value.
+   */
+  public String getPreviousValue() {
+    return previousValue;
+  }
+
+  /**
+   * Returns a description of the current value, or {@code null} if something has been removed.
+   *
+   * @return Current value.
+   */
+  public String getCurrentValue() {
+    return currentValue;
+  }
+
+  @Override
+  public String toString() {
+    return this.type + " " + this.entityName + (this.attributeName == null ? "" : "." + this.attributeName) + ": "
+        + this.previousValue + " -> " + this.currentValue;
+  }
+}
@@ -0,0 +1,47 @@
+package pl.pateman.entitygenerator.diff;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Result of comparing two entity models.
+ *
+ * This class is immutable.
+ */
+public final class SchemaDiff {
+
+  private final List<SchemaChange> changes;
+
+  SchemaDiff(final List<SchemaChange> changes) {
+    this.changes = Collections.unmodifiableList(changes);
+  }
+
+  /**
+   * Returns a read-only list of all changes, ordered by entity and attribute name.
+   *
+   * @return Schema changes.
+   */
+  public List<SchemaChange> getChanges() {
+    return changes;
+  }
+
+  /**
+   * Returns changes of the given type.
+   *
+   * @param type Type of changes to return.
+   * @return A {@link List<SchemaChange>} of matching changes.
+   */
+  public List<SchemaChange> getChanges(final SchemaChange.Type type) {
+    return this.changes.stream().filter(c -> c.getType().equals(type)).collect(Collectors.toList());
+  }
+
+  /**
+   * Determines whether the models are equivalent.
+   *
+   * @return {@code true} if there are no changes, {@code false} otherwise.
+   */
+  public boolean isEmpty() {
+    return this.changes.isEmpty();
+  }
+}
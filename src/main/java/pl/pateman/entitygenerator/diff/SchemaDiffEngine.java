@@ -0,0 +1,160 @@
+package pl.pateman.entitygenerator.diff;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import pl.pateman.entitygenerator.GeneratedEntity;
+import pl.pateman.entitygenerator.GeneratedEntity.Attribute;
+import pl.pateman.entitygenerator.GeneratedEntity.RelationInfo;
+import pl.pateman.entitygenerator.diff.SchemaChange.Type;
+
+/**
+ * Compares two resolved entity models, for example one read from a snapshot of the previous generation and the
+ * current one, and reports what has changed.
+ *
+ * Entities and attributes are looked up through hash indices, so the comparison takes time proportional to the size
+ * of the models.
+ *
+ * This class is thread-safe.
+ */
+public final class SchemaDiffEngine {
+
+  private <T> Map<String, T> index(final Collection<T> values, final Function<T, String> keyExtractor) {
+    final Map<String, T> index = new HashMap<>(values.size() * 2);
+    values.forEach(value -> index.put(keyExtractor.apply(value), value));
+    return index;
+  }
+
+  /**
+   * Describes a relation in a form which can be compared and reported.
+   *
+   * @param relationInfo Relation to describe.
+   * @return Relation description.
+   */
+  private String describeRelation(final RelationInfo relationInfo) {
+    return relationInfo.getType() + " " + relationInfo.getSide() + (relationInfo.isSource() ? " source" : " target")
+        + " -> " + relationInfo.getTarget().getName() + "." + relationInfo.getTargetAttribute().getName()
+        + " (collection=" + relationInfo.getCollectionType() + ", joinColumn=" + relationInfo.getJoinColumn()
+        + ", joinTable=" + relationInfo.getJoinTable() + ", fetch=" + relationInfo.getFetchType() + ", fetchMode="
+        + relationInfo.getFetchMode() + ", batchSize=" + relationInfo.getBatchSize() + ", indexed=" + relationInfo
+        .isIndexed() + ")";
+  }
+
+  private String describeFlags(final Attribute attribute) {
+    return new TreeSet<>(attribute.getFlags()).toString();
+  }
+
+  private void diffAttributes(final GeneratedEntity previous, final GeneratedEntity current,
+      final List<SchemaChange> changes) {
+    final String entityName = current.getName();
+    final Map<String, Attribute> previousAttributes = this.index(previous.getAttributes(), Attribute::getName);
+    final Map<String, Attribute> currentAttributes = this.index(current.getAttributes(), Attribute::getName);
+
+    for (final String name : new TreeSet<>(currentAttributes.keySet())) {
+      final Attribute currentAttribute = currentAttributes.get(name);
+      final Attribute previousAttribute = previousAttributes.get(name);
+      final boolean currentRelation = currentAttribute.getRelationInfo() != null;
+      final boolean previousRelation = previousAttribute != null && previousAttribute.getRelationInfo() != null;
+
+      //  An attribute which turned from a regular attribute into a relation (or the other way round) is reported as
+      //  removed and added again.
+      if (previousAttribute != null && currentRelation != previousRelation) {
+        changes.add(new SchemaChange(previousRelation ? Type.RELATION_REMOVED : Type.ATTRIBUTE_REMOVED, entityName,
+            name, previousRelation ? this.describeRelation(previousAttribute.getRelationInfo())
+            : previousAttribute.getType(), null));
+      }
+
+      if (previousAttribute == null || currentRelation != previousRelation) {
+        changes.add(new SchemaChange(currentRelation ? Type.RELATION_ADDED : Type.ATTRIBUTE_ADDED, entityName, name,
+            null, currentRelation ? this.describeRelation(currentAttribute.getRelationInfo())
+            : currentAttribute.getType()));
+      } else if (currentRelation) {
+        final String previousDescription = this.describeRelation(previousAttribute.getRelationInfo());
+        final String currentDescription = this.describeRelation(currentAttribute.getRelationInfo());
+        if (!previousDescription.equals(currentDescription)) {
+          changes.add(new SchemaChange(Type.RELATION_CHANGED, entityName, name, previousDescription,
+              currentDescription));
+        }
+      } else {
+        if (!Objects.equals(previousAttribute.getType(), currentAttribute.getType())) {
+          changes.add(new SchemaChange(Type.ATTRIBUTE_TYPE_CHANGED, entityName, name, previousAttribute.getType(),
+              currentAttribute.getType()));
+        }
+        final String previousFlags = this.describeFlags(previousAttribute);
+        final String currentFlags = this.describeFlags(currentAttribute);
+        if (!previousFlags.equals(currentFlags)) {
+          changes.add(new SchemaChange(Type.ATTRIBUTE_FLAGS_CHANGED, entityName, name, previousFlags, currentFlags));
+        }
+      }
+    }
+
+    for (final String name : new TreeSet<>(previousAttributes.keySet())) {
+      if (!currentAttributes.containsKey(name)) {
+        final Attribute previousAttribute = previousAttributes.get(name);
+        final boolean relation = previousAttribute.getRelationInfo() != null;
+        changes.add(new SchemaChange(relation ? Type.RELATION_REMOVED : Type.ATTRIBUTE_REMOVED, entityName, name,
+            relation ? this.describeRelation(previousAttribute.getRelationInfo()) : previousAttribute.getType(),
+            null));
+      }
+    }
+  }
+
+  /**
+   * Compares the given models.
+   *
+   * @param previous Previous entity model.
+   * @param current Current entity model.
+   * @return A {@link SchemaDiff} which describes the changes.
+   */
+  public SchemaDiff diff(final Collection<GeneratedEntity> previous, final Collection<GeneratedEntity> current) {
+    if (previous == null || current == null) {
+      throw new IllegalArgumentException("Valid entity collections are required");
+    }
+
+    final Map<String, GeneratedEntity> previousEntities = this.index(previous, GeneratedEntity::getName);
+    final Map<String, GeneratedEntity> currentEntities = this.index(current, GeneratedEntity::getName);
+    final List<SchemaChange> changes = new ArrayList<>();
+
+    for (final GeneratedEntity currentEntity : this.sorted(current)) {
+      final GeneratedEntity previousEntity = previousEntities.get(currentEntity.getName());
+      if (previousEntity == null) {
+        changes.add(new SchemaChange(Type.ENTITY_ADDED, currentEntity.getName(), null, null,
+            currentEntity.getDeployment()));
+        continue;
+      }
+
+      if (!Objects.equals(previousEntity.getDeployment(), currentEntity.getDeployment())) {
+        changes.add(new SchemaChange(Type.DEPLOYMENT_CHANGED, currentEntity.getName(), null,
+            previousEntity.getDeployment(), currentEntity.getDeployment()));
+      }
+      if (!Objects.equals(previousEntity.getClassFile(), currentEntity.getClassFile())) {
+        changes.add(new SchemaChange(Type.CLASS_FILE_CHANGED, currentEntity.getName(), null,
+            previousEntity.getClassFile(), currentEntity.getClassFile()));
+      }
+      this.diffAttributes(previousEntity, currentEntity, changes);
+    }
+
+    for (final GeneratedEntity previousEntity : this.sorted(previous)) {
+      if (!currentEntities.containsKey(previousEntity.getName())) {
+        changes.add(new SchemaChange(Type.ENTITY_REMOVED, previousEntity.getName(), null,
+            previousEntity.getDeployment(), null));
+      }
+    }
+
+    return new SchemaDiff(changes);
+  }
+
+  private List<GeneratedEntity> sorted(final Collection<GeneratedEntity> entities) {
+    return entities
+        .stream()
+        .sorted(Comparator.comparing(GeneratedEntity::getName))
+        .collect(Collectors.toList());
+  }
+}
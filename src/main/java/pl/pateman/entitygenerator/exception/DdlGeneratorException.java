@@ -0,0 +1,25 @@
+package pl.pateman.entitygenerator.exception;
+
+public final class DdlGeneratorException extends RuntimeException {
+
+  public DdlGeneratorException() {
+    super();
+  }
+
+  public DdlGeneratorException(String message) {
+    super(message);
+  }
+
+  public DdlGeneratorException(String message, Throwable cause) {
+    super(message, cause);
+  }
+
+  public DdlGeneratorException(Throwable cause) {
+    super(cause);
+  }
+
+  protected DdlGeneratorException(String message, Throwable cause, boolean enableSuppression,
+      boolean writableStackTrace) {
+    super(message, cause, enableSuppression, writableStackTrace);
+  }
+}
@@ -0,0 +1,79 @@
+package pl.pateman.entitygenerator.generate.impl;
+
+import freemarker.ext.beans.BeansWrapper;
+import freemarker.ext.beans.StringModel;
+import freemarker.template.Configuration;
+import freemarker.template.DefaultObjectWrapper;
+import freemarker.template.DefaultObjectWrapperConfiguration;
+import freemarker.template.TemplateModel;
+import freemarker.template.TemplateModelException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import pl.pateman.entitygenerator.GeneratedEntity;
+import pl.pateman.entitygenerator.GeneratedEntity.Attribute;
+import pl.pateman.entitygenerator.GeneratedEntity.RelationInfo;
+
+/**
+ * An object wrapper which remembers the template models created for entity metadata, i.e. {@link GeneratedEntity},
+ * {@link Attribute} and {@link RelationInfo}. Each of these objects is wrapped only once per rendered entity, and the
+ * values of its members are wrapped only once as well, regardless of how many times the template accesses them.
+ *
+ * All instances of this class share the same class introspection cache. An instance itself is NOT thread-safe, so
+ * each thread should use its own.
+ */
+final class EntityObjectWrapper extends DefaultObjectWrapper {
+
+  private final Map<Object, TemplateModel> modelCache = new IdentityHashMap<>();
+
+  EntityObjectWrapper() {
+    //  A write-protected wrapper obtains its class introspector from FreeMarker's global cache, which means that
+    //  entity classes are introspected only once, no matter how many wrappers there are.
+    super(new DefaultObjectWrapperConfiguration(Configuration.VERSION_2_3_27) {
+    }, true);
+  }
+
+  @Override
+  public TemplateModel wrap(final Object obj) throws TemplateModelException {
+    if (!(obj instanceof GeneratedEntity) && !(obj instanceof Attribute) && !(obj instanceof RelationInfo)) {
+      return super.wrap(obj);
+    }
+
+    TemplateModel model = this.modelCache.get(obj);
+    if (model == null) {
+      model = new CachingBeanModel(obj, this);
+      this.modelCache.put(obj, model);
+    }
+    return model;
+  }
+
+  /**
+   * Forgets all models created so far. It should be called before rendering another entity.
+   */
+  void clearModelCache() {
+    this.modelCache.clear();
+  }
+
+  /**
+   * A bean model which remembers the models of the bean's members. Entity metadata does not change once it has been
+   * generated, so it is safe to do so.
+   */
+  private static final class CachingBeanModel extends StringModel {
+
+    private final Map<String, TemplateModel> memberModels = new HashMap<>();
+
+    CachingBeanModel(final Object object, final BeansWrapper wrapper) {
+      super(object, wrapper);
+    }
+
+    @Override
+    public TemplateModel get(final String key) throws TemplateModelException {
+      TemplateModel model = this.memberModels.get(key);
+      if (model == null && !this.memberModels.containsKey(key)) {
+        model = super.get(key);
+        this.memberModels.put(key, model);
+      }
+      return model;
+    }
+  }
+}
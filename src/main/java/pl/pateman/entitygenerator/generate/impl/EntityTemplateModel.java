@@ -0,0 +1,67 @@
+package pl.pateman.entitygenerator.generate.impl;
+
+import freemarker.template.ObjectWrapper;
+import freemarker.template.TemplateHashModel;
+import freemarker.template.TemplateModel;
+import freemarker.template.TemplateModelException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A reusable data model which exposes the parameters prepared for an entity (such as the entity itself, its package
+ * name and imports) to a template.
+ *
+ * Each parameter is wrapped lazily, on first access, and then reused for the remainder of the rendering. Instances
+ * are meant to be reused between entities rendered by the same thread - call
+ * {@link EntityTemplateModel#reset(Map)} before rendering another entity.
+ *
+ * This class is NOT thread-safe.
+ */
+final class EntityTemplateModel implements TemplateHashModel {
+
+  private final EntityObjectWrapper objectWrapper;
+  private final Map<String, TemplateModel> models = new HashMap<>();
+  private Map<String, Object> parameters = Collections.emptyMap();
+
+  EntityTemplateModel(final EntityObjectWrapper objectWrapper) {
+    this.objectWrapper = objectWrapper;
+  }
+
+  /**
+   * Prepares the model for rendering another entity.
+   *
+   * @param parameters Parameters of the entity which should be exposed to the template.
+   * @return This model.
+   */
+  EntityTemplateModel reset(final Map<String, Object> parameters) {
+    this.objectWrapper.clearModelCache();
+    this.models.clear();
+    this.parameters = parameters == null ? Collections.emptyMap() : parameters;
+    return this;
+  }
+
+  /**
+   * Returns the object wrapper used by this model.
+   *
+   * @return Object wrapper.
+   */
+  ObjectWrapper getObjectWrapper() {
+    return this.objectWrapper;
+  }
+
+  @Override
+  public TemplateModel get(final String key) throws TemplateModelException {
+    TemplateModel model = this.models.get(key);
+    if (model == null && this.parameters.containsKey(key)) {
+      model = this.objectWrapper.wrap(this.parameters.get(key));
+      this.models.put(key, model);
+    }
+    return model;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.parameters.isEmpty();
+  }
+}
@@ -3,9 +3,13 @@ package pl.pateman.entitygenerator.generate.impl;
 import freemarker.template.Configuration;
 import freemarker.template.Template;
 import freemarker.template.TemplateExceptionHandler;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.TreeMap;
 import org.apache.commons.lang3.StringUtils;
 import pl.pateman.entitygenerator.GeneratedEntity;
 import pl.pateman.entitygenerator.generate.Generator;
@@ -19,6 +23,9 @@ public class FreemarkerGenerator implements Generator {
   public static final String DEFAULT_ENTITY_TEMPLATE_FILE = "defaultEntityTemplate.ftlh";
 
   private final Configuration configuration;
+  private final String templatesRoot;
+  private final ThreadLocal<EntityTemplateModel> templateModels = ThreadLocal
+      .withInitial(() -> new EntityTemplateModel(new EntityObjectWrapper()));
 
   private String templateName;
 
@@ -27,6 +34,7 @@ public class FreemarkerGenerator implements Generator {
   }
 
   public FreemarkerGenerator(final String templatesRoot) {
+    this.templatesRoot = templatesRoot;
     this.configuration = new Configuration(Configuration.VERSION_2_3_27);
     this.configuration.setClassForTemplateLoading(this.getClass(), templatesRoot);
     this.configuration.setDefaultEncoding(StandardCharsets.UTF_8.name());
@@ -40,13 +48,72 @@ public class FreemarkerGenerator implements Generator {
   @Override
   public String generateSource(final GeneratedEntity generatedEntity,
       final Map<String, Object> parameters) throws Exception {
+    return this.render(this.templateName, parameters);
+  }
+
+  /**
+   * Returns a {@link Generator} which renders the given template. The returned generator shares the configuration
+   * (and thus the template cache) of this generator, so it's cheaper than creating another {@link FreemarkerGenerator}
+   * for each template.
+   *
+   * @param templateName Name of the template to render.
+   * @return A {@link Generator} which renders the given template.
+   */
+  public Generator forTemplate(final String templateName) {
+    if (StringUtils.isBlank(templateName)) {
+      throw new IllegalArgumentException("A valid template name is required");
+    }
+    return (generatedEntity, parameters) -> this.render(templateName, parameters);
+  }
+
+  private String render(final String templateName, final Map<String, Object> parameters) throws Exception {
     final Template template = this.configuration.getTemplate(templateName);
+
+    //  Template models are reused by the current thread, so that entity metadata is not re-wrapped on every access.
+    final EntityTemplateModel templateModel = this.templateModels.get().reset(parameters);
     try (final StringWriter stringWriter = new StringWriter()) {
-      template.process(parameters, stringWriter);
+      template.process(templateModel, stringWriter, templateModel.getObjectWrapper());
       return stringWriter.toString();
+    } finally {
+      templateModel.reset(null);
     }
   }
 
+  /**
+   * Opens the source of the given template, as it's loaded by the configuration.
+   *
+   * @param templateName Name of the template.
+   * @return Stream of the template's bytes. The caller is responsible for closing it.
+   * @throws IOException If the template could not be found.
+   */
+  public InputStream openTemplate(final String templateName) throws IOException {
+    if (StringUtils.isBlank(templateName)) {
+      throw new IllegalArgumentException("A valid template name is required");
+    }
+    final String path = this.templatesRoot.endsWith("/") ? this.templatesRoot + templateName
+        : this.templatesRoot + "/" + templateName;
+    final InputStream inputStream = this.getClass().getResourceAsStream(path);
+    if (inputStream == null) {
+      throw new FileNotFoundException("Unable to find template '" + templateName + "'");
+    }
+    return inputStream;
+  }
+
+  /**
+   * Returns settings of the generator which affect the rendered sources, e.g. to compute a fingerprint of them.
+   *
+   * @return A {@link Map} of names and values of settings, sorted by names.
+   */
+  public Map<String, String> getSettings() {
+    final Map<String, String> settings = new TreeMap<>();
+    settings.put("version", Configuration.getVersion().toString());
+    settings.put("incompatibleImprovements", this.configuration.getIncompatibleImprovements().toString());
+    settings.put("defaultEncoding", this.configuration.getDefaultEncoding());
+    settings.put("templatesRoot", this.templatesRoot);
+    settings.put("templateName", this.templateName);
+    return settings;
+  }
+
   public String getTemplateName() {
     return templateName;
   }
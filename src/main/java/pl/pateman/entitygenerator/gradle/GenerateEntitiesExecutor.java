@@ -1,69 +1,444 @@
 package pl.pateman.entitygenerator.gradle;
 
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
+import pl.pateman.entitygenerator.BlockingIoExecutor;
 import pl.pateman.entitygenerator.ClasspathEntitiesSchemaScanner;
 import pl.pateman.entitygenerator.EntityGenerator;
 import pl.pateman.entitygenerator.GeneratedEntity;
+import pl.pateman.entitygenerator.GeneratedSourceFile;
+import pl.pateman.entitygenerator.InputFingerprint;
+import pl.pateman.entitygenerator.SchemaParseCache;
+import pl.pateman.entitygenerator.SchemaSource;
 import pl.pateman.entitygenerator.SourceFileGenerator;
+import pl.pateman.entitygenerator.compile.CompilationDiagnostic;
+import pl.pateman.entitygenerator.compile.SourceCompilationVerifier;
+import pl.pateman.entitygenerator.exception.EntityGeneratorException;
+import pl.pateman.entitygenerator.exception.SourceFileGeneratorException;
 import pl.pateman.entitygenerator.generate.impl.FreemarkerGenerator;
+import pl.pateman.entitygenerator.lint.LintReport;
+import pl.pateman.entitygenerator.lint.LintSeverity;
+import pl.pateman.entitygenerator.lint.SchemaLinter;
+import pl.pateman.entitygenerator.output.OutputRoot;
+import pl.pateman.entitygenerator.output.impl.DirectoryOutputRoot;
+import pl.pateman.entitygenerator.output.impl.ZipOutputRoot;
 
 /**
  * An example class which could be called from a Gradle scripts, which looks up entity schemas in the classpath,
  * and generates source code for them.
+ *
+ * The first argument is the output directory (or a ZIP archive, if it ends with '.zip'), followed by additional
+ * schema patterns and options:
+ * <ul>
+ * <li>{@code --verify-sources} - generated sources are compiled in memory before they're written, and the generation
+ * fails if they do not compile,</li>
+ * <li>{@code --verify-classpath=<path>} - the class path which sources are verified against, e.g. one containing the
+ * persistence API. It defaults to the class path of the JVM, which is only right when the executor runs on its own -
+ * within a build, it's the class path of the build tool,</li>
+ * <li>{@code --parse-cache-dir=<dir>} - parsed schemas are cached in that directory, so that unchanged schemas aren't
+ * parsed again by subsequent runs,</li>
+ * <li>{@code --shard=<index>/<count>} - only every {@code count}-th entity (ordered by name) is rendered, so that
+ * several executors can render the model in parallel (sources can't be verified then). Each of them reads and
+ * resolves the whole model, so sharding only pays off across machines - within one, use the next option,</li>
+ * <li>{@code --render-threads=<count>} - entities are rendered on that many threads (1 by default), after the model
+ * has been resolved once,</li>
+ * <li>{@code --owned=<pattern>} - only entities of schemas which match the pattern (the option can be given several
+ * times) are generated, e.g. the schemas of a single module. Other schemas are only used to resolve what these
+ * entities depend on - see {@link EntityGenerator#generateModuleEntities(Collection, Collection)},</li>
+ * <li>{@code --lint=<file>} - the model is checked by a {@link SchemaLinter}, and its report is written into that
+ * file (as SARIF, if it ends with '.sarif', or as JSON otherwise); the generation fails if any finding is an error.
+ * Only the first shard lints the model,</li>
+ * <li>{@code --lint-severities=<rule>=<severity>,...} - overrides severities of lint rules, e.g.
+ * 'wide-entity=off,bag-collection=error'.</li>
+ * <li>{@code --io-concurrency=<count>} - schemas are read, and sources are written, concurrently - at most that many
+ * at once - each on a virtual thread, or on a pool of platform threads if the runtime doesn't support them (see
+ * {@link BlockingIoExecutor}). Parsing and rendering stay on the executor's thread. 0 (the default) means that files
+ * are read and written one at a time.</li>
+ * <li>{@code --fingerprint} - nothing is generated; instead, the fingerprint of all inputs which determine the outputs
+ * (see {@link InputFingerprint}) is printed, so that the outputs can be cached under it.</li>
+ * </ul>
+ * The {@link GenerateEntitiesExecutor#VERIFY_SOURCES_PROPERTY} and
+ * {@link GenerateEntitiesExecutor#PARSE_CACHE_DIR_PROPERTY} system properties set the defaults of the first two
+ * options.
  */
-final class GenerateEntitiesExecutor {
+public final class GenerateEntitiesExecutor {
+
+  static final String VERIFY_SOURCES_PROPERTY = "entitygenerator.verifySources";
+  static final String PARSE_CACHE_DIR_PROPERTY = "entitygenerator.parseCacheDir";
+
+  private static final String VERIFY_SOURCES_OPTION = "--verify-sources";
+  private static final String VERIFY_CLASSPATH_OPTION = "--verify-classpath=";
+  private static final String PARSE_CACHE_DIR_OPTION = "--parse-cache-dir=";
+  private static final String SHARD_OPTION = "--shard=";
+  private static final String OWNED_OPTION = "--owned=";
+  private static final String LINT_OPTION = "--lint=";
+  private static final String LINT_SEVERITIES_OPTION = "--lint-severities=";
+  private static final String IO_CONCURRENCY_OPTION = "--io-concurrency=";
+  private static final String RENDER_THREADS_OPTION = "--render-threads=";
+  private static final String FINGERPRINT_OPTION = "--fingerprint";
+
+  /**
+   * Number of parsed schemas kept in memory.
+   */
+  private static final int PARSE_CACHE_ENTRIES = 256;
+
+  /**
+   * Compiles the given source files in memory and prints the reported diagnostics.
+   *
+   * @param sourceFiles Source files to verify.
+   * @param classPath Class path which the source files are compiled against.
+   * @throws SourceFileGeneratorException If any of the source files does not compile.
+   */
+  private static void verifySources(final List<GeneratedSourceFile> sourceFiles, final String classPath) {
+    System.out.println("Verifying " + sourceFiles.size() + " generated sources...");
+
+    final List<CompilationDiagnostic> diagnostics = new SourceCompilationVerifier(classPath,
+        SourceCompilationVerifier.DEFAULT_BATCH_SIZE, ForkJoinPool.commonPool()).verify(sourceFiles);
+    diagnostics.forEach(System.out::println);
+
+    final long errors = diagnostics.stream().filter(CompilationDiagnostic::isError).count();
+    if (errors > 0) {
+      throw new SourceFileGeneratorException("Generated sources do not compile (" + errors + " errors)");
+    }
+  }
+
+  /**
+   * Lints the given entities, prints the findings and writes the report.
+   *
+   * @param entities Entities to lint.
+   * @param reportFile File to write the report into.
+   * @param severities Severities of rules.
+   * @throws EntityGeneratorException If any of the findings is an error.
+   */
+  private static void lintEntities(final Collection<GeneratedEntity> entities, final String reportFile,
+      final String severities) {
+    System.out.println("Linting " + entities.stream().filter(e -> !e.isExternal()).count() + " entities...");
+
+    final LintReport report = new SchemaLinter(SchemaLinter.builtInRules(), SchemaLinter.parseSeverities(severities))
+        .lint(entities);
+    report.getFindings().forEach(System.out::println);
+
+    final Path reportPath = Paths.get(reportFile);
+    try {
+      if (reportPath.getParent() != null) {
+        Files.createDirectories(reportPath.getParent());
+      }
+      Files.write(reportPath, (reportFile.endsWith(".sarif") ? report.toSarif() : report.toJson())
+          .getBytes(StandardCharsets.UTF_8));
+    } catch (final IOException e) {
+      throw new EntityGeneratorException("Unable to write the lint report into '" + reportFile + "'", e);
+    }
+
+    if (report.hasErrors()) {
+      throw new EntityGeneratorException("Schema lint has failed (" + report.count(LintSeverity.ERROR)
+          + " errors)");
+    }
+  }
+
+  private static String optionValue(final String[] args, final String option, final String defaultValue) {
+    return Arrays
+        .stream(args)
+        .filter(a -> a.startsWith(option))
+        .map(a -> a.substring(option.length()))
+        .reduce((first, second) -> second)
+        .orElse(defaultValue);
+  }
+
+  /**
+   * Parses the shard option.
+   *
+   * @param shard Value of the option, e.g. '1/4'.
+   * @return The index and the number of shards.
+   * @throws IllegalArgumentException If the value is invalid.
+   */
+  private static int[] parseShard(final String shard) {
+    final String[] parts = shard.split("/");
+    try {
+      final int index = Integer.parseInt(parts[0]);
+      final int count = parts.length == 2 ? Integer.parseInt(parts[1]) : 0;
+      if (count < 1 || index < 0 || index >= count) {
+        throw new IllegalArgumentException("A valid shard is required: '" + shard + "'");
+      }
+      return new int[]{index, count};
+    } catch (final NumberFormatException e) {
+      throw new IllegalArgumentException("A valid shard is required: '" + shard + "'", e);
+    }
+  }
+
+  /**
+   * Parses the I/O concurrency option.
+   *
+   * @param ioConcurrency Value of the option.
+   * @return Maximum number of concurrent reads and writes, or 0 if they should be sequential.
+   * @throws IllegalArgumentException If the value is invalid.
+   */
+  private static int parseIoConcurrency(final String ioConcurrency) {
+    try {
+      final int value = Integer.parseInt(ioConcurrency);
+      if (value < 0) {
+        throw new IllegalArgumentException("A valid I/O concurrency is required: '" + ioConcurrency + "'");
+      }
+      return value;
+    } catch (final NumberFormatException e) {
+      throw new IllegalArgumentException("A valid I/O concurrency is required: '" + ioConcurrency + "'", e);
+    }
+  }
+
+  /**
+   * Parses the render threads option.
+   *
+   * @param renderThreads Value of the option.
+   * @return Number of threads which render entities.
+   * @throws IllegalArgumentException If the value is invalid.
+   */
+  private static int parseRenderThreads(final String renderThreads) {
+    try {
+      final int value = Integer.parseInt(renderThreads);
+      if (value < 1) {
+        throw new IllegalArgumentException("A valid number of render threads is required: '" + renderThreads + "'");
+      }
+      return value;
+    } catch (final NumberFormatException e) {
+      throw new IllegalArgumentException("A valid number of render threads is required: '" + renderThreads + "'", e);
+    }
+  }
+
+  /**
+   * Renders source files of the given entities, in the order of the entities.
+   *
+   * @param sourceFileGenerator Source file generator.
+   * @param entities Entities to render.
+   * @param renderThreads Number of threads which render entities.
+   * @return A {@link List<GeneratedSourceFile>} of source files.
+   * @throws SourceFileGeneratorException If any of the entities could not be rendered.
+   */
+  private static List<GeneratedSourceFile> renderEntities(final SourceFileGenerator sourceFileGenerator,
+      final List<GeneratedEntity> entities, final int renderThreads) {
+    final List<GeneratedSourceFile> sourceFiles = new ArrayList<>();
+    if (renderThreads == 1) {
+      entities.forEach(e -> sourceFiles.addAll(sourceFileGenerator.generateSourceFiles(e)));
+      return sourceFiles;
+    }
+
+    final ForkJoinPool renderPool = new ForkJoinPool(renderThreads);
+    try {
+      final List<CompletableFuture<List<GeneratedSourceFile>>> renderedEntities = entities
+          .stream()
+          .map(e -> CompletableFuture.supplyAsync(() -> sourceFileGenerator.generateSourceFiles(e), renderPool))
+          .collect(Collectors.toList());
+      renderedEntities.forEach(r -> sourceFiles.addAll(r.join()));
+      return sourceFiles;
+    } catch (final CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new SourceFileGeneratorException("Unable to render entities", e.getCause());
+    } finally {
+      renderPool.shutdownNow();
+    }
+  }
+
+  /**
+   * Computes the fingerprint of all inputs which determine the outputs of the executor: schemas, the template, the
+   * configuration of the template engine, the generator version and options. Options which don't affect the outputs
+   * (like the I/O concurrency, or where the outputs are written), are left out.
+   *
+   * @param args Arguments of the executor.
+   * @param schemaSources All schemas, including the owned ones.
+   * @return Fingerprint of the inputs.
+   * @throws EntityGeneratorException If any of the inputs could not be read.
+   */
+  private static String computeFingerprint(final String[] args, final List<SchemaSource> schemaSources) {
+    final Map<String, String> options = new TreeMap<>();
+    options.put("output", args[0].endsWith(".zip") ? "zip" : "directory");
+    options.put("schemasPatterns", Arrays
+        .stream(args)
+        .skip(1)
+        .filter(StringUtils::isNotBlank)
+        .filter(a -> !a.startsWith("--"))
+        .sorted()
+        .distinct()
+        .collect(Collectors.joining("\n")));
+    options.put("ownedSchemasPatterns", Arrays
+        .stream(args)
+        .filter(a -> a.startsWith(OWNED_OPTION))
+        .map(a -> a.substring(OWNED_OPTION.length()))
+        .sorted()
+        .distinct()
+        .collect(Collectors.joining("\n")));
+    options.put("shard", optionValue(args, SHARD_OPTION, "0/1"));
+    final String lintReportFile = optionValue(args, LINT_OPTION, null);
+    if (StringUtils.isNotBlank(lintReportFile)) {
+      options.put("lint", lintReportFile.endsWith(".sarif") ? "sarif" : "json");
+      options.put("lintSeverities", optionValue(args, LINT_SEVERITIES_OPTION, ""));
+    }
+
+    final FreemarkerGenerator freemarkerGenerator = new FreemarkerGenerator();
+    try {
+      return new InputFingerprint()
+          .addGeneratorVersion()
+          .addGenerator(freemarkerGenerator, Collections.singletonList(freemarkerGenerator.getTemplateName()))
+          .addOptions(options)
+          .addSchemas(schemaSources)
+          .compute();
+    } catch (final IOException e) {
+      throw new EntityGeneratorException("Unable to compute the fingerprint of the inputs", e);
+    }
+  }
 
   public static void main(String[] args) {
+    final boolean verifySources = Boolean.getBoolean(VERIFY_SOURCES_PROPERTY) || Arrays.asList(args)
+        .contains(VERIFY_SOURCES_OPTION);
+    final String parseCacheDir = optionValue(args, PARSE_CACHE_DIR_OPTION,
+        System.getProperty(PARSE_CACHE_DIR_PROPERTY));
+    final int[] shard = parseShard(optionValue(args, SHARD_OPTION, "0/1"));
+    if (verifySources && shard[1] > 1) {
+      //  Sources of a shard refer to entities of other shards, so they can only be verified all at once.
+      throw new IllegalArgumentException("Sources can only be verified without sharding");
+    }
+
+    final int ioConcurrency = parseIoConcurrency(optionValue(args, IO_CONCURRENCY_OPTION, "0"));
+    final int renderThreads = parseRenderThreads(optionValue(args, RENDER_THREADS_OPTION, "1"));
+    try (final BlockingIoExecutor ioExecutor = ioConcurrency > 0 ? new BlockingIoExecutor(ioConcurrency) : null) {
+      if (ioExecutor != null && !Arrays.asList(args).contains(FINGERPRINT_OPTION)) {
+        System.out.println("Reading and writing files on " + (ioExecutor.usesVirtualThreads() ? "virtual"
+            : "platform") + " threads, at most " + ioConcurrency + " at once");
+      }
+      generate(args, verifySources, parseCacheDir, shard, renderThreads, ioExecutor);
+    }
+  }
+
+  /**
+   * Generates sources of entities.
+   *
+   * @param args Arguments of the executor.
+   * @param verifySources Whether sources should be verified before they're written.
+   * @param parseCacheDir Parse cache directory, or {@code null} if schemas shouldn't be cached.
+   * @param shard The index and the number of shards.
+   * @param renderThreads Number of threads which render entities.
+   * @param ioExecutor Executor of schema reads and file writes, or {@code null} if they should be sequential.
+   */
+  private static void generate(final String[] args, final boolean verifySources, final String parseCacheDir,
+      final int[] shard, final int renderThreads, final BlockingIoExecutor ioExecutor) {
     final ClasspathEntitiesSchemaScanner classpathEntitiesSchemaScanner = new ClasspathEntitiesSchemaScanner();
 
-    final Set<String> schemas = new HashSet<>(classpathEntitiesSchemaScanner.findEntitySchemas());
+    final Set<String> schemas = new TreeSet<>(classpathEntitiesSchemaScanner.findEntitySchemas());
     Arrays
         .stream(args)
         .skip(1)
         .filter(StringUtils::isNotBlank)
+        .filter(a -> !a.startsWith("--"))
         .map(classpathEntitiesSchemaScanner::findEntitySchemas)
         .forEach(schemas::addAll);
 
-    final Collection<InputStream> inputStreams = classpathEntitiesSchemaScanner
-        .retrieveInputStreamsToResources(schemas);
-    if (inputStreams.isEmpty()) {
+    final Set<String> ownedSchemas = new TreeSet<>();
+    Arrays
+        .stream(args)
+        .filter(a -> a.startsWith(OWNED_OPTION))
+        .map(a -> classpathEntitiesSchemaScanner.findEntitySchemas(a.substring(OWNED_OPTION.length())))
+        .forEach(ownedSchemas::addAll);
+
+    //  Sources are opened one by one while they're parsed, unless they're read concurrently up front. Owned schemas
+    //  are usually among all schemas, so sources of both are retrieved together, and each is read once.
+    final Set<String> allSchemas = new TreeSet<>(schemas);
+    allSchemas.addAll(ownedSchemas);
+    final List<SchemaSource> allSources = ioExecutor == null ? classpathEntitiesSchemaScanner
+        .retrieveSchemaSources(allSchemas) : classpathEntitiesSchemaScanner.loadSchemaSources(allSchemas, ioExecutor);
+    final List<SchemaSource> schemaSources = allSources
+        .stream()
+        .filter(s -> schemas.contains(s.getId()))
+        .collect(Collectors.toList());
+    if (schemaSources.isEmpty()) {
       System.out.println("No schemas found. Aborting...");
       return;
     }
 
+    if (Arrays.asList(args).contains(FINGERPRINT_OPTION)) {
+      System.out.println(computeFingerprint(args, allSources));
+      return;
+    }
+
     System.out.println("Found the following schemas: " + schemas);
 
     final String rootDir = args[0];
+    if (rootDir.endsWith(".zip") && shard[1] > 1) {
+      throw new IllegalArgumentException("Shards can't write into the same archive");
+    }
     System.out.println("Outputting entities into: '" + rootDir + "'");
 
-    final EntityGenerator entityGenerator = new EntityGenerator();
-    final Collection<GeneratedEntity> generatedEntities = entityGenerator.generateEntities(inputStreams);
+    final EntityGenerator entityGenerator = new EntityGenerator(StringUtils.isBlank(parseCacheDir) ? null
+        : SchemaParseCache.onDisk(Paths.get(parseCacheDir), PARSE_CACHE_ENTRIES));
+    final Collection<GeneratedEntity> generatedEntities;
+    if (Arrays.stream(args).anyMatch(a -> a.startsWith(OWNED_OPTION))) {
+      if (ownedSchemas.isEmpty()) {
+        System.out.println("No owned schemas found. Aborting...");
+        return;
+      }
+      System.out.println("Generating entities of the following schemas: " + ownedSchemas);
+      generatedEntities = entityGenerator.generateModuleEntities(allSources
+          .stream()
+          .filter(s -> ownedSchemas.contains(s.getId()))
+          .collect(Collectors.toList()), schemaSources);
+    } else {
+      generatedEntities = entityGenerator.generateEntitiesFromSources(schemaSources);
+    }
+
+    generatedEntities
+        .stream()
+        .filter(e -> !e.isExternal())
+        .flatMap(e -> e.getFetchProfiles().stream())
+        .flatMap(p -> p.getWarnings().stream())
+        .forEach(w -> System.out.println("Warning: " + w));
+
+    final String lintReportFile = optionValue(args, LINT_OPTION, null);
+    if (StringUtils.isNotBlank(lintReportFile) && shard[0] == 0) {
+      lintEntities(generatedEntities, lintReportFile, optionValue(args, LINT_SEVERITIES_OPTION, null));
+    }
 
     final SourceFileGenerator sourceFileGenerator = new SourceFileGenerator(new FreemarkerGenerator());
-    for (final GeneratedEntity generatedEntity : generatedEntities) {
-      final String sourceFile = sourceFileGenerator.generateSourceFile(generatedEntity);
-
-      final int lastDot = generatedEntity.getClassFile().lastIndexOf('.');
-      final String directory = generatedEntity.getClassFile().substring(0, lastDot)
-          .replace('.', '\\') + "\\";
-      final String fileName =
-          generatedEntity.getClassFile().substring(lastDot + 1) + ".java";
-
-      final File srcFile = new File(rootDir + "\\" + directory + fileName);
-      srcFile.getParentFile().mkdirs();
-      try (final FileWriter fw = new FileWriter(srcFile)) {
-        fw.write(sourceFile);
-      } catch (IOException e) {
-        e.printStackTrace();
+    final List<GeneratedEntity> sortedEntities = generatedEntities
+        .stream()
+        .filter(e -> !e.isExternal())
+        .distinct()
+        .collect(Collectors.toList());
+    sortedEntities.sort(Comparator.comparing(GeneratedEntity::getName));
+    final List<GeneratedEntity> shardEntities = new ArrayList<>();
+    for (int i = shard[0]; i < sortedEntities.size(); i += shard[1]) {
+      shardEntities.add(sortedEntities.get(i));
+    }
+    final List<GeneratedSourceFile> sourceFiles = renderEntities(sourceFileGenerator, shardEntities, renderThreads);
+
+    if (verifySources) {
+      verifySources(sourceFiles, optionValue(args, VERIFY_CLASSPATH_OPTION, System.getProperty("java.class.path")));
+    }
+
+    try (final OutputRoot outputRoot = rootDir.endsWith(".zip") ? new ZipOutputRoot(Paths.get(rootDir))
+        : new DirectoryOutputRoot(Paths.get(rootDir))) {
+      if (ioExecutor == null) {
+        outputRoot.writeSources(sourceFiles);
+      } else {
+        outputRoot.writeSources(sourceFiles, ioExecutor);
       }
+    } catch (final IOException e) {
+      throw new SourceFileGeneratorException("Unable to write generated sources into '" + rootDir + "'", e);
     }
   }
 
@@ -0,0 +1,59 @@
+package pl.pateman.entitygenerator.jdbc;
+
+import java.util.HashMap;
+import java.util.Map;
+import pl.pateman.entitygenerator.GeneratedEntity;
+import pl.pateman.entitygenerator.ddl.SqlDialect;
+import pl.pateman.entitygenerator.generate.Generator;
+import pl.pateman.entitygenerator.generate.impl.FreemarkerGenerator;
+
+/**
+ * Base class of generators which render JDBC code from a {@link TableMapping} of an entity. The mapping is exposed to
+ * the template as the 'table' parameter, in addition to the parameters prepared by
+ * {@link pl.pateman.entitygenerator.SourceFileGenerator}.
+ */
+abstract class AbstractJdbcGenerator implements Generator {
+
+  private final Generator templateGenerator;
+  private final SqlDialect dialect;
+
+  AbstractJdbcGenerator(final FreemarkerGenerator freemarkerGenerator, final SqlDialect dialect,
+      final String templateFile) {
+    if (freemarkerGenerator == null) {
+      throw new IllegalArgumentException("A valid Freemarker generator is required");
+    }
+    if (dialect == null) {
+      throw new IllegalArgumentException("A valid dialect is required");
+    }
+    this.templateGenerator = freemarkerGenerator.forTemplate(templateFile);
+    this.dialect = dialect;
+  }
+
+  /**
+   * Returns the dialect of the generated code.
+   *
+   * @return SQL dialect.
+   */
+  SqlDialect getDialect() {
+    return this.dialect;
+  }
+
+  /**
+   * Adds generator-specific parameters of the given entity to the template parameters.
+   *
+   * @param generatedEntity Entity the source is generated for.
+   * @param parameters Template parameters.
+   */
+  void prepareParameters(final GeneratedEntity generatedEntity, final Map<String, Object> parameters) {
+
+  }
+
+  @Override
+  public final String generateSource(final GeneratedEntity generatedEntity,
+      final Map<String, Object> parameters) throws Exception {
+    final Map<String, Object> params = new HashMap<>(parameters);
+    params.put("table", TableMapping.create(generatedEntity, this.dialect));
+    this.prepareParameters(generatedEntity, params);
+    return this.templateGenerator.generateSource(generatedEntity, params);
+  }
+}
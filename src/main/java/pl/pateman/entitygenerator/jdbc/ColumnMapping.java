@@ -0,0 +1,171 @@
+package pl.pateman.entitygenerator.jdbc;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.commons.lang3.StringUtils;
+import pl.pateman.entitygenerator.GeneratedEntity.Attribute;
+
+/**
+ * Maps a column of an entity table onto an attribute of the entity. A column either stores the attribute itself, or,
+ * if the attribute is a relation, the referenced attribute (primary key) of the related entity.
+ *
+ * This class is immutable.
+ */
+public final class ColumnMapping {
+
+  private static final Map<String, String> PRIMITIVE_ACCESSORS = new HashMap<>();
+  private static final Map<String, String> WRAPPER_ACCESSORS = new HashMap<>();
+  private static final Map<String, String> WRAPPERS = new HashMap<>();
+
+  private static void addAccessor(final Class<?> primitiveType, final Class<?> wrapperType, final String accessor) {
+    PRIMITIVE_ACCESSORS.put(primitiveType.getName(), accessor);
+    WRAPPER_ACCESSORS.put(wrapperType.getName(), accessor);
+    WRAPPERS.put(primitiveType.getName(), wrapperType.getName());
+  }
+
+  static {
+    addAccessor(boolean.class, Boolean.class, "Boolean");
+    addAccessor(byte.class, Byte.class, "Byte");
+    addAccessor(short.class, Short.class, "Short");
+    addAccessor(int.class, Integer.class, "Int");
+    addAccessor(long.class, Long.class, "Long");
+    addAccessor(float.class, Float.class, "Float");
+    addAccessor(double.class, Double.class, "Double");
+  }
+
+  private final String name;
+  private final String quotedName;
+  private final int index;
+  private final Attribute attribute;
+  private final Attribute referencedAttribute;
+
+  ColumnMapping(final String name, final String quotedName, final int index, final Attribute attribute,
+      final Attribute referencedAttribute) {
+    this.name = name;
+    this.quotedName = quotedName;
+    this.index = index;
+    this.attribute = attribute;
+    this.referencedAttribute = referencedAttribute;
+  }
+
+  /**
+   * Returns the name of the column.
+   *
+   * @return Column name.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the name of the column, quoted if the dialect requires it.
+   *
+   * @return Quoted column name.
+   */
+  public String getQuotedName() {
+    return quotedName;
+  }
+
+  /**
+   * Returns the 1-based position of the column in the column list of the table mapping, i.e. its JDBC parameter (or
+   * result set column) index.
+   *
+   * @return Column index.
+   */
+  public int getIndex() {
+    return index;
+  }
+
+  /**
+   * Returns the entity attribute mapped onto the column.
+   *
+   * @return Attribute.
+   */
+  public Attribute getAttribute() {
+    return attribute;
+  }
+
+  /**
+   * Returns the attribute of the related entity whose value is stored in the column, or {@code null} if the column
+   * stores a plain attribute.
+   *
+   * @return Referenced attribute.
+   */
+  public Attribute getReferencedAttribute() {
+    return referencedAttribute;
+  }
+
+  /**
+   * Determines whether the column holds a foreign key.
+   *
+   * @return {@code true} if it does, {@code false} otherwise.
+   */
+  public boolean isForeignKey() {
+    return this.referencedAttribute != null;
+  }
+
+  /**
+   * Returns the Java type of values stored in the column. Foreign keys always use the (boxed) type of the referenced
+   * attribute, as a relation may be empty.
+   *
+   * @return Value type.
+   */
+  public String getValueType() {
+    if (this.referencedAttribute == null) {
+      return this.attribute.getFieldType();
+    }
+    final String referencedType = this.referencedAttribute.getType();
+    return WRAPPERS.getOrDefault(referencedType, referencedType);
+  }
+
+  /**
+   * Returns the suffix of the JDBC accessors which read and write values of the column without boxing, e.g. 'Long' for
+   * {@code getLong}/{@code setLong}, or {@code null} if the value is an object.
+   *
+   * @return JDBC accessor suffix.
+   */
+  public String getPrimitiveAccessor() {
+    return PRIMITIVE_ACCESSORS.get(this.getValueType());
+  }
+
+  /**
+   * Returns the suffix of the JDBC accessors of the primitive type wrapped by the value type, e.g. 'Long' for
+   * {@code java.lang.Long}, or {@code null} if the value type is not a wrapper. Nullable values of such types are read
+   * without boxing, followed by a {@code wasNull} check.
+   *
+   * @return JDBC accessor suffix.
+   */
+  public String getWrapperAccessor() {
+    return WRAPPER_ACCESSORS.get(this.getValueType());
+  }
+
+  /**
+   * Returns the name of the property which holds the value of the column in flat projections, i.e. the name of the
+   * attribute, followed by the name of the referenced attribute in case of foreign keys, e.g. 'customerId'.
+   *
+   * @return Property name.
+   */
+  public String getPropertyName() {
+    final String attributeName = this.attribute.getName();
+    return this.referencedAttribute == null ? attributeName
+        : attributeName + StringUtils.capitalize(this.referencedAttribute.getName());
+  }
+
+  /**
+   * Returns the name of the getter of the mapped attribute.
+   *
+   * @return Getter name.
+   */
+  public String getGetterName() {
+    return "get" + StringUtils.capitalize(this.attribute.getName());
+  }
+
+  /**
+   * Returns the name of the setter of the mapped attribute.
+   *
+   * @return Setter name.
+   */
+  public String getSetterName() {
+    return "set" + StringUtils.capitalize(this.attribute.getName());
+  }
+}
@@ -0,0 +1,45 @@
+package pl.pateman.entitygenerator.jdbc;
+
+import java.util.Map;
+import pl.pateman.entitygenerator.GeneratedEntity;
+import pl.pateman.entitygenerator.SourceFileTemplate;
+import pl.pateman.entitygenerator.ddl.SqlDialect;
+import pl.pateman.entitygenerator.generate.impl.FreemarkerGenerator;
+
+/**
+ * Renders a JDBC batch writer for an entity - a class which inserts entities (and rows of join tables owned by them)
+ * with batched, multi-row INSERT statements, bypassing the JPA provider.
+ *
+ * INSERT statements are precomputed from the {@link TableMapping} of the entity, using the given dialect for quoting
+ * identifiers, so they match the tables created by {@link pl.pateman.entitygenerator.ddl.DdlGenerator}. Rows per
+ * statement are limited by the maximum number of bind parameters of the dialect.
+ *
+ * Use {@link JdbcBatchWriterGenerator#createTemplate()} to render batch writers along with entities.
+ */
+public final class JdbcBatchWriterGenerator extends AbstractJdbcGenerator {
+
+  public static final String TEMPLATE_NAME = "batchWriter";
+  public static final String TEMPLATE_FILE = "batchWriterTemplate.ftlh";
+  public static final String CLASS_NAME_PATTERN = SourceFileTemplate.PACKAGE_PLACEHOLDER + ".jdbc."
+      + SourceFileTemplate.ENTITY_NAME_PLACEHOLDER + "BatchWriter";
+
+  public JdbcBatchWriterGenerator(final FreemarkerGenerator freemarkerGenerator, final SqlDialect dialect) {
+    super(freemarkerGenerator, dialect, TEMPLATE_FILE);
+  }
+
+  @Override
+  void prepareParameters(final GeneratedEntity generatedEntity, final Map<String, Object> parameters) {
+    parameters.put("dialectName", this.getDialect().getName());
+    parameters.put("maxParameters", this.getDialect().getMaxBindParameters());
+  }
+
+  /**
+   * Creates a template which renders batch writers into the 'jdbc' subpackage of each entity, e.g.
+   * 'pl.pateman.entities.jdbc.UserBatchWriter'.
+   *
+   * @return Batch writer template.
+   */
+  public SourceFileTemplate createTemplate() {
+    return new SourceFileTemplate(TEMPLATE_NAME, this, CLASS_NAME_PATTERN);
+  }
+}
@@ -0,0 +1,34 @@
+package pl.pateman.entitygenerator.jdbc;
+
+import pl.pateman.entitygenerator.SourceFileTemplate;
+import pl.pateman.entitygenerator.ddl.SqlDialect;
+import pl.pateman.entitygenerator.generate.impl.FreemarkerGenerator;
+
+/**
+ * Renders a flat, immutable projection of an entity's table - a class with a final field for each column of the
+ * {@link TableMapping}. Foreign keys are kept as plain values (e.g. 'customerId'), so reading a projection never
+ * touches related entities.
+ *
+ * Projections are filled by row mappers rendered by {@link JdbcRowMapperGenerator}.
+ */
+public final class JdbcProjectionGenerator extends AbstractJdbcGenerator {
+
+  public static final String TEMPLATE_NAME = "projection";
+  public static final String TEMPLATE_FILE = "projectionTemplate.ftlh";
+  public static final String CLASS_NAME_PATTERN = SourceFileTemplate.PACKAGE_PLACEHOLDER + ".jdbc."
+      + SourceFileTemplate.ENTITY_NAME_PLACEHOLDER + "Row";
+
+  public JdbcProjectionGenerator(final FreemarkerGenerator freemarkerGenerator, final SqlDialect dialect) {
+    super(freemarkerGenerator, dialect, TEMPLATE_FILE);
+  }
+
+  /**
+   * Creates a template which renders projections into the 'jdbc' subpackage of each entity, e.g.
+   * 'pl.pateman.entities.jdbc.UserRow'.
+   *
+   * @return Projection template.
+   */
+  public SourceFileTemplate createTemplate() {
+    return new SourceFileTemplate(TEMPLATE_NAME, this, CLASS_NAME_PATTERN);
+  }
+}
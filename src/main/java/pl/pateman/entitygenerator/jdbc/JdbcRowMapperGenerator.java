@@ -0,0 +1,50 @@
+package pl.pateman.entitygenerator.jdbc;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import pl.pateman.entitygenerator.GeneratedEntity;
+import pl.pateman.entitygenerator.SourceFileTemplate;
+import pl.pateman.entitygenerator.ddl.SqlDialect;
+import pl.pateman.entitygenerator.generate.impl.FreemarkerGenerator;
+
+/**
+ * Renders a JDBC row mapper for an entity - a class which reads rows of the entity's table into entities, or into
+ * projections rendered by {@link JdbcProjectionGenerator}, without going through the JPA provider.
+ *
+ * A row mapper resolves column indexes once per result set (or uses the indexes of its own SELECT statement), and
+ * reads primitive values with primitive JDBC accessors, e.g. {@code getLong}. Relations are mapped onto references
+ * which carry the foreign key only.
+ *
+ * Use {@link JdbcRowMapperGenerator#createTemplates()} to render row mappers (along with projections they need) next
+ * to entities.
+ */
+public final class JdbcRowMapperGenerator extends AbstractJdbcGenerator {
+
+  public static final String TEMPLATE_NAME = "rowMapper";
+  public static final String TEMPLATE_FILE = "rowMapperTemplate.ftlh";
+  public static final String CLASS_NAME_PATTERN = SourceFileTemplate.PACKAGE_PLACEHOLDER + ".jdbc."
+      + SourceFileTemplate.ENTITY_NAME_PLACEHOLDER + "RowMapper";
+
+  private final SourceFileTemplate projectionTemplate;
+
+  public JdbcRowMapperGenerator(final FreemarkerGenerator freemarkerGenerator, final SqlDialect dialect) {
+    super(freemarkerGenerator, dialect, TEMPLATE_FILE);
+    this.projectionTemplate = new JdbcProjectionGenerator(freemarkerGenerator, dialect).createTemplate();
+  }
+
+  /**
+   * Creates templates which render projections and row mappers into the 'jdbc' subpackage of each entity, e.g.
+   * 'pl.pateman.entities.jdbc.UserRow' and 'pl.pateman.entities.jdbc.UserRowMapper'.
+   *
+   * @return Projection and row mapper templates.
+   */
+  public List<SourceFileTemplate> createTemplates() {
+    return Arrays.asList(this.projectionTemplate, new SourceFileTemplate(TEMPLATE_NAME, this, CLASS_NAME_PATTERN));
+  }
+
+  @Override
+  void prepareParameters(final GeneratedEntity generatedEntity, final Map<String, Object> parameters) {
+    parameters.put("projectionClassName", this.projectionTemplate.resolveClassName(generatedEntity));
+  }
+}
@@ -0,0 +1,108 @@
+package pl.pateman.entitygenerator.jdbc;
+
+import pl.pateman.entitygenerator.GeneratedEntity;
+import pl.pateman.entitygenerator.GeneratedEntity.Attribute;
+
+/**
+ * Maps a join table of a many-to-many relation onto the collection attribute of the entity which owns the relation.
+ * Each row of the join table pairs a referenced attribute (primary key, unless the relation names a join column) of
+ * the owner with a referenced attribute of an element of the collection.
+ *
+ * This class is immutable.
+ */
+public final class JoinTableMapping {
+
+  private final String name;
+  private final String quotedName;
+  private final String quotedSourceColumn;
+  private final String quotedTargetColumn;
+  private final Attribute attribute;
+  private final Attribute sourceAttribute;
+  private final GeneratedEntity target;
+  private final Attribute targetAttribute;
+
+  JoinTableMapping(final String name, final String quotedName, final String quotedSourceColumn,
+      final String quotedTargetColumn, final Attribute attribute, final Attribute sourceAttribute,
+      final GeneratedEntity target, final Attribute targetAttribute) {
+    this.name = name;
+    this.quotedName = quotedName;
+    this.quotedSourceColumn = quotedSourceColumn;
+    this.quotedTargetColumn = quotedTargetColumn;
+    this.attribute = attribute;
+    this.sourceAttribute = sourceAttribute;
+    this.target = target;
+    this.targetAttribute = targetAttribute;
+  }
+
+  /**
+   * Returns the name of the join table.
+   *
+   * @return Table name.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the name of the join table, quoted if the dialect requires it.
+   *
+   * @return Quoted table name.
+   */
+  public String getQuotedName() {
+    return quotedName;
+  }
+
+  /**
+   * Returns the (quoted) column which references the owner of the relation.
+   *
+   * @return Quoted source column name.
+   */
+  public String getQuotedSourceColumn() {
+    return quotedSourceColumn;
+  }
+
+  /**
+   * Returns the (quoted) column which references elements of the collection.
+   *
+   * @return Quoted target column name.
+   */
+  public String getQuotedTargetColumn() {
+    return quotedTargetColumn;
+  }
+
+  /**
+   * Returns the collection attribute of the owner.
+   *
+   * @return Relation attribute.
+   */
+  public Attribute getAttribute() {
+    return attribute;
+  }
+
+  /**
+   * Returns the attribute of the owner which is stored in the source column.
+   *
+   * @return Source attribute.
+   */
+  public Attribute getSourceAttribute() {
+    return sourceAttribute;
+  }
+
+  /**
+   * Returns the entity of elements of the collection.
+   *
+   * @return Target entity.
+   */
+  public GeneratedEntity getTarget() {
+    return target;
+  }
+
+  /**
+   * Returns the attribute of collection elements which is stored in the target column.
+   *
+   * @return Target attribute.
+   */
+  public Attribute getTargetAttribute() {
+    return targetAttribute;
+  }
+}
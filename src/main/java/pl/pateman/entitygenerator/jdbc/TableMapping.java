@@ -0,0 +1,161 @@
+package pl.pateman.entitygenerator.jdbc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+import pl.pateman.entitygenerator.GeneratedEntity;
+import pl.pateman.entitygenerator.GeneratedEntity.Attribute;
+import pl.pateman.entitygenerator.GeneratedEntity.RelationInfo;
+import pl.pateman.entitygenerator.ddl.SqlDialect;
+import pl.pateman.entitygenerator.exception.SourceFileGeneratorException;
+
+/**
+ * Maps the table of an entity (and join tables owned by it) onto the entity's attributes. It's the basis of generated
+ * JDBC code, which accesses columns by their index instead of their name.
+ *
+ * The mapping follows the same rules as the DDL generated by {@link pl.pateman.entitygenerator.ddl.DdlGenerator}:
+ * plain attributes are stored in columns of the same name, the many side of a one-to-many relation and the source side
+ * of a one-to-one relation store the primary key of the related entity in their foreign key column, and the source
+ * side of a many-to-many relation owns the join table.
+ *
+ * This class is immutable.
+ */
+public final class TableMapping {
+
+  private final GeneratedEntity entity;
+  private final String name;
+  private final String quotedName;
+  private final List<ColumnMapping> columns;
+  private final List<JoinTableMapping> joinTables;
+
+  private TableMapping(final GeneratedEntity entity, final String name, final String quotedName,
+      final List<ColumnMapping> columns, final List<JoinTableMapping> joinTables) {
+    this.entity = entity;
+    this.name = name;
+    this.quotedName = quotedName;
+    this.columns = Collections.unmodifiableList(columns);
+    this.joinTables = Collections.unmodifiableList(joinTables);
+  }
+
+  /**
+   * Returns the attribute referenced by a relation of the given entity, i.e. the attribute named by the join column,
+   * or the primary key if there's no join column.
+   *
+   * @param entity Referenced entity.
+   * @param joinColumn Join column, if any.
+   * @return Referenced attribute.
+   * @throws SourceFileGeneratorException If there's no such attribute.
+   */
+  private static Attribute findReferencedAttribute(final GeneratedEntity entity, final String joinColumn) {
+    final boolean primaryKey = StringUtils.isBlank(joinColumn);
+    return entity
+        .findAttribute(a -> a.getRelationInfo() == null && (primaryKey ? a.getFlags()
+            .contains(Attribute.PRIMARY_KEY_FLAG) : joinColumn.equalsIgnoreCase(a.getName())))
+        .orElseThrow(() -> new SourceFileGeneratorException("Entity '" + entity.getName() + "' has no " + (primaryKey
+            ? "primary key" : "attribute '" + joinColumn + "'") + " which could be referenced by a relation"));
+  }
+
+  private static String getTableName(final GeneratedEntity entity) {
+    if (StringUtils.isBlank(entity.getDeployment())) {
+      throw new SourceFileGeneratorException("Entity '" + entity.getName() + "' has no deployment");
+    }
+    return entity.getDeployment();
+  }
+
+  /**
+   * Creates the table mapping of the given entity.
+   *
+   * @param entity Entity to map.
+   * @param dialect Dialect used for quoting identifiers.
+   * @return Table mapping.
+   * @throws SourceFileGeneratorException If the entity cannot be mapped onto a table.
+   */
+  public static TableMapping create(final GeneratedEntity entity, final SqlDialect dialect) {
+    if (entity == null) {
+      throw new IllegalArgumentException("A valid entity is required");
+    }
+    if (dialect == null) {
+      throw new IllegalArgumentException("A valid dialect is required");
+    }
+
+    final String table = getTableName(entity);
+    final List<ColumnMapping> columns = new ArrayList<>();
+    final List<JoinTableMapping> joinTables = new ArrayList<>();
+    for (final Attribute attribute : entity.getAttributes()) {
+      final RelationInfo relationInfo = attribute.getRelationInfo();
+      if (relationInfo == null) {
+        columns.add(new ColumnMapping(attribute.getName(), dialect.quoteIdentifier(attribute.getName()),
+            columns.size() + 1, attribute, null));
+      } else if (relationInfo.getForeignKeyColumn() != null) {
+        final String column = relationInfo.getForeignKeyColumn();
+        columns.add(new ColumnMapping(column, dialect.quoteIdentifier(column), columns.size() + 1, attribute,
+            findReferencedAttribute(relationInfo.getTarget(), null)));
+      } else if (RelationInfo.Type.MANY_TO_MANY.equals(relationInfo.getType()) && relationInfo.isSource()) {
+        final GeneratedEntity target = relationInfo.getTarget();
+        joinTables.add(new JoinTableMapping(relationInfo.getJoinTableName(),
+            dialect.quoteIdentifier(relationInfo.getJoinTableName()), dialect.quoteIdentifier(table + "_id"),
+            dialect.quoteIdentifier(getTableName(target) + "_id"), attribute,
+            findReferencedAttribute(entity, relationInfo.getJoinColumn()), target,
+            findReferencedAttribute(target, relationInfo.getTargetAttribute().getRelationInfo().getJoinColumn())));
+      }
+    }
+
+    return new TableMapping(entity, table, dialect.quoteIdentifier(table), columns, joinTables);
+  }
+
+  /**
+   * Returns the mapped entity.
+   *
+   * @return Entity.
+   */
+  public GeneratedEntity getEntity() {
+    return entity;
+  }
+
+  /**
+   * Returns the name of the table.
+   *
+   * @return Table name.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the name of the table, quoted if the dialect requires it.
+   *
+   * @return Quoted table name.
+   */
+  public String getQuotedName() {
+    return quotedName;
+  }
+
+  /**
+   * Returns a read-only list of columns of the table, in the order of their indexes.
+   *
+   * @return Table columns.
+   */
+  public List<ColumnMapping> getColumns() {
+    return columns;
+  }
+
+  /**
+   * Returns a comma-separated list of quoted names of all columns, in the order of their indexes.
+   *
+   * @return Column list.
+   */
+  public String getColumnList() {
+    return this.columns.stream().map(ColumnMapping::getQuotedName).collect(Collectors.joining(", "));
+  }
+
+  /**
+   * Returns a read-only list of join tables owned by the entity.
+   *
+   * @return Join tables.
+   */
+  public List<JoinTableMapping> getJoinTables() {
+    return joinTables;
+  }
+}
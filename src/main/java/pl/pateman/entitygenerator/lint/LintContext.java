@@ -0,0 +1,53 @@
+package pl.pateman.entitygenerator.lint;
+
+import java.util.ArrayList;
+import java.util.List;
+import pl.pateman.entitygenerator.GeneratedEntity;
+import pl.pateman.entitygenerator.GeneratedEntity.Attribute;
+import pl.pateman.entitygenerator.RelationGraph;
+
+/**
+ * Context of a check of a single entity by a single rule, which gives access to the whole model and collects findings.
+ *
+ * This class is not thread-safe, but each check gets its own context.
+ */
+public final class LintContext {
+
+  private final LintRule rule;
+  private final LintSeverity severity;
+  private final GeneratedEntity entity;
+  private final RelationGraph relationGraph;
+  private final List<LintFinding> findings = new ArrayList<>();
+
+  LintContext(final LintRule rule, final LintSeverity severity, final GeneratedEntity entity,
+      final RelationGraph relationGraph) {
+    this.rule = rule;
+    this.severity = severity;
+    this.entity = entity;
+    this.relationGraph = relationGraph;
+  }
+
+  /**
+   * Returns the relation graph of the whole model.
+   *
+   * @return Relation graph.
+   */
+  public RelationGraph getRelationGraph() {
+    return relationGraph;
+  }
+
+  /**
+   * Reports a finding.
+   *
+   * @param attribute Attribute the finding is about, or {@code null} if it's about the whole entity.
+   * @param message Message of the finding.
+   */
+  public void report(final Attribute attribute, final String message) {
+    this.findings.add(new LintFinding(this.rule.getId(), this.severity, this.entity.getName(),
+        attribute == null ? null : attribute.getName(), this.entity.getSchemaFiles(), message));
+  }
+
+  List<LintFinding> getFindings() {
+    return findings;
+  }
+}
@@ -0,0 +1,97 @@
+package pl.pateman.entitygenerator.lint;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * A finding of a lint rule.
+ *
+ * This class is immutable.
+ */
+public final class LintFinding {
+
+  private final String ruleId;
+  private final LintSeverity severity;
+  private final String entityName;
+  private final String attributeName;
+  private final Collection<String> schemaFiles;
+  private final String message;
+
+  LintFinding(final String ruleId, final LintSeverity severity, final String entityName, final String attributeName,
+      final Collection<String> schemaFiles, final String message) {
+    this.ruleId = ruleId;
+    this.severity = severity;
+    this.entityName = entityName;
+    this.attributeName = attributeName;
+    this.schemaFiles = schemaFiles == null ? Collections.emptyList() : schemaFiles;
+    this.message = message;
+  }
+
+  /**
+   * Returns the identifier of the rule which reported the finding.
+   *
+   * @return Rule identifier.
+   */
+  public String getRuleId() {
+    return ruleId;
+  }
+
+  /**
+   * Returns the severity of the finding.
+   *
+   * @return Severity.
+   */
+  public LintSeverity getSeverity() {
+    return severity;
+  }
+
+  /**
+   * Returns the name of the entity the finding is about.
+   *
+   * @return Entity name.
+   */
+  public String getEntityName() {
+    return entityName;
+  }
+
+  /**
+   * Returns the name of the attribute the finding is about, or {@code null} if it's about the whole entity.
+   *
+   * @return Attribute name.
+   */
+  public String getAttributeName() {
+    return attributeName;
+  }
+
+  /**
+   * Returns a read-only collection of schema files which define the entity.
+   *
+   * @return Schema files.
+   */
+  public Collection<String> getSchemaFiles() {
+    return Collections.unmodifiableCollection(schemaFiles);
+  }
+
+  /**
+   * Returns the location of the finding, e.g. 'Customer.orders'.
+   *
+   * @return Location.
+   */
+  public String getLocation() {
+    return this.attributeName == null ? this.entityName : this.entityName + "." + this.attributeName;
+  }
+
+  /**
+   * Returns the message of the finding.
+   *
+   * @return Message.
+   */
+  public String getMessage() {
+    return message;
+  }
+
+  @Override
+  public String toString() {
+    return this.severity + ": " + this.getLocation() + " [" + this.ruleId + "]: " + this.message;
+  }
+}
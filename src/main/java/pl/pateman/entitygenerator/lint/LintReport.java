@@ -0,0 +1,182 @@
+package pl.pateman.entitygenerator.lint;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * A report of a {@link SchemaLinter}, i.e. findings and the rules which have reported them. It can be written as
+ * plain JSON, or as SARIF, which is understood by most CI servers and code review tools.
+ *
+ * This class is immutable.
+ */
+public final class LintReport {
+
+  public static final String SARIF_VERSION = "2.1.0";
+  public static final String SARIF_SCHEMA = "https://json.schemastore.org/sarif-2.1.0.json";
+  public static final String TOOL_NAME = "JSON-to-Entity";
+
+  private final Map<LintRule, LintSeverity> rules;
+  private final List<LintFinding> findings;
+
+  LintReport(final Map<LintRule, LintSeverity> rules, final List<LintFinding> findings) {
+    this.rules = Collections.unmodifiableMap(rules);
+    this.findings = Collections.unmodifiableList(findings);
+  }
+
+  /**
+   * Returns a read-only map of rules which have been run, along with their severities.
+   *
+   * @return Enabled rules.
+   */
+  public Map<LintRule, LintSeverity> getRules() {
+    return rules;
+  }
+
+  /**
+   * Returns a read-only list of findings, the most severe first.
+   *
+   * @return Findings.
+   */
+  public List<LintFinding> getFindings() {
+    return findings;
+  }
+
+  /**
+   * Counts findings of the given severity.
+   *
+   * @param severity Severity.
+   * @return Number of findings.
+   */
+  public long count(final LintSeverity severity) {
+    return this.findings.stream().filter(f -> severity.equals(f.getSeverity())).count();
+  }
+
+  /**
+   * Determines whether any of the findings is an error.
+   *
+   * @return {@code true} if it is, {@code false} otherwise.
+   */
+  public boolean hasErrors() {
+    return this.count(LintSeverity.ERROR) > 0;
+  }
+
+  private static String toString(final JsonObject jsonObject) {
+    return new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create().toJson(jsonObject);
+  }
+
+  private static JsonObject text(final String text) {
+    final JsonObject jsonObject = new JsonObject();
+    jsonObject.addProperty("text", text);
+    return jsonObject;
+  }
+
+  /**
+   * Writes the report as JSON.
+   *
+   * @return JSON report.
+   */
+  public String toJson() {
+    final JsonArray rulesArray = new JsonArray();
+    for (final Entry<LintRule, LintSeverity> rule : this.rules.entrySet()) {
+      final JsonObject ruleObject = new JsonObject();
+      ruleObject.addProperty("id", rule.getKey().getId());
+      ruleObject.addProperty("severity", rule.getValue().name());
+      ruleObject.addProperty("description", rule.getKey().getDescription());
+      rulesArray.add(ruleObject);
+    }
+
+    final JsonArray findingsArray = new JsonArray();
+    for (final LintFinding finding : this.findings) {
+      final JsonObject findingObject = new JsonObject();
+      findingObject.addProperty("ruleId", finding.getRuleId());
+      findingObject.addProperty("severity", finding.getSeverity().name());
+      findingObject.addProperty("entity", finding.getEntityName());
+      findingObject.addProperty("attribute", finding.getAttributeName());
+      final JsonArray schemaFiles = new JsonArray();
+      finding.getSchemaFiles().forEach(schemaFiles::add);
+      findingObject.add("schemaFiles", schemaFiles);
+      findingObject.addProperty("message", finding.getMessage());
+      findingsArray.add(findingObject);
+    }
+
+    final JsonObject report = new JsonObject();
+    report.add("rules", rulesArray);
+    report.add("findings", findingsArray);
+    return toString(report);
+  }
+
+  /**
+   * Writes the report as SARIF. Findings are located in the first schema file of their entity, and by the logical
+   * location of their entity or attribute, e.g. 'Customer.orders'.
+   *
+   * @return SARIF log.
+   */
+  public String toSarif() {
+    final List<String> ruleIds = new ArrayList<>();
+    final JsonArray rulesArray = new JsonArray();
+    for (final Entry<LintRule, LintSeverity> rule : this.rules.entrySet()) {
+      final JsonObject configuration = new JsonObject();
+      configuration.addProperty("level", rule.getValue().getSarifLevel());
+
+      final JsonObject ruleObject = new JsonObject();
+      ruleObject.addProperty("id", rule.getKey().getId());
+      ruleObject.add("shortDescription", text(rule.getKey().getDescription()));
+      ruleObject.add("defaultConfiguration", configuration);
+      rulesArray.add(ruleObject);
+      ruleIds.add(rule.getKey().getId());
+    }
+
+    final JsonArray results = new JsonArray();
+    for (final LintFinding finding : this.findings) {
+      final JsonObject logicalLocation = new JsonObject();
+      logicalLocation.addProperty("fullyQualifiedName", finding.getLocation());
+      logicalLocation.addProperty("kind", finding.getAttributeName() == null ? "type" : "member");
+      final JsonArray logicalLocations = new JsonArray();
+      logicalLocations.add(logicalLocation);
+
+      final JsonObject location = new JsonObject();
+      finding.getSchemaFiles().stream().sorted().findFirst().ifPresent(schemaFile -> {
+        final JsonObject artifactLocation = new JsonObject();
+        artifactLocation.addProperty("uri", schemaFile);
+        final JsonObject physicalLocation = new JsonObject();
+        physicalLocation.add("artifactLocation", artifactLocation);
+        location.add("physicalLocation", physicalLocation);
+      });
+      location.add("logicalLocations", logicalLocations);
+      final JsonArray locations = new JsonArray();
+      locations.add(location);
+
+      final JsonObject result = new JsonObject();
+      result.addProperty("ruleId", finding.getRuleId());
+      result.addProperty("ruleIndex", ruleIds.indexOf(finding.getRuleId()));
+      result.addProperty("level", finding.getSeverity().getSarifLevel());
+      result.add("message", text(finding.getMessage()));
+      result.add("locations", locations);
+      results.add(result);
+    }
+
+    final JsonObject driver = new JsonObject();
+    driver.addProperty("name", TOOL_NAME);
+    driver.add("rules", rulesArray);
+    final JsonObject tool = new JsonObject();
+    tool.add("driver", driver);
+
+    final JsonObject run = new JsonObject();
+    run.add("tool", tool);
+    run.add("results", results);
+    final JsonArray runs = new JsonArray();
+    runs.add(run);
+
+    final JsonObject log = new JsonObject();
+    log.addProperty("$schema", SARIF_SCHEMA);
+    log.addProperty("version", SARIF_VERSION);
+    log.add("runs", runs);
+    return toString(log);
+  }
+}
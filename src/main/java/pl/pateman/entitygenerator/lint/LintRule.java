@@ -0,0 +1,40 @@
+package pl.pateman.entitygenerator.lint;
+
+import pl.pateman.entitygenerator.GeneratedEntity;
+
+/**
+ * An interface which defines a lint rule, which looks for schema designs that are known to perform badly at runtime.
+ *
+ * Rules are run in parallel, so implementations need to be thread-safe.
+ */
+public interface LintRule {
+
+  /**
+   * Returns the identifier of the rule, e.g. 'bag-collection'. It's used to configure the rule's severity.
+   *
+   * @return Rule identifier.
+   */
+  String getId();
+
+  /**
+   * Returns a short description of the problem the rule looks for.
+   *
+   * @return Rule description.
+   */
+  String getDescription();
+
+  /**
+   * Returns the severity of findings, unless it's configured otherwise.
+   *
+   * @return Default severity.
+   */
+  LintSeverity getDefaultSeverity();
+
+  /**
+   * Checks the given entity and reports findings to the given context.
+   *
+   * @param entity Entity to check.
+   * @param context Context of the check.
+   */
+  void check(GeneratedEntity entity, LintContext context);
+}
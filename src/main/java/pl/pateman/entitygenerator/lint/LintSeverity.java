@@ -0,0 +1,38 @@
+package pl.pateman.entitygenerator.lint;
+
+/**
+ * Severity of findings of a lint rule.
+ */
+public enum LintSeverity {
+  /**
+   * The rule is disabled.
+   */
+  OFF("none"),
+  /**
+   * Findings are informational.
+   */
+  NOTE("note"),
+  /**
+   * Findings should be looked at.
+   */
+  WARNING("warning"),
+  /**
+   * Findings should fail the build.
+   */
+  ERROR("error");
+
+  private final String sarifLevel;
+
+  LintSeverity(final String sarifLevel) {
+    this.sarifLevel = sarifLevel;
+  }
+
+  /**
+   * Returns the SARIF level which corresponds to this severity.
+   *
+   * @return SARIF level.
+   */
+  public String getSarifLevel() {
+    return sarifLevel;
+  }
+}
@@ -0,0 +1,226 @@
+package pl.pateman.entitygenerator.lint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import pl.pateman.entitygenerator.GeneratedEntity;
+import pl.pateman.entitygenerator.RelationGraph;
+import pl.pateman.entitygenerator.exception.EntityGeneratorException;
+import pl.pateman.entitygenerator.lint.impl.BagCollectionRule;
+import pl.pateman.entitygenerator.lint.impl.EagerCollectionRule;
+import pl.pateman.entitygenerator.lint.impl.UnindexedRelationRule;
+import pl.pateman.entitygenerator.lint.impl.WideEntityRule;
+
+/**
+ * Runs lint rules over generated entities, looking for schema designs that are known to perform badly at runtime.
+ *
+ * Entities are split into batches which are checked in parallel. External entities (see
+ * {@link GeneratedEntity#isExternal()}) are not checked. Findings are sorted by severity, entity, attribute and rule,
+ * so that reports of the same model are always the same.
+ *
+ * This class is thread-safe, as long as its rules are.
+ */
+public final class SchemaLinter {
+
+  public static final int DEFAULT_BATCH_SIZE = 64;
+
+  private static final Comparator<LintFinding> FINDING_ORDER = Comparator
+      .comparing(LintFinding::getSeverity, Comparator.reverseOrder())
+      .thenComparing(LintFinding::getEntityName)
+      .thenComparing(LintFinding::getAttributeName, Comparator.nullsFirst(Comparator.naturalOrder()))
+      .thenComparing(LintFinding::getRuleId)
+      .thenComparing(LintFinding::getMessage);
+
+  private final List<LintRule> rules;
+  private final Map<String, LintSeverity> severities;
+  private final int batchSize;
+  private final Executor executor;
+
+  /**
+   * Creates a linter which runs built-in rules with their default severities.
+   */
+  public SchemaLinter() {
+    this(builtInRules(), Collections.emptyMap());
+  }
+
+  /**
+   * Creates a linter which runs the given rules.
+   *
+   * @param rules Rules to run.
+   * @param severities Severities of rules (by their identifiers), which override their defaults.
+   */
+  public SchemaLinter(final Collection<LintRule> rules, final Map<String, LintSeverity> severities) {
+    this(rules, severities, DEFAULT_BATCH_SIZE, ForkJoinPool.commonPool());
+  }
+
+  public SchemaLinter(final Collection<LintRule> rules, final Map<String, LintSeverity> severities,
+      final int batchSize, final Executor executor) {
+    if (rules == null || rules.contains(null)) {
+      throw new IllegalArgumentException("A valid rules collection is required");
+    }
+    if (severities == null) {
+      throw new IllegalArgumentException("A valid severities map is required");
+    }
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive");
+    }
+    if (executor == null) {
+      throw new IllegalArgumentException("A valid executor is required");
+    }
+
+    final Set<String> ruleIds = new HashSet<>();
+    for (final LintRule rule : rules) {
+      if (!ruleIds.add(rule.getId())) {
+        throw new IllegalArgumentException("Rule '" + rule.getId() + "' is defined more than once");
+      }
+    }
+    for (final String ruleId : severities.keySet()) {
+      if (!ruleIds.contains(ruleId)) {
+        throw new IllegalArgumentException("Unknown rule '" + ruleId + "'");
+      }
+    }
+
+    this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+    this.severities = Collections.unmodifiableMap(new HashMap<>(severities));
+    this.batchSize = batchSize;
+    this.executor = executor;
+  }
+
+  /**
+   * Creates new instances of built-in rules.
+   *
+   * @return A {@link List<LintRule>} of built-in rules.
+   */
+  public static List<LintRule> builtInRules() {
+    return Arrays.asList(new BagCollectionRule(), new EagerCollectionRule(), new UnindexedRelationRule(),
+        new WideEntityRule());
+  }
+
+  /**
+   * Parses severities of rules, e.g. 'wide-entity=off,bag-collection=error'.
+   *
+   * @param severities Comma-separated pairs of rule identifiers and severities.
+   * @return Severities of rules.
+   * @throws IllegalArgumentException If any of the pairs is invalid.
+   */
+  public static Map<String, LintSeverity> parseSeverities(final String severities) {
+    final Map<String, LintSeverity> result = new HashMap<>();
+    if (severities == null || severities.trim().isEmpty()) {
+      return result;
+    }
+
+    for (final String pair : severities.split(",")) {
+      final String[] parts = pair.split("=");
+      if (parts.length != 2) {
+        throw new IllegalArgumentException("A valid rule severity is required: '" + pair + "'");
+      }
+      try {
+        result.put(parts[0].trim(), LintSeverity.valueOf(parts[1].trim().toUpperCase()));
+      } catch (final IllegalArgumentException e) {
+        throw new IllegalArgumentException("A valid rule severity is required: '" + pair + "'", e);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the severity of the given rule.
+   *
+   * @param rule Rule.
+   * @return Configured severity, or the rule's default.
+   */
+  private LintSeverity getSeverity(final LintRule rule) {
+    return this.severities.getOrDefault(rule.getId(), rule.getDefaultSeverity());
+  }
+
+  /**
+   * Checks the given batch of entities with all enabled rules.
+   *
+   * @param batch Entities to check.
+   * @param relationGraph Relation graph of the whole model.
+   * @return A {@link List<LintFinding>} of findings.
+   */
+  private List<LintFinding> checkBatch(final List<GeneratedEntity> batch, final RelationGraph relationGraph) {
+    final List<LintFinding> findings = new ArrayList<>();
+    for (final LintRule rule : this.rules) {
+      final LintSeverity severity = this.getSeverity(rule);
+      if (LintSeverity.OFF.equals(severity)) {
+        continue;
+      }
+      for (final GeneratedEntity entity : batch) {
+        final LintContext context = new LintContext(rule, severity, entity, relationGraph);
+        try {
+          rule.check(entity, context);
+        } catch (final RuntimeException e) {
+          throw new EntityGeneratorException("Rule '" + rule.getId() + "' failed to check entity '" + entity
+              .getName() + "'", e);
+        }
+        findings.addAll(context.getFindings());
+      }
+    }
+    return findings;
+  }
+
+  /**
+   * Checks the given entities.
+   *
+   * @param entities Entities to check. Relations of these entities should not lead outside of this collection.
+   * @return Lint report.
+   * @throws EntityGeneratorException If any of the rules has failed.
+   */
+  public LintReport lint(final Collection<GeneratedEntity> entities) {
+    if (entities == null) {
+      throw new IllegalArgumentException("A valid entities collection is required");
+    }
+
+    final RelationGraph relationGraph = RelationGraph.build(entities);
+    final List<GeneratedEntity> sortedEntities = new ArrayList<>(relationGraph.size());
+    for (int i = 0; i < relationGraph.size(); i++) {
+      if (!relationGraph.getEntity(i).isExternal()) {
+        sortedEntities.add(relationGraph.getEntity(i));
+      }
+    }
+
+    final List<CompletableFuture<List<LintFinding>>> batches = new ArrayList<>();
+    for (int i = 0; i < sortedEntities.size(); i += this.batchSize) {
+      final List<GeneratedEntity> batch = sortedEntities
+          .subList(i, Math.min(i + this.batchSize, sortedEntities.size()));
+      batches.add(CompletableFuture.supplyAsync(() -> this.checkBatch(batch, relationGraph), this.executor));
+    }
+
+    final List<LintFinding> findings;
+    try {
+      findings = batches
+          .stream()
+          .flatMap(batch -> batch.join().stream())
+          .sorted(FINDING_ORDER)
+          .collect(Collectors.toList());
+    } catch (final CompletionException e) {
+      if (e.getCause() instanceof EntityGeneratorException) {
+        throw (EntityGeneratorException) e.getCause();
+      }
+      throw new EntityGeneratorException("Unable to lint entities", e.getCause());
+    }
+
+    final Map<LintRule, LintSeverity> enabledRules = new LinkedHashMap<>();
+    this.rules
+        .stream()
+        .sorted(Comparator.comparing(LintRule::getId))
+        .filter(r -> !LintSeverity.OFF.equals(this.getSeverity(r)))
+        .forEach(r -> enabledRules.put(r, this.getSeverity(r)));
+    return new LintReport(enabledRules, findings);
+  }
+}
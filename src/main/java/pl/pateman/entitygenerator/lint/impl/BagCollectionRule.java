@@ -0,0 +1,54 @@
+package pl.pateman.entitygenerator.lint.impl;
+
+import pl.pateman.entitygenerator.GeneratedEntity;
+import pl.pateman.entitygenerator.GeneratedEntity.Attribute;
+import pl.pateman.entitygenerator.GeneratedEntity.RelationInfo.CollectionType;
+import pl.pateman.entitygenerator.GeneratedEntity.RelationInfo.Type;
+import pl.pateman.entitygenerator.lint.LintContext;
+import pl.pateman.entitygenerator.lint.LintRule;
+import pl.pateman.entitygenerator.lint.LintSeverity;
+
+/**
+ * Reports collections of related entities which are mapped as bags (lists without an order column). Hibernate can't
+ * fetch several bags with a single query, and it recreates the whole join table of a many-to-many bag whenever the
+ * collection changes.
+ */
+public final class BagCollectionRule implements LintRule {
+
+  public static final String ID = "bag-collection";
+
+  @Override
+  public String getId() {
+    return ID;
+  }
+
+  @Override
+  public String getDescription() {
+    return "Collections of related entities should be sets, unless they need to be ordered";
+  }
+
+  @Override
+  public LintSeverity getDefaultSeverity() {
+    return LintSeverity.WARNING;
+  }
+
+  @Override
+  public void check(final GeneratedEntity entity, final LintContext context) {
+    for (final Attribute attribute : entity.getAttributes()) {
+      if (!LintRules.isCollection(attribute) || !CollectionType.LIST
+          .equals(attribute.getRelationInfo().getCollectionType())) {
+        continue;
+      }
+
+      final GeneratedEntity target = attribute.getRelationInfo().getTarget();
+      if (Type.MANY_TO_MANY.equals(attribute.getRelationInfo().getType())) {
+        context.report(attribute, "Many-to-many bag of '" + target.getName() + "' - every change deletes and "
+            + "re-inserts all rows of the entity in join table '" + attribute.getRelationInfo().getJoinTableName()
+            + "'. Use a SET");
+      } else {
+        context.report(attribute, "One-to-many bag of '" + target.getName() + "' - it can't be fetched along with "
+            + "other bags, and it loads duplicates when joined. Use a SET");
+      }
+    }
+  }
+}
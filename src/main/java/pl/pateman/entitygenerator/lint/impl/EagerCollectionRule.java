@@ -0,0 +1,43 @@
+package pl.pateman.entitygenerator.lint.impl;
+
+import pl.pateman.entitygenerator.GeneratedEntity;
+import pl.pateman.entitygenerator.GeneratedEntity.Attribute;
+import pl.pateman.entitygenerator.GeneratedEntity.RelationInfo.FetchType;
+import pl.pateman.entitygenerator.lint.LintContext;
+import pl.pateman.entitygenerator.lint.LintRule;
+import pl.pateman.entitygenerator.lint.LintSeverity;
+
+/**
+ * Reports collections of related entities which are fetched eagerly, i.e. loaded along with every instance of the
+ * entity, whether they're needed or not.
+ */
+public final class EagerCollectionRule implements LintRule {
+
+  public static final String ID = "eager-collection";
+
+  @Override
+  public String getId() {
+    return ID;
+  }
+
+  @Override
+  public String getDescription() {
+    return "Collections of related entities should be fetched lazily, or through fetch profiles";
+  }
+
+  @Override
+  public LintSeverity getDefaultSeverity() {
+    return LintSeverity.WARNING;
+  }
+
+  @Override
+  public void check(final GeneratedEntity entity, final LintContext context) {
+    entity
+        .getAttributes()
+        .stream()
+        .filter(LintRules::isCollection)
+        .filter(a -> FetchType.EAGER.equals(a.getRelationInfo().getFetchType()))
+        .forEach(a -> context.report(a, "Collection of '" + a.getRelationInfo().getTarget().getName()
+            + "' is fetched eagerly with every '" + entity.getName() + "'. Make it LAZY, and use a fetch profile"));
+  }
+}
@@ -0,0 +1,33 @@
+package pl.pateman.entitygenerator.lint.impl;
+
+import pl.pateman.entitygenerator.GeneratedEntity.Attribute;
+import pl.pateman.entitygenerator.GeneratedEntity.RelationInfo;
+import pl.pateman.entitygenerator.GeneratedEntity.RelationInfo.Side;
+import pl.pateman.entitygenerator.GeneratedEntity.RelationInfo.Type;
+
+/**
+ * Helper methods shared by built-in lint rules.
+ */
+final class LintRules {
+
+  private LintRules() {
+
+  }
+
+  /**
+   * Determines whether the given attribute holds a collection of related entities, i.e. it's the one side of a
+   * one-to-many relation, or any side of a many-to-many relation.
+   *
+   * @param attribute Attribute to check.
+   * @return {@code true} if it does, {@code false} otherwise.
+   */
+  static boolean isCollection(final Attribute attribute) {
+    final RelationInfo relationInfo = attribute.getRelationInfo();
+    if (relationInfo == null) {
+      return false;
+    }
+    final Type type = relationInfo.getType();
+    return Type.MANY_TO_MANY.equals(type) || (Type.ONE_TO_MANY.equals(type) && Side.ONE
+        .equals(relationInfo.getSide()));
+  }
+}
@@ -0,0 +1,58 @@
+package pl.pateman.entitygenerator.lint.impl;
+
+import pl.pateman.entitygenerator.GeneratedEntity;
+import pl.pateman.entitygenerator.GeneratedEntity.Attribute;
+import pl.pateman.entitygenerator.GeneratedEntity.RelationInfo;
+import pl.pateman.entitygenerator.GeneratedEntity.RelationInfo.Type;
+import pl.pateman.entitygenerator.lint.LintContext;
+import pl.pateman.entitygenerator.lint.LintRule;
+import pl.pateman.entitygenerator.lint.LintSeverity;
+
+/**
+ * Reports relations whose foreign key columns are not indexed (relations with {@code indexed: false}). Loading the
+ * other side of such a relation, as well as deleting its target, scans the whole table. Foreign key columns which
+ * lead an index declared by the entity are not reported.
+ */
+public final class UnindexedRelationRule implements LintRule {
+
+  public static final String ID = "unindexed-relation";
+
+  @Override
+  public String getId() {
+    return ID;
+  }
+
+  @Override
+  public String getDescription() {
+    return "Foreign key columns of relations should be indexed";
+  }
+
+  @Override
+  public LintSeverity getDefaultSeverity() {
+    return LintSeverity.WARNING;
+  }
+
+  @Override
+  public void check(final GeneratedEntity entity, final LintContext context) {
+    for (final Attribute attribute : entity.getAttributes()) {
+      final RelationInfo relationInfo = attribute.getRelationInfo();
+      if (relationInfo == null || relationInfo.isIndexed()) {
+        continue;
+      }
+
+      final String foreignKeyColumn = relationInfo.getForeignKeyColumn();
+      if (foreignKeyColumn != null && entity
+          .getIndexes()
+          .stream()
+          .noneMatch(i -> !i.getColumns().isEmpty() && foreignKeyColumn.equals(i.getColumns().get(0)))) {
+        context.report(attribute, "Foreign key column '" + foreignKeyColumn + "' of '" + entity.getDeployment()
+            + "' is not indexed - loading '" + relationInfo.getTarget().getName() + "." + relationInfo
+            .getTargetAttribute().getName() + "' scans the whole table");
+      } else if (Type.MANY_TO_MANY.equals(relationInfo.getType()) && relationInfo.isSource()) {
+        //  The join table belongs to the source side, so it's reported once.
+        context.report(attribute, "Columns of join table '" + relationInfo.getJoinTableName() + "' are not "
+            + "indexed - loading either side of the relation scans the whole table");
+      }
+    }
+  }
+}
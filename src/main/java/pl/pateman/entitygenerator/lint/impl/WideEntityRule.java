@@ -0,0 +1,63 @@
+package pl.pateman.entitygenerator.lint.impl;
+
+import pl.pateman.entitygenerator.GeneratedEntity;
+import pl.pateman.entitygenerator.lint.LintContext;
+import pl.pateman.entitygenerator.lint.LintRule;
+import pl.pateman.entitygenerator.lint.LintSeverity;
+
+/**
+ * Reports entities with many columns. Every query which loads such an entity reads all of them, and every dirty
+ * check compares all of them.
+ */
+public final class WideEntityRule implements LintRule {
+
+  public static final String ID = "wide-entity";
+  public static final int DEFAULT_MAX_COLUMNS = 40;
+
+  private final int maxColumns;
+
+  public WideEntityRule() {
+    this(DEFAULT_MAX_COLUMNS);
+  }
+
+  /**
+   * Creates the rule.
+   *
+   * @param maxColumns The highest number of columns which is not reported.
+   */
+  public WideEntityRule(final int maxColumns) {
+    if (maxColumns < 1) {
+      throw new IllegalArgumentException("The number of columns must be positive");
+    }
+    this.maxColumns = maxColumns;
+  }
+
+  @Override
+  public String getId() {
+    return ID;
+  }
+
+  @Override
+  public String getDescription() {
+    return "Entities should not have more than " + this.maxColumns + " columns";
+  }
+
+  @Override
+  public LintSeverity getDefaultSeverity() {
+    return LintSeverity.NOTE;
+  }
+
+  @Override
+  public void check(final GeneratedEntity entity, final LintContext context) {
+    //  Relations are counted only if they hold a foreign key column.
+    final long columns = entity
+        .getAttributes()
+        .stream()
+        .filter(a -> a.getRelationInfo() == null || a.getRelationInfo().getForeignKeyColumn() != null)
+        .count();
+    if (columns > this.maxColumns) {
+      context.report(null, "Entity has " + columns + " columns (more than " + this.maxColumns + "). Consider "
+          + "moving rarely used ones into a separate entity");
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package pl.pateman.entitygenerator.output;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import pl.pateman.entitygenerator.BlockingIoExecutor;
+import pl.pateman.entitygenerator.GeneratedSourceFile;
+
+/**
+ * An interface which defines a root that generated files are written into (for instance, a directory or an archive).
+ *
+ * Paths are relative to the root, and their segments are always separated by '/', regardless of the platform.
+ * Implementations create each directory once, so that writers can create all directories in one batch first, and then
+ * write files in parallel.
+ */
+public interface OutputRoot extends Closeable {
+
+  /**
+   * Separator of path segments.
+   */
+  char SEPARATOR = '/';
+
+  /**
+   * Returns the path of the given source file, e.g. 'pl/pateman/entitygenerator/entity/UserEntity.java'.
+   *
+   * @param sourceFile Source file.
+   * @return Path of the source file.
+   */
+  static String sourcePath(final GeneratedSourceFile sourceFile) {
+    final String fileName = sourceFile.getSimpleClassName() + ".java";
+    return sourceFile.getPackageName().isEmpty() ? fileName
+        : sourceFile.getPackageName().replace('.', SEPARATOR) + SEPARATOR + fileName;
+  }
+
+  /**
+   * Returns the directory of the given path.
+   *
+   * @param path Path of a file or a directory.
+   * @return Path of the parent directory, or {@code null} if the path is at the root.
+   */
+  static String parentOf(final String path) {
+    final int separator = path.lastIndexOf(SEPARATOR);
+    return separator < 0 ? null : path.substring(0, separator);
+  }
+
+  /**
+   * Creates the given directories (and their parents), unless they have been created already.
+   *
+   * @param directories Paths of directories to create.
+   * @throws IOException If a directory can't be created.
+   * @throws IllegalArgumentException If a path is invalid.
+   */
+  void createDirectories(Collection<String> directories) throws IOException;
+
+  /**
+   * Writes a file, encoded in UTF-8. Its directory is created, if needed.
+   *
+   * @param path Path of the file.
+   * @param content Content of the file.
+   * @throws IOException If the file can't be written.
+   * @throws IllegalArgumentException If the path is invalid.
+   */
+  void write(String path, String content) throws IOException;
+
+  /**
+   * Writes the given source files, each under {@link OutputRoot#sourcePath(GeneratedSourceFile)}. All package
+   * directories are created first.
+   *
+   * @param sourceFiles Source files to write.
+   * @throws IOException If a file can't be written.
+   */
+  default void writeSources(final Collection<GeneratedSourceFile> sourceFiles) throws IOException {
+    this.createSourceDirectories(sourceFiles);
+    for (final GeneratedSourceFile sourceFile : sourceFiles) {
+      this.write(sourcePath(sourceFile), sourceFile.getSource());
+    }
+  }
+
+  /**
+   * Writes the given source files, just like {@link OutputRoot#writeSources(Collection)} does, except that files are
+   * written concurrently, each as a separate call of the given executor. The root needs to be thread-safe.
+   *
+   * @param sourceFiles Source files to write.
+   * @param ioExecutor Executor of the writes.
+   * @throws IOException If a file can't be written.
+   */
+  default void writeSources(final Collection<GeneratedSourceFile> sourceFiles, final BlockingIoExecutor ioExecutor)
+      throws IOException {
+    this.createSourceDirectories(sourceFiles);
+    ioExecutor.forEach(sourceFiles, sourceFile -> this.write(sourcePath(sourceFile), sourceFile.getSource()));
+  }
+
+  /**
+   * Creates package directories of the given source files.
+   *
+   * @param sourceFiles Source files.
+   * @throws IOException If a directory can't be created.
+   */
+  default void createSourceDirectories(final Collection<GeneratedSourceFile> sourceFiles) throws IOException {
+    final Set<String> directories = new LinkedHashSet<>();
+    for (final GeneratedSourceFile sourceFile : sourceFiles) {
+      final String directory = parentOf(sourcePath(sourceFile));
+      if (directory != null) {
+        directories.add(directory);
+      }
+    }
+    this.createDirectories(directories);
+  }
+}
@@ -0,0 +1,96 @@
+package pl.pateman.entitygenerator.output.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import pl.pateman.entitygenerator.output.OutputRoot;
+
+/**
+ * Base class of the built-in output roots, which validates paths and keeps track of created directories.
+ */
+abstract class AbstractOutputRoot implements OutputRoot {
+
+  private final Map<String, Boolean> createdDirectories = new ConcurrentHashMap<>();
+
+  /**
+   * Validates the given path, and splits it into segments.
+   *
+   * @param path Path to validate.
+   * @return Segments of the path.
+   * @throws IllegalArgumentException If the path is invalid (e.g. it's absolute or it contains '..').
+   */
+  static String[] segmentsOf(final String path) {
+    if (path == null || path.isEmpty()) {
+      throw new IllegalArgumentException("A valid path is required");
+    }
+    final String[] segments = path.split(String.valueOf(SEPARATOR), -1);
+    for (final String segment : segments) {
+      if (segment.isEmpty() || ".".equals(segment) || "..".equals(segment) || segment.indexOf('\\') >= 0
+          || segment.indexOf(':') >= 0) {
+        throw new IllegalArgumentException("A valid path is required: '" + path + "'");
+      }
+    }
+    return segments;
+  }
+
+  /**
+   * Creates a single directory, whose parent exists already.
+   *
+   * @param directory Path of the directory.
+   * @throws IOException If the directory can't be created.
+   */
+  protected abstract void createDirectory(String directory) throws IOException;
+
+  /**
+   * Writes a file, whose directory exists already.
+   *
+   * @param path Path of the file.
+   * @param content Content of the file.
+   * @throws IOException If the file can't be written.
+   */
+  protected abstract void writeFile(String path, byte[] content) throws IOException;
+
+  private void createDirectory(final String[] segments, final int length) throws IOException {
+    final String directory = String.join(String.valueOf(SEPARATOR), Arrays.copyOf(segments, length));
+    if (this.createdDirectories.containsKey(directory)) {
+      return;
+    }
+    if (length > 1) {
+      this.createDirectory(segments, length - 1);
+    }
+    try {
+      //  Other writers of the same directory wait until it's created.
+      this.createdDirectories.computeIfAbsent(directory, d -> {
+        try {
+          this.createDirectory(d);
+          return Boolean.TRUE;
+        } catch (final IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (final UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  @Override
+  public void createDirectories(final Collection<String> directories) throws IOException {
+    for (final String directory : directories) {
+      final String[] segments = segmentsOf(directory);
+      this.createDirectory(segments, segments.length);
+    }
+  }
+
+  @Override
+  public void write(final String path, final String content) throws IOException {
+    final String[] segments = segmentsOf(path);
+    if (segments.length > 1) {
+      this.createDirectory(segments, segments.length - 1);
+    }
+    this.writeFile(path, content.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,55 @@
+package pl.pateman.entitygenerator.output.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * An output root which writes files into a directory.
+ *
+ * This class is thread-safe.
+ */
+public final class DirectoryOutputRoot extends AbstractOutputRoot {
+
+  private final Path directory;
+
+  /**
+   * Creates an output root for the given directory. The directory is created if it doesn't exist.
+   *
+   * @param directory Root directory.
+   * @throws IOException If the directory can't be created.
+   */
+  public DirectoryOutputRoot(final Path directory) throws IOException {
+    if (directory == null) {
+      throw new IllegalArgumentException("A valid directory is required");
+    }
+    this.directory = Files.createDirectories(directory);
+  }
+
+  private Path resolve(final String path) {
+    Path resolved = this.directory;
+    for (final String segment : segmentsOf(path)) {
+      resolved = resolved.resolve(segment);
+    }
+    return resolved;
+  }
+
+  @Override
+  protected void createDirectory(final String directory) throws IOException {
+    Files.createDirectories(this.resolve(directory));
+  }
+
+  @Override
+  protected void writeFile(final String path, final byte[] content) throws IOException {
+    Files.write(this.resolve(path), content);
+  }
+
+  public Path getDirectory() {
+    return this.directory;
+  }
+
+  @Override
+  public void close() {
+
+  }
+}
@@ -0,0 +1,55 @@
+package pl.pateman.entitygenerator.output.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An output root which keeps files in memory, e.g. for tests or for further processing.
+ *
+ * This class is thread-safe.
+ */
+public final class InMemoryOutputRoot extends AbstractOutputRoot {
+
+  private final Set<String> directories = ConcurrentHashMap.newKeySet();
+  private final Map<String, String> files = new ConcurrentHashMap<>();
+
+  @Override
+  protected void createDirectory(final String directory) {
+    this.directories.add(directory);
+  }
+
+  @Override
+  protected void writeFile(final String path, final byte[] content) {
+    this.files.put(path, new String(content, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Returns created directories.
+   *
+   * @return Sorted paths of directories.
+   */
+  public SortedSet<String> getDirectories() {
+    return Collections.unmodifiableSortedSet(new TreeSet<>(this.directories));
+  }
+
+  /**
+   * Returns written files.
+   *
+   * @return Contents of files by their paths, sorted by paths.
+   */
+  public SortedMap<String, String> getFiles() {
+    return Collections.unmodifiableSortedMap(new TreeMap<>(this.files));
+  }
+
+  @Override
+  public void close() {
+
+  }
+}
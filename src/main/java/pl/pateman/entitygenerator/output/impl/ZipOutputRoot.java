@@ -0,0 +1,94 @@
+package pl.pateman.entitygenerator.output.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * An output root which writes files into a ZIP archive (e.g. a source JAR). Entries get a fixed modification time, and
+ * they're written in a fixed order - directories, then files, each sorted by their paths - so that the same files
+ * always produce the same archive, no matter in which order (or on how many threads) they're written. Hence, files
+ * are kept in memory, and the archive is written when the root is closed.
+ *
+ * This class is thread-safe.
+ */
+public final class ZipOutputRoot extends AbstractOutputRoot {
+
+  /**
+   * Modification time of all entries - the earliest time which ZIP supports.
+   */
+  private static final LocalDateTime ENTRY_TIME = LocalDateTime.of(1980, 1, 1, 0, 0);
+
+  private final ZipOutputStream zipOutputStream;
+  private final Set<String> directories = new TreeSet<>();
+  private final Map<String, byte[]> files = new TreeMap<>();
+
+  /**
+   * Creates an output root which writes the given archive, replacing it if it exists.
+   *
+   * @param archive Path of the archive.
+   * @throws IOException If the archive can't be created.
+   */
+  public ZipOutputRoot(final Path archive) throws IOException {
+    this(Files.newOutputStream(archive));
+  }
+
+  /**
+   * Creates an output root which writes an archive into the given stream. The stream is closed along with the root.
+   *
+   * @param outputStream Stream to write the archive into.
+   */
+  public ZipOutputRoot(final OutputStream outputStream) {
+    if (outputStream == null) {
+      throw new IllegalArgumentException("A valid output stream is required");
+    }
+    this.zipOutputStream = new ZipOutputStream(outputStream);
+  }
+
+  private void writeEntry(final String name, final byte[] content) throws IOException {
+    final ZipEntry entry = new ZipEntry(name);
+    //  Entries store the local time, so it's converted with the current time zone to get the same bytes everywhere.
+    entry.setTime(ENTRY_TIME.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    this.zipOutputStream.putNextEntry(entry);
+    this.zipOutputStream.write(content);
+    this.zipOutputStream.closeEntry();
+  }
+
+  @Override
+  protected synchronized void createDirectory(final String directory) {
+    this.directories.add(directory + SEPARATOR);
+  }
+
+  @Override
+  protected synchronized void writeFile(final String path, final byte[] content) throws IOException {
+    if (this.files.putIfAbsent(path, content) != null) {
+      throw new ZipException("duplicate entry: " + path);
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    try {
+      for (final String directory : this.directories) {
+        this.writeEntry(directory, new byte[0]);
+      }
+      for (final Map.Entry<String, byte[]> file : this.files.entrySet()) {
+        this.writeEntry(file.getKey(), file.getValue());
+      }
+    } finally {
+      this.directories.clear();
+      this.files.clear();
+      this.zipOutputStream.close();
+    }
+  }
+}
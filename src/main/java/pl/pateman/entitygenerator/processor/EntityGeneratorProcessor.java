@@ -0,0 +1,116 @@
+package pl.pateman.entitygenerator.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.JavaFileObject;
+import pl.pateman.entitygenerator.ClasspathEntitiesSchemaScanner;
+import pl.pateman.entitygenerator.EntityGenerator;
+import pl.pateman.entitygenerator.GeneratedEntity;
+import pl.pateman.entitygenerator.GeneratedSourceFile;
+import pl.pateman.entitygenerator.SourceFileGenerator;
+import pl.pateman.entitygenerator.exception.EntityGeneratorException;
+import pl.pateman.entitygenerator.exception.SourceFileGeneratorException;
+import pl.pateman.entitygenerator.generate.impl.FreemarkerGenerator;
+
+/**
+ * An annotation processor which generates entities during compilation, instead of a separate generation step.
+ *
+ * It's triggered by {@link GenerateEntities}. Schemas are looked up in the processor's classpath (which is the
+ * compilation classpath, unless a separate processor path is given), and generated sources are created through the
+ * {@link javax.annotation.processing.Filer}, with the annotated elements as their originating elements. The processor
+ * is registered as an aggregating one for Gradle's incremental annotation processing.
+ */
+@SupportedAnnotationTypes("pl.pateman.entitygenerator.processor.GenerateEntities")
+public final class EntityGeneratorProcessor extends AbstractProcessor {
+
+  private final Set<String> generatedClassNames = new HashSet<>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+    final Set<? extends Element> elements = roundEnv.getElementsAnnotatedWith(GenerateEntities.class);
+    if (elements.isEmpty()) {
+      return false;
+    }
+
+    final Set<String> patterns = new LinkedHashSet<>();
+    elements.forEach(e -> patterns.addAll(Arrays.asList(e.getAnnotation(GenerateEntities.class).value())));
+
+    final Element element = elements.iterator().next();
+    try {
+      this.generateEntities(patterns, elements.toArray(new Element[0]));
+    } catch (final EntityGeneratorException | SourceFileGeneratorException e) {
+      this.processingEnv.getMessager().printMessage(Kind.ERROR, "Unable to generate entities: " + e.getMessage(),
+          element);
+    } catch (final IOException e) {
+      this.processingEnv.getMessager().printMessage(Kind.ERROR, "Unable to write generated entities: " + e,
+          element);
+    }
+    return true;
+  }
+
+  /**
+   * Generates entities of schemas which match the given patterns.
+   *
+   * @param patterns Schema patterns.
+   * @param originatingElements Annotated elements.
+   * @throws IOException If a source file can't be written.
+   */
+  private void generateEntities(final Collection<String> patterns, final Element[] originatingElements)
+      throws IOException {
+    final ClasspathEntitiesSchemaScanner classpathEntitiesSchemaScanner = new ClasspathEntitiesSchemaScanner(
+        this.getClass().getClassLoader());
+    final Set<String> schemas = new TreeSet<>();
+    patterns.forEach(p -> schemas.addAll(classpathEntitiesSchemaScanner.findEntitySchemas(p)));
+    if (schemas.isEmpty()) {
+      this.processingEnv.getMessager().printMessage(Kind.WARNING, "No entity schemas match " + patterns,
+          originatingElements[0]);
+      return;
+    }
+
+    final Collection<GeneratedEntity> generatedEntities = new EntityGenerator()
+        .generateEntitiesFromSources(classpathEntitiesSchemaScanner.retrieveSchemaSources(schemas));
+    generatedEntities
+        .stream()
+        .flatMap(e -> e.getFetchProfiles().stream())
+        .flatMap(p -> p.getWarnings().stream())
+        .forEach(w -> this.processingEnv.getMessager().printMessage(Kind.WARNING, w, originatingElements[0]));
+
+    final SourceFileGenerator sourceFileGenerator = new SourceFileGenerator(new FreemarkerGenerator());
+    final List<GeneratedSourceFile> sourceFiles = new ArrayList<>();
+    for (final GeneratedEntity generatedEntity : generatedEntities) {
+      sourceFiles.addAll(sourceFileGenerator.generateSourceFiles(generatedEntity));
+    }
+
+    for (final GeneratedSourceFile sourceFile : sourceFiles) {
+      //  Creating a source file twice is an error, e.g. if another round has annotated elements as well.
+      if (!this.generatedClassNames.add(sourceFile.getClassName())) {
+        continue;
+      }
+      final JavaFileObject sourceFileObject = this.processingEnv.getFiler()
+          .createSourceFile(sourceFile.getClassName(), originatingElements);
+      try (final Writer writer = sourceFileObject.openWriter()) {
+        writer.write(sourceFile.getSource());
+      }
+    }
+  }
+}
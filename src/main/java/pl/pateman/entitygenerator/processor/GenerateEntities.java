@@ -0,0 +1,28 @@
+package pl.pateman.entitygenerator.processor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a type (or a package) whose compilation should generate entities. {@link EntityGeneratorProcessor} looks up
+ * schemas which match the given patterns in its classpath, and generates sources of all their entities, which are
+ * then compiled along with the rest of the sources.
+ *
+ * Entities are generated once per compilation, no matter how many elements are annotated - patterns of all of them
+ * are combined.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target({ElementType.TYPE, ElementType.PACKAGE})
+public @interface GenerateEntities {
+
+  /**
+   * Returns Regex patterns of schema resource paths.
+   *
+   * @return Schema patterns.
+   */
+  String[] value() default {".*-entities\\.json"};
+}
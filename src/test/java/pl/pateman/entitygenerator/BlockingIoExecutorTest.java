@@ -0,0 +1,99 @@
+package pl.pateman.entitygenerator;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BlockingIoExecutorTest {
+
+  @Test
+  public void mapBoundsConcurrency() throws IOException {
+    final List<Integer> items = IntStream.range(0, 40).boxed().collect(Collectors.toList());
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger maxRunning = new AtomicInteger();
+
+    try (final BlockingIoExecutor ioExecutor = new BlockingIoExecutor(4)) {
+      Assert.assertEquals(BlockingIoExecutor.isVirtualThreadsSupported(), ioExecutor.usesVirtualThreads());
+      final List<Integer> results = ioExecutor.map(items, item -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+          Thread.sleep(2L);
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        running.decrementAndGet();
+        return item * 2;
+      });
+
+      //  Results keep the order of the items.
+      Assert.assertEquals(items.stream().map(i -> i * 2).collect(Collectors.toList()), results);
+    }
+    Assert.assertTrue(maxRunning.get() <= 4);
+    Assert.assertTrue(maxRunning.get() > 1);
+  }
+
+  @Test
+  public void platformThreadsFallback() throws IOException {
+    final AtomicInteger calls = new AtomicInteger();
+    try (final BlockingIoExecutor ioExecutor = new BlockingIoExecutor(8, false)) {
+      Assert.assertFalse(ioExecutor.usesVirtualThreads());
+      ioExecutor.forEach(Arrays.asList("a", "b", "c"), item -> calls.incrementAndGet());
+    }
+    Assert.assertEquals(3, calls.get());
+  }
+
+  @Test
+  public void failedCalls() {
+    try (final BlockingIoExecutor ioExecutor = new BlockingIoExecutor(2)) {
+      ioExecutor.forEach(Arrays.asList("a", "b", "c"), item -> {
+        if ("b".equals(item)) {
+          throw new IOException("Unable to write '" + item + "'");
+        }
+      });
+      Assert.fail("A failed call should fail the whole operation");
+    } catch (final IOException e) {
+      Assert.assertEquals("Unable to write 'b'", e.getMessage());
+    }
+  }
+
+  @Test(timeout = 30000L)
+  public void mapAfterFailedCalls() throws IOException {
+    //  Twice as many permits as platform threads, so that some of the tasks are queued when the first one fails.
+    final int maxConcurrency = 8 * Runtime.getRuntime().availableProcessors();
+    final List<Integer> items = IntStream.range(0, maxConcurrency).boxed().collect(Collectors.toList());
+
+    try (final BlockingIoExecutor ioExecutor = new BlockingIoExecutor(maxConcurrency, false)) {
+      for (int i = 0; i < 3; i++) {
+        try {
+          ioExecutor.forEach(items, item -> {
+            if (item == 0) {
+              throw new IOException("Unable to read '" + item + "'");
+            }
+            try {
+              Thread.sleep(10000L);
+            } catch (final InterruptedException e) {
+              throw new InterruptedIOException();
+            }
+          });
+          Assert.fail("A failed call should fail the whole operation");
+        } catch (final IOException e) {
+          Assert.assertEquals("Unable to read '0'", e.getMessage());
+        }
+      }
+
+      //  Queued tasks which have been cancelled give their permits back, so all of them are available again.
+      Assert.assertEquals(items, ioExecutor.map(items, item -> item));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidConcurrency() {
+    new BlockingIoExecutor(0);
+  }
+}
@@ -1,8 +1,12 @@
 package pl.pateman.entitygenerator;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -57,4 +61,23 @@ public class ClasspathEntitiesSchemaScannerTest {
   public void retrieveInputStreamToResourcesInvalidPaths() {
     this.schemaScanner.retrieveInputStreamsToResources(Collections.singletonList("test-entities.json"));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void loadSchemaSources() throws IOException {
+    final List<String> entitySchemas = new ArrayList<>(this.schemaScanner.findEntitySchemas());
+    try (final BlockingIoExecutor ioExecutor = new BlockingIoExecutor(2)) {
+      final List<SchemaSource> schemaSources = this.schemaScanner.loadSchemaSources(entitySchemas, ioExecutor);
+
+      Assert.assertEquals(entitySchemas, schemaSources.stream().map(SchemaSource::getId).collect(Collectors.toList()));
+      Assert.assertEquals(SchemaSource.classpath(entitySchemas.get(0)).getFingerprint(),
+          schemaSources.get(0).getFingerprint());
+    }
+  }
+
+  @Test(expected = EntityGeneratorException.class)
+  public void loadSchemaSourcesInvalidPaths() {
+    try (final BlockingIoExecutor ioExecutor = new BlockingIoExecutor(2)) {
+      this.schemaScanner.loadSchemaSources(Collections.singletonList("test-entities.json"), ioExecutor);
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package pl.pateman.entitygenerator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import pl.pateman.entitygenerator.CompactEntityModel.CompactAttribute;
+import pl.pateman.entitygenerator.CompactEntityModel.CompactEntity;
+import pl.pateman.entitygenerator.CompactEntityModel.CompactRelationInfo;
+import pl.pateman.entitygenerator.GeneratedEntity.Attribute;
+import pl.pateman.entitygenerator.GeneratedEntity.RelationInfo;
+
+public class CompactEntityModelTest {
+
+  private Collection<GeneratedEntity> generatedEntities;
+  private CompactEntityModel compactModel;
+
+  private void assertSameEntity(final GeneratedEntity expected, final CompactEntity actual) {
+    Assert.assertEquals(expected.getName(), actual.getName());
+    Assert.assertEquals(expected.getDeployment(), actual.getDeployment());
+    Assert.assertEquals(expected.getClassFile(), actual.getClassFile());
+    Assert.assertEquals(expected.getRoot() == null ? null : expected.getRoot().getName(),
+        actual.getRoot() == null ? null : actual.getRoot().getName());
+    Assert.assertEquals(new ArrayList<>(expected.getSchemaFiles()), actual.getSchemaFiles());
+    Assert.assertEquals(expected.getSequenceName(), actual.getSequenceName());
+    Assert.assertEquals(expected.getAllocationSize(), actual.getAllocationSize());
+    Assert.assertEquals(expected.getIdentity(), actual.getIdentity());
+    Assert.assertEquals(expected.isExternal(), actual.isExternal());
+
+    final List<Attribute> attributes = new ArrayList<>(expected.getAttributes());
+    Assert.assertEquals(attributes.size(), actual.getAttributes().size());
+    for (int i = 0; i < attributes.size(); i++) {
+      final Attribute attribute = attributes.get(i);
+      final CompactAttribute compactAttribute = actual.getAttributes().get(i);
+      Assert.assertEquals(attribute.getName(), compactAttribute.getName());
+      Assert.assertEquals(actual, compactAttribute.getEntity());
+      Assert.assertEquals(attribute.getType(), compactAttribute.getType());
+      Assert.assertEquals(attribute.getFieldType(), compactAttribute.getFieldType());
+      Assert.assertEquals(attribute.isPrimitive(), compactAttribute.isPrimitive());
+      Assert.assertEquals(attribute.isNullable(), compactAttribute.isNullable());
+      Assert.assertEquals(attribute.isReintroduced(), compactAttribute.isReintroduced());
+      Assert.assertEquals(new ArrayList<>(attribute.getFlags()), compactAttribute.getFlags());
+
+      final RelationInfo relationInfo = attribute.getRelationInfo();
+      final CompactRelationInfo compactRelationInfo = compactAttribute.getRelationInfo();
+      Assert.assertEquals(relationInfo == null, compactRelationInfo == null);
+      if (relationInfo != null) {
+        Assert.assertEquals(compactAttribute, compactRelationInfo.getAttribute());
+        Assert.assertEquals(relationInfo.getType(), compactRelationInfo.getType());
+        Assert.assertEquals(relationInfo.getTarget().getName(), compactRelationInfo.getTarget().getName());
+        Assert.assertEquals(relationInfo.getTargetAttribute().getName(),
+            compactRelationInfo.getTargetAttribute().getName());
+        Assert.assertEquals(compactAttribute,
+            compactRelationInfo.getTargetAttribute().getRelationInfo().getTargetAttribute());
+        Assert.assertEquals(relationInfo.getJoinTable(), compactRelationInfo.getJoinTable());
+        Assert.assertEquals(relationInfo.getJoinColumn(), compactRelationInfo.getJoinColumn());
+        Assert.assertEquals(relationInfo.getCollectionType(), compactRelationInfo.getCollectionType());
+        Assert.assertEquals(relationInfo.getSide(), compactRelationInfo.getSide());
+        Assert.assertEquals(relationInfo.isSource(), compactRelationInfo.isSource());
+        Assert.assertEquals(relationInfo.getFetchType(), compactRelationInfo.getFetchType());
+        Assert.assertEquals(relationInfo.getFetchMode(), compactRelationInfo.getFetchMode());
+        Assert.assertEquals(relationInfo.getBatchSize(), compactRelationInfo.getBatchSize());
+        Assert.assertEquals(relationInfo.isIndexed(), compactRelationInfo.isIndexed());
+        Assert.assertEquals(relationInfo.getForeignKeyColumn(), compactRelationInfo.getForeignKeyColumn());
+        Assert.assertEquals(relationInfo.getJoinTableName(), compactRelationInfo.getJoinTableName());
+      }
+    }
+  }
+
+  @Before
+  public void buildModel() {
+    final ClasspathEntitiesSchemaScanner classpathEntitiesSchemaScanner = new ClasspathEntitiesSchemaScanner();
+    this.generatedEntities = new EntityGenerator().generateEntitiesFromSources(classpathEntitiesSchemaScanner
+        .retrieveSchemaSources(classpathEntitiesSchemaScanner.findEntitySchemas()));
+    this.compactModel = CompactEntityModel.build(this.generatedEntities);
+  }
+
+  @Test
+  public void sameAsGeneratedEntities() {
+    Assert.assertEquals(this.generatedEntities.size(), this.compactModel.size());
+    for (final GeneratedEntity entity : this.generatedEntities) {
+      this.assertSameEntity(entity, this.compactModel.findEntity(entity.getName()).get());
+    }
+    Assert.assertFalse(this.compactModel.findEntity("Unknown").isPresent());
+    Assert.assertTrue(this.compactModel.getMemorySize() > 0);
+
+    //  Entities are sorted by name, and views of the same record are equal.
+    final CompactEntity order = this.compactModel.findEntity("Order").get();
+    Assert.assertEquals(order, this.compactModel.getEntity(order.getIndex()));
+    Assert.assertEquals("Address", this.compactModel.getEntities().get(0).getName());
+    Assert.assertEquals("customer", order.findAttribute("customer").get().getName());
+  }
+
+  @Test
+  public void concurrentReads() {
+    //  Views only use absolute reads, so they can be shared by threads.
+    IntStream.range(0, 1000).parallel().forEach(i -> {
+      final CompactEntity entity = this.compactModel.getEntity(i % this.compactModel.size());
+      Assert.assertEquals(entity, this.compactModel.findEntity(entity.getName()).get());
+      entity.getAttributes().forEach(a -> Assert.assertNotNull(a.getType()));
+    });
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void relationsOutsideOfTheModel() {
+    CompactEntityModel.build(Collections.singletonList(this.generatedEntities.stream()
+        .filter(e -> "Order".equals(e.getName())).findFirst().get()));
+  }
+}
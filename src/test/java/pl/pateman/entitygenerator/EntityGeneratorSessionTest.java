@@ -0,0 +1,128 @@
+package pl.pateman.entitygenerator;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import pl.pateman.entitygenerator.exception.EntityGeneratorException;
+
+public class EntityGeneratorSessionTest {
+
+  private static final String NOTES = "{\"entities\": [{\"name\": \"Note\", \"deployment\": \"notes\", "
+      + "\"classFile\": \"pl.pateman.entitygenerator.entity.NoteEntity\", \"attributes\": ["
+      + "{\"name\": \"id\", \"type\": \"java.lang.Long\", \"flags\": [\"PRIMARY_KEY\"]}%s]}]}";
+  private static final String TAGS = "{\"entities\": [{\"name\": \"Tag\", \"deployment\": \"tags\", "
+      + "\"classFile\": \"pl.pateman.entitygenerator.entity.TagEntity\", \"attributes\": ["
+      + "{\"name\": \"id\", \"type\": \"java.lang.Long\", \"flags\": [\"PRIMARY_KEY\"]}]}], \"relations\": [{"
+      + "\"source\": {\"entity\": \"Note\", \"attributeName\": \"tags\", \"side\": \"ONE\", "
+      + "\"collectionType\": \"SET\"},"
+      + "\"target\": {\"entity\": \"Tag\", \"attributeName\": \"note\", \"side\": \"MANY\"}}]}";
+
+  private EntityGeneratorSession session;
+
+  private static SchemaSource notes(final String attributes) {
+    return SchemaSource.of("notes", String.format(NOTES, attributes));
+  }
+
+  private static boolean hasAttribute(final EntityGeneratorSession.Snapshot snapshot, final String entity,
+      final String attribute) {
+    return snapshot.findEntity(entity).get().findAttribute(attribute).isPresent();
+  }
+
+  @Before
+  public void openSession() {
+    this.session = new EntityGenerator().openSession();
+    this.session.addSources(Arrays.asList(SchemaSource.classpath("core-entities.json"),
+        SchemaSource.classpath("secondary-entities.json"), notes("")));
+  }
+
+  @Test
+  public void incrementalUpdates() {
+    final EntityGeneratorSession.Snapshot first = this.session.getSnapshot();
+    final Set<String> expectedNames = new EntityGenerator()
+        .generateEntitiesFromSources(Arrays.asList(SchemaSource.classpath("core-entities.json"),
+            SchemaSource.classpath("secondary-entities.json"), notes("")))
+        .stream()
+        .map(GeneratedEntity::getName)
+        .collect(Collectors.toSet());
+    Assert.assertEquals(1L, first.getVersion());
+    Assert.assertEquals(expectedNames, first.getEntities().stream().map(GeneratedEntity::getName)
+        .collect(Collectors.toSet()));
+    Assert.assertEquals(first.getEntities().size(), expectedNames.size());
+
+    //  Entities of schemas which aren't related to the replaced one are not resolved again.
+    final EntityGeneratorSession.Snapshot second = this.session
+        .replaceSources(Collections.singletonList(notes(", {\"name\": \"text\", \"type\": \"java.lang.String\"}")));
+    Assert.assertEquals(2L, second.getVersion());
+    Assert.assertSame(first.findEntity("Customer").get(), second.findEntity("Customer").get());
+    Assert.assertNotSame(first.findEntity("Note").get(), second.findEntity("Note").get());
+    Assert.assertTrue(hasAttribute(second, "Note", "text"));
+    Assert.assertFalse(hasAttribute(first, "Note", "text"));
+
+    //  A relation joins both schemas, so the related entity is resolved again.
+    final EntityGeneratorSession.Snapshot third = this.session
+        .addSources(Collections.singletonList(SchemaSource.of("tags", TAGS)));
+    Assert.assertTrue(hasAttribute(third, "Note", "tags"));
+    Assert.assertTrue(hasAttribute(third, "Note", "text"));
+    Assert.assertFalse(hasAttribute(second, "Note", "tags"));
+    Assert.assertSame(second.findEntity("Customer").get(), third.findEntity("Customer").get());
+
+    final EntityGeneratorSession.Snapshot fourth = this.session.removeSources(Collections.singletonList("tags"));
+    Assert.assertFalse(fourth.findEntity("Tag").isPresent());
+    Assert.assertFalse(hasAttribute(fourth, "Note", "tags"));
+    Assert.assertEquals(Arrays.asList("core-entities.json", "notes", "secondary-entities.json"), fourth.getSources()
+        .stream().map(SchemaSource::getId).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void failedUpdates() {
+    final EntityGeneratorSession.Snapshot snapshot = this.session.getSnapshot();
+    try {
+      this.session.update(Collections.singletonList(SchemaSource.of("tags", TAGS.replace("\"Note\"", "\"Memo\""))),
+          Collections.emptyList());
+      Assert.fail("An unknown relation target should fail the update");
+    } catch (final EntityGeneratorException e) {
+      Assert.assertSame(snapshot, this.session.getSnapshot());
+    }
+
+    try {
+      this.session.addSources(Collections.singletonList(notes("")));
+      Assert.fail("A source can't be added twice");
+    } catch (final IllegalArgumentException e) {
+      Assert.assertSame(snapshot, this.session.getSnapshot());
+    }
+
+    try {
+      this.session.removeSources(Collections.singletonList("tags"));
+      Assert.fail("An unknown source can't be removed");
+    } catch (final IllegalArgumentException e) {
+      Assert.assertSame(snapshot, this.session.getSnapshot());
+    }
+  }
+
+  @Test
+  public void concurrentReaders() throws InterruptedException {
+    final Thread writer = new Thread(() -> IntStream.range(0, 50).forEach(i -> this.session
+        .replaceSources(Collections.singletonList(notes(i % 2 == 0 ? ", {\"name\": \"text\", \"type\": "
+            + "\"java.lang.String\"}" : "")))));
+    writer.start();
+
+    //  Every snapshot is consistent: the entity found by its name is one of the snapshot's entities.
+    final List<Boolean> consistent = IntStream.range(0, 2000)
+        .parallel()
+        .mapToObj(i -> this.session.getSnapshot())
+        .map(s -> s.getEntities().contains(s.findEntity("Note").get()) && s.findEntity("Customer").isPresent())
+        .distinct()
+        .collect(Collectors.toList());
+    writer.join();
+
+    Assert.assertEquals(Collections.singletonList(true), consistent);
+    Assert.assertEquals(51L, this.session.getSnapshot().getVersion());
+    Assert.assertFalse(hasAttribute(this.session.getSnapshot(), "Note", "text"));
+  }
+}
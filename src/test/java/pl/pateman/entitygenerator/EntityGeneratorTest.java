@@ -1,18 +1,34 @@
 package pl.pateman.entitygenerator;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.Random;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import pl.pateman.entitygenerator.GeneratedEntity.Attribute;
+import pl.pateman.entitygenerator.GeneratedEntity.RelationInfo;
 import pl.pateman.entitygenerator.exception.EntityGeneratorException;
+import pl.pateman.entitygenerator.generate.impl.FreemarkerGenerator;
 
 public class EntityGeneratorTest {
 
+  private static final String USER_EXTENSION = "{\"entities\": [{\"name\": \"User\", \"root\": {\"name\": \"User\", "
+      + "\"extend\": true}, \"attributes\": [{\"name\": \"%s\", \"type\": \"java.lang.String\"}]}]}";
+
   private Collection<GeneratedEntity> generatedEntities;
   private ClasspathEntitiesSchemaScanner classpathEntitiesSchemaScanner;
 
@@ -35,6 +51,18 @@ public class EntityGeneratorTest {
     Assert.assertEquals(6, this.generatedEntities.size());
   }
 
+  @Test
+  public void generateEntitiesFromFiles() {
+    final List<Path> schemaFiles = this.classpathEntitiesSchemaScanner
+        .resolveSchemaFiles(this.classpathEntitiesSchemaScanner.findEntitySchemas());
+    final Collection<GeneratedEntity> fileEntities = new EntityGenerator().generateEntitiesFromFiles(schemaFiles);
+
+    Assert.assertEquals(this.generatedEntities.stream().map(GeneratedEntity::getName).collect(Collectors.toSet()),
+        fileEntities.stream().map(GeneratedEntity::getName).collect(Collectors.toSet()));
+    final GeneratedEntity userEntity = fileEntities.stream().filter(e -> "User".equals(e.getName())).findFirst().get();
+    Assert.assertTrue(userEntity.getSchemaFiles().stream().anyMatch(f -> f.endsWith("core-entities.json")));
+  }
+
   @Test
   public void generateEntitiesRoots() {
     final GeneratedEntity userEntity = this.findBy(e -> "User".equals(e.getName()));
@@ -96,4 +124,266 @@ public class EntityGeneratorTest {
     new EntityGenerator().generateEntities(inputStreams);
   }
 
-}
\ No newline at end of file
+  @Test
+  public void generateEntitiesDatabaseDefaults() {
+    final GeneratedEntity orderEntity = this.findBy(e -> "Order".equals(e.getName()));
+    Assert.assertEquals("orders_seq", orderEntity.getSequenceName());
+    Assert.assertEquals(EntityGenerator.DEFAULT_ALLOCATION_SIZE, orderEntity.getAllocationSize());
+    Assert.assertEquals(2, orderEntity.getIndexes().size());
+
+    final RelationInfo customer = orderEntity.findAttribute("customer").get().getRelationInfo();
+    Assert.assertEquals(RelationInfo.FetchType.LAZY, customer.getFetchType());
+    Assert.assertEquals("custId", customer.getForeignKeyColumn());
+    Assert.assertEquals("deliveryAddress_id",
+        orderEntity.findAttribute("deliveryAddress").get().getRelationInfo().getForeignKeyColumn());
+    Assert.assertNull(orderEntity.findAttribute("product").get().getRelationInfo().getForeignKeyColumn());
+  }
+
+  @Test
+  public void generateEntitiesFetchStrategies() {
+    final Collection<InputStream> inputStreams = this.classpathEntitiesSchemaScanner
+        .retrieveInputStreamsToResources(
+            this.classpathEntitiesSchemaScanner.findEntitySchemas("fetchStrategyEntities\\.json"));
+    this.generatedEntities = new EntityGenerator().generateEntities(inputStreams);
+
+    final GeneratedEntity warehouseEntity = this.findBy(e -> "Warehouse".equals(e.getName()));
+    Assert.assertEquals("warehouse_ids", warehouseEntity.getSequenceName());
+    Assert.assertEquals(10, warehouseEntity.getAllocationSize());
+    Assert.assertEquals("boolean", warehouseEntity.findAttribute("active").get().getFieldType());
+    Assert.assertEquals("java.lang.Long", warehouseEntity.findAttribute("id").get().getFieldType());
+
+    final RelationInfo items = warehouseEntity.findAttribute("items").get().getRelationInfo();
+    Assert.assertEquals(RelationInfo.FetchMode.SUBSELECT, items.getFetchMode());
+    Assert.assertEquals(25, items.getBatchSize());
+
+    final GeneratedEntity stockItemEntity = this.findBy(e -> "StockItem".equals(e.getName()));
+    final RelationInfo warehouse = stockItemEntity.findAttribute("warehouse").get().getRelationInfo();
+    Assert.assertEquals(RelationInfo.FetchType.EAGER, warehouse.getFetchType());
+    Assert.assertFalse(warehouse.isIndexed());
+    Assert.assertTrue(stockItemEntity.getIndexes().isEmpty());
+  }
+
+  @Test(expected = EntityGeneratorException.class)
+  public void generateEntitiesInvalidFetchMode() {
+    final Collection<String> invalidFetchModeSchema = this.classpathEntitiesSchemaScanner
+        .findEntitySchemas("entitiesWithInvalidFetchMode\\.json");
+    final Collection<InputStream> inputStreams = this.classpathEntitiesSchemaScanner
+        .retrieveInputStreamsToResources(invalidFetchModeSchema);
+    new EntityGenerator().generateEntities(inputStreams);
+  }
+
+  @Test
+  public void generateEntitiesIndexes() {
+    final Collection<InputStream> inputStreams = this.classpathEntitiesSchemaScanner
+        .retrieveInputStreamsToResources(
+            this.classpathEntitiesSchemaScanner.findEntitySchemas("indexedEntities\\.json"));
+    this.generatedEntities = new EntityGenerator().generateEntities(inputStreams);
+
+    final GeneratedEntity warehouseEntity = this.findBy(e -> "Warehouse".equals(e.getName()));
+    final GeneratedEntity.Index codeIndex = warehouseEntity.getIndexes().iterator().next();
+    Assert.assertEquals("uk_warehouses_code", codeIndex.getName());
+    Assert.assertTrue(codeIndex.isUnique());
+
+    //  The composite index starts with the foreign key column, so the column doesn't need an index of its own.
+    final GeneratedEntity stockItemEntity = this.findBy(e -> "StockItem".equals(e.getName()));
+    Assert.assertEquals(2, stockItemEntity.getIndexes().size());
+    final GeneratedEntity.Index compositeIndex = stockItemEntity.getIndexes().iterator().next();
+    Assert.assertEquals("idx_stock_items_warehouse_id_quantity", compositeIndex.getName());
+    Assert.assertEquals("warehouse_id, quantity DESC", compositeIndex.getColumnList());
+    Assert.assertEquals("quantity > 0", stockItemEntity.getIndexes().stream()
+        .filter(i -> "idx_stock_items_in_stock".equals(i.getName())).findFirst().get().getWhere());
+  }
+
+  @Test(expected = EntityGeneratorException.class)
+  public void generateEntitiesInvalidIndex() {
+    final Collection<String> invalidIndexSchema = this.classpathEntitiesSchemaScanner
+        .findEntitySchemas("entitiesWithInvalidIndex\\.json");
+    final Collection<InputStream> inputStreams = this.classpathEntitiesSchemaScanner
+        .retrieveInputStreamsToResources(invalidIndexSchema);
+    new EntityGenerator().generateEntities(inputStreams);
+  }
+
+  @Test
+  public void generateEntitiesIdentity() {
+    final Collection<InputStream> inputStreams = this.classpathEntitiesSchemaScanner
+        .retrieveInputStreamsToResources(
+            this.classpathEntitiesSchemaScanner.findEntitySchemas("identityEntities\\.json"));
+    this.generatedEntities = new EntityGenerator().generateEntities(inputStreams);
+
+    //  Natural key flags imply the natural key identity, unless the entity declares its identity.
+    final GeneratedEntity countryEntity = this.findBy(e -> "Country".equals(e.getName()));
+    Assert.assertEquals(GeneratedEntity.Identity.NATURAL_KEY, countryEntity.getIdentity());
+    Assert.assertEquals("code", countryEntity.getIdentityAttributes().get(0).getName());
+
+    final GeneratedEntity cityEntity = this.findBy(e -> "City".equals(e.getName()));
+    Assert.assertEquals(GeneratedEntity.Identity.PRIMARY_KEY, cityEntity.getIdentity());
+    Assert.assertEquals(1, cityEntity.getIdentityAttributes().size());
+    Assert.assertEquals("id", cityEntity.getIdentityAttributes().get(0).getName());
+
+    final GeneratedEntity districtEntity = this.findBy(e -> "District".equals(e.getName()));
+    Assert.assertEquals(2, districtEntity.getIdentityAttributes().size());
+    Assert.assertTrue(districtEntity.getIdentityAttributes().stream().allMatch(Attribute::isPrimitive));
+  }
+
+  @Test(expected = EntityGeneratorException.class)
+  public void generateEntitiesInvalidIdentity() {
+    final Collection<String> invalidIdentitySchema = this.classpathEntitiesSchemaScanner
+        .findEntitySchemas("entitiesWithInvalidIdentity\\.json");
+    final Collection<InputStream> inputStreams = this.classpathEntitiesSchemaScanner
+        .retrieveInputStreamsToResources(invalidIdentitySchema);
+    new EntityGenerator().generateEntities(inputStreams);
+  }
+
+  @Test
+  public void generateEntitiesFetchProfiles() {
+    final Collection<InputStream> inputStreams = this.classpathEntitiesSchemaScanner
+        .retrieveInputStreamsToResources(
+            this.classpathEntitiesSchemaScanner.findEntitySchemas("fetchProfileEntities\\.json"));
+    this.generatedEntities = new EntityGenerator().generateEntities(inputStreams);
+
+    //  Paths which share a prefix share its node.
+    final GeneratedEntity authorEntity = this.findBy(e -> "Author".equals(e.getName()));
+    final GeneratedEntity.FetchProfile withBooks = authorEntity.getFetchProfiles().iterator().next();
+    Assert.assertEquals("Author.withBooks", withBooks.getGraphName());
+    Assert.assertEquals(1, withBooks.getNodes().size());
+    Assert.assertEquals("books", withBooks.getNodes().get(0).getPath());
+    Assert.assertEquals(Arrays.asList("books.reviews", "books.tags"), withBooks.getNodes().get(0).getChildren()
+        .stream().map(GeneratedEntity.FetchNode::getPath).sorted().collect(Collectors.toList()));
+    Assert.assertEquals(1, withBooks.getWarnings().size());
+    Assert.assertTrue(withBooks.getWarnings().get(0).contains("several bags [books, books.reviews]"));
+
+    //  Without paths, relations are fetched down to the depth, but never back to the entity.
+    final GeneratedEntity.FetchProfile summary = new ArrayList<>(authorEntity.getFetchProfiles()).get(1);
+    Assert.assertEquals(Arrays.asList("awards", "books"), summary.getNodes().stream()
+        .map(GeneratedEntity.FetchNode::getPath).sorted().collect(Collectors.toList()));
+    Assert.assertTrue(summary.getSubgraphs().isEmpty());
+
+    final GeneratedEntity bookEntity = this.findBy(e -> "Book".equals(e.getName()));
+    final GeneratedEntity.FetchProfile withTags = bookEntity.getFetchProfiles().iterator().next();
+    Assert.assertEquals(2, withTags.getNodes().size());
+    Assert.assertTrue(withTags.getWarnings().isEmpty());
+  }
+
+  @Test(expected = EntityGeneratorException.class)
+  public void generateEntitiesInvalidFetchProfile() {
+    final Collection<InputStream> inputStreams = this.classpathEntitiesSchemaScanner
+        .retrieveInputStreamsToResources(
+            this.classpathEntitiesSchemaScanner.findEntitySchemas("entitiesWithInvalidFetchProfile\\.json"));
+    new EntityGenerator().generateEntities(inputStreams);
+  }
+
+  @Test
+  public void generateModuleEntities() {
+    final List<SchemaSource> ownedSources = this.classpathEntitiesSchemaScanner
+        .retrieveSchemaSources(this.classpathEntitiesSchemaScanner.findEntitySchemas("moduleEntities\\.json"));
+    final List<SchemaSource> dependencySources = this.classpathEntitiesSchemaScanner
+        .retrieveSchemaSources(this.classpathEntitiesSchemaScanner.findEntitySchemas());
+    this.generatedEntities = new EntityGenerator().generateModuleEntities(ownedSources, dependencySources);
+
+    Assert.assertEquals(Arrays.asList("Driver", "Shipment"), this.generatedEntities.stream()
+        .filter(e -> !e.isExternal()).map(GeneratedEntity::getName).sorted().collect(Collectors.toList()));
+
+    //  Roots are resolved whole, along with their extensions.
+    final GeneratedEntity driverEntity = this.findBy(e -> "Driver".equals(e.getName()));
+    Assert.assertEquals(Arrays.asList("dateOfBirth", "id", "licenseNumber", "password", "salary", "shipments",
+        "username"), driverEntity.getAttributes().stream().map(Attribute::getName).sorted()
+        .collect(Collectors.toList()));
+    Assert.assertTrue(driverEntity.getRoot().isExternal());
+
+    //  Order is a stub, which is reached through the fetch profile of Shipment - and so are its relations.
+    final GeneratedEntity orderEntity = this.findBy(e -> "Order".equals(e.getName()));
+    Assert.assertTrue(orderEntity.isExternal());
+    Assert.assertEquals(Arrays.asList("customer", "deliveryAddress", "id", "product", "shipments"), orderEntity
+        .getAttributes().stream().map(Attribute::getName).sorted().collect(Collectors.toList()));
+    Assert.assertFalse(this.findBy(e -> "Product".equals(e.getName())).findAttribute("name").isPresent());
+    Assert.assertEquals("order_id", this.findBy(e -> "Shipment".equals(e.getName())).findAttribute("order").get()
+        .getRelationInfo().getForeignKeyColumn());
+    Assert.assertEquals(1, this.findBy(e -> "Shipment".equals(e.getName())).getFetchProfiles().size());
+
+    //  Entities of the module are the same as if the whole schema set has been resolved.
+    final List<SchemaSource> allSources = new ArrayList<>(ownedSources);
+    allSources.addAll(dependencySources);
+    final Collection<GeneratedEntity> allEntities = new EntityGenerator().generateEntitiesFromSources(allSources);
+    final SourceFileGenerator sourceFileGenerator = new SourceFileGenerator(new FreemarkerGenerator());
+    for (final String name : Arrays.asList("Driver", "Shipment")) {
+      Assert.assertEquals(sourceFileGenerator.generateSourceFile(allEntities.stream()
+              .filter(e -> name.equals(e.getName())).findFirst().get()),
+          sourceFileGenerator.generateSourceFile(this.findBy(e -> name.equals(e.getName()))));
+    }
+  }
+
+  @Test(expected = EntityGeneratorException.class)
+  public void generateModuleEntitiesUnknownRelationTarget() {
+    new EntityGenerator().generateModuleEntities(this.classpathEntitiesSchemaScanner.retrieveSchemaSources(
+        this.classpathEntitiesSchemaScanner.findEntitySchemas("moduleEntities\\.json")), Collections.emptyList());
+  }
+
+  /**
+   * Generates entities of the given schemas, and renders their sources and a snapshot of the model.
+   *
+   * @param schemas Resource paths of schemas.
+   * @param ioConcurrency Number of schemas read at once.
+   * @return Rendered sources, followed by the snapshot.
+   */
+  private byte[] renderModel(final List<String> schemas, final int ioConcurrency) throws IOException {
+    try (final BlockingIoExecutor ioExecutor = new BlockingIoExecutor(ioConcurrency)) {
+      return this.renderModel(new EntityGenerator().generateEntitiesFromSources(this.classpathEntitiesSchemaScanner
+          .loadSchemaSources(schemas, ioExecutor)));
+    }
+  }
+
+  /**
+   * Generates entities of the given schemas, passed as unnamed streams, and renders them.
+   *
+   * @param schemas Resource paths of schemas, or contents of schemas.
+   * @return Rendered sources, followed by the snapshot.
+   */
+  private byte[] renderUnnamedModel(final List<String> schemas) throws IOException {
+    return this.renderModel(new EntityGenerator().generateEntities(schemas
+        .stream()
+        .map(s -> s.startsWith("{") ? new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8))
+            : this.getClass().getClassLoader().getResourceAsStream(s))
+        .collect(Collectors.toList())));
+  }
+
+  /**
+   * Renders sources of the given entities, and a snapshot of the model.
+   *
+   * @param entities Entities to render.
+   * @return Rendered sources, followed by the snapshot.
+   */
+  private byte[] renderModel(final Collection<GeneratedEntity> entities) throws IOException {
+    final SourceFileGenerator sourceFileGenerator = new SourceFileGenerator(new FreemarkerGenerator());
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    for (final String source : entities.parallelStream().map(sourceFileGenerator::generateSourceFile)
+        .collect(Collectors.toList())) {
+      outputStream.write(source.getBytes(StandardCharsets.UTF_8));
+    }
+    new EntityModelSnapshot().write(entities, outputStream);
+    return outputStream.toByteArray();
+  }
+
+  @Test
+  public void generateEntitiesDeterministically() throws IOException {
+    final List<String> schemas = Arrays.asList("core-entities.json", "secondary-entities.json",
+        "identityEntities.json", "fetchProfileEntities.json", "indexedEntities.json", "jdbcEntities.json");
+    final byte[] expected = this.renderModel(schemas, 1);
+
+    //  Both extensions add an attribute to the same entity, so the order of their schemas matters.
+    final List<String> unnamedSchemas = new ArrayList<>(schemas);
+    unnamedSchemas.add(String.format(USER_EXTENSION, "nickname"));
+    unnamedSchemas.add(String.format(USER_EXTENSION, "avatarUrl"));
+    final byte[] expectedUnnamed = this.renderUnnamedModel(unnamedSchemas);
+
+    final Random random = new Random(7L);
+    for (int run = 2; run <= 8; run++) {
+      final List<String> shuffledSchemas = new ArrayList<>(schemas);
+      Collections.shuffle(shuffledSchemas, random);
+      Assert.assertArrayEquals("Schemas: " + shuffledSchemas, expected, this.renderModel(shuffledSchemas, run));
+
+      Collections.shuffle(unnamedSchemas, random);
+      Assert.assertArrayEquals("Unnamed schemas: " + unnamedSchemas, expectedUnnamed, this
+          .renderUnnamedModel(unnamedSchemas));
+    }
+  }
+}
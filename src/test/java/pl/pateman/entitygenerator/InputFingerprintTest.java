@@ -0,0 +1,136 @@
+package pl.pateman.entitygenerator;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import pl.pateman.entitygenerator.generate.impl.FreemarkerGenerator;
+
+public class InputFingerprintTest {
+
+  private static final List<SchemaSource> SCHEMA_SOURCES = Arrays.asList(SchemaSource.classpath("core-entities.json"),
+      SchemaSource.classpath("secondary-entities.json"));
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private static void writeJar(final Path jar, final long time, final String... names) throws IOException {
+    try (final ZipOutputStream outputStream = new ZipOutputStream(Files.newOutputStream(jar))) {
+      for (final String name : names) {
+        final ZipEntry entry = new ZipEntry(name);
+        entry.setTime(time);
+        outputStream.putNextEntry(entry);
+        outputStream.write(name.endsWith("Generator.class") ? new byte[]{1, 2, 4} : new byte[]{4});
+        outputStream.closeEntry();
+      }
+    }
+  }
+
+  private static String fingerprintOf(final List<SchemaSource> schemaSources, final Map<String, String> options)
+      throws IOException {
+    final FreemarkerGenerator freemarkerGenerator = new FreemarkerGenerator();
+    return new InputFingerprint()
+        .addGeneratorVersion()
+        .addGenerator(freemarkerGenerator, Collections.singletonList(freemarkerGenerator.getTemplateName()))
+        .addOptions(options)
+        .addSchemas(schemaSources)
+        .compute();
+  }
+
+  @Test
+  public void stableFingerprint() throws IOException {
+    final Map<String, String> options = new LinkedHashMap<>();
+    options.put("shard", "0/1");
+    options.put("lint", "sarif");
+    final String fingerprint = fingerprintOf(SCHEMA_SOURCES, options);
+    Assert.assertEquals(64, fingerprint.length());
+
+    //  Neither the order of schemas nor the order of options matters.
+    final Map<String, String> reorderedOptions = new LinkedHashMap<>();
+    reorderedOptions.put("lint", "sarif");
+    reorderedOptions.put("shard", "0/1");
+    final List<SchemaSource> reorderedSources = Arrays.asList(SCHEMA_SOURCES.get(1), SCHEMA_SOURCES.get(0));
+    Assert.assertEquals(fingerprint, fingerprintOf(reorderedSources, reorderedOptions));
+
+    Assert.assertNotEquals(fingerprint, fingerprintOf(SCHEMA_SOURCES, Collections.singletonMap("shard", "0/1")));
+    Assert.assertNotEquals(fingerprint, fingerprintOf(SCHEMA_SOURCES.subList(0, 1), options));
+  }
+
+  @Test
+  public void contentChanges() throws IOException {
+    final String schema = "{\"entities\": []}";
+    final String fingerprint = new InputFingerprint()
+        .addSchemas(Collections.singletonList(SchemaSource.of("notes", schema)))
+        .compute();
+
+    Assert.assertNotEquals(fingerprint, new InputFingerprint()
+        .addSchemas(Collections.singletonList(SchemaSource.of("notes", schema + " ")))
+        .compute());
+    Assert.assertNotEquals(fingerprint, new InputFingerprint()
+        .addSchemas(Collections.singletonList(SchemaSource.of("memos", schema)))
+        .compute());
+
+    //  Names of inputs are recorded along with their content.
+    final byte[] template = "${name}".getBytes(StandardCharsets.UTF_8);
+    Assert.assertNotEquals(
+        new InputFingerprint().addContent("a", new ByteArrayInputStream(template)).addProperty("b", "").compute(),
+        new InputFingerprint().addContent("b", new ByteArrayInputStream(template)).addProperty("a", "").compute());
+  }
+
+  @Test
+  public void codeFingerprint() throws IOException {
+    Assert.assertEquals(64, EntityGenerator.getCodeFingerprint().length());
+    Assert.assertSame(EntityGenerator.getCodeFingerprint(), EntityGenerator.getCodeFingerprint());
+
+    //  Classes directories are digested file by file, along with relative paths of the files.
+    final Path classes = this.temporaryFolder.newFolder("classes").toPath();
+    Files.createDirectories(classes.resolve("pl/pateman"));
+    Files.write(classes.resolve("pl/pateman/Generator.class"), new byte[]{1, 2, 3});
+    Files.write(classes.resolve("pl/Names.class"), new byte[]{4});
+    final String fingerprint = Fingerprints.ofPath(classes);
+    Assert.assertEquals(fingerprint, Fingerprints.ofPath(classes));
+
+    Files.write(classes.resolve("pl/pateman/Generator.class"), new byte[]{1, 2, 4});
+    final String changedFingerprint = Fingerprints.ofPath(classes);
+    Assert.assertNotEquals(fingerprint, changedFingerprint);
+
+    Files.move(classes.resolve("pl/Names.class"), classes.resolve("pl/pateman/Names.class"));
+    Assert.assertNotEquals(changedFingerprint, Fingerprints.ofPath(classes));
+
+    //  Other files are digested as a whole.
+    Assert.assertEquals(Fingerprints.of(new byte[]{1, 2, 4}),
+        Fingerprints.ofPath(classes.resolve("pl/pateman/Generator.class")));
+
+    //  JARs are digested entry by entry, so neither timestamps nor the order of entries matter.
+    final Path jar = this.temporaryFolder.getRoot().toPath().resolve("generator.jar");
+    writeJar(jar, 1000L, "pl/pateman/Generator.class", "pl/pateman/Names.class");
+    final String jarFingerprint = Fingerprints.ofPath(jar);
+    writeJar(jar, 2000L, "pl/pateman/Names.class", "pl/pateman/Generator.class");
+    Assert.assertEquals(jarFingerprint, Fingerprints.ofPath(jar));
+    Assert.assertEquals(Fingerprints.ofPath(classes), jarFingerprint);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void computedFingerprint() {
+    final InputFingerprint inputFingerprint = new InputFingerprint().addGeneratorVersion();
+    Assert.assertEquals(inputFingerprint.compute(), inputFingerprint.compute());
+    inputFingerprint.addProperty("name", "value");
+  }
+
+  @Test(expected = IOException.class)
+  public void unknownTemplate() throws IOException {
+    new InputFingerprint().addGenerator(new FreemarkerGenerator(), Collections.singletonList("unknown.ftlh"));
+  }
+}
@@ -0,0 +1,81 @@
+package pl.pateman.entitygenerator;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import pl.pateman.entitygenerator.GeneratedEntity.Attribute;
+
+public class RelationGraphTest {
+
+  private Collection<GeneratedEntity> generatedEntities;
+  private RelationGraph relationGraph;
+
+  private GeneratedEntity findByName(final String name) {
+    return this.generatedEntities.stream().filter(e -> name.equals(e.getName())).findFirst().orElse(null);
+  }
+
+  private static List<String> namesOf(final Collection<Attribute> attributes) {
+    return attributes.stream().map(Attribute::getName).sorted().collect(Collectors.toList());
+  }
+
+  @Before
+  public void buildGraph() {
+    final ClasspathEntitiesSchemaScanner classpathEntitiesSchemaScanner = new ClasspathEntitiesSchemaScanner();
+    this.generatedEntities = new EntityGenerator().generateEntities(classpathEntitiesSchemaScanner
+        .retrieveInputStreamsToResources(classpathEntitiesSchemaScanner.findEntitySchemas("core-entities\\.json")));
+    this.relationGraph = RelationGraph.build(this.generatedEntities);
+  }
+
+  @Test
+  public void adjacency() {
+    final GeneratedEntity order = this.findByName("Order");
+
+    Assert.assertEquals(this.generatedEntities.size(), this.relationGraph.size());
+    Assert.assertEquals(order, this.relationGraph.getEntity(this.relationGraph.indexOf(order)));
+    Assert.assertEquals(Arrays.asList("customer", "deliveryAddress", "product"),
+        namesOf(this.relationGraph.getOutboundRelations(order)));
+    Assert.assertEquals(Arrays.asList("order", "order", "orders"),
+        namesOf(this.relationGraph.getInboundRelations(order)));
+    Assert.assertEquals(3, this.relationGraph.getOutboundIndexes(this.relationGraph.indexOf(order)).length);
+    Assert.assertTrue(this.relationGraph.getOutboundRelations(this.findByName("User")).isEmpty());
+
+    final Attribute orders = this.relationGraph.getInboundRelations(order).stream()
+        .filter(a -> "orders".equals(a.getName())).findFirst().get();
+    Assert.assertEquals(this.findByName("Customer"), this.relationGraph.getOwner(orders));
+    Assert.assertArrayEquals(new int[]{this.relationGraph.indexOf(order)},
+        this.relationGraph.getOutboundIndexes(this.relationGraph.indexOf(this.findByName("Customer"))));
+  }
+
+  @Test
+  public void findByJoinTable() {
+    final List<Attribute> attributes = this.relationGraph.findByJoinTable("order_products");
+
+    Assert.assertEquals(Arrays.asList("order", "product"), namesOf(attributes));
+    Assert.assertTrue(this.relationGraph.findByJoinTable("orders").isEmpty());
+  }
+
+  @Test
+  public void paths() {
+    final GeneratedEntity customer = this.findByName("Customer");
+    final GeneratedEntity product = this.findByName("Product");
+
+    Assert.assertEquals(Arrays.asList("orders", "product"), this.relationGraph.findShortestPath(customer, product)
+        .get().stream().map(Attribute::getName).collect(Collectors.toList()));
+    Assert.assertEquals(Collections.emptyList(), this.relationGraph.findShortestPath(customer, customer).get());
+    Assert.assertFalse(this.relationGraph.findShortestPath(customer, this.findByName("User")).isPresent());
+
+    Assert.assertEquals(Arrays.asList(customer, this.findByName("Order")),
+        this.relationGraph.findReachable(customer, 1));
+    Assert.assertEquals(4, this.relationGraph.findReachable(customer, Integer.MAX_VALUE).size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void missingRelationTarget() {
+    RelationGraph.build(Collections.singletonList(this.findByName("Order")));
+  }
+}
@@ -0,0 +1,57 @@
+package pl.pateman.entitygenerator;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SchemaFileReaderTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path writeFile(final String name, final byte[] content) throws IOException {
+    return Files.write(this.temporaryFolder.getRoot().toPath().resolve(name), content);
+  }
+
+  private static String readAll(final Reader reader) throws IOException {
+    final StringBuilder content = new StringBuilder();
+    final char[] buffer = new char[256];
+    for (int read = reader.read(buffer); read != -1; read = reader.read(buffer)) {
+      content.append(buffer, 0, read);
+    }
+    return content.toString();
+  }
+
+  @Test
+  public void readMappedAndBufferedFiles() throws IOException {
+    final String content = "{\"entities\": [{\"name\": \"Za\u017c\u00f3\u0142\u0107\"}]}";
+    final Path file = this.writeFile("schema.json", content.getBytes(StandardCharsets.UTF_8));
+
+    Assert.assertEquals(content, readAll(new SchemaFileReader().read(file)));
+    Assert.assertEquals(content, readAll(new SchemaFileReader(0).read(file)));
+  }
+
+  @Test
+  public void reuseBuffers() throws IOException {
+    final String large = StringUtils.repeat("{\"name\": \"large\"}", 4096);
+    final Path largeFile = this.writeFile("large.json", large.getBytes(StandardCharsets.UTF_8));
+    final Path smallFile = this.writeFile("small.json", "{}".getBytes(StandardCharsets.UTF_8));
+
+    //  A file which follows a larger one must not see any of its leftovers.
+    final SchemaFileReader schemaFileReader = new SchemaFileReader();
+    Assert.assertEquals(large, readAll(schemaFileReader.read(largeFile)));
+    Assert.assertEquals("{}", readAll(schemaFileReader.read(smallFile)));
+  }
+
+  @Test(expected = IOException.class)
+  public void rejectMalformedInput() throws IOException {
+    new SchemaFileReader().read(this.writeFile("malformed.json", new byte[]{'{', (byte) 0xC3, '}'}));
+  }
+}
@@ -0,0 +1,161 @@
+package pl.pateman.entitygenerator;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import pl.pateman.entitygenerator.EntityRelationSideDescriptor.FetchMode;
+
+public class SchemaParseCacheTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  /**
+   * A schema source which counts how many times it's been opened.
+   */
+  private static final class CountingSchemaSource implements SchemaSource {
+
+    private final SchemaSource delegate;
+    private final AtomicInteger opened = new AtomicInteger();
+
+    private CountingSchemaSource(final SchemaSource delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public String getId() {
+      return this.delegate.getId();
+    }
+
+    @Override
+    public String getFingerprint() throws IOException {
+      return this.delegate.getFingerprint();
+    }
+
+    @Override
+    public OptionalLong getLastModified() {
+      return this.delegate.getLastModified();
+    }
+
+    @Override
+    public Reader open() throws IOException {
+      this.opened.incrementAndGet();
+      return this.delegate.open();
+    }
+  }
+
+  private static Collection<String> entityNames(final Collection<GeneratedEntity> entities) {
+    return entities.stream().map(GeneratedEntity::getName).sorted().collect(Collectors.toList());
+  }
+
+  @Test
+  public void cachedSchemasAreNotParsedAgain() {
+    final SchemaParseCache parseCache = SchemaParseCache.inMemory(16);
+    final EntityGenerator entityGenerator = new EntityGenerator(parseCache);
+    final CountingSchemaSource schemaSource = new CountingSchemaSource(SchemaSource.classpath("core-entities.json"));
+
+    final Collection<GeneratedEntity> parsed = entityGenerator
+        .generateEntitiesFromSources(Collections.singletonList(schemaSource));
+    final Collection<GeneratedEntity> cached = entityGenerator
+        .generateEntitiesFromSources(Collections.singletonList(schemaSource));
+
+    Assert.assertEquals(1, schemaSource.opened.get());
+    Assert.assertEquals(1, parseCache.getMisses());
+    Assert.assertEquals(1, parseCache.getHits());
+    Assert.assertEquals(entityNames(parsed), entityNames(cached));
+  }
+
+  @Test
+  public void cachedSchemasKeepAllValues() throws IOException {
+    final SchemaSource schemaSource = SchemaSource.classpath("fetchStrategyEntities.json");
+    final SchemaParseCache parseCache = SchemaParseCache.inMemory(16);
+    new EntityGenerator(parseCache).generateEntitiesFromSources(Collections.singletonList(schemaSource));
+
+    final EntitySchemaDescriptor schemaDescriptor = parseCache.get(schemaSource.getFingerprint());
+    final EntityDescriptor warehouse = schemaDescriptor.getEntities().iterator().next();
+    Assert.assertEquals("warehouse_ids", warehouse.getSequenceName());
+    Assert.assertEquals(Integer.valueOf(10), warehouse.getAllocationSize());
+    Assert.assertEquals(Collections.singletonList("NOT_NULL"),
+        new ArrayList<>(new ArrayList<>(warehouse.getAttributes()).get(1).getFlags()));
+    Assert.assertNull(warehouse.getRoot());
+    Assert.assertNull(warehouse.getSchemaName());
+
+    final EntityRelationDescriptor relation = schemaDescriptor.getRelations().iterator().next();
+    Assert.assertFalse(relation.isIndexed());
+    Assert.assertEquals(FetchMode.SUBSELECT, relation.getSource().getFetchMode());
+    Assert.assertEquals(Integer.valueOf(25), relation.getSource().getBatchSize());
+    Assert.assertNull(relation.getTarget().getBatchSize());
+
+    final SchemaDescriptorCodec codec = new SchemaDescriptorCodec(EntityGenerator.getVersion());
+    final byte[] encoded = codec.encode(schemaDescriptor);
+    Assert.assertArrayEquals(encoded, codec.encode(codec.decode(encoded)));
+  }
+
+  @Test
+  public void schemasAreCachedOnDisk() throws IOException {
+    final Path directory = this.temporaryFolder.getRoot().toPath().resolve("cache");
+    final SchemaSource schemaSource = SchemaSource.classpath("identityEntities.json");
+    new EntityGenerator(SchemaParseCache.onDisk(directory, 16))
+        .generateEntitiesFromSources(Collections.singletonList(schemaSource));
+    final Path file = directory.resolve(schemaSource.getFingerprint() + SchemaParseCache.FILE_EXTENSION);
+    Assert.assertTrue(Files.isRegularFile(file));
+
+    //  Another cache (e.g. of the next build) reads the file.
+    final SchemaParseCache parseCache = SchemaParseCache.onDisk(directory, 16);
+    final Collection<GeneratedEntity> entities = new EntityGenerator(parseCache)
+        .generateEntitiesFromSources(Collections.singletonList(schemaSource));
+    Assert.assertEquals(1, parseCache.getHits());
+    Assert.assertEquals(GeneratedEntity.Identity.NATURAL_KEY,
+        entities.stream().filter(e -> "Country".equals(e.getName())).findFirst().get().getIdentity());
+
+    //  Unreadable entries are parsed again and replaced.
+    Files.write(file, new byte[]{1, 2, 3});
+    final SchemaParseCache staleCache = SchemaParseCache.onDisk(directory, 16);
+    new EntityGenerator(staleCache).generateEntitiesFromSources(Collections.singletonList(schemaSource));
+    Assert.assertEquals(1, staleCache.getMisses());
+    Assert.assertNotNull(SchemaParseCache.onDisk(directory, 16).get(schemaSource.getFingerprint()));
+  }
+
+  @Test
+  public void schemasCachedByAnotherGeneratorAreParsedAgain() throws IOException {
+    final Path directory = this.temporaryFolder.getRoot().toPath().resolve("cache");
+    final SchemaSource schemaSource = SchemaSource.classpath("identityEntities.json");
+    final SchemaParseCache parseCache = SchemaParseCache.onDisk(directory, 16);
+    new EntityGenerator(parseCache).generateEntitiesFromSources(Collections.singletonList(schemaSource));
+    final Path file = directory.resolve(schemaSource.getFingerprint() + SchemaParseCache.FILE_EXTENSION);
+
+    //  Same layout of descriptors, but a generator which may have validated them differently.
+    final SchemaDescriptorCodec otherCodec = new SchemaDescriptorCodec(EntityGenerator.getVersion() + ":0123abcd");
+    Files.write(file, otherCodec.encode(parseCache.get(schemaSource.getFingerprint())));
+    final SchemaParseCache nextCache = SchemaParseCache.onDisk(directory, 16);
+    Assert.assertNull(nextCache.get(schemaSource.getFingerprint()));
+    Assert.assertEquals(1, nextCache.getMisses());
+
+    new EntityGenerator(nextCache).generateEntitiesFromSources(Collections.singletonList(schemaSource));
+    Assert.assertNotNull(SchemaParseCache.onDisk(directory, 16).get(schemaSource.getFingerprint()));
+  }
+
+  @Test
+  public void leastRecentlyUsedSchemasAreEvicted() throws IOException {
+    final SchemaSource first = SchemaSource.classpath("core-entities.json");
+    final SchemaSource second = SchemaSource.classpath("fetchStrategyEntities.json");
+    final SchemaParseCache parseCache = SchemaParseCache.inMemory(1);
+    final EntityGenerator entityGenerator = new EntityGenerator(parseCache);
+    entityGenerator.generateEntitiesFromSources(Collections.singletonList(first));
+    entityGenerator.generateEntitiesFromSources(Collections.singletonList(second));
+
+    Assert.assertNull(parseCache.get(first.getFingerprint()));
+    Assert.assertNotNull(parseCache.get(second.getFingerprint()));
+  }
+}
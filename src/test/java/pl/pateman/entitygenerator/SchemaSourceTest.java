@@ -0,0 +1,107 @@
+package pl.pateman.entitygenerator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Scanner;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import pl.pateman.entitygenerator.exception.EntityGeneratorException;
+
+public class SchemaSourceTest {
+
+  private static final String SCHEMA = "{\"entities\": [{\"name\": \"Note\", \"deployment\": \"notes\", "
+      + "\"classFile\": \"pl.pateman.entitygenerator.entity.NoteEntity\", \"attributes\": [{\"name\": \"id\", "
+      + "\"type\": \"java.lang.Long\", \"flags\": [\"PRIMARY_KEY\"]}]}]}";
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private static String readAll(final Reader reader) throws IOException {
+    try (final Scanner scanner = new Scanner(reader).useDelimiter("\\A")) {
+      return scanner.hasNext() ? scanner.next() : "";
+    }
+  }
+
+  private static String readResource(final String resourcePath) throws IOException {
+    try (final InputStream inputStream = SchemaSourceTest.class.getClassLoader().getResourceAsStream(resourcePath)) {
+      return readAll(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+  }
+
+  @Test
+  public void classpathSource() throws IOException {
+    final SchemaSource schemaSource = SchemaSource.classpath("core-entities.json");
+    final String content = readResource("core-entities.json");
+
+    Assert.assertEquals("core-entities.json", schemaSource.getId());
+    Assert.assertEquals(content, readAll(schemaSource.open()));
+    Assert.assertEquals(SchemaSource.of("core", content).getFingerprint(), schemaSource.getFingerprint());
+    Assert.assertTrue(schemaSource.getLastModified().isPresent());
+  }
+
+  @Test
+  public void fileSource() throws IOException {
+    final Path file = this.temporaryFolder.getRoot().toPath().resolve("notes-entities.json");
+    Files.write(file, SCHEMA.getBytes(StandardCharsets.UTF_8));
+    final SchemaSource schemaSource = SchemaSource.file(file);
+
+    Assert.assertEquals(file.toString(), schemaSource.getId());
+    Assert.assertEquals(SCHEMA, readAll(schemaSource.open()));
+    Assert.assertEquals(Files.getLastModifiedTime(file).toMillis(), schemaSource.getLastModified().getAsLong());
+
+    //  The identifier stays the same when the content changes, but the fingerprint does not.
+    final String fingerprint = schemaSource.getFingerprint();
+    Assert.assertEquals(64, fingerprint.length());
+    Files.write(file, SCHEMA.replace("notes", "memos").getBytes(StandardCharsets.UTF_8));
+    Assert.assertNotEquals(fingerprint, schemaSource.getFingerprint());
+    Assert.assertEquals(SchemaSource.file(file), schemaSource);
+  }
+
+  @Test
+  public void inMemorySource() throws IOException {
+    final SchemaSource schemaSource = SchemaSource.of("notes", SCHEMA);
+
+    Assert.assertEquals(SCHEMA, readAll(schemaSource.open()));
+    Assert.assertFalse(schemaSource.getLastModified().isPresent());
+    Assert.assertEquals(SchemaSource.of("other", SCHEMA).getFingerprint(), schemaSource.getFingerprint());
+  }
+
+  @Test
+  public void generateEntitiesFromSources() {
+    final Collection<String> resourcePaths = new ClasspathEntitiesSchemaScanner().findEntitySchemas();
+    final Collection<SchemaSource> schemaSources = new ClasspathEntitiesSchemaScanner()
+        .retrieveSchemaSources(resourcePaths);
+    final Collection<GeneratedEntity> generatedEntities = new EntityGenerator()
+        .generateEntitiesFromSources(schemaSources);
+    Assert.assertEquals(6, generatedEntities.size());
+
+    final GeneratedEntity noteEntity = new EntityGenerator()
+        .generateEntitiesFromSources(Arrays.asList(SchemaSource.of("notes", SCHEMA)))
+        .iterator()
+        .next();
+    Assert.assertEquals("Note", noteEntity.getName());
+    Assert.assertTrue(noteEntity.getSchemaFiles().contains("notes"));
+  }
+
+  @Test
+  public void missingSourceIsReportedWhenParsed() {
+    //  Creating a source doesn't touch the resource.
+    final SchemaSource missing = SchemaSource.classpath("missing-entities.json");
+    try {
+      new EntityGenerator().generateEntitiesFromSources(Collections.singletonList(missing));
+      Assert.fail("A missing schema should be reported");
+    } catch (final EntityGeneratorException e) {
+      Assert.assertTrue(e.getMessage().contains("missing-entities.json"));
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package pl.pateman.entitygenerator;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import pl.pateman.entitygenerator.exception.SourceFileGeneratorException;
+import pl.pateman.entitygenerator.generate.impl.FreemarkerGenerator;
+
+public class SourceFileGeneratorTest {
+
+  private Collection<GeneratedEntity> generatedEntities;
+
+  private GeneratedEntity findBy(final Predicate<GeneratedEntity> predicate) {
+    return this.generatedEntities.stream().filter(predicate).findFirst().orElse(null);
+  }
+
+  @Before
+  public void initializeTestData() {
+    final ClasspathEntitiesSchemaScanner classpathEntitiesSchemaScanner = new ClasspathEntitiesSchemaScanner();
+    final Collection<String> entitySchemas = classpathEntitiesSchemaScanner.findEntitySchemas();
+    final Collection<InputStream> streams = classpathEntitiesSchemaScanner
+        .retrieveInputStreamsToResources(entitySchemas);
+    this.generatedEntities = new EntityGenerator().generateEntities(streams);
+  }
+
+  @Test
+  public void generateSourceFile() {
+    final GeneratedEntity userEntity = this.findBy(e -> "User".equals(e.getName()));
+    final String source = new SourceFileGenerator(new FreemarkerGenerator()).generateSourceFile(userEntity);
+
+    Assert.assertTrue(source.startsWith("package pl.pateman.entitygenerator.entity;"));
+    Assert.assertTrue(source.contains("@Table(name = \"users\")"));
+    Assert.assertTrue(source.contains("private Long id;"));
+  }
+
+  @Test
+  public void generateSourceFileFetchStrategies() {
+    final GeneratedEntity orderEntity = this.findBy(e -> "Order".equals(e.getName()));
+    final String orderSource = new SourceFileGenerator(new FreemarkerGenerator()).generateSourceFile(orderEntity);
+
+    Assert.assertTrue(orderSource.contains("@Index(name = \"idx_orders_custId\", columnList = \"custId\")"));
+    Assert.assertTrue(orderSource.contains("allocationSize = 50"));
+    Assert.assertTrue(orderSource.contains("@ManyToOne(fetch = FetchType.LAZY)"));
+
+    final ClasspathEntitiesSchemaScanner classpathEntitiesSchemaScanner = new ClasspathEntitiesSchemaScanner();
+    this.generatedEntities = new EntityGenerator().generateEntities(classpathEntitiesSchemaScanner
+        .retrieveInputStreamsToResources(
+            classpathEntitiesSchemaScanner.findEntitySchemas("fetchStrategyEntities\\.json")));
+    final String warehouseSource = new SourceFileGenerator(new FreemarkerGenerator())
+        .generateSourceFile(this.findBy(e -> "Warehouse".equals(e.getName())));
+
+    Assert.assertTrue(warehouseSource.contains("private boolean active;"));
+    Assert.assertTrue(warehouseSource.contains("@OneToMany(mappedBy=\"warehouse\", fetch = FetchType.LAZY)"));
+    Assert.assertTrue(warehouseSource.contains("@org.hibernate.annotations.BatchSize(size = 25)"));
+    Assert.assertTrue(warehouseSource
+        .contains("@org.hibernate.annotations.Fetch(org.hibernate.annotations.FetchMode.SUBSELECT)"));
+  }
+
+  @Test
+  public void generateSourceFileIdentity() {
+    final String userSource = new SourceFileGenerator(new FreemarkerGenerator())
+        .generateSourceFile(this.findBy(e -> "User".equals(e.getName())));
+    Assert.assertFalse(userSource.contains("public boolean equals(Object o)"));
+
+    final ClasspathEntitiesSchemaScanner classpathEntitiesSchemaScanner = new ClasspathEntitiesSchemaScanner();
+    this.generatedEntities = new EntityGenerator().generateEntities(classpathEntitiesSchemaScanner
+        .retrieveInputStreamsToResources(classpathEntitiesSchemaScanner.findEntitySchemas("identityEntities\\.json")));
+    final SourceFileGenerator sourceFileGenerator = new SourceFileGenerator(new FreemarkerGenerator());
+
+    final String citySource = sourceFileGenerator.generateSourceFile(this.findBy(e -> "City".equals(e.getName())));
+    Assert.assertTrue(citySource.contains("return getId() != null && getId().equals(other.getId());"));
+    Assert.assertTrue(citySource.contains("return CityEntity.class.hashCode();"));
+
+    //  The hash code of a natural key is cached, and relations are left out of toString.
+    final String countrySource = sourceFileGenerator
+        .generateSourceFile(this.findBy(e -> "Country".equals(e.getName())));
+    Assert.assertTrue(countrySource.contains("return java.util.Objects.equals(getCode(), other.getCode());"));
+    Assert.assertTrue(countrySource.contains("this.cachedHashCode = result;"));
+    Assert.assertTrue(countrySource.contains("@PostLoad"));
+    Assert.assertTrue(countrySource.contains("+ \"code=\" + code"));
+    Assert.assertFalse(countrySource.contains("cities=\""));
+
+    final String districtSource = sourceFileGenerator
+        .generateSourceFile(this.findBy(e -> "District".equals(e.getName())));
+    Assert.assertTrue(districtSource.contains("Double.compare(getArea(), other.getArea()) == 0"));
+    Assert.assertTrue(districtSource.contains("result = 31 * result + Integer.hashCode(getNumber());"));
+  }
+
+  @Test
+  public void generateSourceFileFetchProfiles() {
+    final ClasspathEntitiesSchemaScanner classpathEntitiesSchemaScanner = new ClasspathEntitiesSchemaScanner();
+    this.generatedEntities = new EntityGenerator().generateEntities(classpathEntitiesSchemaScanner
+        .retrieveInputStreamsToResources(
+            classpathEntitiesSchemaScanner.findEntitySchemas("fetchProfileEntities\\.json")));
+    final String authorSource = new SourceFileGenerator(new FreemarkerGenerator())
+        .generateSourceFile(this.findBy(e -> "Author".equals(e.getName())));
+
+    Assert.assertTrue(authorSource.contains("@NamedEntityGraph(name = \"Author.withBooks\", attributeNodes = "
+        + "{@NamedAttributeNode(value = \"books\", subgraph = \"books\")}, subgraphs = {"));
+    Assert.assertTrue(authorSource.contains("@NamedSubgraph(name = \"books\", attributeNodes = "
+        + "{@NamedAttributeNode(value = \"reviews\")"));
+    Assert.assertTrue(authorSource.contains("@NamedEntityGraph(name = \"Author.summary\""));
+  }
+
+  @Test
+  public void generateSourceFilesMultipleTemplates() {
+    final FreemarkerGenerator freemarkerGenerator = new FreemarkerGenerator();
+    final SourceFileGenerator sourceFileGenerator = new SourceFileGenerator(Arrays.asList(
+        new SourceFileTemplate("entity", freemarkerGenerator),
+        new SourceFileTemplate("dto", (entity, params) -> params.get("outputPackageName") + "." + params
+            .get("outputClassName") + ":" + params.get("packageName"), "{package}.dto.{name}Dto")));
+
+    final GeneratedEntity userEntity = this.findBy(e -> "User".equals(e.getName()));
+    final List<GeneratedSourceFile> sourceFiles = sourceFileGenerator.generateSourceFiles(userEntity);
+
+    Assert.assertEquals(2, sourceFiles.size());
+    Assert.assertEquals("entity", sourceFiles.get(0).getTemplateName());
+    Assert.assertEquals("pl.pateman.entitygenerator.entity.UserEntity", sourceFiles.get(0).getClassName());
+    Assert.assertEquals(sourceFileGenerator.generateSourceFile(userEntity), sourceFiles.get(0).getSource());
+
+    Assert.assertEquals("dto", sourceFiles.get(1).getTemplateName());
+    Assert.assertEquals("pl.pateman.entitygenerator.entity.dto.UserDto", sourceFiles.get(1).getClassName());
+    Assert.assertEquals("pl.pateman.entitygenerator.entity.dto.UserDto:pl.pateman.entitygenerator.entity",
+        sourceFiles.get(1).getSource());
+  }
+
+  @Test(expected = SourceFileGeneratorException.class)
+  public void generateSourceFilesFailingTemplate() {
+    final SourceFileGenerator sourceFileGenerator = new SourceFileGenerator(Arrays.asList(
+        new SourceFileTemplate("entity", new FreemarkerGenerator()),
+        new SourceFileTemplate("broken", (entity, params) -> {
+          throw new IllegalStateException("Broken template");
+        })));
+    sourceFileGenerator.generateSourceFiles(this.findBy(e -> "User".equals(e.getName())));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void duplicateTemplateNames() {
+    final FreemarkerGenerator freemarkerGenerator = new FreemarkerGenerator();
+    new SourceFileGenerator(Arrays.asList(new SourceFileTemplate("entity", freemarkerGenerator),
+        new SourceFileTemplate("entity", freemarkerGenerator)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void noTemplates() {
+    new SourceFileGenerator(Collections.emptyList());
+  }
+}
@@ -0,0 +1,137 @@
+package pl.pateman.entitygenerator.compile;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import javax.persistence.Entity;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import pl.pateman.entitygenerator.ClasspathEntitiesSchemaScanner;
+import pl.pateman.entitygenerator.EntityGenerator;
+import pl.pateman.entitygenerator.GeneratedEntity;
+import pl.pateman.entitygenerator.GeneratedSourceFile;
+import pl.pateman.entitygenerator.SourceFileGenerator;
+import pl.pateman.entitygenerator.SourceFileTemplate;
+import pl.pateman.entitygenerator.generate.impl.FreemarkerGenerator;
+
+public class SourceCompilationVerifierTest {
+
+  private Collection<GeneratedEntity> generatedEntities;
+  private SourceCompilationVerifier verifier;
+
+  private List<GeneratedSourceFile> generateSourceFiles(final SourceFileGenerator sourceFileGenerator) {
+    final List<GeneratedSourceFile> sourceFiles = new ArrayList<>();
+    this.generatedEntities.forEach(e -> sourceFiles.addAll(sourceFileGenerator.generateSourceFiles(e)));
+    return sourceFiles;
+  }
+
+  @Before
+  public void initializeTestData() throws Exception {
+    final ClasspathEntitiesSchemaScanner classpathEntitiesSchemaScanner = new ClasspathEntitiesSchemaScanner();
+    final Map<String, InputStream> streams = classpathEntitiesSchemaScanner
+        .retrieveNamedInputStreamsToResources(classpathEntitiesSchemaScanner.findEntitySchemas());
+    this.generatedEntities = new EntityGenerator().generateEntities(streams);
+
+    //  Generated entities need the persistence API, and a small batch size makes sure that batches reference each
+    //  other.
+    final String persistenceApi = new File(Entity.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+        .getPath();
+    this.verifier = new SourceCompilationVerifier(persistenceApi, 2, ForkJoinPool.commonPool());
+  }
+
+  @Test
+  public void verifyGeneratedEntities() {
+    final List<GeneratedSourceFile> sourceFiles = this
+        .generateSourceFiles(new SourceFileGenerator(new FreemarkerGenerator()));
+    final List<CompilationDiagnostic> errors = this.verifier.verify(sourceFiles)
+        .stream()
+        .filter(CompilationDiagnostic::isError)
+        .collect(Collectors.toList());
+
+    Assert.assertTrue(errors.toString(), errors.isEmpty());
+  }
+
+  @Test
+  public void verifyIdentityEntities() {
+    final ClasspathEntitiesSchemaScanner classpathEntitiesSchemaScanner = new ClasspathEntitiesSchemaScanner();
+    this.generatedEntities = new EntityGenerator().generateEntities(classpathEntitiesSchemaScanner
+        .retrieveNamedInputStreamsToResources(
+            classpathEntitiesSchemaScanner.findEntitySchemas("identityEntities\\.json")));
+    final List<CompilationDiagnostic> errors = this.verifier
+        .verify(this.generateSourceFiles(new SourceFileGenerator(new FreemarkerGenerator())))
+        .stream()
+        .filter(CompilationDiagnostic::isError)
+        .collect(Collectors.toList());
+
+    Assert.assertTrue(errors.toString(), errors.isEmpty());
+  }
+
+  @Test
+  public void verifyFetchProfileEntities() {
+    final ClasspathEntitiesSchemaScanner classpathEntitiesSchemaScanner = new ClasspathEntitiesSchemaScanner();
+    this.generatedEntities = new EntityGenerator().generateEntities(classpathEntitiesSchemaScanner
+        .retrieveNamedInputStreamsToResources(
+            classpathEntitiesSchemaScanner.findEntitySchemas("fetchProfileEntities\\.json")));
+    final List<CompilationDiagnostic> errors = this.verifier
+        .verify(this.generateSourceFiles(new SourceFileGenerator(new FreemarkerGenerator())))
+        .stream()
+        .filter(CompilationDiagnostic::isError)
+        .collect(Collectors.toList());
+
+    Assert.assertTrue(errors.toString(), errors.isEmpty());
+  }
+
+  @Test
+  public void verifyBrokenSources() {
+    final FreemarkerGenerator freemarkerGenerator = new FreemarkerGenerator();
+    final SourceFileGenerator sourceFileGenerator = new SourceFileGenerator(Arrays.asList(
+        new SourceFileTemplate("entity", freemarkerGenerator),
+        new SourceFileTemplate("broken", (entity, params) -> "package " + params.get("outputPackageName")
+            + ";\n\npublic class " + params.get("outputClassName") + " {\n  private Unknown field;\n}\n",
+            "{package}.broken.{name}Broken")));
+
+    final List<CompilationDiagnostic> errors = this.verifier.verify(this.generateSourceFiles(sourceFileGenerator))
+        .stream()
+        .filter(CompilationDiagnostic::isError)
+        .collect(Collectors.toList());
+    Assert.assertEquals(this.generatedEntities.size(), errors.size());
+
+    final CompilationDiagnostic userError = errors
+        .stream()
+        .filter(d -> "User".equals(d.getEntityName()))
+        .findFirst()
+        .orElseThrow(() -> new IllegalStateException("Missing diagnostic for 'User'"));
+    Assert.assertEquals("broken", userError.getTemplateName());
+    Assert.assertEquals("pl.pateman.entitygenerator.entity.broken.UserBroken", userError.getClassName());
+    Assert.assertEquals(4, userError.getLineNumber());
+    Assert.assertTrue(userError.getSchemaFiles().contains("core-entities.json"));
+    Assert.assertTrue(userError.getSchemaFiles().contains("secondary-entities.json"));
+  }
+
+  @Test
+  public void verifyAgainstIsolatedClasspath() throws Exception {
+    //  The persistence API is in the class path of the test JVM, but not in the one given to the verifier.
+    final File emptyClassPath = Files.createTempDirectory("verifier").toFile();
+    try {
+      final List<CompilationDiagnostic> errors = new SourceCompilationVerifier(emptyClassPath.getPath(), 2,
+          ForkJoinPool.commonPool())
+          .verify(this.generateSourceFiles(new SourceFileGenerator(new FreemarkerGenerator())))
+          .stream()
+          .filter(CompilationDiagnostic::isError)
+          .collect(Collectors.toList());
+
+      Assert.assertFalse(errors.isEmpty());
+      Assert.assertTrue(errors.toString(), errors.stream().anyMatch(d -> d.getMessage().contains("javax.persistence")));
+    } finally {
+      Assert.assertTrue(emptyClassPath.delete());
+    }
+  }
+}
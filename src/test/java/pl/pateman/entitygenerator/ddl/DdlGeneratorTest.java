@@ -0,0 +1,155 @@
+package pl.pateman.entitygenerator.ddl;
+
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import pl.pateman.entitygenerator.ClasspathEntitiesSchemaScanner;
+import pl.pateman.entitygenerator.EntityGenerator;
+import pl.pateman.entitygenerator.GeneratedEntity;
+import pl.pateman.entitygenerator.SchemaSource;
+import pl.pateman.entitygenerator.SourceFileGenerator;
+import pl.pateman.entitygenerator.ddl.impl.H2Dialect;
+import pl.pateman.entitygenerator.ddl.impl.PostgreSqlDialect;
+import pl.pateman.entitygenerator.exception.DdlGeneratorException;
+import pl.pateman.entitygenerator.generate.impl.FreemarkerGenerator;
+
+public class DdlGeneratorTest {
+
+  private static final String COUPONS = "{\"entities\": [{\"name\": \"Coupon\", \"deployment\": \"coupons\", "
+      + "\"classFile\": \"pl.pateman.entitygenerator.entity.CouponEntity\", \"attributes\": ["
+      + "{\"name\": \"id\", \"type\": \"java.lang.Long\", \"flags\": [\"PRIMARY_KEY\"]}, "
+      + "{\"name\": \"code\", \"type\": \"java.lang.String\"}, {\"name\": \"active\", \"type\": \"boolean\"}], "
+      + "\"indexes\": [{\"name\": \"uk_coupons_active_code\", \"columns\": [\"code\"], \"unique\": true, "
+      + "\"where\": \"active\"}]}]}";
+
+  private Collection<GeneratedEntity> generatedEntities;
+
+  @Before
+  public void initializeTestData() {
+    final ClasspathEntitiesSchemaScanner classpathEntitiesSchemaScanner = new ClasspathEntitiesSchemaScanner();
+    final Collection<InputStream> streams = classpathEntitiesSchemaScanner
+        .retrieveInputStreamsToResources(classpathEntitiesSchemaScanner.findEntitySchemas());
+    this.generatedEntities = new EntityGenerator().generateEntities(streams);
+  }
+
+  @Test
+  public void createSchema() {
+    final DatabaseSchema schema = new DdlGenerator(new H2Dialect()).createSchema(this.generatedEntities);
+
+    //  Six entity tables and one join table.
+    Assert.assertEquals(7, schema.getTables().size());
+    Assert.assertTrue(schema.getTable("order_products").isJoinTable());
+
+    final TableDefinition customers = schema.getTable("customers");
+    Assert.assertEquals("Customer", customers.getEntityName());
+    Assert.assertNotNull(customers.getColumn("id"));
+    Assert.assertTrue(customers.getUniqueColumns().contains("username"));
+
+    final TableDefinition orders = schema.getTable("orders");
+    Assert.assertNotNull(orders.getColumn("custId"));
+    Assert.assertNotNull(orders.getColumn("deliveryAddress_id"));
+    Assert.assertEquals(4, schema.getForeignKeys().size());
+
+    //  Foreign key columns are indexed, and so is the join table, which has no primary key as it stores a list.
+    Assert.assertNotNull(orders.getIndex("idx_orders_custId"));
+    Assert.assertNotNull(orders.getIndex("idx_orders_deliveryAddress_id"));
+    Assert.assertEquals(2, schema.getTable("order_products").getIndexes().size());
+
+    //  Each entity has a numeric primary key, so each one gets a sequence.
+    Assert.assertEquals(6, schema.getSequences().size());
+    Assert.assertEquals(EntityGenerator.DEFAULT_ALLOCATION_SIZE, schema.getSequence("users_seq").getAllocationSize());
+  }
+
+  @Test
+  public void generateStatementsInDependencyOrder() {
+    final List<String> statements = new ArrayList<>();
+    new DdlGenerator(new PostgreSqlDialect()).generate(this.generatedEntities, statements::add);
+
+    Assert.assertEquals(21, statements.size());
+    statements.subList(0, 6).forEach(s -> Assert.assertTrue(s, s.startsWith("CREATE SEQUENCE ")));
+    statements.subList(6, 13).forEach(s -> Assert.assertTrue(s, s.startsWith("CREATE TABLE ")));
+    statements.subList(13, 17).forEach(s -> Assert.assertTrue(s, s.startsWith("CREATE INDEX ")));
+    statements.subList(17, 21).forEach(s -> Assert.assertTrue(s, s.startsWith("ALTER TABLE ")));
+    Assert.assertTrue(statements.contains("CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 50"));
+  }
+
+  @Test
+  public void executeOnH2() throws Exception {
+    try (final Connection connection = DriverManager.getConnection("jdbc:h2:mem:ddl")) {
+      final int statements = new DdlGenerator(new H2Dialect()).execute(this.generatedEntities, connection);
+      Assert.assertEquals(21, statements);
+
+      try (final ResultSet tables = connection.getMetaData().getTables(null, null, "ORDER_PRODUCTS", null)) {
+        Assert.assertTrue(tables.next());
+      }
+      try (final ResultSet foreignKeys = connection.getMetaData().getImportedKeys(null, null, "ORDERS")) {
+        int count = 0;
+        while (foreignKeys.next()) {
+          count++;
+        }
+        Assert.assertEquals(2, count);
+      }
+    }
+  }
+
+  @Test
+  public void declaredIndexes() throws Exception {
+    final ClasspathEntitiesSchemaScanner classpathEntitiesSchemaScanner = new ClasspathEntitiesSchemaScanner();
+    final Collection<GeneratedEntity> indexedEntities = new EntityGenerator().generateEntities(
+        classpathEntitiesSchemaScanner.retrieveInputStreamsToResources(
+            classpathEntitiesSchemaScanner.findEntitySchemas("indexedEntities\\.json")));
+
+    final List<String> statements = new ArrayList<>();
+    new DdlGenerator(new PostgreSqlDialect()).generate(indexedEntities, statements::add);
+    Assert.assertTrue(statements.contains(
+        "CREATE INDEX idx_stock_items_warehouse_id_quantity ON stock_items (warehouse_id, quantity DESC)"));
+    Assert.assertTrue(statements.contains("CREATE INDEX idx_stock_items_in_stock ON stock_items (quantity) "
+        + "WHERE quantity > 0"));
+    Assert.assertTrue(statements.contains("CREATE UNIQUE INDEX uk_warehouses_code ON warehouses (code)"));
+
+    //  H2 has no partial indexes, so it indexes all rows instead.
+    try (final Connection connection = DriverManager.getConnection("jdbc:h2:mem:indexes")) {
+      new DdlGenerator(new H2Dialect()).execute(indexedEntities, connection);
+      try (final ResultSet indexes = connection.getMetaData()
+          .getIndexInfo(null, null, "STOCK_ITEMS", false, false)) {
+        final List<String> indexNames = new ArrayList<>();
+        while (indexes.next()) {
+          indexNames.add(indexes.getString("INDEX_NAME"));
+        }
+        Assert.assertTrue(indexNames.toString(), indexNames.contains("IDX_STOCK_ITEMS_IN_STOCK"));
+      }
+    }
+  }
+
+  @Test
+  public void uniquePartialIndexes() {
+    final Collection<GeneratedEntity> entities = new EntityGenerator()
+        .generateEntitiesFromSources(Collections.singletonList(SchemaSource.of("coupons", COUPONS)));
+
+    final List<String> statements = new ArrayList<>();
+    new DdlGenerator(new PostgreSqlDialect()).generate(entities, statements::add);
+    Assert.assertTrue(statements.contains("CREATE UNIQUE INDEX uk_coupons_active_code ON coupons (code) "
+        + "WHERE active"));
+
+    //  A unique index of all rows would reject rows which the schema allows.
+    try {
+      new DdlGenerator(new H2Dialect()).generate(entities, statements::add);
+      Assert.fail("A unique partial index should not be created without its filter");
+    } catch (final DdlGeneratorException e) {
+      Assert.assertTrue(e.getMessage(), e.getMessage().contains("'uk_coupons_active_code'"));
+    }
+
+    //  Neither can JPA declare it.
+    final String source = new SourceFileGenerator(new FreemarkerGenerator()).generateSourceFile(entities
+        .iterator().next());
+    Assert.assertTrue(source, source.contains("@Index(name = \"uk_coupons_active_code\", columnList = \"code\")"));
+  }
+}
@@ -0,0 +1,112 @@
+package pl.pateman.entitygenerator.ddl;
+
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import pl.pateman.entitygenerator.ClasspathEntitiesSchemaScanner;
+import pl.pateman.entitygenerator.EntityGenerator;
+import pl.pateman.entitygenerator.GeneratedEntity;
+import pl.pateman.entitygenerator.SchemaSource;
+import pl.pateman.entitygenerator.ddl.impl.H2Dialect;
+import pl.pateman.entitygenerator.ddl.impl.PostgreSqlDialect;
+
+public class MigrationGeneratorTest {
+
+  private static final String ACCOUNTS = "{\"entities\": [{\"name\": \"Account\", \"deployment\": \"accounts\", "
+      + "\"classFile\": \"pl.pateman.entitygenerator.entity.AccountEntity\", \"attributes\": ["
+      + "{\"name\": \"id\", \"type\": \"java.lang.Long\", \"flags\": [\"PRIMARY_KEY\"]}, "
+      + "{\"name\": \"name\", \"type\": \"java.lang.String\"}, %s], "
+      + "\"indexes\": [{\"name\": \"idx_accounts_name\", \"columns\": [%s]}]}]}";
+
+  private Collection<GeneratedEntity> coreEntities;
+  private Collection<GeneratedEntity> allEntities;
+
+  private Collection<GeneratedEntity> generateEntities(final String pattern) {
+    final ClasspathEntitiesSchemaScanner classpathEntitiesSchemaScanner = new ClasspathEntitiesSchemaScanner();
+    final Collection<InputStream> streams = classpathEntitiesSchemaScanner
+        .retrieveInputStreamsToResources(classpathEntitiesSchemaScanner.findEntitySchemas(pattern));
+    return new EntityGenerator().generateEntities(streams);
+  }
+
+  @Before
+  public void initializeTestData() {
+    this.coreEntities = this.generateEntities("core-entities\\.json");
+    this.allEntities = this.generateEntities(".*-entities\\.json");
+  }
+
+  @Test
+  public void generateEmptyMigration() {
+    final SchemaMigration migration = new MigrationGenerator(new H2Dialect())
+        .generate(this.allEntities, this.allEntities);
+    Assert.assertTrue(migration.isEmpty());
+    Assert.assertTrue(migration.getWarnings().isEmpty());
+  }
+
+  @Test
+  public void generateNonDestructiveMigration() {
+    final SchemaMigration migration = new MigrationGenerator(new PostgreSqlDialect())
+        .generate(this.allEntities, this.coreEntities);
+
+    Assert.assertTrue(migration.getStatements().stream().noneMatch(s -> s.contains("DROP TABLE")));
+    Assert.assertTrue(migration.getWarnings().stream().anyMatch(w -> w.contains("'employees'")));
+  }
+
+  @Test
+  public void migrateOnH2() throws Exception {
+    try (final Connection connection = DriverManager.getConnection("jdbc:h2:mem:migration")) {
+      new DdlGenerator(new H2Dialect()).execute(this.coreEntities, connection);
+
+      final SchemaMigration migration = new MigrationGenerator(new H2Dialect())
+          .generate(this.coreEntities, this.allEntities);
+      try (final Statement statement = connection.createStatement()) {
+        for (final String sql : migration.getStatements()) {
+          statement.execute(sql);
+        }
+      }
+
+      try (final ResultSet tables = connection.getMetaData().getTables(null, null, "EMPLOYEES", null)) {
+        Assert.assertTrue(tables.next());
+      }
+      try (final ResultSet columns = connection.getMetaData().getColumns(null, null, "USERS", "DATEOFBIRTH")) {
+        Assert.assertTrue(columns.next());
+      }
+    }
+  }
+
+  @Test
+  public void migrateLargeTablesOnline() {
+    final Collection<GeneratedEntity> previous = new EntityGenerator().generateEntitiesFromSources(Collections
+        .singletonList(SchemaSource.of("accounts", String.format(ACCOUNTS,
+            "{\"name\": \"email\", \"type\": \"java.lang.String\"}", "\"name\""))));
+    final Collection<GeneratedEntity> current = new EntityGenerator().generateEntitiesFromSources(Collections
+        .singletonList(SchemaSource.of("accounts", String.format(ACCOUNTS,
+            "{\"name\": \"email\", \"type\": \"java.lang.String\", \"flags\": [\"NOT_NULL\", \"UNIQUE\"]}",
+            "\"name DESC\""))));
+
+    //  Indexes are built concurrently, and the column is made NOT NULL through a constraint validated separately.
+    final SchemaMigration migration = new MigrationGenerator(new PostgreSqlDialect()).generate(previous, current);
+    Assert.assertEquals(Arrays.asList(
+        "DROP INDEX CONCURRENTLY idx_accounts_name",
+        "ALTER TABLE accounts\n  ADD CONSTRAINT nn_accounts_email CHECK (email IS NOT NULL) NOT VALID",
+        "CREATE UNIQUE INDEX CONCURRENTLY uk_accounts_email ON accounts (email)",
+        "ALTER TABLE accounts VALIDATE CONSTRAINT nn_accounts_email",
+        "ALTER TABLE accounts\n  ALTER COLUMN email SET NOT NULL,\n  DROP CONSTRAINT nn_accounts_email,\n"
+            + "  ADD CONSTRAINT uk_accounts_email UNIQUE USING INDEX uk_accounts_email",
+        "CREATE INDEX CONCURRENTLY idx_accounts_name ON accounts (name DESC)"), migration.getStatements());
+    Assert.assertFalse(migration.isTransactional());
+
+    //  Dialects which can't do that lock the table, and warn about it.
+    final SchemaMigration h2Migration = new MigrationGenerator(new H2Dialect()).generate(previous, current);
+    Assert.assertTrue(h2Migration.isTransactional());
+    Assert.assertTrue(h2Migration.getStatements().contains("ALTER TABLE accounts ALTER COLUMN email SET NOT NULL"));
+    Assert.assertTrue(h2Migration.getWarnings().stream().anyMatch(w -> w.contains("'accounts.email' NOT NULL")));
+  }
+}
@@ -0,0 +1,111 @@
+package pl.pateman.entitygenerator.diff;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import pl.pateman.entitygenerator.ClasspathEntitiesSchemaScanner;
+import pl.pateman.entitygenerator.EntityGenerator;
+import pl.pateman.entitygenerator.EntityModelSnapshot;
+import pl.pateman.entitygenerator.GeneratedEntity;
+import pl.pateman.entitygenerator.SourceFileGenerator;
+import pl.pateman.entitygenerator.diff.SchemaChange.Type;
+import pl.pateman.entitygenerator.generate.impl.FreemarkerGenerator;
+
+public class SchemaDiffEngineTest {
+
+  private Collection<GeneratedEntity> coreEntities;
+  private Collection<GeneratedEntity> allEntities;
+
+  private Collection<GeneratedEntity> generateEntities(final String pattern) {
+    final ClasspathEntitiesSchemaScanner classpathEntitiesSchemaScanner = new ClasspathEntitiesSchemaScanner();
+    final Collection<InputStream> streams = classpathEntitiesSchemaScanner
+        .retrieveInputStreamsToResources(classpathEntitiesSchemaScanner.findEntitySchemas(pattern));
+    return new EntityGenerator().generateEntities(streams);
+  }
+
+  @Before
+  public void initializeTestData() {
+    this.coreEntities = this.generateEntities("core-entities\\.json");
+    this.allEntities = this.generateEntities(".*-entities\\.json");
+  }
+
+  @Test
+  public void diffIdenticalModels() {
+    Assert.assertTrue(new SchemaDiffEngine().diff(this.allEntities, this.allEntities).isEmpty());
+  }
+
+  @Test
+  public void diffExtendedModel() {
+    final SchemaDiff diff = new SchemaDiffEngine().diff(this.coreEntities, this.allEntities);
+
+    Assert.assertEquals(1, diff.getChanges(Type.ENTITY_ADDED).size());
+    Assert.assertEquals("Employee", diff.getChanges(Type.ENTITY_ADDED).get(0).getEntityName());
+    Assert.assertTrue(diff.getChanges(Type.ATTRIBUTE_ADDED)
+        .stream()
+        .anyMatch(c -> "User".equals(c.getEntityName()) && "dateOfBirth".equals(c.getAttributeName())));
+    Assert.assertTrue(diff.getChanges(Type.ENTITY_REMOVED).isEmpty());
+  }
+
+  @Test
+  public void diffReducedModel() {
+    final SchemaDiff diff = new SchemaDiffEngine().diff(this.allEntities, this.coreEntities);
+
+    Assert.assertEquals(1, diff.getChanges(Type.ENTITY_REMOVED).size());
+    Assert.assertTrue(diff.getChanges(Type.ATTRIBUTE_REMOVED)
+        .stream()
+        .anyMatch(c -> "User".equals(c.getEntityName()) && "dateOfBirth".equals(c.getAttributeName())));
+  }
+
+  @Test
+  public void diffAgainstSnapshot() {
+    final EntityModelSnapshot snapshot = new EntityModelSnapshot();
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    snapshot.write(this.allEntities, outputStream);
+
+    final Collection<GeneratedEntity> snapshotEntities = snapshot
+        .read(new ByteArrayInputStream(outputStream.toByteArray()));
+    Assert.assertEquals(this.allEntities.size(), snapshotEntities.size());
+    Assert.assertTrue(new SchemaDiffEngine().diff(snapshotEntities, this.allEntities).isEmpty());
+  }
+
+  @Test
+  public void snapshotKeepsIdentity() {
+    final Collection<GeneratedEntity> identityEntities = this.generateEntities("identityEntities\\.json");
+    final EntityModelSnapshot snapshot = new EntityModelSnapshot();
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    snapshot.write(identityEntities, outputStream);
+
+    final GeneratedEntity city = snapshot
+        .read(new ByteArrayInputStream(outputStream.toByteArray()))
+        .stream()
+        .filter(e -> "City".equals(e.getName()))
+        .findFirst()
+        .orElseThrow(IllegalStateException::new);
+    Assert.assertEquals(GeneratedEntity.Identity.PRIMARY_KEY, city.getIdentity());
+  }
+
+  @Test
+  public void snapshotKeepsFetchProfiles() {
+    final Collection<GeneratedEntity> entities = this.generateEntities("(core-entities|fetchProfileEntities)\\.json");
+    final EntityModelSnapshot snapshot = new EntityModelSnapshot();
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    snapshot.write(entities, outputStream);
+    final Collection<GeneratedEntity> snapshotEntities = snapshot
+        .read(new ByteArrayInputStream(outputStream.toByteArray()));
+
+    final SourceFileGenerator sourceFileGenerator = new SourceFileGenerator(new FreemarkerGenerator());
+    final Map<String, String> expectedSources = entities
+        .stream()
+        .collect(Collectors.toMap(GeneratedEntity::getName, sourceFileGenerator::generateSourceFile));
+    Assert.assertTrue(expectedSources.get("Author").contains("@NamedEntityGraphs"));
+    Assert.assertEquals(expectedSources, snapshotEntities
+        .stream()
+        .collect(Collectors.toMap(GeneratedEntity::getName, sourceFileGenerator::generateSourceFile)));
+  }
+}
@@ -0,0 +1,84 @@
+package pl.pateman.entitygenerator.jdbc;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import javax.persistence.Entity;
+import javax.tools.ToolProvider;
+import org.junit.Assert;
+import pl.pateman.entitygenerator.GeneratedEntity;
+import pl.pateman.entitygenerator.GeneratedSourceFile;
+import pl.pateman.entitygenerator.SourceFileGenerator;
+
+/**
+ * Compiles sources generated for the given entities into a temporary directory and loads the resulting classes, so
+ * that generated JDBC code can be run against H2.
+ */
+final class GeneratedClasses implements AutoCloseable {
+
+  static final String ENTITY_PACKAGE = "pl.pateman.entitygenerator.entity.";
+
+  private final Path outputDirectory;
+  private final URLClassLoader classLoader;
+
+  GeneratedClasses(final Collection<GeneratedEntity> generatedEntities,
+      final SourceFileGenerator sourceFileGenerator) throws Exception {
+    this.outputDirectory = Files.createTempDirectory("generatedClasses");
+    final List<String> arguments = new ArrayList<>(Arrays.asList("-d", this.outputDirectory.toString(), "-cp",
+        new File(Entity.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath()));
+    for (final GeneratedEntity generatedEntity : generatedEntities) {
+      for (final GeneratedSourceFile sourceFile : sourceFileGenerator.generateSourceFiles(generatedEntity)) {
+        final Path sourcePath = this.outputDirectory.resolve(sourceFile.getClassName().replace('.', '/') + ".java");
+        Files.createDirectories(sourcePath.getParent());
+        Files.write(sourcePath, sourceFile.getSource().getBytes(StandardCharsets.UTF_8));
+        arguments.add(sourcePath.toString());
+      }
+    }
+    Assert.assertEquals(0, ToolProvider.getSystemJavaCompiler().run(null, null, null,
+        arguments.toArray(new String[0])));
+    this.classLoader = new URLClassLoader(new URL[]{this.outputDirectory.toUri().toURL()},
+        this.getClass().getClassLoader());
+  }
+
+  Class<?> loadClass(final String simpleClassName) throws ClassNotFoundException {
+    return this.classLoader.loadClass(ENTITY_PACKAGE + simpleClassName);
+  }
+
+  Object newEntity(final String className, final Long id) throws Exception {
+    final Object entity = this.loadClass(className).newInstance();
+    set(entity, "setId", id);
+    return entity;
+  }
+
+  static void set(final Object entity, final String setterName, final Object value) throws Exception {
+    for (final Method method : entity.getClass().getMethods()) {
+      if (method.getName().equals(setterName)) {
+        method.invoke(entity, value);
+        return;
+      }
+    }
+    throw new NoSuchMethodException(setterName);
+  }
+
+  static Object get(final Object object, final String getterName) throws Exception {
+    return object.getClass().getMethod(getterName).invoke(object);
+  }
+
+  @Override
+  public void close() throws Exception {
+    this.classLoader.close();
+    Files.walk(this.outputDirectory)
+        .sorted(Collections.reverseOrder())
+        .map(Path::toFile)
+        .forEach(File::delete);
+  }
+}
@@ -0,0 +1,121 @@
+package pl.pateman.entitygenerator.jdbc;
+
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import pl.pateman.entitygenerator.ClasspathEntitiesSchemaScanner;
+import pl.pateman.entitygenerator.EntityGenerator;
+import pl.pateman.entitygenerator.GeneratedEntity;
+import pl.pateman.entitygenerator.SourceFileGenerator;
+import pl.pateman.entitygenerator.SourceFileTemplate;
+import pl.pateman.entitygenerator.ddl.DdlGenerator;
+import pl.pateman.entitygenerator.ddl.impl.H2Dialect;
+import pl.pateman.entitygenerator.generate.impl.FreemarkerGenerator;
+
+public class JdbcBatchWriterGeneratorTest {
+
+  private Collection<GeneratedEntity> generatedEntities;
+  private GeneratedClasses generatedClasses;
+
+  @Before
+  public void initializeTestData() throws Exception {
+    final ClasspathEntitiesSchemaScanner classpathEntitiesSchemaScanner = new ClasspathEntitiesSchemaScanner();
+    final Collection<InputStream> streams = classpathEntitiesSchemaScanner
+        .retrieveInputStreamsToResources(classpathEntitiesSchemaScanner.findEntitySchemas("core-entities\\.json"));
+    this.generatedEntities = new EntityGenerator().generateEntities(streams);
+
+    //  Compile generated entities along with their batch writers, so that the writers can be run against H2.
+    final FreemarkerGenerator freemarkerGenerator = new FreemarkerGenerator();
+    this.generatedClasses = new GeneratedClasses(this.generatedEntities, new SourceFileGenerator(Arrays.asList(
+        new SourceFileTemplate("entity", freemarkerGenerator),
+        new JdbcBatchWriterGenerator(freemarkerGenerator, new H2Dialect()).createTemplate())));
+  }
+
+  @After
+  public void cleanUp() throws Exception {
+    this.generatedClasses.close();
+  }
+
+  private int insert(final Connection connection, final String entityName, final Collection<?> entities,
+      final Object... writerArguments) throws Exception {
+    final Class<?> writerClass = this.generatedClasses.loadClass("jdbc." + entityName + "BatchWriter");
+    final Constructor<?> constructor = writerArguments.length == 0 ? writerClass.getConstructor()
+        : writerClass.getConstructor(int.class, int.class);
+    final Object writer = constructor.newInstance(writerArguments);
+    return (Integer) writerClass.getMethod("insert", Connection.class, Collection.class)
+        .invoke(writer, connection, entities);
+  }
+
+  private static int count(final Connection connection, final String query) throws Exception {
+    try (final Statement statement = connection.createStatement();
+        final ResultSet resultSet = statement.executeQuery(query)) {
+      Assert.assertTrue(resultSet.next());
+      return resultSet.getInt(1);
+    }
+  }
+
+  @Test
+  public void insertEntitiesOnH2() throws Exception {
+    try (final Connection connection = DriverManager.getConnection("jdbc:h2:mem:batchWriters")) {
+      new DdlGenerator(new H2Dialect()).execute(this.generatedEntities, connection);
+
+      final Object customer = this.generatedClasses.newEntity("CustomerEntity", 1L);
+      GeneratedClasses.set(customer, "setUsername", "customer");
+      final Object address = this.generatedClasses.newEntity("AddressEntity", 1L);
+      GeneratedClasses.set(address, "setCity", "Warsaw");
+      final List<Object> products = Arrays.asList(this.generatedClasses.newEntity("ProductEntity", 1L),
+          this.generatedClasses.newEntity("ProductEntity", 2L));
+
+      //  Five orders with two products each, written two rows per statement and two statements per batch, make sure
+      //  that both full batches, a partial batch and the remaining rows are inserted.
+      final List<Object> orders = new ArrayList<>();
+      for (long i = 1; i <= 5; i++) {
+        final Object order = this.generatedClasses.newEntity("OrderEntity", i);
+        GeneratedClasses.set(order, "setCustomer", customer);
+        GeneratedClasses.set(order, "setDeliveryAddress", i == 1 ? address : null);
+        GeneratedClasses.set(order, "setProduct", products);
+        orders.add(order);
+      }
+
+      Assert.assertEquals(1, this.insert(connection, "Customer", Collections.singletonList(customer)));
+      Assert.assertEquals(1, this.insert(connection, "Address", Collections.singletonList(address)));
+      Assert.assertEquals(2, this.insert(connection, "Product", products));
+      Assert.assertEquals(15, this.insert(connection, "Order", orders, 2, 2));
+
+      Assert.assertEquals(5, count(connection, "SELECT COUNT(*) FROM orders WHERE custId = 1"));
+      Assert.assertEquals(1, count(connection, "SELECT COUNT(*) FROM orders WHERE deliveryAddress_id = 1"));
+      Assert.assertEquals(10, count(connection, "SELECT COUNT(*) FROM order_products"));
+      Assert.assertEquals(1, count(connection, "SELECT COUNT(*) FROM customers WHERE username = 'customer'"));
+    }
+  }
+
+  @Test
+  public void maxParametersOfDialect() throws Exception {
+    final Class<?> writerClass = this.generatedClasses.loadClass("jdbc.ProductBatchWriter");
+    final Field maxParameters = writerClass.getDeclaredField("MAX_PARAMETERS");
+    maxParameters.setAccessible(true);
+    Assert.assertEquals(new H2Dialect().getMaxBindParameters(), maxParameters.getInt(null));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void tooManyRowsPerStatement() throws Throwable {
+    try (final Connection connection = DriverManager.getConnection("jdbc:h2:mem:batchWritersLimit")) {
+      this.insert(connection, "Product", Collections.emptyList(), 20000, 1);
+    } catch (final ReflectiveOperationException e) {
+      throw e.getCause();
+    }
+  }
+}
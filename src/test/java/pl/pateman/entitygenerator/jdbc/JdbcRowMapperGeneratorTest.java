@@ -0,0 +1,147 @@
+package pl.pateman.entitygenerator.jdbc;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import pl.pateman.entitygenerator.ClasspathEntitiesSchemaScanner;
+import pl.pateman.entitygenerator.EntityGenerator;
+import pl.pateman.entitygenerator.GeneratedEntity;
+import pl.pateman.entitygenerator.SourceFileGenerator;
+import pl.pateman.entitygenerator.SourceFileTemplate;
+import pl.pateman.entitygenerator.ddl.DdlGenerator;
+import pl.pateman.entitygenerator.ddl.impl.H2Dialect;
+import pl.pateman.entitygenerator.generate.impl.FreemarkerGenerator;
+
+public class JdbcRowMapperGeneratorTest {
+
+  private Collection<GeneratedEntity> generatedEntities;
+  private SourceFileGenerator sourceFileGenerator;
+  private GeneratedClasses generatedClasses;
+
+  @Before
+  public void initializeTestData() throws Exception {
+    final ClasspathEntitiesSchemaScanner classpathEntitiesSchemaScanner = new ClasspathEntitiesSchemaScanner();
+    final Collection<InputStream> streams = classpathEntitiesSchemaScanner
+        .retrieveInputStreamsToResources(classpathEntitiesSchemaScanner.findEntitySchemas("jdbcEntities\\.json"));
+    this.generatedEntities = new EntityGenerator().generateEntities(streams);
+
+    final FreemarkerGenerator freemarkerGenerator = new FreemarkerGenerator();
+    final H2Dialect dialect = new H2Dialect();
+    final List<SourceFileTemplate> templates = new ArrayList<>();
+    templates.add(new SourceFileTemplate("entity", freemarkerGenerator));
+    templates.add(new JdbcBatchWriterGenerator(freemarkerGenerator, dialect).createTemplate());
+    templates.addAll(new JdbcRowMapperGenerator(freemarkerGenerator, dialect).createTemplates());
+    this.sourceFileGenerator = new SourceFileGenerator(templates);
+    this.generatedClasses = new GeneratedClasses(this.generatedEntities, this.sourceFileGenerator);
+  }
+
+  @After
+  public void cleanUp() throws Exception {
+    this.generatedClasses.close();
+  }
+
+  private GeneratedEntity findEntity(final String name) {
+    return this.generatedEntities.stream().filter(e -> name.equals(e.getName())).findFirst().orElse(null);
+  }
+
+  private void insertShipments(final Connection connection) throws Exception {
+    new DdlGenerator(new H2Dialect()).execute(this.generatedEntities, connection);
+
+    final Object carrier = this.generatedClasses.newEntity("CarrierEntity", 1L);
+    GeneratedClasses.set(carrier, "setName", "Carrier");
+    final Object parcel = this.generatedClasses.newEntity("ShipmentEntity", 1L);
+    GeneratedClasses.set(parcel, "setWeight", 2.5D);
+    GeneratedClasses.set(parcel, "setParcels", 3);
+    GeneratedClasses.set(parcel, "setPrice", new BigDecimal("10.50"));
+    GeneratedClasses.set(parcel, "setCarrier", carrier);
+    final Object letter = this.generatedClasses.newEntity("ShipmentEntity", 2L);
+
+    for (final Object entity : Arrays.asList(carrier, parcel, letter)) {
+      final Class<?> writerClass = this.generatedClasses
+          .loadClass("jdbc." + entity.getClass().getSimpleName().replace("Entity", "BatchWriter"));
+      writerClass.getMethod("insert", Connection.class, Collection.class)
+          .invoke(writerClass.newInstance(), connection, Collections.singletonList(entity));
+    }
+  }
+
+  @Test
+  public void generateRowMapperSources() {
+    final String source = this.sourceFileGenerator.generateSourceFiles(this.findEntity("Shipment")).stream()
+        .filter(s -> JdbcRowMapperGenerator.TEMPLATE_NAME.equals(s.getTemplateName()))
+        .findFirst()
+        .orElseThrow(IllegalStateException::new)
+        .getSource();
+
+    Assert.assertTrue(source.contains("static final String[] COLUMNS = {"));
+    Assert.assertTrue(source.contains("\"carrier_id\""));
+    Assert.assertTrue(source.contains("entity.setWeight(resultSet.getDouble(this.weightIndex));"));
+    Assert.assertTrue(source.contains("getIntOrNull(resultSet, this.parcelsIndex)"));
+    Assert.assertTrue(source.contains("resultSet.getObject(this.priceIndex, java.math.BigDecimal.class)"));
+  }
+
+  @Test
+  public void mapRowsOnH2() throws Exception {
+    try (final Connection connection = DriverManager.getConnection("jdbc:h2:mem:rowMappers")) {
+      this.insertShipments(connection);
+
+      final Class<?> mapperClass = this.generatedClasses.loadClass("jdbc.ShipmentRowMapper");
+      final Object mapper = mapperClass.getMethod("forSelect").invoke(null);
+      final List<?> rows;
+      try (final Statement statement = connection.createStatement();
+          final ResultSet resultSet = statement
+              .executeQuery(mapperClass.getField("SELECT_SQL").get(null) + " ORDER BY id")) {
+        rows = (List<?>) mapperClass.getMethod("mapRows", ResultSet.class).invoke(mapper, resultSet);
+      }
+
+      Assert.assertEquals(2, rows.size());
+      Assert.assertEquals(2.5D, GeneratedClasses.get(rows.get(0), "getWeight"));
+      Assert.assertEquals(3, GeneratedClasses.get(rows.get(0), "getParcels"));
+      Assert.assertEquals(0, new BigDecimal("10.50").compareTo((BigDecimal) GeneratedClasses.get(rows.get(0),
+          "getPrice")));
+      Assert.assertEquals(1L, GeneratedClasses.get(rows.get(0), "getCarrierId"));
+
+      //  Nullable columns stay null, even though they are read with primitive accessors.
+      Assert.assertNull(GeneratedClasses.get(rows.get(1), "getParcels"));
+      Assert.assertNull(GeneratedClasses.get(rows.get(1), "getCarrierId"));
+    }
+  }
+
+  @Test
+  public void mapEntitiesByColumnLabels() throws Exception {
+    try (final Connection connection = DriverManager.getConnection("jdbc:h2:mem:rowMappersByLabel")) {
+      this.insertShipments(connection);
+
+      final Class<?> mapperClass = this.generatedClasses.loadClass("jdbc.ShipmentRowMapper");
+      try (final Statement statement = connection.createStatement();
+          final ResultSet resultSet = statement
+              .executeQuery("SELECT carrier_id, weight, id FROM shipments WHERE id = 1")) {
+        final Object mapper = mapperClass.getMethod("forResultSet", ResultSetMetaData.class)
+            .invoke(null, resultSet.getMetaData());
+        Assert.assertTrue(resultSet.next());
+        final Object shipment = mapperClass.getMethod("mapEntity", ResultSet.class).invoke(mapper, resultSet);
+
+        Assert.assertEquals(1L, GeneratedClasses.get(shipment, "getId"));
+        Assert.assertEquals(2.5D, GeneratedClasses.get(shipment, "getWeight"));
+
+        //  Columns which have not been selected are not mapped, and relations only carry the foreign key.
+        Assert.assertNull(GeneratedClasses.get(shipment, "getParcels"));
+        final Object carrier = GeneratedClasses.get(shipment, "getCarrier");
+        Assert.assertEquals(1L, GeneratedClasses.get(carrier, "getId"));
+        Assert.assertNull(GeneratedClasses.get(carrier, "getName"));
+      }
+    }
+  }
+}
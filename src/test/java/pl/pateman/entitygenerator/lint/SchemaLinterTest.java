@@ -0,0 +1,122 @@
+package pl.pateman.entitygenerator.lint;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import pl.pateman.entitygenerator.ClasspathEntitiesSchemaScanner;
+import pl.pateman.entitygenerator.EntityGenerator;
+import pl.pateman.entitygenerator.GeneratedEntity;
+import pl.pateman.entitygenerator.exception.EntityGeneratorException;
+import pl.pateman.entitygenerator.lint.impl.BagCollectionRule;
+import pl.pateman.entitygenerator.lint.impl.WideEntityRule;
+
+public class SchemaLinterTest {
+
+  private Collection<GeneratedEntity> generatedEntities;
+
+  private static List<String> describe(final LintReport report) {
+    return report
+        .getFindings()
+        .stream()
+        .map(f -> f.getRuleId() + ":" + f.getLocation())
+        .collect(Collectors.toList());
+  }
+
+  @Before
+  public void initializeTestData() {
+    final ClasspathEntitiesSchemaScanner classpathEntitiesSchemaScanner = new ClasspathEntitiesSchemaScanner();
+    this.generatedEntities = new EntityGenerator().generateEntitiesFromSources(classpathEntitiesSchemaScanner
+        .retrieveSchemaSources(classpathEntitiesSchemaScanner.findEntitySchemas("lintEntities\\.json")));
+  }
+
+  @Test
+  public void builtInRules() {
+    final LintReport report = new SchemaLinter().lint(this.generatedEntities);
+
+    //  Book.library is covered by an index of Book, and Genre.books doesn't own the join table.
+    Assert.assertEquals(Arrays.asList("bag-collection:Book.genres", "unindexed-relation:Book.genres",
+        "bag-collection:Genre.books", "bag-collection:Library.books", "eager-collection:Library.books",
+        "unindexed-relation:Reader.library"), describe(report));
+    Assert.assertFalse(report.hasErrors());
+    Assert.assertEquals(6, report.count(LintSeverity.WARNING));
+    Assert.assertTrue(report.getFindings().get(1).getMessage().contains("'books_genres'"));
+    Assert.assertEquals(Collections.singletonList("lintEntities.json"),
+        report.getFindings().get(0).getSchemaFiles().stream().map(s -> s.replaceAll(".*/", ""))
+            .collect(Collectors.toList()));
+  }
+
+  @Test
+  public void severities() {
+    final SchemaLinter linter = new SchemaLinter(Arrays.asList(new BagCollectionRule(), new WideEntityRule(3)),
+        SchemaLinter.parseSeverities("bag-collection=off, wide-entity=error"));
+    final LintReport report = linter.lint(this.generatedEntities);
+
+    Assert.assertEquals(Collections.singletonList("wide-entity:Book"), describe(report));
+    Assert.assertTrue(report.hasErrors());
+    Assert.assertEquals(1, report.getRules().size());
+    Assert.assertTrue(report.getFindings().get(0).getMessage().startsWith("Entity has 5 columns"));
+  }
+
+  @Test
+  public void sarif() {
+    final LintReport report = new SchemaLinter().lint(this.generatedEntities);
+    final JsonObject log = new JsonParser().parse(report.toSarif()).getAsJsonObject();
+
+    Assert.assertEquals("2.1.0", log.get("version").getAsString());
+    final JsonObject run = log.getAsJsonArray("runs").get(0).getAsJsonObject();
+    final JsonArray rules = run.getAsJsonObject("tool").getAsJsonObject("driver").getAsJsonArray("rules");
+    Assert.assertEquals(4, rules.size());
+
+    final JsonObject result = run.getAsJsonArray("results").get(0).getAsJsonObject();
+    Assert.assertEquals("bag-collection", result.get("ruleId").getAsString());
+    Assert.assertEquals("bag-collection", rules.get(result.get("ruleIndex").getAsInt()).getAsJsonObject()
+        .get("id").getAsString());
+    Assert.assertEquals("warning", result.get("level").getAsString());
+    final JsonObject location = result.getAsJsonArray("locations").get(0).getAsJsonObject();
+    Assert.assertEquals("Book.genres", location.getAsJsonArray("logicalLocations").get(0).getAsJsonObject()
+        .get("fullyQualifiedName").getAsString());
+    Assert.assertTrue(location.getAsJsonObject("physicalLocation").getAsJsonObject("artifactLocation").get("uri")
+        .getAsString().endsWith("lintEntities.json"));
+
+    final JsonObject json = new JsonParser().parse(report.toJson()).getAsJsonObject();
+    Assert.assertEquals(6, json.getAsJsonArray("findings").size());
+  }
+
+  @Test(expected = EntityGeneratorException.class)
+  public void failingRule() {
+    new SchemaLinter(Collections.singletonList(new LintRule() {
+      @Override
+      public String getId() {
+        return "broken";
+      }
+
+      @Override
+      public String getDescription() {
+        return "Broken rule";
+      }
+
+      @Override
+      public LintSeverity getDefaultSeverity() {
+        return LintSeverity.ERROR;
+      }
+
+      @Override
+      public void check(final GeneratedEntity entity, final LintContext context) {
+        throw new IllegalStateException("Broken rule");
+      }
+    }), Collections.emptyMap()).lint(this.generatedEntities);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void unknownRuleSeverity() {
+    new SchemaLinter(SchemaLinter.builtInRules(), SchemaLinter.parseSeverities("n-plus-one=error"));
+  }
+}
@@ -0,0 +1,167 @@
+package pl.pateman.entitygenerator.output;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Scanner;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import pl.pateman.entitygenerator.BlockingIoExecutor;
+import pl.pateman.entitygenerator.ClasspathEntitiesSchemaScanner;
+import pl.pateman.entitygenerator.EntityGenerator;
+import pl.pateman.entitygenerator.GeneratedEntity;
+import pl.pateman.entitygenerator.GeneratedSourceFile;
+import pl.pateman.entitygenerator.SourceFileGenerator;
+import pl.pateman.entitygenerator.generate.impl.FreemarkerGenerator;
+import pl.pateman.entitygenerator.output.impl.DirectoryOutputRoot;
+import pl.pateman.entitygenerator.output.impl.InMemoryOutputRoot;
+import pl.pateman.entitygenerator.output.impl.ZipOutputRoot;
+
+public class OutputRootTest {
+
+  private static final String USER_ENTITY_PATH = "pl/pateman/entitygenerator/entity/UserEntity.java";
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private List<GeneratedSourceFile> sourceFiles;
+
+  @Before
+  public void generateSources() {
+    final ClasspathEntitiesSchemaScanner classpathEntitiesSchemaScanner = new ClasspathEntitiesSchemaScanner();
+    final Collection<GeneratedEntity> generatedEntities = new EntityGenerator().generateEntities(
+        classpathEntitiesSchemaScanner.retrieveInputStreamsToResources(classpathEntitiesSchemaScanner
+            .findEntitySchemas()));
+    final SourceFileGenerator sourceFileGenerator = new SourceFileGenerator(new FreemarkerGenerator());
+    this.sourceFiles = new ArrayList<>();
+    generatedEntities.forEach(e -> this.sourceFiles.addAll(sourceFileGenerator.generateSourceFiles(e)));
+  }
+
+  private String findSource(final String simpleClassName) {
+    return this.sourceFiles
+        .stream()
+        .filter(s -> simpleClassName.equals(s.getSimpleClassName()))
+        .findFirst()
+        .map(GeneratedSourceFile::getSource)
+        .orElse(null);
+  }
+
+  @Test
+  public void writeSourcesIntoDirectory() throws IOException {
+    final Path directory = this.temporaryFolder.getRoot().toPath().resolve("generated");
+    try (final OutputRoot outputRoot = new DirectoryOutputRoot(directory)) {
+      outputRoot.writeSources(this.sourceFiles);
+    }
+
+    //  Package segments are nested directories on every platform.
+    final Path userEntity = directory.resolve("pl").resolve("pateman").resolve("entitygenerator").resolve("entity")
+        .resolve("UserEntity.java");
+    Assert.assertTrue(Files.isRegularFile(userEntity));
+    Assert.assertEquals(this.findSource("UserEntity"), new String(Files.readAllBytes(userEntity),
+        StandardCharsets.UTF_8));
+    try (final Stream<Path> files = Files.list(userEntity.getParent())) {
+      Assert.assertEquals(this.sourceFiles.size(), files.count());
+    }
+  }
+
+  @Test
+  public void writeSourcesIntoMemory() throws IOException {
+    final InMemoryOutputRoot outputRoot = new InMemoryOutputRoot();
+    outputRoot.writeSources(this.sourceFiles);
+
+    Assert.assertEquals(Arrays.asList("pl", "pl/pateman", "pl/pateman/entitygenerator",
+        "pl/pateman/entitygenerator/entity"), new ArrayList<>(outputRoot.getDirectories()));
+    Assert.assertEquals(this.sourceFiles.size(), outputRoot.getFiles().size());
+    Assert.assertEquals(this.findSource("UserEntity"), outputRoot.getFiles().get(USER_ENTITY_PATH));
+  }
+
+  @Test
+  public void writeSourcesConcurrently() throws IOException {
+    final InMemoryOutputRoot outputRoot = new InMemoryOutputRoot();
+    try (final BlockingIoExecutor ioExecutor = new BlockingIoExecutor(4)) {
+      outputRoot.writeSources(this.sourceFiles, ioExecutor);
+    }
+
+    Assert.assertEquals(this.sourceFiles.size(), outputRoot.getFiles().size());
+    Assert.assertEquals(this.findSource("UserEntity"), outputRoot.getFiles().get(USER_ENTITY_PATH));
+  }
+
+  @Test
+  public void writeSourcesIntoArchive() throws IOException {
+    final Path archive = this.temporaryFolder.getRoot().toPath().resolve("sources.zip");
+    try (final OutputRoot outputRoot = new ZipOutputRoot(archive)) {
+      outputRoot.writeSources(this.sourceFiles);
+      outputRoot.write("README.txt", "Generated");
+    }
+    final byte[] firstArchive = Files.readAllBytes(archive);
+
+    final List<String> entries = new ArrayList<>();
+    String userEntitySource = null;
+    try (final InputStream inputStream = Files.newInputStream(archive);
+        final ZipInputStream zipInputStream = new ZipInputStream(inputStream)) {
+      for (ZipEntry entry = zipInputStream.getNextEntry(); entry != null; entry = zipInputStream.getNextEntry()) {
+        entries.add(entry.getName());
+        if (USER_ENTITY_PATH.equals(entry.getName())) {
+          userEntitySource = new Scanner(zipInputStream, "UTF-8").useDelimiter("\\A").next();
+        }
+      }
+    }
+    Assert.assertEquals("pl/", entries.get(0));
+    Assert.assertEquals(1, entries.stream().filter("pl/pateman/entitygenerator/entity/"::equals).count());
+    Assert.assertTrue(entries.contains("README.txt"));
+    Assert.assertEquals(this.findSource("UserEntity"), userEntitySource);
+
+    //  The same files produce the same archive.
+    try (final OutputRoot outputRoot = new ZipOutputRoot(archive)) {
+      outputRoot.writeSources(this.sourceFiles);
+      outputRoot.write("README.txt", "Generated");
+    }
+    Assert.assertArrayEquals(firstArchive, Files.readAllBytes(archive));
+  }
+
+  @Test
+  public void writeSourcesIntoArchiveConcurrently() throws IOException {
+    final Path archive = this.temporaryFolder.getRoot().toPath().resolve("sources.zip");
+    try (final OutputRoot outputRoot = new ZipOutputRoot(archive)) {
+      outputRoot.writeSources(this.sourceFiles);
+    }
+    final byte[] sequentialArchive = Files.readAllBytes(archive);
+
+    //  Entries are written in the order of their paths, rather than in the order in which writes complete.
+    final List<GeneratedSourceFile> reversedSourceFiles = new ArrayList<>(this.sourceFiles);
+    Collections.reverse(reversedSourceFiles);
+    for (final List<GeneratedSourceFile> sourceFiles : Arrays.asList(this.sourceFiles, reversedSourceFiles)) {
+      try (final BlockingIoExecutor ioExecutor = new BlockingIoExecutor(8);
+          final OutputRoot outputRoot = new ZipOutputRoot(archive)) {
+        outputRoot.writeSources(sourceFiles, ioExecutor);
+      }
+      Assert.assertArrayEquals(sequentialArchive, Files.readAllBytes(archive));
+    }
+  }
+
+  @Test
+  public void invalidPaths() throws IOException {
+    final InMemoryOutputRoot outputRoot = new InMemoryOutputRoot();
+    for (final String path : Arrays.asList("", "/etc/passwd", "a/../../b", "a//b", "a\\b", "C:/a", "a/./b")) {
+      try {
+        outputRoot.write(path, "");
+        Assert.fail("Path '" + path + "' should be rejected");
+      } catch (final IllegalArgumentException e) {
+        Assert.assertTrue(outputRoot.getFiles().isEmpty());
+      }
+    }
+  }
+}
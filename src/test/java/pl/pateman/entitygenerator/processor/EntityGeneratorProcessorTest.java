@@ -0,0 +1,100 @@
+package pl.pateman.entitygenerator.processor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import javax.tools.Diagnostic;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class EntityGeneratorProcessorTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path classesDirectory;
+  private Path generatedDirectory;
+
+  /**
+   * Compiles a class annotated with the given annotation, with {@link EntityGeneratorProcessor}.
+   *
+   * @param annotation Annotation of the class.
+   * @return Reported diagnostics.
+   */
+  private List<Diagnostic<? extends JavaFileObject>> compile(final String annotation) throws IOException {
+    final Path root = this.temporaryFolder.getRoot().toPath();
+    final Path sourceFile = root.resolve("src").resolve("Model.java");
+    Files.createDirectories(sourceFile.getParent());
+    Files.write(sourceFile, (annotation + "\npublic class Model {\n}\n").getBytes(StandardCharsets.UTF_8));
+    this.classesDirectory = Files.createDirectories(root.resolve("classes"));
+    this.generatedDirectory = Files.createDirectories(root.resolve("generated"));
+
+    final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    try (final StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, Locale.ROOT,
+        StandardCharsets.UTF_8)) {
+      final CompilationTask task = compiler.getTask(null, fileManager, diagnostics, Arrays.asList("-d",
+          this.classesDirectory.toString(), "-s", this.generatedDirectory.toString(), "-cp",
+          System.getProperty("java.class.path")), null,
+          fileManager.getJavaFileObjectsFromFiles(Collections.singletonList(sourceFile.toFile())));
+      task.setProcessors(Collections.singletonList(new EntityGeneratorProcessor()));
+      task.call();
+    }
+    return diagnostics.getDiagnostics();
+  }
+
+  private static List<String> errors(final List<Diagnostic<? extends JavaFileObject>> diagnostics) {
+    return diagnostics
+        .stream()
+        .filter(d -> d.getKind() == Kind.ERROR)
+        .map(d -> d.getMessage(Locale.ROOT))
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void generateEntitiesDuringCompilation() throws IOException {
+    final List<Diagnostic<? extends JavaFileObject>> diagnostics = this.compile(
+        "@pl.pateman.entitygenerator.processor.GenerateEntities(\"core-entities\\\\.json\")");
+
+    Assert.assertEquals(Collections.emptyList(), errors(diagnostics));
+    Assert.assertTrue(Files.isRegularFile(this.generatedDirectory.resolve("pl/pateman/entitygenerator/entity")
+        .resolve("UserEntity.java")));
+    Assert.assertTrue(Files.isRegularFile(this.classesDirectory.resolve("pl/pateman/entitygenerator/entity")
+        .resolve("UserEntity.class")));
+    Assert.assertTrue(Files.isRegularFile(this.classesDirectory.resolve("Model.class")));
+  }
+
+  @Test
+  public void reportInvalidSchemas() throws IOException {
+    final List<String> errors = errors(this.compile(
+        "@pl.pateman.entitygenerator.processor.GenerateEntities(\"entitiesWithoutDeployment\\\\.json\")"));
+
+    Assert.assertEquals(1, errors.size());
+    Assert.assertTrue(errors.get(0).startsWith("Unable to generate entities"));
+  }
+
+  @Test
+  public void warnAboutMissingSchemas() throws IOException {
+    final List<Diagnostic<? extends JavaFileObject>> diagnostics = this.compile(
+        "@pl.pateman.entitygenerator.processor.GenerateEntities(\"missing\\\\.json\")");
+
+    Assert.assertEquals(Collections.emptyList(), errors(diagnostics));
+    Assert.assertTrue(diagnostics.stream().anyMatch(d -> d.getKind() == Kind.WARNING && d.getMessage(Locale.ROOT)
+        .startsWith("No entity schemas match")));
+  }
+}